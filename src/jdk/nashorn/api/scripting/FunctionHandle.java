@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.api.scripting;
+
+import static jdk.nashorn.internal.lookup.Lookup.MH;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import javax.script.ScriptException;
+import jdk.nashorn.internal.objects.Global;
+import jdk.nashorn.internal.runtime.Context;
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import jdk.nashorn.internal.runtime.linker.Bootstrap;
+
+/**
+ * A script function resolved once for repeated calls from Java, as returned by
+ * {@link NashornScriptEngine#getFunctionHandle(String, MethodType)} and
+ * {@link NashornScriptEngine#getFunctionHandle(Object, String, MethodType)}.
+ * <p>
+ * Unlike {@link javax.script.Invocable#invokeFunction(String, Object...)}, calls through a function handle
+ * do not look the function up by name, and the call is linked like a call from script code, with the
+ * parameter and return types of the handle's {@link #type() type}. Calls through the method handle
+ * returned by {@link #getMethodHandle()} do not box primitive arguments or allocate argument arrays.
+ * As with {@code Invocable}, script objects are passed and returned as {@link ScriptObjectMirror}s, and
+ * the function is called with its global as the current global.
+ * <p>
+ * A function handle keeps calling the function it was resolved to, even if the script later assigns
+ * another function to the same name.
+ */
+public final class FunctionHandle {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle ENTER_GLOBAL     = findOwnMH("enterGlobal", Object.class);
+    private static final MethodHandle EXIT_GLOBAL      = findOwnMH("exitGlobal", void.class, Object.class);
+    private static final MethodHandle HANDLE_EXCEPTION = findOwnMH("handleException", Object.class, Throwable.class, Object.class);
+    private static final MethodHandle EXPORT           = findOwnMH("export", Object.class, Object.class);
+    private static final MethodHandle UNWRAP           = MH.findStatic(LOOKUP, ScriptObjectMirror.class, "unwrap", MH.type(Object.class, Object.class, Object.class));
+
+    // global of the function, made current for the duration of each call
+    private final Global global;
+
+    // handle for calls to the function with the global made current
+    private final MethodHandle methodHandle;
+
+    // same as methodHandle, with all arguments passed in an Object array and the return value as Object
+    private final MethodHandle spreader;
+
+    FunctionHandle(final Global global, final ScriptFunction function, final Object self, final MethodType type) {
+        this.global = global;
+
+        // dyn:call (callee, this, args...), linked and relinked like any call site in script code
+        MethodHandle mh = Bootstrap.createDynamicInvoker("dyn:call", type.insertParameterTypes(0, Object.class, Object.class));
+        mh = MethodHandles.insertArguments(mh, 0, function, self);
+
+        final MethodHandle unwrap = MethodHandles.insertArguments(UNWRAP, 1, global);
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (type.parameterType(i) == Object.class) {
+                mh = MethodHandles.filterArguments(mh, i, unwrap);
+            }
+        }
+
+        final Class<?> rtype = type.returnType();
+        if (rtype == Object.class) {
+            mh = MethodHandles.filterReturnValue(mh, EXPORT.bindTo(this));
+        }
+
+        // The equivalent of
+        //     final Object prev = enterGlobal();
+        //     try {
+        //         return mh(args);
+        //     } finally {
+        //         exitGlobal(prev);
+        //     }
+        final MethodHandle exitGlobal = EXIT_GLOBAL.bindTo(this);
+        final MethodHandle exit;
+        if (rtype == void.class) {
+            exit = exitGlobal;
+        } else {
+            exit = MethodHandles.foldArguments(MethodHandles.dropArguments(MethodHandles.identity(rtype), 0, Object.class), exitGlobal);
+        }
+        mh = MethodHandles.collectArguments(exit, 1, mh);
+
+        final MethodHandle handler = MethodHandles.dropArguments(
+                HANDLE_EXCEPTION.bindTo(this).asType(MethodType.methodType(rtype, Throwable.class, Object.class)),
+                2, type.parameterList());
+        mh = MethodHandles.catchException(mh, Throwable.class, handler);
+        mh = MethodHandles.foldArguments(mh, ENTER_GLOBAL.bindTo(this));
+
+        this.methodHandle = mh;
+        this.spreader     = mh.asSpreader(Object[].class, type.parameterCount()).asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * Get the type of this function handle. The parameter types are the types of the arguments
+     * passed to the function, the return type that of the value returned by it.
+     *
+     * @return the type of this function handle
+     */
+    public MethodType type() {
+        return methodHandle.type();
+    }
+
+    /**
+     * Get a method handle of this function handle's {@link #type() type} that calls the function.
+     * Script errors are thrown as {@link NashornException}s.
+     *
+     * @return a method handle calling the function
+     */
+    public MethodHandle getMethodHandle() {
+        return methodHandle;
+    }
+
+    /**
+     * Call the function with the given arguments, which are converted to the parameter types of
+     * this function handle.
+     *
+     * @param args arguments, as many as this function handle has parameters
+     * @return the value returned by the function, null for undefined
+     * @throws ScriptException if the function throws a script error
+     */
+    public Object invoke(final Object... args) throws ScriptException {
+        try {
+            return spreader.invokeExact(args);
+        } catch (final Error e) {
+            throw e;
+        } catch (final Exception e) {
+            NashornScriptEngine.throwAsScriptException(e, global);
+            throw new AssertionError("should not reach here");
+        } catch (final Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private Object enterGlobal() {
+        final Global oldGlobal = Context.getGlobal();
+        if (oldGlobal == global) {
+            // global need not be restored
+            return global;
+        }
+        Context.setGlobal(global);
+        return oldGlobal;
+    }
+
+    private void exitGlobal(final Object oldGlobal) {
+        if (oldGlobal != global) {
+            Context.setGlobal((Global)oldGlobal);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private Object handleException(final Throwable t, final Object oldGlobal) throws Throwable {
+        exitGlobal(oldGlobal);
+        if (t instanceof NashornException) {
+            throw ((NashornException)t).initEcmaError(global);
+        }
+        throw t;
+    }
+
+    @SuppressWarnings("unused")
+    private Object export(final Object obj) {
+        return ScriptObjectMirror.translateUndefined(ScriptObjectMirror.wrap(obj, global));
+    }
+
+    private static MethodHandle findOwnMH(final String name, final Class<?> rtype, final Class<?>... types) {
+        return MH.findVirtual(LOOKUP, FunctionHandle.class, name, MH.type(rtype, types));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.api.scripting;
+
+import javax.script.Bindings;
+import jdk.nashorn.internal.objects.Global;
+
+/**
+ * An immutable snapshot of a nashorn global, as taken by {@link NashornScriptEngine#snapshot(Bindings)}.
+ * Each call to {@link #createBindings()} returns new bindings with a fresh copy of the global as it
+ * was when the snapshot was taken, so that bootstrap scripts need to be evaluated only once.
+ * Script objects are never shared between the bindings created from a snapshot, but Java objects
+ * referenced from script objects are.
+ * <p>
+ * Snapshots may be used from several threads.
+ */
+public final class GlobalSnapshot {
+    // the engine that took this snapshot
+    private final NashornScriptEngine engine;
+
+    // private copy of the global, never exposed to scripts
+    private final Global template;
+
+    GlobalSnapshot(final NashornScriptEngine engine, final Global template) {
+        this.engine   = engine;
+        this.template = template;
+    }
+
+    /**
+     * Get the engine that took this snapshot.
+     *
+     * @return the script engine
+     */
+    public NashornScriptEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Create new bindings for the engine of this snapshot with a copy of the snapshot's global.
+     *
+     * @return new bindings
+     */
+    public Bindings createBindings() {
+        return engine.copyGlobalMirror(template);
+    }
+}
@@ -33,6 +33,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URL;
@@ -209,6 +210,37 @@ public final class NashornScriptEngine extends AbstractScriptEngine implements C
         return createGlobalMirror(null);
     }
 
+    /**
+     * Take a snapshot of the nashorn global of the given bindings, as returned by {@link #createBindings()}.
+     * Everything the scripts evaluated so far have defined in the global is part of the snapshot, and
+     * {@link GlobalSnapshot#createBindings()} creates new bindings with a copy of that global, which is
+     * much faster than creating new bindings and evaluating the same scripts again. Later changes to
+     * the bindings do not affect the snapshot.
+     *
+     * @param bindings bindings with a nashorn global of this engine
+     * @return snapshot of the global of the bindings
+     * @throws IllegalArgumentException if the bindings have no nashorn global of this engine
+     * @throws UnsupportedOperationException if the global references typed arrays, which can not be copied
+     */
+    public GlobalSnapshot snapshot(final Bindings bindings) {
+        Global snapshotGlobal = null;
+        if (bindings instanceof ScriptObjectMirror) {
+            snapshotGlobal = globalFromMirror((ScriptObjectMirror)bindings);
+        } else if (bindings != null && !_global_per_engine) {
+            final Object scope = bindings.get(NASHORN_GLOBAL);
+            if (scope instanceof ScriptObjectMirror) {
+                snapshotGlobal = globalFromMirror((ScriptObjectMirror)scope);
+            }
+        }
+
+        if (snapshotGlobal == null) {
+            throw new IllegalArgumentException(getMessage("no.nashorn.global.in.bindings"));
+        }
+
+        // copy right away, the global of the bindings may still be changed by scripts
+        return new GlobalSnapshot(this, copyNashornGlobal(snapshotGlobal));
+    }
+
     // Compilable methods
 
     @Override
@@ -238,6 +270,53 @@ public final class NashornScriptEngine extends AbstractScriptEngine implements C
         return invokeImpl(thiz, name, args);
     }
 
+    /**
+     * Resolve a top-level function of the engine's current global into a handle for repeated calls from Java.
+     * See {@link FunctionHandle} for how calls through it differ from {@link #invokeFunction(String, Object...)}.
+     *
+     * @param name name of the function
+     * @param type type of the handle: the types of the arguments passed to the function and of its result
+     * @return function handle
+     * @throws NoSuchMethodException if there is no function of this name
+     */
+    public FunctionHandle getFunctionHandle(final String name, final MethodType type) throws NoSuchMethodException {
+        final Global ctxtGlobal = getNashornGlobalFrom(context);
+        return getFunctionHandle(new ScriptObjectMirror(ctxtGlobal, ctxtGlobal), name, type);
+    }
+
+    /**
+     * Resolve a method of a script object into a handle for repeated calls from Java, with the object as
+     * {@code this}. See {@link FunctionHandle} for how calls through it differ from
+     * {@link #invokeMethod(Object, String, Object...)}.
+     *
+     * @param thiz the script object, a {@link ScriptObjectMirror} of this engine
+     * @param name name of the method
+     * @param type type of the handle: the types of the arguments passed to the method and of its result
+     * @return function handle
+     * @throws NoSuchMethodException if the object has no method of this name
+     */
+    public FunctionHandle getFunctionHandle(final Object thiz, final String name, final MethodType type) throws NoSuchMethodException {
+        name.getClass(); // null check
+        type.getClass(); // null check
+
+        if (!(thiz instanceof ScriptObjectMirror)) {
+            throw new IllegalArgumentException(getMessage("interface.on.non.script.object"));
+        }
+
+        final ScriptObjectMirror selfMirror = (ScriptObjectMirror)thiz;
+        final Global homeGlobal = selfMirror.getHomeGlobal();
+        if (! isOfContext(homeGlobal, nashornContext)) {
+            throw new IllegalArgumentException(getMessage("script.object.from.another.engine"));
+        }
+
+        final Object func = ScriptObjectMirror.unwrap(selfMirror.getMember(name), homeGlobal);
+        if (!(func instanceof ScriptFunction)) {
+            throw new NoSuchMethodException("No such function " + name);
+        }
+
+        return new FunctionHandle(homeGlobal, (ScriptFunction)func, selfMirror.getScriptObject(), type);
+    }
+
     @Override
     public <T> T getInterface(final Class<T> clazz) {
         return getInterfaceInner(null, clazz);
@@ -418,6 +497,21 @@ public final class NashornScriptEngine extends AbstractScriptEngine implements C
         return new ScriptObjectMirror(newGlobal, newGlobal);
     }
 
+    // Create a mirror for a copy of a global snapshot
+    ScriptObjectMirror copyGlobalMirror(final Global template) {
+        final Global newGlobal = copyNashornGlobal(template);
+        return new ScriptObjectMirror(newGlobal, newGlobal);
+    }
+
+    private Global copyNashornGlobal(final Global template) {
+        return AccessController.doPrivileged(new PrivilegedAction<Global>() {
+            @Override
+            public Global run() {
+                return nashornContext.copyGlobal(template);
+            }
+        }, CREATE_GLOBAL_ACC_CTXT);
+    }
+
     // Create a new Nashorn Global object
     private Global createNashornGlobal(final ScriptContext ctxt) {
         final Global newGlobal = AccessController.doPrivileged(new PrivilegedAction<Global>() {
@@ -558,7 +652,7 @@ public final class NashornScriptEngine extends AbstractScriptEngine implements C
         }
     }
 
-    private static void throwAsScriptException(final Exception e, final Global global) throws ScriptException {
+    static void throwAsScriptException(final Exception e, final Global global) throws ScriptException {
         if (e instanceof ScriptException) {
             throw (ScriptException)e;
         } else if (e instanceof NashornException) {
@@ -25,6 +25,10 @@
 
 package jdk.nashorn.api.scripting;
 
+import static jdk.nashorn.internal.runtime.UnwarrantedOptimismException.INVALID_PROGRAM_POINT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.security.AccessControlContext;
 import java.security.AccessController;
@@ -43,6 +47,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import javax.script.Bindings;
 import jdk.nashorn.internal.objects.Global;
+import jdk.nashorn.internal.objects.NativeJSON;
 import jdk.nashorn.internal.runtime.arrays.ArrayData;
 import jdk.nashorn.internal.runtime.ConsString;
 import jdk.nashorn.internal.runtime.Context;
@@ -267,6 +272,286 @@ public final class ScriptObjectMirror extends AbstractJSObject implements Bindin
         });
     }
 
+    // Nashorn extension: primitive accessors. These read and write numeric properties without boxing
+    // them, and unlike the Object accessors they do not allocate anything if the mirror's global is
+    // current already.
+
+    /**
+     * Nashorn extension: get a named property as an int, converted as by ECMAScript ToInt32.
+     *
+     * @param name name of the property
+     * @return the property value, 0 if there is no such property
+     */
+    public int getInt(final String name) {
+        name.getClass(); // null check
+        final Global oldGlobal = enterGlobal();
+        try {
+            return sobj.getInt(name, INVALID_PROGRAM_POINT);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get a named property as a long.
+     *
+     * @param name name of the property
+     * @return the property value, 0 if there is no such property
+     */
+    public long getLong(final String name) {
+        name.getClass(); // null check
+        final Global oldGlobal = enterGlobal();
+        try {
+            return sobj.getLong(name, INVALID_PROGRAM_POINT);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get a named property as a double, converted as by ECMAScript ToNumber.
+     *
+     * @param name name of the property
+     * @return the property value, NaN if there is no such property
+     */
+    public double getDouble(final String name) {
+        name.getClass(); // null check
+        final Global oldGlobal = enterGlobal();
+        try {
+            return sobj.getDouble(name, INVALID_PROGRAM_POINT);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get an indexed property as an int, converted as by ECMAScript ToInt32.
+     *
+     * @param index index of the property
+     * @return the element value, 0 if there is no such element
+     */
+    public int getIntSlot(final int index) {
+        final Global oldGlobal = enterGlobal();
+        try {
+            return sobj.getInt(index, INVALID_PROGRAM_POINT);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get an indexed property as a long.
+     *
+     * @param index index of the property
+     * @return the element value, 0 if there is no such element
+     */
+    public long getLongSlot(final int index) {
+        final Global oldGlobal = enterGlobal();
+        try {
+            return sobj.getLong(index, INVALID_PROGRAM_POINT);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get an indexed property as a double, converted as by ECMAScript ToNumber.
+     *
+     * @param index index of the property
+     * @return the element value, NaN if there is no such element
+     */
+    public double getDoubleSlot(final int index) {
+        final Global oldGlobal = enterGlobal();
+        try {
+            return sobj.getDouble(index, INVALID_PROGRAM_POINT);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get several named properties as ints with a single switch to the
+     * mirror's global. See {@link #getInt(String)}.
+     *
+     * @param names names of the properties
+     * @return the property values, in the order of the names
+     */
+    public int[] getInts(final String... names) {
+        final int[] values = new int[names.length];
+        final Global oldGlobal = enterGlobal();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                values[i] = sobj.getInt(names[i], INVALID_PROGRAM_POINT);
+            }
+            return values;
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get several named properties as longs with a single switch to the
+     * mirror's global. See {@link #getLong(String)}.
+     *
+     * @param names names of the properties
+     * @return the property values, in the order of the names
+     */
+    public long[] getLongs(final String... names) {
+        final long[] values = new long[names.length];
+        final Global oldGlobal = enterGlobal();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                values[i] = sobj.getLong(names[i], INVALID_PROGRAM_POINT);
+            }
+            return values;
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: get several named properties as doubles with a single switch to the
+     * mirror's global. See {@link #getDouble(String)}.
+     *
+     * @param names names of the properties
+     * @return the property values, in the order of the names
+     */
+    public double[] getDoubles(final String... names) {
+        final double[] values = new double[names.length];
+        final Global oldGlobal = enterGlobal();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                values[i] = sobj.getDouble(names[i], INVALID_PROGRAM_POINT);
+            }
+            return values;
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: set a named property to an int value.
+     *
+     * @param name  name of the property
+     * @param value the value
+     */
+    public void setInt(final String name, final int value) {
+        name.getClass(); // null check
+        final Global oldGlobal = enterGlobal();
+        try {
+            sobj.set(name, value, strict);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: set a named property to a long value.
+     *
+     * @param name  name of the property
+     * @param value the value
+     */
+    public void setLong(final String name, final long value) {
+        name.getClass(); // null check
+        final Global oldGlobal = enterGlobal();
+        try {
+            sobj.set(name, value, strict);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: set a named property to a double value.
+     *
+     * @param name  name of the property
+     * @param value the value
+     */
+    public void setDouble(final String name, final double value) {
+        name.getClass(); // null check
+        final Global oldGlobal = enterGlobal();
+        try {
+            sobj.set(name, value, strict);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: set an indexed property to an int value.
+     *
+     * @param index index of the property
+     * @param value the value
+     */
+    public void setIntSlot(final int index, final int value) {
+        final Global oldGlobal = enterGlobal();
+        try {
+            sobj.set(index, value, strict);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: set an indexed property to a long value.
+     *
+     * @param index index of the property
+     * @param value the value
+     */
+    public void setLongSlot(final int index, final long value) {
+        final Global oldGlobal = enterGlobal();
+        try {
+            sobj.set(index, value, strict);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
+    /**
+     * Nashorn extension: set an indexed property to a double value.
+     *
+     * @param index index of the property
+     * @param value the value
+     */
+    public void setDoubleSlot(final int index, final double value) {
+        final Global oldGlobal = enterGlobal();
+        try {
+            sobj.set(index, value, strict);
+        } catch (final NashornException ne) {
+            throw ne.initEcmaError(global);
+        } finally {
+            exitGlobal(oldGlobal);
+        }
+    }
+
     /**
      * Nashorn extension: setIndexedPropertiesToExternalArrayData.
      * set indexed properties be exposed from a given nio ByteBuffer.
@@ -614,6 +899,59 @@ public final class ScriptObjectMirror extends AbstractJSObject implements Bindin
         });
     }
 
+    /**
+     * Make this sealed script object safe to share between threads, so that it can be read
+     * from several threads without locking. Properties of a shared object cannot be redefined.
+     * @return this script object
+     * @throws NashornException if the object is not sealed
+     */
+    public ScriptObjectMirror share() {
+        return inGlobal(new Callable<ScriptObjectMirror>() {
+            @Override public ScriptObjectMirror call() {
+                sobj.share();
+                return ScriptObjectMirror.this;
+            }
+        });
+    }
+
+    /**
+     * Check whether this script object is shared between threads
+     * @return true if shared
+     */
+    public boolean isShared() {
+        return inGlobal(new Callable<Boolean>() {
+            @Override public Boolean call() {
+                return sobj.isShared();
+            }
+        });
+    }
+
+    /**
+     * ECMA 15.12.3 - stringify implementation that writes the JSON text of this script
+     * object to the given appendable as it is produced, without building it as a string.
+     * Nothing is written if this object has no JSON representation (a function, say).
+     *
+     * @param out appendable the JSON text is written to
+     * @param replacer either a function or an array of strings and numbers, may be null
+     * @param space optional indentation - a number of spaces or a string, may be null
+     * @throws IOException if appending to {@code out} fails
+     * @throws NullPointerException if out is null
+     */
+    public void writeJSON(final Appendable out, final Object replacer, final Object space) throws IOException {
+        // null check
+        out.getClass();
+        try {
+            inGlobal(new Callable<Object>() {
+                @Override public Object call() {
+                    NativeJSON.stringify(sobj, unwrap(replacer, global), unwrap(space, global), out);
+                    return null;
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Utility to check if given object is ECMAScript undefined value
      *
@@ -739,6 +1077,22 @@ public final class ScriptObjectMirror extends AbstractJSObject implements Bindin
     }
 
     // internals only below this.
+
+    // make our global current, returning the global to restore in exitGlobal
+    private Global enterGlobal() {
+        final Global oldGlobal = Context.getGlobal();
+        if (oldGlobal != global) {
+            Context.setGlobal(global);
+        }
+        return oldGlobal;
+    }
+
+    private void exitGlobal(final Global oldGlobal) {
+        if (oldGlobal != global) {
+            Context.setGlobal(oldGlobal);
+        }
+    }
+
     private <V> V inGlobal(final Callable<V> callable) {
         final Global oldGlobal = Context.getGlobal();
         final boolean globalChanged = (oldGlobal != global);
@@ -25,11 +25,13 @@
 
 package jdk.nashorn.api.scripting;
 
+import java.io.Reader;
 import java.lang.invoke.MethodHandle;
 import jdk.internal.dynalink.beans.StaticClass;
 import jdk.internal.dynalink.linker.LinkerServices;
 import jdk.nashorn.internal.runtime.linker.Bootstrap;
 import jdk.nashorn.internal.runtime.Context;
+import jdk.nashorn.internal.runtime.JSONFunctions;
 import jdk.nashorn.internal.runtime.ScriptFunction;
 import jdk.nashorn.internal.runtime.ScriptObject;
 import jdk.nashorn.internal.runtime.ScriptRuntime;
@@ -53,6 +55,19 @@ public final class ScriptUtils {
         return ScriptRuntime.parse(code, name, includeLoc);
     }
 
+    /**
+     * Parses JSON text read from the given reader, as it is read, and returns object
+     * representation. Unlike JSON.parse, which converts its argument to string, this
+     * streams the text so it is never held in memory as a whole. The reader is not closed.
+     *
+     * @param reader reader of the JSON text to be parsed
+     * @param reviver optional function that takes two parameters (key, value), or undefined
+     * @return Object representation of JSON text read
+     */
+    public static Object parseJSON(final Reader reader, final Object reviver) {
+        return JSONFunctions.parse(reader, reviver);
+    }
+
     /**
      * Method which converts javascript types to java types for the
      * String.format method (jrunscript function sprintf).
@@ -46,6 +46,7 @@ import jdk.nashorn.internal.ir.Node;
 import jdk.nashorn.internal.ir.visitor.NodeVisitor;
 import jdk.nashorn.internal.objects.Global;
 import jdk.nashorn.internal.runtime.Context;
+import jdk.nashorn.internal.runtime.RecompilableScriptFunctionData;
 import jdk.nashorn.internal.runtime.logging.DebugLogger;
 import jdk.nashorn.internal.runtime.logging.Loggable;
 import jdk.nashorn.internal.runtime.logging.Logger;
@@ -149,6 +150,22 @@ public final class ApplySpecialization extends NodeVisitor<LexicalContext> imple
                     return false;
                 }
 
+                @Override
+                public boolean enterFunctionNode(final FunctionNode nestedFunctionNode) {
+                    if (nestedFunctionNode != functionNode) {
+                        // the parser may have skipped the body of the nested function, check the names it uses instead
+                        final RecompilableScriptFunctionData data = compiler.getScriptFunctionData(nestedFunctionNode.getId());
+                        if (data != null) {
+                            for (final String name : data.getExternalSymbolNames()) {
+                                if (isParam(name)) {
+                                    throw new UnsupportedOperationException();
+                                }
+                            }
+                        }
+                    }
+                    return true;
+                }
+
                 @Override
                 public Node leaveIdentNode(final IdentNode identNode) {
                     if (isParam(identNode.getName()) || ARGUMENTS.equals(identNode.getName()) && !isCurrentArg(identNode)) {
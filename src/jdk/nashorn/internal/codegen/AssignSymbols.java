@@ -428,11 +428,30 @@ final class AssignSymbols extends NodeOperatorVisitor<LexicalContext> implements
 
         if (lc.isFunctionBody()) {
             enterFunctionBody();
+
+            final FunctionNode functionNode = lc.getCurrentFunction();
+            if (isSkippedFunction(functionNode)) {
+                // The parser skipped the body of this nested function. Mark the symbols its body uses from
+                // enclosing scopes as used, they are visible to it and need to be in scope.
+                for (final String name : compiler.getScriptFunctionData(functionNode.getId()).getExternalSymbolNames()) {
+                    nameIsUsed(name).increaseUseCount();
+                }
+            }
         }
 
         return true;
     }
 
+    /**
+     * Is this a function nested in a function being compiled on demand, whose body may have been skipped by the
+     * parser? See {@link jdk.nashorn.internal.parser.Parser#setReparsedFunction}.
+     */
+    private boolean isSkippedFunction(final FunctionNode functionNode) {
+        return compiler.isOnDemandCompilation() &&
+                functionNode != lc.getOutermostFunction() &&
+                compiler.getScriptFunctionData(functionNode.getId()) != null;
+    }
+
     @Override
     public boolean enterCatchNode(final CatchNode catchNode) {
         final IdentNode exception = catchNode.getException();
@@ -770,6 +789,22 @@ final class AssignSymbols extends NodeOperatorVisitor<LexicalContext> implements
             return identNode;
         }
 
+        final Symbol symbol = nameIsUsed(name);
+
+        if (!identNode.isInitializedHere()) {
+            symbol.increaseUseCount();
+        }
+
+        return end(identNode.setSymbol(symbol));
+    }
+
+    /**
+     * Resolve a name used in the current block to a symbol, defining a global one if none exists, and mark the
+     * symbol as used by the current function.
+     * @param name the name
+     * @return the symbol for the name
+     */
+    private Symbol nameIsUsed(final String name) {
         final Block block = lc.getCurrentBlock();
 
         Symbol symbol = findSymbol(block, name);
@@ -794,11 +829,7 @@ final class AssignSymbols extends NodeOperatorVisitor<LexicalContext> implements
 
         functionUsesSymbol(symbol);
 
-        if (!identNode.isInitializedHere()) {
-            symbol.increaseUseCount();
-        }
-
-        return end(identNode.setSymbol(symbol));
+        return symbol;
     }
 
     @Override
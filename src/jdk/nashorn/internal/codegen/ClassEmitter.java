@@ -59,6 +59,7 @@ import java.security.PrivilegedAction;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
+import jdk.internal.org.objectweb.asm.ClassReader;
 import jdk.internal.org.objectweb.asm.ClassWriter;
 import jdk.internal.org.objectweb.asm.MethodVisitor;
 import jdk.internal.org.objectweb.asm.util.TraceClassVisitor;
@@ -135,6 +136,9 @@ public class ClassEmitter implements Emitter {
     /** Set of constants access methods required. */
     private Set<Class<?>> constantMethodNeeded;
 
+    /** Are stack map frames computed in {@link #toByteArray()} rather than while methods are emitted? */
+    private final boolean deferFrames;
+
     /**
      * Constructor - only used internally in this class as it breaks
      * abstraction towards ASM or other code generator below
@@ -142,9 +146,10 @@ public class ClassEmitter implements Emitter {
      * @param env script environment
      * @param cw  ASM classwriter
      */
-    private ClassEmitter(final Context context, final ClassWriter cw) {
+    private ClassEmitter(final Context context, final ClassWriter cw, final boolean deferFrames) {
         this.context        = context;
         this.cw             = cw;
+        this.deferFrames    = deferFrames;
         this.methodsStarted = new HashSet<>();
     }
 
@@ -157,7 +162,7 @@ public class ClassEmitter implements Emitter {
      * @param interfaceNames  names of interfaces implemented by this class, or null if none
      */
     ClassEmitter(final Context context, final String className, final String superClassName, final String... interfaceNames) {
-        this(context, new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS));
+        this(context, new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS), false);
         cw.visit(V1_7, ACC_PUBLIC | ACC_SUPER, className, null, superClassName, interfaceNames);
     }
 
@@ -168,24 +173,11 @@ public class ClassEmitter implements Emitter {
      * @param sourceName    Source name
      * @param unitClassName Compile unit class name.
      * @param strictMode    Should we generate this method in strict mode
+     * @param deferFrames   Should stack map frames be computed when the bytecode is requested
+     *                      rather than while methods are emitted, see {@link #toByteArray()}
      */
-    ClassEmitter(final Context context, final String sourceName, final String unitClassName, final boolean strictMode) {
-        this(context,
-             new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
-                private static final String OBJECT_CLASS  = "java/lang/Object";
-
-                @Override
-                protected String getCommonSuperClass(final String type1, final String type2) {
-                    try {
-                        return super.getCommonSuperClass(type1, type2);
-                    } catch (final RuntimeException e) {
-                        if (isScriptObject(Compiler.SCRIPTS_PACKAGE, type1) && isScriptObject(Compiler.SCRIPTS_PACKAGE, type2)) {
-                            return className(ScriptObject.class);
-                        }
-                        return OBJECT_CLASS;
-                    }
-                }
-            });
+    ClassEmitter(final Context context, final String sourceName, final String unitClassName, final boolean strictMode, final boolean deferFrames) {
+        this(context, newUnitClassWriter(deferFrames ? 0 : ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS), deferFrames);
 
         this.unitClassName        = unitClassName;
         this.constantMethodNeeded = new HashSet<>();
@@ -196,6 +188,24 @@ public class ClassEmitter implements Emitter {
         defineCommonStatics(strictMode);
     }
 
+    private static ClassWriter newUnitClassWriter(final int flags) {
+        return new ClassWriter(flags) {
+            private static final String OBJECT_CLASS  = "java/lang/Object";
+
+            @Override
+            protected String getCommonSuperClass(final String type1, final String type2) {
+                try {
+                    return super.getCommonSuperClass(type1, type2);
+                } catch (final RuntimeException e) {
+                    if (isScriptObject(Compiler.SCRIPTS_PACKAGE, type1) && isScriptObject(Compiler.SCRIPTS_PACKAGE, type2)) {
+                        return className(ScriptObject.class);
+                    }
+                    return OBJECT_CLASS;
+                }
+            }
+        };
+    }
+
     Context getContext() {
         return context;
     }
@@ -591,6 +601,10 @@ public class ClassEmitter implements Emitter {
      * Return a bytecode array from this ClassEmitter. The ClassEmitter must
      * have been ended (having its end function called) for this to work.
      *
+     * If frame computation was deferred, the class is read back and written again with
+     * frames computed. This is the expensive part of class generation, and it only touches
+     * this class, so it can be done for several compile units in parallel.
+     *
      * @return byte code array for generated class, null if class generation hasn't been ended with {@link ClassEmitter#end()}
      */
     byte[] toByteArray() {
@@ -599,7 +613,14 @@ public class ClassEmitter implements Emitter {
             return null;
         }
 
-        return cw.toByteArray();
+        final byte[] bytecode = cw.toByteArray();
+        if (!deferFrames) {
+            return bytecode;
+        }
+
+        final ClassWriter frameWriter = newUnitClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        new ClassReader(bytecode).accept(frameWriter, ClassReader.SKIP_FRAMES);
+        return frameWriter.toByteArray();
     }
 
     /**
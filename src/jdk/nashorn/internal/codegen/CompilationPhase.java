@@ -25,8 +25,6 @@
 
 package jdk.nashorn.internal.codegen;
 
-import static jdk.nashorn.internal.codegen.CompilerConstants.CONSTANTS;
-import static jdk.nashorn.internal.codegen.CompilerConstants.SOURCE;
 import static jdk.nashorn.internal.ir.FunctionNode.CompilationState.BUILTINS_TRANSFORMED;
 import static jdk.nashorn.internal.ir.FunctionNode.CompilationState.BYTECODE_GENERATED;
 import static jdk.nashorn.internal.ir.FunctionNode.CompilationState.BYTECODE_INSTALLED;
@@ -42,10 +40,6 @@ import static jdk.nashorn.internal.ir.FunctionNode.CompilationState.SYMBOLS_ASSI
 import static jdk.nashorn.internal.runtime.logging.DebugLogger.quote;
 
 import java.io.PrintWriter;
-import java.lang.reflect.Field;
-import java.security.AccessController;
-import java.security.PrivilegedActionException;
-import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -55,7 +49,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
-import java.util.function.Consumer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import jdk.nashorn.internal.codegen.Compiler.CompilationPhases;
 import jdk.nashorn.internal.ir.FunctionNode;
@@ -69,6 +65,8 @@ import jdk.nashorn.internal.ir.SplitNode;
 import jdk.nashorn.internal.ir.debug.ASTWriter;
 import jdk.nashorn.internal.ir.debug.PrintVisitor;
 import jdk.nashorn.internal.ir.visitor.NodeVisitor;
+import jdk.nashorn.internal.runtime.CodeInstaller;
+import jdk.nashorn.internal.runtime.FunctionInitializer;
 import jdk.nashorn.internal.runtime.RecompilableScriptFunctionData;
 import jdk.nashorn.internal.runtime.ScriptEnvironment;
 import jdk.nashorn.internal.runtime.logging.DebugLogger;
@@ -444,14 +442,18 @@ enum CompilationPhase {
                 throw new AssertionError("Failed generating bytecode for " + fn.getSourceName() + ":" + codegen.getLastLineNumber(), e);
             }
 
-            for (final CompileUnit compileUnit : compiler.getCompileUnits()) {
-                final ClassEmitter classEmitter = compileUnit.getClassEmitter();
-                classEmitter.end();
+            final List<CompileUnit> compileUnits = new ArrayList<>(compiler.getCompileUnits());
+            for (final CompileUnit compileUnit : compileUnits) {
+                compileUnit.getClassEmitter().end();
+            }
 
-                final byte[] bytecode = classEmitter.toByteArray();
+            // classes are added in compile unit order, however they were generated
+            final byte[][] bytecodes = toByteArrays(compileUnits);
+            for (int i = 0; i < bytecodes.length; i++) {
+                final byte[] bytecode = bytecodes[i];
                 assert bytecode != null;
 
-                final String className = compileUnit.getUnitClassName();
+                final String className = compileUnits.get(i).getUnitClassName();
 
                 compiler.addClass(className, bytecode);
 
@@ -494,17 +496,21 @@ enum CompilationPhase {
 
             boolean first = true;
             Class<?> rootClass = null;
+            String rootClassName = null;
             long length = 0L;
 
+            final CodeInstaller<ScriptEnvironment> installer = compiler.getCodeInstaller();
+
             for (final Entry<String, byte[]> entry : compiler.getBytecode().entrySet()) {
                 final String className = entry.getKey();
                 //assert !first || className.equals(compiler.getFirstCompileUnit().getUnitClassName()) : "first=" + first + " className=" + className + " != " + compiler.getFirstCompileUnit().getUnitClassName();
                 final byte[] code = entry.getValue();
                 length += code.length;
 
-                final Class<?> clazz = compiler.getCodeInstaller().install(Compiler.binaryName(className), code);
+                final Class<?> clazz = installer.install(Compiler.binaryName(className), code);
                 if (first) {
                     rootClass = clazz;
+                    rootClassName = className;
                     first = false;
                 }
                 installedClasses.put(className, clazz);
@@ -514,42 +520,8 @@ enum CompilationPhase {
                 throw new CompilationException("Internal compiler error: root class not found!");
             }
 
-            // do these in parallel, this significantly reduces class installation overhead
-            // however - it still means that every thread needs a separate doPrivileged
             final Object[] constants = compiler.getConstantData().toArray();
-            installedClasses.entrySet().parallelStream().forEach(
-                new Consumer<Entry<String, Class<?>>>() {
-                    @Override
-                    public void accept(final Entry<String, Class<?>> entry) {
-                        try {
-                            AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
-                                @Override
-                                public Void run() {
-                                    try {
-                                        final Class<?> clazz = entry.getValue();
-                                        log.fine("Initializing source for ", clazz);
-                                        //use reflection to write source and constants table to installed classes
-                                        final Field sourceField = clazz.getDeclaredField(SOURCE.symbolName());
-                                        sourceField.setAccessible(true);
-                                        sourceField.set(null, compiler.getSource());
-
-                                        log.fine("Initializing constants for ", clazz);
-                                        final Field constantsField = clazz.getDeclaredField(CONSTANTS.symbolName());
-                                        constantsField.setAccessible(true);
-                                        constantsField.set(null, constants);
-                                    } catch (final IllegalAccessException | NoSuchFieldException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                    return null;
-                                }
-                            });
-                        } catch (final PrivilegedActionException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                });
-            log.fine("Done");
-            log.fine("Done");
+            installer.initialize(installedClasses.values(), compiler.getSource(), constants);
 
             // index recompilable script function datas in the constant pool
             final Map<RecompilableScriptFunctionData, RecompilableScriptFunctionData> rfns = new IdentityHashMap<>();
@@ -560,12 +532,28 @@ enum CompilationPhase {
                 }
             }
 
+            // eagerly compiled scripts are offered to the persistent code cache, if there is one
+            final boolean storeScript = !compiler.isOnDemandCompilation() && compiler.getScriptEnvironment()._persistent_cache;
+            final Map<Integer, FunctionNode> initializedFunctions = storeScript ? new LinkedHashMap<Integer, FunctionNode>() : null;
+
             // initialize function in the compile units
             for (final CompileUnit unit : compiler.getCompileUnits()) {
                 unit.setCode(installedClasses.get(unit.getUnitClassName()));
+                if (storeScript) {
+                    unit.collectInitializedFunctions(initializedFunctions);
+                }
                 unit.initializeFunctionsCode();
             }
 
+            if (storeScript) {
+                final Map<Integer, FunctionInitializer> initializers = new LinkedHashMap<>();
+                for (final FunctionNode functionNode : initializedFunctions.values()) {
+                    initializers.put(functionNode.getId(), new FunctionInitializer(functionNode));
+                }
+                installer.storeScript(compiler.getSource(), rootClassName,
+                        new LinkedHashMap<>(compiler.getBytecode()), initializers, constants);
+            }
+
             // remove installed bytecode from table in case compiler is reused
             for (final String className : installedClasses.keySet()) {
                 log.fine("Removing installed class ", quote(className), " from bytecode table...");
@@ -599,17 +587,43 @@ enum CompilationPhase {
 
      };
 
-    /** pre conditions required for function node to which this transform is to be applied */
-    private final EnumSet<CompilationState> pre;
+    /**
+     * Get the bytecode of the given compile units. With more than one unit this runs on
+     * the common fork-join pool, as the classes are independent of each other.
+     *
+     * @param compileUnits compile units whose classes have been ended
+     * @return bytecode of each compile unit, in the same order
+     */
+    private static byte[][] toByteArrays(final List<CompileUnit> compileUnits) {
+        final byte[][] bytecodes = new byte[compileUnits.size()][];
+
+        // pool threads run without permissions when there is a security manager
+        if (!Compiler.PARALLEL_BYTECODE || compileUnits.size() == 1 || System.getSecurityManager() != null) {
+            for (int i = 0; i < bytecodes.length; i++) {
+                bytecodes[i] = compileUnits.get(i).getClassEmitter().toByteArray();
+            }
+            return bytecodes;
+        }
 
-    /** start time of transform - used for timing, see {@link jdk.nashorn.internal.runtime.Timing} */
-    private long startTime;
+        final List<ForkJoinTask<byte[]>> tasks = new ArrayList<>(compileUnits.size());
+        for (final CompileUnit compileUnit : compileUnits) {
+            final ClassEmitter classEmitter = compileUnit.getClassEmitter();
+            tasks.add(ForkJoinPool.commonPool().submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() {
+                    return classEmitter.toByteArray();
+                }
+            }));
+        }
 
-    /** start time of transform - used for timing, see {@link jdk.nashorn.internal.runtime.Timing} */
-    private long endTime;
+        for (int i = 0; i < bytecodes.length; i++) {
+            bytecodes[i] = tasks.get(i).join();
+        }
+        return bytecodes;
+    }
 
-    /** boolean that is true upon transform completion */
-    private boolean isFinished;
+    /** pre conditions required for function node to which this transform is to be applied */
+    private final EnumSet<CompilationState> pre;
 
     private CompilationPhase(final EnumSet<CompilationState> pre) {
         this.pre = pre;
@@ -653,8 +667,6 @@ enum CompilationPhase {
             throw new CompilationException(sb.toString());
          }
 
-         startTime = System.currentTimeMillis();
-
          return functionNode;
      }
 
@@ -662,29 +674,15 @@ enum CompilationPhase {
      * End a compilation phase
      * @param compiler the compiler
      * @param functionNode function node to compile
+     * @param startTime time the phase was started, as returned by {@link System#currentTimeMillis()}
      * @return function node
      */
-    protected FunctionNode end(final Compiler compiler, final FunctionNode functionNode) {
+    protected FunctionNode end(final Compiler compiler, final FunctionNode functionNode, final long startTime) {
         compiler.getLogger().unindent();
-        endTime = System.currentTimeMillis();
-        compiler.getScriptEnvironment()._timing.accumulateTime(toString(), endTime - startTime);
-
-        isFinished = true;
+        compiler.getScriptEnvironment()._timing.accumulateTime(toString(), System.currentTimeMillis() - startTime);
         return functionNode;
     }
 
-    boolean isFinished() {
-        return isFinished;
-    }
-
-    long getStartTime() {
-        return startTime;
-    }
-
-    long getEndTime() {
-        return endTime;
-    }
-
     abstract FunctionNode transform(final Compiler compiler, final CompilationPhases phases, final FunctionNode functionNode) throws CompilationException;
 
     /**
@@ -704,7 +702,9 @@ enum CompilationPhase {
     final FunctionNode apply(final Compiler compiler, final CompilationPhases phases, final FunctionNode functionNode) throws CompilationException {
         assert phases.contains(this);
 
-        return end(compiler, transform(compiler, phases, begin(compiler, functionNode)));
+        // timing is kept on the stack as phases are shared by concurrently running compilers
+        final long startTime = System.currentTimeMillis();
+        return end(compiler, transform(compiler, phases, begin(compiler, functionNode)), startTime);
     }
 
 }
@@ -27,6 +27,7 @@ package jdk.nashorn.internal.codegen;
 
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -125,6 +126,16 @@ public final class CompileUnit implements Comparable<CompileUnit> {
         return functionInitializers.contains(new FunctionInitializer(data, functionNode));
     }
 
+    /**
+     * Add the function nodes whose code this compile unit initializes to a map keyed by function node id.
+     * @param functions map to add the function nodes to
+     */
+    void collectInitializedFunctions(final Map<Integer, FunctionNode> functions) {
+        for(final FunctionInitializer init : functionInitializers) {
+            functions.put(init.functionNode.getId(), init.functionNode);
+        }
+    }
+
     void initializeFunctionsCode() {
         for(final FunctionInitializer init : functionInitializers) {
             init.initializeCode();
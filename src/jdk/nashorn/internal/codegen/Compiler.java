@@ -65,6 +65,7 @@ import jdk.nashorn.internal.runtime.Source;
 import jdk.nashorn.internal.runtime.logging.DebugLogger;
 import jdk.nashorn.internal.runtime.logging.Loggable;
 import jdk.nashorn.internal.runtime.logging.Logger;
+import jdk.nashorn.internal.runtime.options.Options;
 
 /**
  * Responsible for converting JavaScripts to java byte code. Main entry
@@ -81,6 +82,13 @@ public final class Compiler implements Loggable {
     /** Name of the objects package */
     public static final String OBJECTS_PACKAGE = "jdk/nashorn/internal/objects";
 
+    /**
+     * Should the bytecode of the compile units split off a large function be finished in
+     * parallel? Stack map frames of those units are then computed on a fork-join pool
+     * after code generation instead of while their methods are emitted.
+     */
+    static final boolean PARALLEL_BYTECODE = Options.getBooleanProperty("nashorn.compiler.parallel.bytecode", true);
+
     private final ScriptEnvironment env;
 
     private final Source source;
@@ -121,6 +129,13 @@ public final class Compiler implements Loggable {
      */
     private final Map<Integer, Type> invalidatedProgramPoints;
 
+    /**
+     * True if the function was pinned to pessimistic types after exceeding its recompilation budget. All program
+     * points are then treated as invalidated to Object, so no optimistic code is generated. Rest-of methods are never
+     * pessimistic, as they continue with the types of the optimistic version that failed.
+     */
+    private final boolean pessimistic;
+
     /**
      * Compile unit name of first compile unit - this prefix will be used for all
      * classes that a compilation generates.
@@ -364,6 +379,7 @@ public final class Compiler implements Loggable {
         this.compiledFunction         = compiledFunction;
         this.types                    = types;
         this.invalidatedProgramPoints = invalidatedProgramPoints == null ? new HashMap<Integer, Type>() : invalidatedProgramPoints;
+        this.pessimistic              = compiledFunction != null && compiledFunction.isPinned() && continuationEntryPoints == null;
         this.continuationEntryPoints  = continuationEntryPoints == null ? null: continuationEntryPoints.clone();
         this.typeEvaluator            = new TypeEvaluator(this, runtimeScope);
         this.firstCompileUnitName     = firstCompileUnitName();
@@ -504,6 +520,7 @@ public final class Compiler implements Loggable {
 
         for (final CompilationPhase phase : phases) {
             log.fine(phase, " starting for ", quote(name));
+            final long startTime = env.isTimingEnabled() ? System.currentTimeMillis() : 0L;
             newFunctionNode = phase.apply(this, phases, newFunctionNode);
             log.fine(phase, " done for function ", quote(name));
 
@@ -511,7 +528,7 @@ public final class Compiler implements Loggable {
                 printMemoryUsage(functionNode, phase.toString());
             }
 
-            time += (env.isTimingEnabled() ? phase.getEndTime() - phase.getStartTime() : 0L);
+            time += (env.isTimingEnabled() ? System.currentTimeMillis() - startTime : 0L);
         }
 
         log.unindent();
@@ -593,7 +610,9 @@ public final class Compiler implements Loggable {
     }
 
     CompileUnit createCompileUnit(final String unitClassName, final long initialWeight) {
-        final ClassEmitter classEmitter = new ClassEmitter(context, sourceName, unitClassName, isStrict());
+        // the first compile unit finishes its classes inline, it is usually the only one
+        final boolean deferFrames = PARALLEL_BYTECODE && !unitClassName.equals(firstCompileUnitName);
+        final ClassEmitter classEmitter = new ClassEmitter(context, sourceName, unitClassName, isStrict(), deferFrames);
         final CompileUnit  compileUnit  = new CompileUnit(unitClassName, classEmitter, initialWeight);
 
         classEmitter.begin();
@@ -662,7 +681,7 @@ public final class Compiler implements Loggable {
     }
 
     Type getInvalidatedProgramPointType(final int programPoint) {
-        return invalidatedProgramPoints.get(programPoint);
+        return pessimistic ? Type.OBJECT : invalidatedProgramPoints.get(programPoint);
     }
 
     private void printMemoryUsage(final FunctionNode functionNode, final String phaseName) {
@@ -338,7 +338,7 @@ final class FindScopeDepths extends NodeVisitor<LexicalContext> implements Logga
             }
         }
 
-        addInternalSymbols(fn, internals.keySet());
+        addInternalSymbols(fn, new HashSet<>(internals.keySet()));
 
         if (log.isEnabled()) {
             log.info(fn.getName() + " internals=" + internals + " externals=" + externalSymbolDepths.get(fn.getId()));
@@ -90,7 +90,7 @@ public class MapCreator<T> {
             }
         }
 
-        return PropertyMap.newMap(properties, fieldCount, fieldMaximum, 0);
+        return PropertyMap.newMap(properties, structure.getName(), fieldCount, fieldMaximum, 0);
     }
 
     PropertyMap makeSpillMap(final boolean hasArguments) {
@@ -114,15 +114,14 @@ final class TypeEvaluator {
     void declareLocalSymbol(final String symbolName) {
         assert
             compiler.useOptimisticTypes() &&
-            compiler.isOnDemandCompilation() &&
-            runtimeScope != null :
+            compiler.isOnDemandCompilation() :
                 "useOptimistic=" +
                     compiler.useOptimisticTypes() +
                     " isOnDemand=" +
-                    compiler.isOnDemandCompilation() +
-                    " scope="+runtimeScope;
+                    compiler.isOnDemandCompilation();
 
-        if (runtimeScope.findProperty(symbolName, false) == null) {
+        // without a runtime scope, e.g. when compiling on a background thread, nothing is evaluated
+        if (runtimeScope != null && runtimeScope.findProperty(symbolName, false) == null) {
             runtimeScope.set(symbolName, ScriptRuntime.UNDEFINED, true);
         }
     }
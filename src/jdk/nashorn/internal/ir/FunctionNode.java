@@ -133,6 +133,9 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
     /** Last token of function. **/
     private final long lastToken;
 
+    /** Number of functions nested in this function at any depth, as created by the parser. */
+    private final int nestedFunctionCount;
+
     /** Declared symbols in this function node */
     @Ignore
     private final Set<Symbol> declaredSymbols;
@@ -297,6 +300,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.parameters       = parameters;
         this.firstToken       = firstToken;
         this.lastToken        = token;
+        this.nestedFunctionCount = 0;
         this.namespace        = namespace;
         this.compilationState = EnumSet.of(CompilationState.INITIALIZED);
         this.declaredSymbols  = new HashSet<>();
@@ -311,6 +315,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
     private FunctionNode(
         final FunctionNode functionNode,
         final long lastToken,
+        final int nestedFunctionCount,
         final int flags,
         final String sourceURL,
         final String name,
@@ -330,6 +335,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.returnType       = returnType;
         this.compileUnit      = compileUnit;
         this.lastToken        = lastToken;
+        this.nestedFunctionCount = nestedFunctionCount;
         this.compilationState = compilationState;
         this.body             = body;
         this.parameters       = parameters;
@@ -424,6 +430,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         newSourceURL,
                         name,
@@ -503,6 +510,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -575,6 +583,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -729,6 +738,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags |
                             (body.needsScope() ?
                                     FunctionNode.HAS_SCOPE_BLOCK :
@@ -828,6 +838,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -889,6 +900,46 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
+                        flags,
+                        sourceURL,
+                        name,
+                        returnType,
+                        compileUnit,
+                        compilationState,
+                        body,
+                        parameters,
+                        thisProperties,
+                        rootClass));
+    }
+
+    /**
+     * Get the number of functions nested in this function at any depth, as created by the parser. As the parser
+     * assigns function ids in order, these functions have the ids following this function's id. Functions
+     * later eliminated as dead code are still counted.
+     * @return the number of nested functions
+     */
+    public int getNestedFunctionCount() {
+        return nestedFunctionCount;
+    }
+
+    /**
+     * Set the number of functions nested in this function at any depth
+     * @param lc lexical context
+     * @param nestedFunctionCount the number of nested functions
+     * @return function node or a new one if state was changed
+     */
+    public FunctionNode setNestedFunctionCount(final LexicalContext lc, final int nestedFunctionCount) {
+        if (this.nestedFunctionCount == nestedFunctionCount) {
+            return this;
+        }
+        return Node.replaceInLexicalContext(
+                lc,
+                this,
+                new FunctionNode(
+                        this,
+                        lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -925,6 +976,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -991,6 +1043,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -1070,6 +1123,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
             new FunctionNode(
                 this,
                 lastToken,
+                nestedFunctionCount,
                 flags,
                 sourceURL,
                 name,
@@ -1117,6 +1171,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -1173,6 +1228,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
                 new FunctionNode(
                         this,
                         lastToken,
+                        nestedFunctionCount,
                         flags,
                         sourceURL,
                         name,
@@ -38,6 +38,11 @@ import jdk.nashorn.internal.runtime.ScriptRuntime;
 final class BoundScriptFunctionImpl extends ScriptFunctionImpl {
     private final ScriptFunction targetFunction;
 
+    /** The function, this and arguments this function was bound from, needed to re-bind copies. */
+    private ScriptFunction boundFunction;
+    private Object boundThis;
+    private Object[] boundArgs;
+
     BoundScriptFunctionImpl(ScriptFunctionData data, ScriptFunction targetFunction) {
         super(data, Global.instance());
         setPrototype(ScriptRuntime.UNDEFINED);
@@ -48,4 +53,20 @@ final class BoundScriptFunctionImpl extends ScriptFunctionImpl {
     protected ScriptFunction getTargetFunction() {
         return targetFunction;
     }
+
+    void setBoundValues(final ScriptFunction function, final Object self, final Object[] args) {
+        this.boundFunction = function;
+        this.boundThis = self;
+        this.boundArgs = args;
+    }
+
+    @Override
+    protected void postCopy() {
+        // our data has the original function, this and arguments bound into its method handles
+        if (boundFunction instanceof BoundScriptFunctionImpl) {
+            // make sure a bound target is re-bound before we bind it again
+            ((BoundScriptFunctionImpl)boundFunction).postCopy();
+        }
+        rebind(boundFunction, boundThis, boundArgs);
+    }
 }
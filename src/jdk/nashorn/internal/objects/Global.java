@@ -51,8 +51,10 @@ import jdk.nashorn.internal.codegen.ApplySpecialization;
 import jdk.nashorn.internal.codegen.CompilerConstants.Call;
 import jdk.nashorn.internal.lookup.Lookup;
 import jdk.nashorn.internal.objects.annotations.Attribute;
+import jdk.nashorn.internal.objects.annotations.Getter;
 import jdk.nashorn.internal.objects.annotations.Property;
 import jdk.nashorn.internal.objects.annotations.ScriptClass;
+import jdk.nashorn.internal.objects.annotations.Setter;
 import jdk.nashorn.internal.runtime.ConsString;
 import jdk.nashorn.internal.runtime.Context;
 import jdk.nashorn.internal.runtime.GlobalConstants;
@@ -207,21 +209,121 @@ public final class Global extends ScriptObject implements Scope {
     @Property(name = "Number", attributes = Attribute.NOT_ENUMERABLE)
     public volatile Object number;
 
-    /** ECMA 15.1.4.7 Date constructor */
-    @Property(name = "Date", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object date;
+    /**
+     * Getter for ECMA 15.1.4.7 Date constructor, which is created on first access
+     *
+     * @param self self reference
+     * @return the Date object
+     */
+    @Getter(name = "Date", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getDate(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.date == LAZY_SENTINEL) {
+            global.date = global.getBuiltinDate();
+        }
+        return global.date;
+    }
 
-    /** ECMA 15.1.4.8 RegExp constructor */
-    @Property(name = "RegExp", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object regexp;
+    /**
+     * Setter for ECMA 15.1.4.7 Date constructor
+     *
+     * @param self  self reference
+     * @param value new value for Date
+     */
+    @Setter(name = "Date", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setDate(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.date = value;
+    }
 
-    /** ECMA 15.12 - The JSON object */
-    @Property(name = "JSON", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object json;
+    private volatile Object date = LAZY_SENTINEL;
 
-    /** Nashorn extension: global.JSAdapter */
-    @Property(name = "JSAdapter", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object jsadapter;
+    /**
+     * Getter for ECMA 15.1.4.8 RegExp constructor, which is created on first access
+     *
+     * @param self self reference
+     * @return the RegExp object
+     */
+    @Getter(name = "RegExp", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getRegExp(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.regexp == LAZY_SENTINEL) {
+            global.regexp = global.getBuiltinRegExp();
+        }
+        return global.regexp;
+    }
+
+    /**
+     * Setter for ECMA 15.1.4.8 RegExp constructor
+     *
+     * @param self  self reference
+     * @param value new value for RegExp
+     */
+    @Setter(name = "RegExp", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setRegExp(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.regexp = value;
+    }
+
+    private volatile Object regexp = LAZY_SENTINEL;
+
+    /**
+     * Getter for ECMA 15.12 - The JSON object, which is created on first access
+     *
+     * @param self self reference
+     * @return the JSON object
+     */
+    @Getter(name = "JSON", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getJSON(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.json == LAZY_SENTINEL) {
+            global.json = global.getBuiltinJSON();
+        }
+        return global.json;
+    }
+
+    /**
+     * Setter for ECMA 15.12 - The JSON object
+     *
+     * @param self  self reference
+     * @param value new value for JSON
+     */
+    @Setter(name = "JSON", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setJSON(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.json = value;
+    }
+
+    private volatile Object json = LAZY_SENTINEL;
+
+    /**
+     * Getter for Nashorn extension: global.JSAdapter, which is created on first access
+     *
+     * @param self self reference
+     * @return the JSAdapter object
+     */
+    @Getter(name = "JSAdapter", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getJSAdapter(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.jsadapter == LAZY_SENTINEL) {
+            global.jsadapter = global.getBuiltinJSAdapter();
+        }
+        return global.jsadapter;
+    }
+
+    /**
+     * Setter for Nashorn extension: global.JSAdapter
+     *
+     * @param self  self reference
+     * @param value new value for JSAdapter
+     */
+    @Setter(name = "JSAdapter", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setJSAdapter(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.jsadapter = value;
+    }
+
+    private volatile Object jsadapter = LAZY_SENTINEL;
 
     /** ECMA 15.8 - The Math object */
     @Property(name = "Math", attributes = Attribute.NOT_ENUMERABLE)
@@ -231,17 +333,92 @@ public final class Global extends ScriptObject implements Scope {
     @Property(name = "Error", attributes = Attribute.NOT_ENUMERABLE)
     public volatile Object error;
 
-    /** EvalError object */
-    @Property(name = "EvalError", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object evalError;
+    /**
+     * Getter for EvalError object, which is created on first access
+     *
+     * @param self self reference
+     * @return the EvalError object
+     */
+    @Getter(name = "EvalError", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getEvalError(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.evalError == LAZY_SENTINEL) {
+            global.evalError = global.getBuiltinEvalError();
+        }
+        return global.evalError;
+    }
+
+    /**
+     * Setter for EvalError object
+     *
+     * @param self  self reference
+     * @param value new value for EvalError
+     */
+    @Setter(name = "EvalError", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setEvalError(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.evalError = value;
+    }
+
+    private volatile Object evalError = LAZY_SENTINEL;
+
+    /**
+     * Getter for RangeError object, which is created on first access
+     *
+     * @param self self reference
+     * @return the RangeError object
+     */
+    @Getter(name = "RangeError", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getRangeError(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.rangeError == LAZY_SENTINEL) {
+            global.rangeError = global.getBuiltinRangeError();
+        }
+        return global.rangeError;
+    }
+
+    /**
+     * Setter for RangeError object
+     *
+     * @param self  self reference
+     * @param value new value for RangeError
+     */
+    @Setter(name = "RangeError", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setRangeError(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.rangeError = value;
+    }
+
+    private volatile Object rangeError = LAZY_SENTINEL;
+
+    /**
+     * Getter for ReferenceError object, which is created on first access
+     *
+     * @param self self reference
+     * @return the ReferenceError object
+     */
+    @Getter(name = "ReferenceError", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getReferenceError(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.referenceError == LAZY_SENTINEL) {
+            global.referenceError = global.getBuiltinReferenceError();
+        }
+        return global.referenceError;
+    }
 
-    /** RangeError object */
-    @Property(name = "RangeError", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object rangeError;
+    /**
+     * Setter for ReferenceError object
+     *
+     * @param self  self reference
+     * @param value new value for ReferenceError
+     */
+    @Setter(name = "ReferenceError", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setReferenceError(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.referenceError = value;
+    }
 
-    /** ReferenceError object */
-    @Property(name = "ReferenceError", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object referenceError;
+    private volatile Object referenceError = LAZY_SENTINEL;
 
     /** SyntaxError object */
     @Property(name = "SyntaxError", attributes = Attribute.NOT_ENUMERABLE)
@@ -251,53 +428,353 @@ public final class Global extends ScriptObject implements Scope {
     @Property(name = "TypeError", attributes = Attribute.NOT_ENUMERABLE)
     public volatile Object typeError;
 
-    /** URIError object */
-    @Property(name = "URIError", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object uriError;
+    /**
+     * Getter for URIError object, which is created on first access
+     *
+     * @param self self reference
+     * @return the URIError object
+     */
+    @Getter(name = "URIError", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getURIError(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.uriError == LAZY_SENTINEL) {
+            global.uriError = global.getBuiltinURIError();
+        }
+        return global.uriError;
+    }
+
+    /**
+     * Setter for URIError object
+     *
+     * @param self  self reference
+     * @param value new value for URIError
+     */
+    @Setter(name = "URIError", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setURIError(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.uriError = value;
+    }
+
+    private volatile Object uriError = LAZY_SENTINEL;
+
+    /**
+     * Getter for ArrayBuffer object, which is created on first access
+     *
+     * @param self self reference
+     * @return the ArrayBuffer object
+     */
+    @Getter(name = "ArrayBuffer", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getArrayBuffer(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.arrayBuffer == LAZY_SENTINEL) {
+            global.arrayBuffer = global.getBuiltinArrayBuffer();
+        }
+        return global.arrayBuffer;
+    }
+
+    /**
+     * Setter for ArrayBuffer object
+     *
+     * @param self  self reference
+     * @param value new value for ArrayBuffer
+     */
+    @Setter(name = "ArrayBuffer", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setArrayBuffer(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.arrayBuffer = value;
+    }
+
+    private volatile Object arrayBuffer = LAZY_SENTINEL;
+
+    /**
+     * Getter for DataView object, which is created on first access
+     *
+     * @param self self reference
+     * @return the DataView object
+     */
+    @Getter(name = "DataView", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getDataView(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.dataView == LAZY_SENTINEL) {
+            global.dataView = global.getBuiltinDataView();
+        }
+        return global.dataView;
+    }
+
+    /**
+     * Setter for DataView object
+     *
+     * @param self  self reference
+     * @param value new value for DataView
+     */
+    @Setter(name = "DataView", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setDataView(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.dataView = value;
+    }
+
+    private volatile Object dataView = LAZY_SENTINEL;
+
+    /**
+     * Getter for TypedArray (int8), which is created on first access
+     *
+     * @param self self reference
+     * @return the Int8Array object
+     */
+    @Getter(name = "Int8Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getInt8Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.int8Array == LAZY_SENTINEL) {
+            global.int8Array = global.getBuiltinInt8Array();
+        }
+        return global.int8Array;
+    }
+
+    /**
+     * Setter for TypedArray (int8)
+     *
+     * @param self  self reference
+     * @param value new value for Int8Array
+     */
+    @Setter(name = "Int8Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setInt8Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.int8Array = value;
+    }
+
+    private volatile Object int8Array = LAZY_SENTINEL;
+
+    /**
+     * Getter for TypedArray (uint8), which is created on first access
+     *
+     * @param self self reference
+     * @return the Uint8Array object
+     */
+    @Getter(name = "Uint8Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getUint8Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.uint8Array == LAZY_SENTINEL) {
+            global.uint8Array = global.getBuiltinUint8Array();
+        }
+        return global.uint8Array;
+    }
+
+    /**
+     * Setter for TypedArray (uint8)
+     *
+     * @param self  self reference
+     * @param value new value for Uint8Array
+     */
+    @Setter(name = "Uint8Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setUint8Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.uint8Array = value;
+    }
+
+    private volatile Object uint8Array = LAZY_SENTINEL;
+
+    /**
+     * Getter for TypedArray (uint8) - Clamped, which is created on first access
+     *
+     * @param self self reference
+     * @return the Uint8ClampedArray object
+     */
+    @Getter(name = "Uint8ClampedArray", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getUint8ClampedArray(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.uint8ClampedArray == LAZY_SENTINEL) {
+            global.uint8ClampedArray = global.getBuiltinUint8ClampedArray();
+        }
+        return global.uint8ClampedArray;
+    }
+
+    /**
+     * Setter for TypedArray (uint8) - Clamped
+     *
+     * @param self  self reference
+     * @param value new value for Uint8ClampedArray
+     */
+    @Setter(name = "Uint8ClampedArray", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setUint8ClampedArray(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.uint8ClampedArray = value;
+    }
+
+    private volatile Object uint8ClampedArray = LAZY_SENTINEL;
+
+    /**
+     * Getter for TypedArray (int16), which is created on first access
+     *
+     * @param self self reference
+     * @return the Int16Array object
+     */
+    @Getter(name = "Int16Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getInt16Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.int16Array == LAZY_SENTINEL) {
+            global.int16Array = global.getBuiltinInt16Array();
+        }
+        return global.int16Array;
+    }
 
-    /** ArrayBuffer object */
-    @Property(name = "ArrayBuffer", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object arrayBuffer;
+    /**
+     * Setter for TypedArray (int16)
+     *
+     * @param self  self reference
+     * @param value new value for Int16Array
+     */
+    @Setter(name = "Int16Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setInt16Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.int16Array = value;
+    }
 
-    /** DataView object */
-    @Property(name = "DataView", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object dataView;
+    private volatile Object int16Array = LAZY_SENTINEL;
 
-    /** TypedArray (int8) */
-    @Property(name = "Int8Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object int8Array;
+    /**
+     * Getter for TypedArray (uint16), which is created on first access
+     *
+     * @param self self reference
+     * @return the Uint16Array object
+     */
+    @Getter(name = "Uint16Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getUint16Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.uint16Array == LAZY_SENTINEL) {
+            global.uint16Array = global.getBuiltinUint16Array();
+        }
+        return global.uint16Array;
+    }
 
-    /** TypedArray (uint8) */
-    @Property(name = "Uint8Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object uint8Array;
+    /**
+     * Setter for TypedArray (uint16)
+     *
+     * @param self  self reference
+     * @param value new value for Uint16Array
+     */
+    @Setter(name = "Uint16Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setUint16Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.uint16Array = value;
+    }
 
-    /** TypedArray (uint8) - Clamped */
-    @Property(name = "Uint8ClampedArray", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object uint8ClampedArray;
+    private volatile Object uint16Array = LAZY_SENTINEL;
 
-    /** TypedArray (int16) */
-    @Property(name = "Int16Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object int16Array;
+    /**
+     * Getter for TypedArray (int32), which is created on first access
+     *
+     * @param self self reference
+     * @return the Int32Array object
+     */
+    @Getter(name = "Int32Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getInt32Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.int32Array == LAZY_SENTINEL) {
+            global.int32Array = global.getBuiltinInt32Array();
+        }
+        return global.int32Array;
+    }
 
-    /** TypedArray (uint16) */
-    @Property(name = "Uint16Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object uint16Array;
+    /**
+     * Setter for TypedArray (int32)
+     *
+     * @param self  self reference
+     * @param value new value for Int32Array
+     */
+    @Setter(name = "Int32Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setInt32Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.int32Array = value;
+    }
 
-    /** TypedArray (int32) */
-    @Property(name = "Int32Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object int32Array;
+    private volatile Object int32Array = LAZY_SENTINEL;
 
-    /** TypedArray (uint32) */
-    @Property(name = "Uint32Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object uint32Array;
+    /**
+     * Getter for TypedArray (uint32), which is created on first access
+     *
+     * @param self self reference
+     * @return the Uint32Array object
+     */
+    @Getter(name = "Uint32Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getUint32Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.uint32Array == LAZY_SENTINEL) {
+            global.uint32Array = global.getBuiltinUint32Array();
+        }
+        return global.uint32Array;
+    }
 
-    /** TypedArray (float32) */
-    @Property(name = "Float32Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object float32Array;
+    /**
+     * Setter for TypedArray (uint32)
+     *
+     * @param self  self reference
+     * @param value new value for Uint32Array
+     */
+    @Setter(name = "Uint32Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setUint32Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.uint32Array = value;
+    }
 
-    /** TypedArray (float64) */
-    @Property(name = "Float64Array", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object float64Array;
+    private volatile Object uint32Array = LAZY_SENTINEL;
+
+    /**
+     * Getter for TypedArray (float32), which is created on first access
+     *
+     * @param self self reference
+     * @return the Float32Array object
+     */
+    @Getter(name = "Float32Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getFloat32Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.float32Array == LAZY_SENTINEL) {
+            global.float32Array = global.getBuiltinFloat32Array();
+        }
+        return global.float32Array;
+    }
+
+    /**
+     * Setter for TypedArray (float32)
+     *
+     * @param self  self reference
+     * @param value new value for Float32Array
+     */
+    @Setter(name = "Float32Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setFloat32Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.float32Array = value;
+    }
+
+    private volatile Object float32Array = LAZY_SENTINEL;
+
+    /**
+     * Getter for TypedArray (float64), which is created on first access
+     *
+     * @param self self reference
+     * @return the Float64Array object
+     */
+    @Getter(name = "Float64Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getFloat64Array(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.float64Array == LAZY_SENTINEL) {
+            global.float64Array = global.getBuiltinFloat64Array();
+        }
+        return global.float64Array;
+    }
+
+    /**
+     * Setter for TypedArray (float64)
+     *
+     * @param self  self reference
+     * @param value new value for Float64Array
+     */
+    @Setter(name = "Float64Array", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setFloat64Array(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.float64Array = value;
+    }
+
+    private volatile Object float64Array = LAZY_SENTINEL;
 
     /** Nashorn extension: Java access - global.Packages */
     @Property(name = "Packages", attributes = Attribute.NOT_ENUMERABLE)
@@ -327,13 +804,63 @@ public final class Global extends ScriptObject implements Scope {
     @Property(attributes = Attribute.NOT_ENUMERABLE)
     public volatile Object org;
 
-    /** Nashorn extension: Java access - global.javaImporter */
-    @Property(name = "JavaImporter", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object javaImporter;
+    /**
+     * Getter for Nashorn extension: Java access - global.javaImporter, which is created on first access
+     *
+     * @param self self reference
+     * @return the JavaImporter object
+     */
+    @Getter(name = "JavaImporter", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getJavaImporter(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.javaImporter == LAZY_SENTINEL) {
+            global.javaImporter = global.getBuiltinJavaImporter();
+        }
+        return global.javaImporter;
+    }
+
+    /**
+     * Setter for Nashorn extension: Java access - global.javaImporter
+     *
+     * @param self  self reference
+     * @param value new value for JavaImporter
+     */
+    @Setter(name = "JavaImporter", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setJavaImporter(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.javaImporter = value;
+    }
+
+    private volatile Object javaImporter = LAZY_SENTINEL;
+
+    /**
+     * Getter for Nashorn extension: global.Java object, which is created on first access
+     *
+     * @param self self reference
+     * @return the Java object
+     */
+    @Getter(name = "Java", attributes = Attribute.NOT_ENUMERABLE)
+    public static Object getJavaApi(final Object self) {
+        final Global global = Global.instanceFrom(self);
+        if (global.javaApi == LAZY_SENTINEL) {
+            global.javaApi = global.getBuiltinJavaApi();
+        }
+        return global.javaApi;
+    }
+
+    /**
+     * Setter for Nashorn extension: global.Java object
+     *
+     * @param self  self reference
+     * @param value new value for Java
+     */
+    @Setter(name = "Java", attributes = Attribute.NOT_ENUMERABLE)
+    public static void setJavaApi(final Object self, final Object value) {
+        final Global global = Global.instanceFrom(self);
+        global.javaApi = value;
+    }
 
-    /** Nashorn extension: global.Java Object constructor. */
-    @Property(name = "Java", attributes = Attribute.NOT_ENUMERABLE)
-    public volatile Object javaApi;
+    private volatile Object javaApi = LAZY_SENTINEL;
 
     /** Nashorn extension: current script's file name */
     @Property(name = "__FILE__", attributes = Attribute.NON_ENUMERABLE_CONSTANT)
@@ -424,6 +951,9 @@ public final class Global extends ScriptObject implements Scope {
     // initialized by nasgen
     private static PropertyMap $nasgenmap$;
 
+    // value of the lazily initialized builtin properties until they are first accessed
+    private static final Object LAZY_SENTINEL = new Object();
+
     // context to which this global belongs to
     private final Context context;
 
@@ -483,6 +1013,11 @@ public final class Global extends ScriptObject implements Scope {
         return global;
     }
 
+    // Global instance a property getter or setter has been called on
+    private static Global instanceFrom(final Object self) {
+        return self instanceof Global ? (Global)self : Global.instance();
+    }
+
     /**
      * Return the global constants map for fields that
      * can be accessed as MethodHandle.constant
@@ -981,11 +1516,11 @@ public final class Global extends ScriptObject implements Scope {
     }
 
     ScriptObject getDatePrototype() {
-        return ScriptFunction.getPrototype(builtinDate);
+        return ScriptFunction.getPrototype(getBuiltinDate());
     }
 
     ScriptObject getRegExpPrototype() {
-        return ScriptFunction.getPrototype(builtinRegExp);
+        return ScriptFunction.getPrototype(getBuiltinRegExp());
     }
 
     ScriptObject getStringPrototype() {
@@ -997,15 +1532,15 @@ public final class Global extends ScriptObject implements Scope {
     }
 
     ScriptObject getEvalErrorPrototype() {
-        return ScriptFunction.getPrototype(builtinEvalError);
+        return ScriptFunction.getPrototype(getBuiltinEvalError());
     }
 
     ScriptObject getRangeErrorPrototype() {
-        return ScriptFunction.getPrototype(builtinRangeError);
+        return ScriptFunction.getPrototype(getBuiltinRangeError());
     }
 
     ScriptObject getReferenceErrorPrototype() {
-        return ScriptFunction.getPrototype(builtinReferenceError);
+        return ScriptFunction.getPrototype(getBuiltinReferenceError());
     }
 
     ScriptObject getSyntaxErrorPrototype() {
@@ -1017,65 +1552,149 @@ public final class Global extends ScriptObject implements Scope {
     }
 
     ScriptObject getURIErrorPrototype() {
-        return ScriptFunction.getPrototype(builtinURIError);
+        return ScriptFunction.getPrototype(getBuiltinURIError());
     }
 
     ScriptObject getJavaImporterPrototype() {
-        return ScriptFunction.getPrototype(builtinJavaImporter);
+        return ScriptFunction.getPrototype(getBuiltinJavaImporter());
     }
 
     ScriptObject getJSAdapterPrototype() {
-        return ScriptFunction.getPrototype(builtinJSAdapter);
+        return ScriptFunction.getPrototype(getBuiltinJSAdapter());
     }
 
     ScriptObject getArrayBufferPrototype() {
-        return ScriptFunction.getPrototype(builtinArrayBuffer);
+        return ScriptFunction.getPrototype(getBuiltinArrayBuffer());
     }
 
     ScriptObject getDataViewPrototype() {
-        return ScriptFunction.getPrototype(builtinDataView);
+        return ScriptFunction.getPrototype(getBuiltinDataView());
     }
 
     ScriptObject getInt8ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinInt8Array);
+        return ScriptFunction.getPrototype(getBuiltinInt8Array());
     }
 
     ScriptObject getUint8ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinUint8Array);
+        return ScriptFunction.getPrototype(getBuiltinUint8Array());
     }
 
     ScriptObject getUint8ClampedArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinUint8ClampedArray);
+        return ScriptFunction.getPrototype(getBuiltinUint8ClampedArray());
     }
 
     ScriptObject getInt16ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinInt16Array);
+        return ScriptFunction.getPrototype(getBuiltinInt16Array());
     }
 
     ScriptObject getUint16ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinUint16Array);
+        return ScriptFunction.getPrototype(getBuiltinUint16Array());
     }
 
     ScriptObject getInt32ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinInt32Array);
+        return ScriptFunction.getPrototype(getBuiltinInt32Array());
     }
 
     ScriptObject getUint32ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinUint32Array);
+        return ScriptFunction.getPrototype(getBuiltinUint32Array());
     }
 
     ScriptObject getFloat32ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinFloat32Array);
+        return ScriptFunction.getPrototype(getBuiltinFloat32Array());
     }
 
     ScriptObject getFloat64ArrayPrototype() {
-        return ScriptFunction.getPrototype(builtinFloat64Array);
+        return ScriptFunction.getPrototype(getBuiltinFloat64Array());
     }
 
     private ScriptFunction getBuiltinArray() {
         return builtinArray;
     }
 
+    private synchronized ScriptObject getBuiltinArrayBuffer() {
+        if (this.builtinArrayBuffer == null) {
+            this.builtinArrayBuffer = initConstructor("ArrayBuffer");
+        }
+        return this.builtinArrayBuffer;
+    }
+
+    private synchronized ScriptObject getBuiltinDataView() {
+        if (this.builtinDataView == null) {
+            this.builtinDataView = initConstructor("DataView");
+        }
+        return this.builtinDataView;
+    }
+
+    private synchronized ScriptObject getBuiltinInt8Array() {
+        if (this.builtinInt8Array == null) {
+            this.builtinInt8Array = initConstructor("Int8Array");
+        }
+        return this.builtinInt8Array;
+    }
+
+    private synchronized ScriptObject getBuiltinUint8Array() {
+        if (this.builtinUint8Array == null) {
+            this.builtinUint8Array = initConstructor("Uint8Array");
+        }
+        return this.builtinUint8Array;
+    }
+
+    private synchronized ScriptObject getBuiltinUint8ClampedArray() {
+        if (this.builtinUint8ClampedArray == null) {
+            this.builtinUint8ClampedArray = initConstructor("Uint8ClampedArray");
+        }
+        return this.builtinUint8ClampedArray;
+    }
+
+    private synchronized ScriptObject getBuiltinInt16Array() {
+        if (this.builtinInt16Array == null) {
+            this.builtinInt16Array = initConstructor("Int16Array");
+        }
+        return this.builtinInt16Array;
+    }
+
+    private synchronized ScriptObject getBuiltinUint16Array() {
+        if (this.builtinUint16Array == null) {
+            this.builtinUint16Array = initConstructor("Uint16Array");
+        }
+        return this.builtinUint16Array;
+    }
+
+    private synchronized ScriptObject getBuiltinInt32Array() {
+        if (this.builtinInt32Array == null) {
+            this.builtinInt32Array = initConstructor("Int32Array");
+        }
+        return this.builtinInt32Array;
+    }
+
+    private synchronized ScriptObject getBuiltinUint32Array() {
+        if (this.builtinUint32Array == null) {
+            this.builtinUint32Array = initConstructor("Uint32Array");
+        }
+        return this.builtinUint32Array;
+    }
+
+    private synchronized ScriptObject getBuiltinFloat32Array() {
+        if (this.builtinFloat32Array == null) {
+            this.builtinFloat32Array = initConstructor("Float32Array");
+        }
+        return this.builtinFloat32Array;
+    }
+
+    private synchronized ScriptObject getBuiltinFloat64Array() {
+        if (this.builtinFloat64Array == null) {
+            this.builtinFloat64Array = initConstructor("Float64Array");
+        }
+        return this.builtinFloat64Array;
+    }
+
+    private synchronized ScriptObject getBuiltinJavaApi() {
+        if (this.builtinJavaApi == null) {
+            this.builtinJavaApi = initConstructor("Java");
+        }
+        return this.builtinJavaApi;
+    }
+
     ScriptFunction getTypeErrorThrower() {
         return typeErrorThrower;
     }
@@ -1104,8 +1723,18 @@ public final class Global extends ScriptObject implements Scope {
         return instance._boolean == instance.getBuiltinBoolean();
     }
 
-    private ScriptFunction getBuiltinDate() {
-        return builtinDate;
+    private synchronized ScriptFunction getBuiltinDate() {
+        if (this.builtinDate == null) {
+            this.builtinDate = (ScriptFunction)initConstructor("Date");
+            // initialize default date
+            final Global oldGlobal = setAsCurrentGlobal();
+            try {
+                this.DEFAULT_DATE = new NativeDate(Double.NaN, this);
+            } finally {
+                restoreCurrentGlobal(oldGlobal);
+            }
+        }
+        return this.builtinDate;
     }
 
     /**
@@ -1115,7 +1744,7 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinDate() {
         final Global instance = Global.instance();
-        return instance.date == instance.getBuiltinDate();
+        return instance.date == LAZY_SENTINEL || instance.date == instance.getBuiltinDate();
     }
 
     private ScriptFunction getBuiltinError() {
@@ -1132,8 +1761,11 @@ public final class Global extends ScriptObject implements Scope {
         return instance.error == instance.getBuiltinError();
     }
 
-    private ScriptFunction getBuiltinEvalError() {
-        return builtinEvalError;
+    private synchronized ScriptFunction getBuiltinEvalError() {
+        if (this.builtinEvalError == null) {
+            this.builtinEvalError = initErrorSubtype("EvalError", getErrorPrototype());
+        }
+        return this.builtinEvalError;
     }
 
     /**
@@ -1143,7 +1775,7 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinEvalError() {
         final Global instance = Global.instance();
-        return instance.evalError == instance.getBuiltinEvalError();
+        return instance.evalError == LAZY_SENTINEL || instance.evalError == instance.getBuiltinEvalError();
     }
 
     private ScriptFunction getBuiltinFunction() {
@@ -1160,8 +1792,11 @@ public final class Global extends ScriptObject implements Scope {
         return instance.function == instance.getBuiltinFunction();
     }
 
-    private ScriptFunction getBuiltinJSAdapter() {
-        return builtinJSAdapter;
+    private synchronized ScriptFunction getBuiltinJSAdapter() {
+        if (this.builtinJSAdapter == null) {
+            this.builtinJSAdapter = (ScriptFunction)initConstructor("JSAdapter");
+        }
+        return this.builtinJSAdapter;
     }
 
     /**
@@ -1171,11 +1806,14 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinJSAdapter() {
         final Global instance = Global.instance();
-        return instance.jsadapter == instance.getBuiltinJSAdapter();
+        return instance.jsadapter == LAZY_SENTINEL || instance.jsadapter == instance.getBuiltinJSAdapter();
     }
 
-    private ScriptObject getBuiltinJSON() {
-        return builtinJSON;
+    private synchronized ScriptObject getBuiltinJSON() {
+        if (this.builtinJSON == null) {
+            this.builtinJSON = initConstructor("JSON");
+        }
+        return this.builtinJSON;
     }
 
     /**
@@ -1185,7 +1823,7 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinJSON() {
         final Global instance = Global.instance();
-        return instance.json == instance.getBuiltinJSON();
+        return instance.json == LAZY_SENTINEL || instance.json == instance.getBuiltinJSON();
     }
 
     private ScriptObject getBuiltinJava() {
@@ -1216,8 +1854,11 @@ public final class Global extends ScriptObject implements Scope {
         return instance.javax == instance.getBuiltinJavax();
     }
 
-    private ScriptObject getBuiltinJavaImporter() {
-        return builtinJavaImporter;
+    private synchronized ScriptObject getBuiltinJavaImporter() {
+        if (this.builtinJavaImporter == null) {
+            this.builtinJavaImporter = initConstructor("JavaImporter");
+        }
+        return this.builtinJavaImporter;
     }
 
     /**
@@ -1227,7 +1868,7 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinJavaImporter() {
         final Global instance = Global.instance();
-        return instance.javaImporter == instance.getBuiltinJavaImporter();
+        return instance.javaImporter == LAZY_SENTINEL || instance.javaImporter == instance.getBuiltinJavaImporter();
     }
 
     private ScriptObject getBuiltinMath() {
@@ -1286,8 +1927,11 @@ public final class Global extends ScriptObject implements Scope {
         return instance.packages == instance.getBuiltinPackages();
     }
 
-    private ScriptFunction getBuiltinRangeError() {
-        return builtinRangeError;
+    private synchronized ScriptFunction getBuiltinRangeError() {
+        if (this.builtinRangeError == null) {
+            this.builtinRangeError = initErrorSubtype("RangeError", getErrorPrototype());
+        }
+        return this.builtinRangeError;
     }
 
     /**
@@ -1297,11 +1941,14 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinRangeError() {
         final Global instance = Global.instance();
-        return instance.rangeError == instance.getBuiltinRangeError();
+        return instance.rangeError == LAZY_SENTINEL || instance.rangeError == instance.getBuiltinRangeError();
     }
 
-    private ScriptFunction getBuiltinReferenceError() {
-        return builtinReferenceError;
+    private synchronized ScriptFunction getBuiltinReferenceError() {
+        if (this.builtinReferenceError == null) {
+            this.builtinReferenceError = initErrorSubtype("ReferenceError", getErrorPrototype());
+        }
+        return this.builtinReferenceError;
     }
 
     /**
@@ -1311,11 +1958,24 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinReferenceError() {
         final Global instance = Global.instance();
-        return instance.referenceError == instance.getBuiltinReferenceError();
+        return instance.referenceError == LAZY_SENTINEL || instance.referenceError == instance.getBuiltinReferenceError();
     }
 
-    private ScriptFunction getBuiltinRegExp() {
-        return builtinRegExp;
+    private synchronized ScriptFunction getBuiltinRegExp() {
+        if (this.builtinRegExp == null) {
+            this.builtinRegExp = (ScriptFunction)initConstructor("RegExp");
+            // initialize default regexp object
+            final Global oldGlobal = setAsCurrentGlobal();
+            try {
+                this.DEFAULT_REGEXP = new NativeRegExp("(?:)", this);
+            } finally {
+                restoreCurrentGlobal(oldGlobal);
+            }
+            // RegExp.prototype should behave like a RegExp object. So copy the
+            // properties.
+            ScriptFunction.getPrototype(builtinRegExp).addBoundProperties(DEFAULT_REGEXP);
+        }
+        return this.builtinRegExp;
     }
 
     /**
@@ -1325,7 +1985,7 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinRegExp() {
         final Global instance = Global.instance();
-        return instance.regexp == instance.getBuiltinRegExp();
+        return instance.regexp == LAZY_SENTINEL || instance.regexp == instance.getBuiltinRegExp();
     }
 
     private ScriptFunction getBuiltinString() {
@@ -1370,8 +2030,11 @@ public final class Global extends ScriptObject implements Scope {
         return instance.typeError == instance.getBuiltinTypeError();
     }
 
-    private ScriptFunction getBuiltinURIError() {
-        return builtinURIError;
+    private synchronized ScriptFunction getBuiltinURIError() {
+        if (this.builtinURIError == null) {
+            this.builtinURIError = initErrorSubtype("URIError", getErrorPrototype());
+        }
+        return this.builtinURIError;
     }
 
     /**
@@ -1381,7 +2044,7 @@ public final class Global extends ScriptObject implements Scope {
      */
     public static boolean isBuiltinURIError() {
         final Global instance = Global.instance();
-        return instance.uriError == instance.getBuiltinURIError();
+        return instance.uriError == LAZY_SENTINEL || instance.uriError == instance.getBuiltinURIError();
     }
 
     @Override
@@ -1638,14 +2301,14 @@ public final class Global extends ScriptObject implements Scope {
         // built-in constructors
         this.builtinArray     = (ScriptFunction)initConstructor("Array");
         this.builtinBoolean   = (ScriptFunction)initConstructor("Boolean");
-        this.builtinDate      = (ScriptFunction)initConstructor("Date");
-        this.builtinJSON      = initConstructor("JSON");
-        this.builtinJSAdapter = (ScriptFunction)initConstructor("JSAdapter");
         this.builtinMath      = initConstructor("Math");
         this.builtinNumber    = (ScriptFunction)initConstructor("Number");
-        this.builtinRegExp    = (ScriptFunction)initConstructor("RegExp");
         this.builtinString    = (ScriptFunction)initConstructor("String");
 
+        // Date, RegExp, JSON, JSAdapter, the rarely used error types, the
+        // typed arrays and the Java access constructors are created on first
+        // access by their property getters.
+
         // initialize String.prototype.length to 0
         // add String.prototype.length
         final ScriptObject stringPrototype = getStringPrototype();
@@ -1655,26 +2318,19 @@ public final class Global extends ScriptObject implements Scope {
         final ScriptObject arrayPrototype = getArrayPrototype();
         arrayPrototype.setIsArray();
 
-        this.DEFAULT_DATE = new NativeDate(Double.NaN, this);
-
-        // initialize default regexp object
-        this.DEFAULT_REGEXP = new NativeRegExp("(?:)", this);
-
-        // RegExp.prototype should behave like a RegExp object. So copy the
-        // properties.
-        final ScriptObject regExpProto = getRegExpPrototype();
-        regExpProto.addBoundProperties(DEFAULT_REGEXP);
-
         // Error stuff
         initErrorObjects();
 
         // java access
         if (! env._no_java) {
             initJavaAccess();
+        } else {
+            this.javaImporter = null;
+            this.javaApi      = null;
         }
 
-        if (! env._no_typed_arrays) {
-            initTypedArray();
+        if (env._no_typed_arrays) {
+            clearTypedArrays();
         }
 
         if (env._scripting) {
@@ -1740,12 +2396,8 @@ public final class Global extends ScriptObject implements Scope {
         // Error.prototype.message = "";
         errorProto.set(NativeError.MESSAGE, "", false);
 
-        this.builtinEvalError = initErrorSubtype("EvalError", errorProto);
-        this.builtinRangeError = initErrorSubtype("RangeError", errorProto);
-        this.builtinReferenceError = initErrorSubtype("ReferenceError", errorProto);
         this.builtinSyntaxError = initErrorSubtype("SyntaxError", errorProto);
         this.builtinTypeError = initErrorSubtype("TypeError", errorProto);
-        this.builtinURIError = initErrorSubtype("URIError", errorProto);
     }
 
     private ScriptFunction initErrorSubtype(final String name, final ScriptObject errorProto) {
@@ -1766,8 +2418,6 @@ public final class Global extends ScriptObject implements Scope {
         this.builtinJavafx = new NativeJavaPackage("javafx", objectProto);
         this.builtinJavax = new NativeJavaPackage("javax", objectProto);
         this.builtinOrg = new NativeJavaPackage("org", objectProto);
-        this.builtinJavaImporter = initConstructor("JavaImporter");
-        this.builtinJavaApi = initConstructor("Java");
     }
 
     private void initScripting(final ScriptEnvironment scriptEnv) {
@@ -1819,59 +2469,38 @@ public final class Global extends ScriptObject implements Scope {
         }
     }
 
-    private void initTypedArray() {
-        this.builtinArrayBuffer       = initConstructor("ArrayBuffer");
-        this.builtinDataView          = initConstructor("DataView");
-        this.builtinInt8Array         = initConstructor("Int8Array");
-        this.builtinUint8Array        = initConstructor("Uint8Array");
-        this.builtinUint8ClampedArray = initConstructor("Uint8ClampedArray");
-        this.builtinInt16Array        = initConstructor("Int16Array");
-        this.builtinUint16Array       = initConstructor("Uint16Array");
-        this.builtinInt32Array        = initConstructor("Int32Array");
-        this.builtinUint32Array       = initConstructor("Uint32Array");
-        this.builtinFloat32Array      = initConstructor("Float32Array");
-        this.builtinFloat64Array      = initConstructor("Float64Array");
+    private void clearTypedArrays() {
+        this.arrayBuffer       = null;
+        this.dataView          = null;
+        this.int8Array         = null;
+        this.uint8Array        = null;
+        this.uint8ClampedArray = null;
+        this.int16Array        = null;
+        this.uint16Array       = null;
+        this.int32Array        = null;
+        this.uint32Array       = null;
+        this.float32Array      = null;
+        this.float64Array      = null;
     }
 
     private void copyBuiltins() {
         this.array             = this.builtinArray;
         this._boolean          = this.builtinBoolean;
-        this.date              = this.builtinDate;
         this.error             = this.builtinError;
-        this.evalError         = this.builtinEvalError;
         this.function          = this.builtinFunction;
-        this.jsadapter         = this.builtinJSAdapter;
-        this.json              = this.builtinJSON;
         this.com               = this.builtinCom;
         this.edu               = this.builtinEdu;
         this.java              = this.builtinJava;
         this.javafx            = this.builtinJavafx;
         this.javax             = this.builtinJavax;
         this.org               = this.builtinOrg;
-        this.javaImporter      = this.builtinJavaImporter;
-        this.javaApi           = this.builtinJavaApi;
         this.math              = this.builtinMath;
         this.number            = this.builtinNumber;
         this.object            = this.builtinObject;
         this.packages          = this.builtinPackages;
-        this.rangeError        = this.builtinRangeError;
-        this.referenceError    = this.builtinReferenceError;
-        this.regexp            = this.builtinRegExp;
         this.string            = this.builtinString;
         this.syntaxError       = this.builtinSyntaxError;
         this.typeError         = this.builtinTypeError;
-        this.uriError          = this.builtinURIError;
-        this.arrayBuffer       = this.builtinArrayBuffer;
-        this.dataView          = this.builtinDataView;
-        this.int8Array         = this.builtinInt8Array;
-        this.uint8Array        = this.builtinUint8Array;
-        this.uint8ClampedArray = this.builtinUint8ClampedArray;
-        this.int16Array        = this.builtinInt16Array;
-        this.uint16Array       = this.builtinUint16Array;
-        this.int32Array        = this.builtinInt32Array;
-        this.uint32Array       = this.builtinUint32Array;
-        this.float32Array      = this.builtinFloat32Array;
-        this.float64Array      = this.builtinFloat64Array;
     }
 
     private void initDebug() {
@@ -1887,7 +2516,11 @@ public final class Global extends ScriptObject implements Scope {
                 sb.append(' ');
             }
 
-            sb.append(JSType.toString(object));
+            if (object instanceof ConsString) {
+                appendConsString((ConsString)object, sb);
+            } else {
+                sb.append(JSType.toString(object));
+            }
         }
 
         // Print all at once to ensure thread friendly result.
@@ -1902,11 +2535,22 @@ public final class Global extends ScriptObject implements Scope {
         return UNDEFINED;
     }
 
+    // copy the parts of the rope instead of creating a flat string first
+    private static void appendConsString(final ConsString str, final StringBuilder sb) {
+        try {
+            str.writeTo(sb);
+        } catch (final IOException e) {
+            throw new AssertionError(e); // StringBuilder does not throw
+        }
+    }
+
     /**
      * These classes are generated by nasgen tool and so we have to use
      * reflection to load and create new instance of these classes.
      */
     private ScriptObject initConstructor(final String name) {
+        // builtins that are created lazily may be first accessed while another global is current
+        final Global oldGlobal = setAsCurrentGlobal();
         try {
             // Assuming class name pattern for built-in JS constructors.
             final StringBuilder sb = new StringBuilder("jdk.nashorn.internal.objects.");
@@ -1935,6 +2579,24 @@ public final class Global extends ScriptObject implements Scope {
 
         } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException e) {
             throw new RuntimeException(e);
+        } finally {
+            restoreCurrentGlobal(oldGlobal);
+        }
+    }
+
+    // Builtin objects look up Global.instance() while they are being created,
+    // so this global has to be the current one. Returns the previous global.
+    private Global setAsCurrentGlobal() {
+        final Global oldGlobal = Context.getGlobal();
+        if (oldGlobal != this) {
+            Context.setGlobal(this);
+        }
+        return oldGlobal;
+    }
+
+    private void restoreCurrentGlobal(final Global oldGlobal) {
+        if (oldGlobal != this) {
+            Context.setGlobal(oldGlobal);
         }
     }
 
@@ -2054,6 +2716,13 @@ public final class Global extends ScriptObject implements Scope {
         return true;
     }
 
+    @Override
+    protected void postCopy() {
+        // the copy shares the reserved name switch points with its original, which only
+        // means that overwriting "apply" or "call" in one global deoptimizes both
+        INVALIDATE_RESERVED_NAME = MH.bindTo(findOwnMH_V("invalidateReservedName", void.class, String.class), this);
+    }
+
     /**
      * Check if there is a switchpoint for a reserved name. If there
      * is, it must be invalidated upon properties with this name
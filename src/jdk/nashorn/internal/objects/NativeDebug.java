@@ -39,6 +39,7 @@ import jdk.nashorn.internal.runtime.Context;
 import jdk.nashorn.internal.runtime.JSType;
 import jdk.nashorn.internal.runtime.PropertyListeners;
 import jdk.nashorn.internal.runtime.PropertyMap;
+import jdk.nashorn.internal.runtime.RecompilableScriptFunctionData;
 import jdk.nashorn.internal.runtime.ScriptFunction;
 import jdk.nashorn.internal.runtime.ScriptObject;
 import jdk.nashorn.internal.runtime.events.RuntimeEvent;
@@ -96,6 +97,29 @@ public final class NativeDebug extends ScriptObject {
         return UNDEFINED;
     }
 
+    /**
+     * Nashorn extension: get the number of live maps in the transition tree of a map. For a
+     * constructor function this is the number of distinct maps its instances have used.
+     *
+     * @param self self reference
+     * @param obj constructor function, script object or property map
+     * @return number of maps reachable by transitions, including the map itself
+     */
+    @Function(attributes = Attribute.NOT_ENUMERABLE, where = Where.CONSTRUCTOR)
+    public static Object getLiveMapCount(final Object self, final Object obj) {
+        final PropertyMap map;
+        if (obj instanceof ScriptFunction) {
+            map = ((ScriptFunction)obj).getAllocatorMap();
+        } else if (obj instanceof ScriptObject) {
+            map = ((ScriptObject)obj).getMap();
+        } else if (obj instanceof PropertyMap) {
+            map = (PropertyMap)obj;
+        } else {
+            return UNDEFINED;
+        }
+        return map == null ? 0 : map.getReachableMapCount();
+    }
+
     /**
      * Check object identity comparison regardless of type
      *
@@ -228,6 +252,11 @@ public final class NativeDebug extends ScriptObject {
         out.println("PropertyMap proto invalidations " + PropertyMap.getProtoInvalidations());
         out.println("PropertyMap proto history hit " + PropertyMap.getProtoHistoryHit());
         out.println("PropertyMap setProtoNewMapCount " + PropertyMap.getSetProtoNewMapCount());
+        out.println("PropertyMap weak transitions " + PropertyMap.getWeakTransitions());
+        out.println("Function recompilations " + RecompilableScriptFunctionData.getRecompileCount());
+        out.println("Function specializations " + RecompilableScriptFunctionData.getSpecializationCount());
+        out.println("Functions pinned " + RecompilableScriptFunctionData.getPinnedCount());
+        out.println("Function versions evicted " + RecompilableScriptFunctionData.getEvictedCount());
         out.println("Callsite count " + LinkerCallSite.getCount());
         out.println("Callsite misses " + LinkerCallSite.getMissCount());
         out.println("Callsite misses by site at " + LinkerCallSite.getMissSamplingPercentage() + "%");
@@ -28,6 +28,8 @@ package jdk.nashorn.internal.objects;
 import static jdk.nashorn.internal.runtime.ECMAErrors.typeError;
 import static jdk.nashorn.internal.runtime.ScriptRuntime.UNDEFINED;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -43,12 +45,16 @@ import jdk.nashorn.internal.objects.annotations.Where;
 import jdk.nashorn.internal.runtime.ConsString;
 import jdk.nashorn.internal.runtime.JSONFunctions;
 import jdk.nashorn.internal.runtime.JSType;
+import jdk.nashorn.internal.runtime.Property;
 import jdk.nashorn.internal.runtime.PropertyMap;
 import jdk.nashorn.internal.runtime.ScriptFunction;
 import jdk.nashorn.internal.runtime.ScriptObject;
+import jdk.nashorn.internal.runtime.arrays.ArrayData;
 import jdk.nashorn.internal.runtime.arrays.ArrayLikeIterator;
+import jdk.nashorn.internal.runtime.arrays.ContinuousArrayData;
 import jdk.nashorn.internal.runtime.linker.Bootstrap;
 import jdk.nashorn.internal.runtime.linker.InvokeByName;
+import jdk.nashorn.internal.scripts.JO;
 
 /**
  * ECMAScript 262 Edition 5, Section 15.12 The NativeJSON Object
@@ -124,94 +130,157 @@ public final class NativeJSON extends ScriptObject {
         // A default replacer method can be provided. Use of the space parameter can
         // produce text that is more easily readable.
 
-        final StringifyState state = new StringifyState();
+        final StringifyState state = new StringifyState(replacer, space, null);
+        if (!stringify(value, state)) {
+            return UNDEFINED;
+        }
 
-        // If there is a replacer, it must be a function or an array.
-        if (replacer instanceof ScriptFunction) {
-            state.replacerFunction = (ScriptFunction) replacer;
-        } else if (isArray(replacer) ||
-                replacer instanceof Iterable ||
-                (replacer != null && replacer.getClass().isArray())) {
+        return state.buffer.toString();
+    }
 
-            state.propertyList = new ArrayList<>();
+    /**
+     * Streaming variant of {@code JSON.stringify}: the JSON text is appended to the given
+     * {@link Appendable} in chunks as it is produced instead of being returned as a string.
+     * Nothing is appended if the value does not have a JSON representation.
+     *
+     * @param value    ECMA script value (usually object or array)
+     * @param replacer either a function or an array of strings and numbers, may be null
+     * @param space    optional parameter - allows result to have whitespace injection, may be null
+     * @param out      appendable the JSON text is written to
+     *
+     * @return true if the value was written, false if it has no JSON representation
+     * @throws UncheckedIOException if appending to {@code out} fails
+     */
+    public static boolean stringify(final Object value, final Object replacer, final Object space, final Appendable out) {
+        final StringifyState state = new StringifyState(replacer, space, out);
+        final boolean written = stringify(value, state);
+        state.flush(0);
+        return written;
+    }
 
-            final Iterator<Object> iter = ArrayLikeIterator.arrayLikeIterator(replacer);
+    // -- Internals only below this point
 
-            while (iter.hasNext()) {
-                String item = null;
-                final Object v = iter.next();
+    // stringify helpers.
 
-                if (v instanceof String) {
-                    item = (String) v;
-                } else if (v instanceof ConsString) {
-                    item = v.toString();
-                } else if (v instanceof Number ||
-                        v instanceof NativeNumber ||
-                        v instanceof NativeString) {
-                    item = JSType.toString(v);
-                }
+    private static boolean stringify(final Object value, final StringifyState state) {
+        final ScriptObject wrapper = Global.newEmptyInstance();
+        wrapper.set("", value, false);
 
-                if (item != null) {
-                    state.propertyList.add(item);
-                }
-            }
+        final Object jsonValue = toJSONValue("", wrapper, state);
+        if (!isSerializable(jsonValue)) {
+            return false;
         }
 
-        // If the space parameter is a number, make an indent
-        // string containing that many spaces.
+        write(jsonValue, state);
+        return true;
+    }
 
-        String gap;
+    private static class StringifyState {
+        // pending output is handed to the appendable (if any) once it grows past this size
+        private static final int FLUSH_SIZE = 8 * 1024;
 
-        // modifiable 'space' - parameter is final
-        Object modSpace = space;
-        if (modSpace instanceof NativeNumber) {
-            modSpace = JSType.toNumber(JSType.toPrimitive(modSpace, Number.class));
-        } else if (modSpace instanceof NativeString) {
-            modSpace = JSType.toString(JSType.toPrimitive(modSpace, String.class));
-        }
+        final Map<ScriptObject, ScriptObject> stack = new IdentityHashMap<>();
 
-        if (modSpace instanceof Number) {
-            int indent = Math.min(10, JSType.toInteger(modSpace));
-            if (indent < 1) {
-                gap = "";
-            } else {
-                final StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < indent; i++) {
-                    sb.append(' ');
+        final StringBuilder  buffer = new StringBuilder();
+        final Appendable     out;
+        final StringBuilder  indent = new StringBuilder();
+        final String         gap;
+        List<String>         propertyList = null;
+        ScriptFunction       replacerFunction = null;
+
+        StringifyState(final Object replacer, final Object space, final Appendable out) {
+            this.out = out;
+
+            // If there is a replacer, it must be a function or an array.
+            if (replacer instanceof ScriptFunction) {
+                replacerFunction = (ScriptFunction) replacer;
+            } else if (isArray(replacer) ||
+                    replacer instanceof Iterable ||
+                    (replacer != null && replacer.getClass().isArray())) {
+
+                propertyList = new ArrayList<>();
+
+                final Iterator<Object> iter = ArrayLikeIterator.arrayLikeIterator(replacer);
+
+                while (iter.hasNext()) {
+                    String item = null;
+                    final Object v = iter.next();
+
+                    if (v instanceof String) {
+                        item = (String) v;
+                    } else if (v instanceof ConsString) {
+                        item = v.toString();
+                    } else if (v instanceof Number ||
+                            v instanceof NativeNumber ||
+                            v instanceof NativeString) {
+                        item = JSType.toString(v);
+                    }
+
+                    if (item != null) {
+                        propertyList.add(item);
+                    }
                 }
-                gap = sb.toString();
             }
-        } else if (modSpace instanceof String || modSpace instanceof ConsString) {
-            final String str = modSpace.toString();
-            gap = str.substring(0, Math.min(10, str.length()));
-        } else {
-            gap = "";
-        }
 
-        state.gap = gap;
+            // If the space parameter is a number, make an indent
+            // string containing that many spaces.
 
-        final ScriptObject wrapper = Global.newEmptyInstance();
-        wrapper.set("", value, false);
+            // modifiable 'space' - parameter is final
+            Object modSpace = space;
+            if (modSpace instanceof NativeNumber) {
+                modSpace = JSType.toNumber(JSType.toPrimitive(modSpace, Number.class));
+            } else if (modSpace instanceof NativeString) {
+                modSpace = JSType.toString(JSType.toPrimitive(modSpace, String.class));
+            }
 
-        return str("", wrapper, state);
-    }
+            if (modSpace instanceof Number) {
+                final int count = Math.min(10, JSType.toInteger(modSpace));
+                if (count < 1) {
+                    gap = "";
+                } else {
+                    final StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < count; i++) {
+                        sb.append(' ');
+                    }
+                    gap = sb.toString();
+                }
+            } else if (modSpace instanceof String || modSpace instanceof ConsString) {
+                final String str = modSpace.toString();
+                gap = str.substring(0, Math.min(10, str.length()));
+            } else {
+                gap = "";
+            }
+        }
 
-    // -- Internals only below this point
+        // Hand the buffered text to the appendable once at least threshold chars are pending.
+        void flush(final int threshold) {
+            if (out != null && buffer.length() >= threshold && buffer.length() > 0) {
+                try {
+                    out.append(buffer);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                buffer.setLength(0);
+            }
+        }
 
-    // stringify helpers.
+        void maybeFlush() {
+            flush(FLUSH_SIZE);
+        }
 
-    private static class StringifyState {
-        final Map<ScriptObject, ScriptObject> stack = new IdentityHashMap<>();
+        void newline() {
+            buffer.append('\n').append(indent);
+        }
+    }
 
-        StringBuilder  indent = new StringBuilder();
-        String         gap = "";
-        List<String>   propertyList = null;
-        ScriptFunction replacerFunction = null;
+    // Spec: the part of the abstract operation Str(key, holder) that computes the value
+    // to be serialized: toJSON, replacer function and unwrapping of primitive wrappers.
+    private static Object toJSONValue(final Object key, final ScriptObject holder, final StringifyState state) {
+        return toJSONValue(key, holder, holder.get(key), state);
     }
 
-    // Spec: The abstract operation Str(key, holder).
-    private static Object str(final Object key, final ScriptObject holder, final StringifyState state) {
-        Object value = holder.get(key);
+    private static Object toJSONValue(final Object key, final ScriptObject holder, final Object initial, final StringifyState state) {
+        Object value = initial;
 
         try {
             if (value instanceof ScriptObject) {
@@ -242,175 +311,165 @@ public final class NativeJSON extends ScriptObject {
             }
         }
 
-        if (value == null) {
-            return "null";
-        } else if (Boolean.TRUE.equals(value)) {
-            return "true";
-        } else if (Boolean.FALSE.equals(value)) {
-            return "false";
-        }
+        return value;
+    }
 
-        if (value instanceof String) {
-            return JSONFunctions.quote((String)value);
-        } else if (value instanceof ConsString) {
-            return JSONFunctions.quote(value.toString());
-        }
+    // Spec: Str(key, holder) returns undefined for values other than these.
+    private static boolean isSerializable(final Object value) {
+        return value == null ||
+               value instanceof Boolean ||
+               value instanceof String ||
+               value instanceof ConsString ||
+               value instanceof Number ||
+               (value instanceof ScriptObject && JSType.of(value) == JSType.OBJECT);
+    }
 
-        if (value instanceof Number) {
-            return JSType.isFinite(((Number)value).doubleValue()) ? JSType.toString(value) : "null";
-        }
+    // Spec: the part of the abstract operation Str(key, holder) that serializes a value.
+    private static void write(final Object value, final StringifyState state) {
+        final StringBuilder buffer = state.buffer;
 
-        final JSType type = JSType.of(value);
-        if (type == JSType.OBJECT) {
-            if (isArray(value)) {
-                return JA((ScriptObject)value, state);
-            } else if (value instanceof ScriptObject) {
-                return JO((ScriptObject)value, state);
-            }
+        if (value == null) {
+            buffer.append("null");
+        } else if (value instanceof Boolean) {
+            buffer.append(((Boolean)value).booleanValue());
+        } else if (value instanceof String || value instanceof ConsString) {
+            JSONFunctions.quote(value.toString(), buffer);
+        } else if (value instanceof Number) {
+            writeNumber(((Number)value).doubleValue(), buffer);
+        } else if (isArray(value)) {
+            JA((ScriptObject)value, state);
+        } else {
+            JO((ScriptObject)value, state);
         }
+    }
 
-        return UNDEFINED;
+    private static void writeNumber(final double value, final StringBuilder buffer) {
+        if (JSType.isFinite(value)) {
+            buffer.append(JSType.toString(value));
+        } else {
+            buffer.append("null");
+        }
     }
 
-    // Spec: The abstract operation JO(value) serializes an object.
-    private static String JO(final ScriptObject value, final StringifyState state) {
+    private static void enter(final ScriptObject value, final StringifyState state) {
         if (state.stack.containsKey(value)) {
             throw typeError("JSON.stringify.cyclic");
         }
 
         state.stack.put(value, value);
-        final StringBuilder stepback = new StringBuilder(state.indent.toString());
         state.indent.append(state.gap);
+    }
+
+    private static void leave(final ScriptObject value, final StringifyState state, final char close, final boolean empty) {
+        state.stack.remove(value);
+        state.indent.setLength(state.indent.length() - state.gap.length());
+
+        if (!empty && !state.gap.isEmpty()) {
+            state.newline();
+        }
+        state.buffer.append(close);
+    }
 
-        final StringBuilder finalStr = new StringBuilder();
-        final List<Object>  partial  = new ArrayList<>();
-        final List<String>  k        = state.propertyList == null ? Arrays.asList(value.getOwnKeys(false)) : state.propertyList;
+    // Spec: The abstract operation JO(value) serializes an object.
+    private static void JO(final ScriptObject value, final StringifyState state) {
+        enter(value, state);
 
-        for (final Object p : k) {
-            final Object strP = str(p, value, state);
+        final StringBuilder buffer = state.buffer;
+        buffer.append('{');
 
-            if (strP != UNDEFINED) {
-                final StringBuilder member = new StringBuilder();
+        boolean empty = true;
 
-                member.append(JSONFunctions.quote(p.toString())).append(':');
-                if (!state.gap.isEmpty()) {
-                    member.append(' ');
+        if (state.propertyList == null && value instanceof JO && value.getArray().length() == 0) {
+            // plain script object without elements: walk the property map directly
+            // rather than materializing the key array and looking up each key.
+            final PropertyMap map = value.getMap();
+            for (final Property property : map.getProperties()) {
+                if (!property.isEnumerable()) {
+                    continue;
                 }
 
-                member.append(strP);
-                partial.add(member);
+                final String key = property.getKey();
+                // a toJSON method may have changed the shape of this object meanwhile
+                final Object initial = value.getMap() == map ? property.getObjectValue(value, value) : value.get(key);
+                final Object strP = toJSONValue(key, value, initial, state);
+                if (isSerializable(strP)) {
+                    writeMember(key, strP, empty, state);
+                    empty = false;
+                }
             }
-        }
-
-        if (partial.isEmpty()) {
-            finalStr.append("{}");
         } else {
-            if (state.gap.isEmpty()) {
-                final int size = partial.size();
-                int       index = 0;
-
-                finalStr.append('{');
+            final Iterable<String> k = state.propertyList == null ? Arrays.asList(value.getOwnKeys(false)) : state.propertyList;
 
-                for (final Object str : partial) {
-                    finalStr.append(str);
-                    if (index < size - 1) {
-                        finalStr.append(',');
-                    }
-                    index++;
+            for (final String p : k) {
+                final Object strP = toJSONValue(p, value, state);
+                if (isSerializable(strP)) {
+                    writeMember(p, strP, empty, state);
+                    empty = false;
                 }
+            }
+        }
 
-                finalStr.append('}');
-            } else {
-                final int size  = partial.size();
-                int       index = 0;
-
-                finalStr.append("{\n");
-                finalStr.append(state.indent);
+        leave(value, state, '}', empty);
+    }
 
-                for (final Object str : partial) {
-                    finalStr.append(str);
-                    if (index < size - 1) {
-                        finalStr.append(",\n");
-                        finalStr.append(state.indent);
-                    }
-                    index++;
-                }
+    private static void writeMember(final String key, final Object value, final boolean first, final StringifyState state) {
+        final StringBuilder buffer = state.buffer;
 
-                finalStr.append('\n');
-                finalStr.append(stepback);
-                finalStr.append('}');
-            }
+        if (!first) {
+            buffer.append(',');
+        }
+        if (!state.gap.isEmpty()) {
+            state.newline();
         }
 
-        state.stack.remove(value);
-        state.indent = stepback;
+        JSONFunctions.quote(key, buffer);
+        buffer.append(':');
+        if (!state.gap.isEmpty()) {
+            buffer.append(' ');
+        }
 
-        return finalStr.toString();
+        write(value, state);
+        state.maybeFlush();
     }
 
     // Spec: The abstract operation JA(value) serializes an array.
-    private static Object JA(final ScriptObject value, final StringifyState state) {
-        if (state.stack.containsKey(value)) {
-            throw typeError("JSON.stringify.cyclic");
-        }
+    private static void JA(final ScriptObject value, final StringifyState state) {
+        enter(value, state);
 
-        state.stack.put(value, value);
-        final StringBuilder stepback = new StringBuilder(state.indent.toString());
-        state.indent.append(state.gap);
-        final List<Object> partial = new ArrayList<>();
+        final StringBuilder buffer = state.buffer;
+        buffer.append('[');
 
         final int length = JSType.toInteger(value.getLength());
-        int index = 0;
+        final ArrayData data = value.getArray();
+        final Class<?> elementType = data instanceof ContinuousArrayData && data.length() == length && state.replacerFunction == null ?
+                ((ContinuousArrayData)data).getElementType() : Object.class;
 
-        while (index < length) {
-            Object strP = str(index, value, state);
-            if (strP == UNDEFINED) {
-                strP = "null";
+        for (int index = 0; index < length; index++) {
+            if (index > 0) {
+                buffer.append(',');
+            }
+            if (!state.gap.isEmpty()) {
+                state.newline();
             }
-            partial.add(strP);
-            index++;
-        }
-
-        final StringBuilder finalStr = new StringBuilder();
-        if (partial.isEmpty()) {
-            finalStr.append("[]");
-        } else {
-            if (state.gap.isEmpty()) {
-                final int size = partial.size();
-                index = 0;
-                finalStr.append('[');
-                for (final Object str : partial) {
-                    finalStr.append(str);
-                    if (index < size - 1) {
-                        finalStr.append(',');
-                    }
-                    index++;
-                }
 
-                finalStr.append(']');
+            // primitive elements have neither toJSON nor a replacer to go through
+            if (elementType == int.class) {
+                buffer.append(data.getInt(index));
+            } else if (elementType == long.class) {
+                writeNumber(data.getLong(index), buffer);
+            } else if (elementType == double.class) {
+                writeNumber(data.getDouble(index), buffer);
             } else {
-                final int size = partial.size();
-                index = 0;
-                finalStr.append("[\n");
-                finalStr.append(state.indent);
-                for (final Object str : partial) {
-                    finalStr.append(str);
-                    if (index < size - 1) {
-                        finalStr.append(",\n");
-                        finalStr.append(state.indent);
-                    }
-                    index++;
+                final Object strP = toJSONValue(index, value, state);
+                if (isSerializable(strP)) {
+                    write(strP, state);
+                } else {
+                    buffer.append("null");
                 }
-
-                finalStr.append('\n');
-                finalStr.append(stepback);
-                finalStr.append(']');
             }
+            state.maybeFlush();
         }
 
-        state.stack.remove(value);
-        state.indent = stepback;
-
-        return finalStr.toString();
+        leave(value, state, ']', length == 0);
     }
 }
@@ -30,6 +30,7 @@ import static jdk.nashorn.internal.runtime.ScriptRuntime.UNDEFINED;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
@@ -366,6 +367,41 @@ public final class NativeJava {
         throw typeError("cant.convert.to.javascript.array", objArray.getClass().getName());
     }
 
+    /**
+     * Given a Java {@code int[]}, {@code long[]} or {@code double[]} array, returns a JavaScript array that uses the
+     * Java array as its storage instead of copying it like {@link #from(Object, Object)} does. Elements of the array's
+     * type that the script stores are visible in the Java array and vice versa, until the script stores an element of
+     * a wider type (e.g. a double in an int array), grows the array beyond the Java array's length or deletes
+     * elements; from then on the JavaScript array uses storage of its own. Given a {@link ByteBuffer}, returns an
+     * {@code ArrayBuffer} that shares the buffer's content between its position and limit, so that typed arrays
+     * created on it read and write the buffer directly, in native byte order like all typed arrays. Example:
+     * <pre>
+     * var samples = Java.view(sensor.getSamples()) // a double[]
+     * samples.forEach(function(val, i) { samples[i] = val * 2 })
+     * var words = new Int32Array(Java.view(channelBuffer))
+     * </pre>
+     * @param self not used
+     * @param obj the Java array or byte buffer. Can be null.
+     * @return a JavaScript array or {@code ArrayBuffer} backed by {@code obj}. Returns null if obj is null.
+     */
+    @Function(attributes = Attribute.NOT_ENUMERABLE, where = Where.CONSTRUCTOR)
+    public static Object view(final Object self, final Object obj) {
+        if (obj == null) {
+            return null;
+        } else if (obj instanceof int[]) {
+            return new NativeArray((int[])obj);
+        } else if (obj instanceof double[]) {
+            return new NativeArray((double[])obj);
+        } else if (obj instanceof long[]) {
+            return new NativeArray((long[])obj);
+        } else if (obj instanceof ByteBuffer) {
+            // the array buffer spans the buffer's remaining bytes
+            return new NativeArrayBuffer(((ByteBuffer)obj).slice());
+        }
+
+        throw typeError("cant.view.as.javascript.object", obj.getClass().getName());
+    }
+
     private static int[] copyArray(final byte[] in) {
         final int[] out = new int[in.length];
         for(int i = 0; i < in.length; ++i) {
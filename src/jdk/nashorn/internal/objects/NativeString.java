@@ -536,7 +536,7 @@ public final class NativeString extends ScriptObject {
      */
     @Function(attributes = Attribute.NOT_ENUMERABLE)
     public static Object charAt(final Object self, final Object pos) {
-        return charAtImpl(checkObjectToString(self), JSType.toInteger(pos));
+        return charAtImpl(checkObjectToCharSequence(self), JSType.toInteger(pos));
     }
 
     /**
@@ -558,10 +558,10 @@ public final class NativeString extends ScriptObject {
      */
     @SpecializedFunction
     public static String charAt(final Object self, final int pos) {
-        return charAtImpl(checkObjectToString(self), pos);
+        return charAtImpl(checkObjectToCharSequence(self), pos);
     }
 
-    private static String charAtImpl(final String str, final int pos) {
+    private static String charAtImpl(final CharSequence str, final int pos) {
         return pos < 0 || pos >= str.length() ? "" : String.valueOf(str.charAt(pos));
     }
 
@@ -573,7 +573,7 @@ public final class NativeString extends ScriptObject {
      */
     @Function(attributes = Attribute.NOT_ENUMERABLE)
     public static Object charCodeAt(final Object self, final Object pos) {
-        return charCodeAtImpl(checkObjectToString(self), JSType.toInteger(pos));
+        return charCodeAtImpl(checkObjectToCharSequence(self), JSType.toInteger(pos));
     }
 
     /**
@@ -595,10 +595,10 @@ public final class NativeString extends ScriptObject {
      */
     @SpecializedFunction
     public static double charCodeAt(final Object self, final int pos) {
-        return charCodeAtImpl(checkObjectToString(self), pos);
+        return charCodeAtImpl(checkObjectToCharSequence(self), pos);
     }
 
-    private static double charCodeAtImpl(final String str, final int pos) {
+    private static double charCodeAtImpl(final CharSequence str, final int pos) {
         return pos < 0 || pos >= str.length() ? Double.NaN : str.charAt(pos);
     }
 
@@ -628,8 +628,8 @@ public final class NativeString extends ScriptObject {
      */
     @Function(attributes = Attribute.NOT_ENUMERABLE, arity = 1)
     public static Object indexOf(final Object self, final Object search, final Object pos) {
-        final String str = checkObjectToString(self);
-        return str.indexOf(JSType.toString(search), JSType.toInteger(pos));
+        final CharSequence str = checkObjectToCharSequence(self);
+        return indexOfImpl(str, JSType.toString(search), JSType.toInteger(pos));
     }
 
     /**
@@ -664,7 +664,15 @@ public final class NativeString extends ScriptObject {
      */
     @SpecializedFunction
     public static int indexOf(final Object self, final Object search, final int pos) {
-        return checkObjectToString(self).indexOf(JSType.toString(search), pos);
+        final CharSequence str = checkObjectToCharSequence(self);
+        return indexOfImpl(str, JSType.toString(search), pos);
+    }
+
+    private static int indexOfImpl(final CharSequence str, final String search, final int pos) {
+        if (str instanceof ConsString) {
+            return ((ConsString)str).indexOf(search, pos);
+        }
+        return ((String)str).indexOf(search, pos);
     }
 
     /**
@@ -817,7 +825,7 @@ public final class NativeString extends ScriptObject {
     @Function(attributes = Attribute.NOT_ENUMERABLE)
     public static Object slice(final Object self, final Object start, final Object end) {
 
-        final String str      = checkObjectToString(self);
+        final CharSequence str = checkObjectToCharSequence(self);
         if (end == UNDEFINED) {
             return slice(str, JSType.toInteger(start));
         }
@@ -833,10 +841,10 @@ public final class NativeString extends ScriptObject {
      */
     @SpecializedFunction
     public static Object slice(final Object self, final int start) {
-        final String str = checkObjectToString(self);
+        final CharSequence str = checkObjectToCharSequence(self);
         final int from = start < 0 ? Math.max(str.length() + start, 0) : Math.min(start, str.length());
 
-        return str.substring(from);
+        return substringImpl(str, from, str.length());
     }
 
     /**
@@ -862,13 +870,13 @@ public final class NativeString extends ScriptObject {
     @SpecializedFunction
     public static Object slice(final Object self, final int start, final int end) {
 
-        final String str = checkObjectToString(self);
+        final CharSequence str = checkObjectToCharSequence(self);
         final int len    = str.length();
 
         final int from = start < 0 ? Math.max(len + start, 0) : Math.min(start, len);
         final int to   = end < 0   ? Math.max(len + end, 0)   : Math.min(end, len);
 
-        return str.substring(Math.min(from, to), to);
+        return substringImpl(str, Math.min(from, to), to);
     }
 
     /**
@@ -951,7 +959,7 @@ public final class NativeString extends ScriptObject {
      */
     @Function(attributes = Attribute.NOT_ENUMERABLE)
     public static Object substr(final Object self, final Object start, final Object length) {
-        final String str       = JSType.toString(self);
+        final CharSequence str = self instanceof ConsString ? (ConsString)self : JSType.toString(self);
         final int    strLength = str.length();
 
         int intStart = JSType.toInteger(start);
@@ -961,7 +969,7 @@ public final class NativeString extends ScriptObject {
 
         final int intLen = Math.min(Math.max(length == UNDEFINED ? Integer.MAX_VALUE : JSType.toInteger(length), 0), strLength - intStart);
 
-        return intLen <= 0 ? "" : str.substring(intStart, intStart + intLen);
+        return intLen <= 0 ? "" : substringImpl(str, intStart, intStart + intLen);
     }
 
     /**
@@ -975,7 +983,7 @@ public final class NativeString extends ScriptObject {
     @Function(attributes = Attribute.NOT_ENUMERABLE)
     public static Object substring(final Object self, final Object start, final Object end) {
 
-        final String str = checkObjectToString(self);
+        final CharSequence str = checkObjectToCharSequence(self);
         if (end == UNDEFINED) {
             return substring(str, JSType.toInteger(start));
         }
@@ -991,13 +999,13 @@ public final class NativeString extends ScriptObject {
      */
     @SpecializedFunction
     public static String substring(final Object self, final int start) {
-        final String str = checkObjectToString(self);
+        final CharSequence str = checkObjectToCharSequence(self);
         if (start < 0) {
-            return str;
+            return str.toString();
         } else if (start >= str.length()) {
             return "";
         } else {
-            return str.substring(start);
+            return substringImpl(str, start, str.length());
         }
     }
 
@@ -1023,15 +1031,15 @@ public final class NativeString extends ScriptObject {
      */
     @SpecializedFunction
     public static String substring(final Object self, final int start, final int end) {
-        final String str = checkObjectToString(self);
+        final CharSequence str = checkObjectToCharSequence(self);
         final int len = str.length();
         final int validStart = start < 0 ? 0 : start > len ? len : start;
         final int validEnd   = end < 0 ? 0 : end > len ? len : end;
 
         if (validStart < validEnd) {
-            return str.substring(validStart, validEnd);
+            return substringImpl(str, validStart, validEnd);
         }
-        return str.substring(validEnd, validStart);
+        return substringImpl(str, validEnd, validStart);
     }
 
     /**
@@ -1299,6 +1307,26 @@ public final class NativeString extends ScriptObject {
         }
     }
 
+    /**
+     * Like {@link #checkObjectToString(Object)}, but returns ConsStrings as they are so that
+     * operations that only need part of the string don't have to flatten it.
+     *
+     * @param self the object
+     * @return the object as String or ConsString
+     */
+    private static CharSequence checkObjectToCharSequence(final Object self) {
+        if (self instanceof String || self instanceof ConsString) {
+            return (CharSequence)self;
+        }
+        Global.checkObjectCoercible(self);
+        return JSType.toString(self);
+    }
+
+    // ConsString.subSequence only copies the requested characters
+    private static String substringImpl(final CharSequence str, final int start, final int end) {
+        return str instanceof String ? ((String)str).substring(start, end) : str.subSequence(start, end).toString();
+    }
+
     private boolean isValidStringIndex(final int key) {
         return key >= 0 && key < value.length();
     }
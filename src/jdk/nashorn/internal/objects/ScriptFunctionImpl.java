@@ -227,7 +227,9 @@ public class ScriptFunctionImpl extends ScriptFunction {
      */
     @Override
     protected ScriptFunction makeBoundFunction(final Object self, final Object[] args) {
-        return super.makeBoundFunction(self, args);
+        final ScriptFunction boundFunction = super.makeBoundFunction(self, args);
+        ((BoundScriptFunctionImpl)boundFunction).setBoundValues(this, self, args);
+        return boundFunction;
     }
 
     /**
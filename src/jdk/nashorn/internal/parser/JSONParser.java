@@ -69,12 +69,22 @@ public class JSONParser extends AbstractParser {
      * @return quoted and escaped string
      */
     public static String quote(final String value) {
+        return quote(value, new StringBuilder(value.length() + 2)).toString();
+    }
 
-        final StringBuilder product = new StringBuilder();
-
-        product.append("\"");
+    /**
+     * Appends a JSON-compatible quoted version of the given string.
+     *
+     * @param value string to be quoted
+     * @param product builder the quoted string is appended to
+     * @return the builder
+     */
+    public static StringBuilder quote(final String value, final StringBuilder product) {
+        product.append('"');
 
-        for (final char ch : value.toCharArray()) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char ch = value.charAt(i);
             // TODO: should use a table?
             switch (ch) {
             case '\\':
@@ -109,9 +119,9 @@ public class JSONParser extends AbstractParser {
             }
         }
 
-        product.append("\"");
+        product.append('"');
 
-        return product.toString();
+        return product;
     }
 
     /**
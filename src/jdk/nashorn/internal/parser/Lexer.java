@@ -265,6 +265,34 @@ public class Lexer extends Scanner {
         last = state.last;
     }
 
+    /**
+     * Continue lexing at a later position, skipping the content in between, e.g. a function body that does not
+     * need to be parsed. Line terminators in the skipped content are counted as if it had been lexed. Tokens
+     * already lexed beyond the starting position must have been removed from the stream by the caller.
+     *
+     * @param from             position to skip from
+     * @param fromLine         line number at the position to skip from
+     * @param fromLinePosition start of the line at the position to skip from
+     * @param to               position to continue lexing at
+     */
+    void skipTo(final int from, final int fromLine, final int fromLinePosition, final int to) {
+        int toLine = fromLine;
+        int toLinePosition = fromLinePosition;
+        for (int i = from; i < to; i++) {
+            if (isEOL(content[i])) {
+                // \r\n is a single line terminator
+                if (content[i] == '\r' && i + 1 < to && content[i + 1] == '\n') {
+                    i++;
+                }
+                toLine++;
+                toLinePosition = i + 1;
+            }
+        }
+
+        // a pending EOL lets the parser pick up the new line number
+        restoreState(new State(to, limit, toLine, toLine != fromLine ? toLine : -1, toLinePosition, LBRACE));
+    }
+
     /**
      * Add a new token to the stream.
      *
@@ -145,6 +145,18 @@ public class Parser extends AbstractParser implements Loggable {
 
     private int nextFunctionId;
 
+    /** Function being reparsed for on-demand compilation, null for the initial parse of a script. Bodies of its nested functions are skipped. */
+    private RecompilableScriptFunctionData reparsedFunction;
+
+    /** Flags of a nested function that are restored from its script function data when its body is skipped. */
+    private static final int SKIPPED_FUNCTION_FLAGS =
+            FunctionNode.IS_STRICT |
+            FunctionNode.USES_ARGUMENTS |
+            FunctionNode.USES_THIS |
+            FunctionNode.HAS_EVAL |
+            FunctionNode.HAS_NESTED_EVAL |
+            FunctionNode.USES_ANCESTOR_SCOPE;
+
     /**
      * Constructor
      *
@@ -222,6 +234,16 @@ public class Parser extends AbstractParser implements Loggable {
         defaultNames.push(new IdentNode(0, 0, name));
     }
 
+    /**
+     * Sets the function being reparsed for on-demand compilation. Its nested functions are compiled separately, so
+     * the parser doesn't build an AST for their bodies: it skips to the closing brace of each one it has script
+     * function data for, and restores from the data what the rest of the compilation needs to know about it.
+     * @param reparsedFunction the data of the function being reparsed.
+     */
+    public void setReparsedFunction(final RecompilableScriptFunctionData reparsedFunction) {
+        this.reparsedFunction = reparsedFunction;
+    }
+
     /**
      * Execute parse and return the resulting function node.
      * Errors will be thrown and the error manager will contain information
@@ -501,6 +523,7 @@ loop:
         return lc.pop(functionNode).
             setBody(lc, newBody).
             setLastToken(lc, lastToken).
+            setNestedFunctionCount(lc, nextFunctionId - functionNode.getId() - 1).
             setState(lc, errors.hasErrors() ? CompilationState.PARSE_ERROR : CompilationState.PARSED);
     }
 
@@ -2799,16 +2822,19 @@ loop:
                 functionNode.setFinish(lastFinish);
 
             } else {
+                final boolean skipBody = skipFunctionBody(functionNode);
                 expect(LBRACE);
 
-                // Gather the function elements.
-                final List<Statement> prevFunctionDecls = functionDeclarations;
-                functionDeclarations = new ArrayList<>();
-                try {
-                    sourceElements(false);
-                    addFunctionDeclarations(functionNode);
-                } finally {
-                    functionDeclarations = prevFunctionDecls;
+                if (!skipBody) {
+                    // Gather the function elements.
+                    final List<Statement> prevFunctionDecls = functionDeclarations;
+                    functionDeclarations = new ArrayList<>();
+                    try {
+                        sourceElements(false);
+                        addFunctionDeclarations(functionNode);
+                    } finally {
+                        functionDeclarations = prevFunctionDecls;
+                    }
                 }
 
                 lastToken = token;
@@ -2822,6 +2848,64 @@ loop:
         return functionNode;
     }
 
+    /**
+     * Skip the body of a function nested in the function being reparsed, if we have its script function data. The
+     * lexer is moved to the closing brace of the body and the function's flags are restored from the data. The
+     * functions nested in the skipped body still consume their ids, so the ids of the functions after it match the
+     * ones assigned when the source was first parsed.
+     * <p>
+     * Only reparses skip bodies. The initial parse of a script builds the AST of every function, as it has to report
+     * early errors and the script function data that the skipping relies on is created from those ASTs.
+     *
+     * @param functionNode the function node, its body not yet parsed. The current token is the opening brace.
+     * @return true if the body was skipped
+     */
+    private boolean skipFunctionBody(final FunctionNode functionNode) {
+        if (reparsedFunction == null || type != LBRACE || functionNode.getId() == reparsedFunction.getFunctionNodeId()) {
+            return false;
+        }
+
+        final RecompilableScriptFunctionData data = reparsedFunction.getScriptFunctionData(functionNode.getId());
+        if (data == null) {
+            // function was eliminated as dead code when first compiled, parse it as usual
+            return false;
+        }
+
+        final long functionToken = data.getToken();
+        final int  bodyEnd       = Token.descPosition(functionToken) + Token.descLength(functionToken) - 1;
+        if (Token.descPosition(functionToken) != Token.descPosition(functionNode.getFirstToken()) || source.getString(bodyEnd, 1).charAt(0) != '}') {
+            assert false : "mismatched data " + data + " for " + functionNode.getName();
+            return false;
+        }
+
+        // discard tokens lexed ahead and resume lexing at the closing brace
+        while (stream.last() > k) {
+            stream.removeLast();
+        }
+        lexer.skipTo(start, line, linePosition, bodyEnd);
+        nextFunctionId += data.getNestedFunctionCount();
+
+        final int flags = data.getFunctionFlags() & SKIPPED_FUNCTION_FLAGS;
+        if (flags != 0) {
+            lc.setFlag(functionNode, flags);
+        }
+        if ((flags & (FunctionNode.HAS_EVAL | FunctionNode.HAS_NESTED_EVAL)) != 0) {
+            // what markEval() would have done for the eval in the skipped body
+            final Iterator<FunctionNode> iter = lc.getFunctions();
+            boolean isSkippedFn = true;
+            while (iter.hasNext()) {
+                final FunctionNode fn = iter.next();
+                if (!isSkippedFn) {
+                    lc.setFlag(fn, FunctionNode.HAS_NESTED_EVAL);
+                }
+                isSkippedFn = false;
+                lc.setBlockNeedsScope(lc.getFunctionBody(fn));
+            }
+        }
+
+        return true;
+    }
+
     private void addFunctionDeclarations(final FunctionNode functionNode) {
         assert lc.peek() == lc.getFunctionBody(functionNode);
         VarNode lastDecl = null;
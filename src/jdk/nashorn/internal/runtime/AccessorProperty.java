@@ -37,6 +37,8 @@ import static jdk.nashorn.internal.runtime.JSType.getAccessorTypeIndex;
 import static jdk.nashorn.internal.runtime.JSType.getNumberOfAccessorTypes;
 import static jdk.nashorn.internal.runtime.UnwarrantedOptimismException.INVALID_PROGRAM_POINT;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.SwitchPoint;
@@ -116,7 +118,15 @@ public class AccessorProperty extends Property {
      *   produce different boun method handles wrapping the same access mechanism
      *   depending on callsite
      */
-    private MethodHandle[] GETTER_CACHE = new MethodHandle[NOOF_TYPES];
+    private transient MethodHandle[] GETTER_CACHE = new MethodHandle[NOOF_TYPES];
+
+    /**
+     * Property setter cache for setters that don't change the type of the property.
+     *   Created lazily and dropped when the current type changes. Setters depend on
+     *   the change callback as well, so the cache is only valid for {@link #setterCacheCallback}.
+     */
+    private transient MethodHandle[] SETTER_CACHE;
+    private transient SwitchPoint setterCacheCallback;
 
     /**
      * Create a new accessor property. Factory method used by nasgen generated code.
@@ -133,16 +143,16 @@ public class AccessorProperty extends Property {
     }
 
     /** Seed getter for the primitive version of this field (in -Dnashorn.fields.dual=true mode) */
-    protected final MethodHandle primitiveGetter;
+    protected transient MethodHandle primitiveGetter;
 
     /** Seed setter for the primitive version of this field (in -Dnashorn.fields.dual=true mode) */
-    protected final MethodHandle primitiveSetter;
+    protected transient MethodHandle primitiveSetter;
 
     /** Seed getter for the Object version of this field */
-    protected final MethodHandle objectGetter;
+    protected transient MethodHandle objectGetter;
 
     /** Seed setter for the Object version of this field */
-    protected final MethodHandle objectSetter;
+    protected transient MethodHandle objectSetter;
 
     /**
      * Current type of this object, in object only mode, this is an Object.class. In dual-fields mode
@@ -151,6 +161,12 @@ public class AccessorProperty extends Property {
      */
     private Class<?> currentType;
 
+    /** For bound properties, the property that was bound and the object it was bound to - see {@link #rebind(Object)} */
+    private transient AccessorProperty unboundProperty;
+    private transient Object boundObject;
+
+    private static final long serialVersionUID = 3371720170182154920L;
+
     /**
      * Delegate constructor for bound properties. This is used for properties created by
      * {@link ScriptRuntime#mergeScope} and the Nashorn {@code Object.bindProperties} method.
@@ -163,15 +179,21 @@ public class AccessorProperty extends Property {
      * @param delegate  delegate object to rebind receiver to
      */
     AccessorProperty(final AccessorProperty property, final Object delegate) {
-        super(property, property.getFlags() | IS_BOUND);
+        this(property, delegate, property.getFlags() | IS_BOUND, property.getCurrentType());
+        property.GETTER_CACHE = new MethodHandle[NOOF_TYPES];
+    }
+
+    private AccessorProperty(final AccessorProperty property, final Object delegate, final int flags, final Class<?> type) {
+        super(property, flags);
 
         this.primitiveGetter = bindTo(property.primitiveGetter, delegate);
         this.primitiveSetter = bindTo(property.primitiveSetter, delegate);
         this.objectGetter    = bindTo(property.objectGetter, delegate);
         this.objectSetter    = bindTo(property.objectSetter, delegate);
-        property.GETTER_CACHE = new MethodHandle[NOOF_TYPES];
+        this.unboundProperty = property;
+        this.boundObject     = delegate;
         // Properties created this way are bound to a delegate
-        setCurrentType(property.getCurrentType());
+        setCurrentType(type);
     }
 
     /**
@@ -263,6 +285,12 @@ public class AccessorProperty extends Property {
     public AccessorProperty(final String key, final int flags, final Class<?> structure, final int slot) {
         super(key, flags, slot);
 
+        initGetterSetter(structure);
+        initializeType();
+    }
+
+    private void initGetterSetter(final Class<?> structure) {
+        final int slot = getSlot();
         /*
          * primitiveGetter and primitiveSetter are only used in dual fields mode. Setting them to null also
          * works in dual field mode, it only means that the property never has a primitive
@@ -283,8 +311,18 @@ public class AccessorProperty extends Property {
             objectSetter    = gs.objectSetters[slot];
             primitiveSetter = gs.primitiveSetters[slot];
         }
+    }
 
-        initializeType();
+    @Override
+    void initMethodHandles(final Class<?> structure) {
+        assert structure != null && !isSpill();
+        initGetterSetter(structure);
+    }
+
+    private void readObject(final ObjectInputStream s) throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        // method handles are reinitialized by the owning map, see PropertyMap#readObject
+        GETTER_CACHE = new MethodHandle[NOOF_TYPES];
     }
 
     /**
@@ -331,6 +369,8 @@ public class AccessorProperty extends Property {
         this.primitiveSetter = property.primitiveSetter;
         this.objectGetter    = property.objectGetter;
         this.objectSetter    = property.objectSetter;
+        this.unboundProperty = property.unboundProperty;
+        this.boundObject     = property.boundObject;
 
         setCurrentType(newType);
     }
@@ -344,6 +384,28 @@ public class AccessorProperty extends Property {
         this(property, property.getCurrentType());
     }
 
+    /**
+     * Get the object a bound property is bound to.
+     *
+     * @return the receiver of a bound property's accessors, null if this property is not bound
+     */
+    Object getBoundObject() {
+        return boundObject;
+    }
+
+    /**
+     * Create a copy of this bound property with its accessors bound to another object,
+     * usually a copy of the object this property is bound to. The copy keeps the flags
+     * and type of this property.
+     *
+     * @param delegate the object to bind the accessors to
+     * @return the re-bound property
+     */
+    AccessorProperty rebind(final Object delegate) {
+        assert unboundProperty != null : "not a bound property " + this;
+        return new AccessorProperty(unboundProperty, delegate, getFlags(), getCurrentType());
+    }
+
     /**
      * Set initial value of a script object's property
      * @param owner        owner
@@ -622,12 +684,28 @@ public class AccessorProperty extends Property {
                  mh = ObjectClassGenerator.createGuardBoxedPrimitiveSetter(ct, generateSetter(ct, ct), mh);
             }
         } else {
-            mh = generateSetter(!forType.isPrimitive() ? Object.class : forType, type);
+            final SwitchPoint ccb = getChangeCallback();
+            MethodHandle[] cache = SETTER_CACHE;
+            if (cache == null || setterCacheCallback != ccb) {
+                cache = new MethodHandle[NOOF_TYPES];
+                setterCacheCallback = ccb;
+                SETTER_CACHE = cache;
+            } else if (cache[i] != null) {
+                return cache[i];
+            }
+            mh = addChangeCallback(generateSetter(!forType.isPrimitive() ? Object.class : forType, type));
+            cache[i] = mh;
+            return mh;
         }
 
-        /**
-         * Check if this is a special global name that requires switchpoint invalidation
-         */
+        return addChangeCallback(mh);
+    }
+
+    /**
+     * Check if this is a special global name that requires switchpoint invalidation
+     */
+    private MethodHandle addChangeCallback(final MethodHandle setter) {
+        MethodHandle mh = setter;
         final SwitchPoint ccb = getChangeCallback();
         if (ccb != null && ccb != NO_CHANGE_CALLBACK) {
             mh = MH.filterArguments(mh, 0, MH.insertArguments(debugInvalidate(getKey(), ccb), 1, changeCallback));
@@ -673,6 +751,7 @@ public class AccessorProperty extends Property {
     public final void setCurrentType(final Class<?> currentType) {
         assert currentType != boolean.class : "no boolean storage support yet - fix this";
         this.currentType = currentType == null ? null : currentType.isPrimitive() ? currentType : Object.class;
+        this.SETTER_CACHE = null;
     }
 
     @Override
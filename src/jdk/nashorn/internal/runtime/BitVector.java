@@ -25,12 +25,13 @@
 
 package jdk.nashorn.internal.runtime;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
  * Faster implementation of BitSet
  */
-public final class BitVector implements Cloneable {
+public final class BitVector implements Cloneable, Serializable {
     /** Number of bits per slot. */
     private static final int BITSPERSLOT = 64;
 
@@ -46,6 +47,8 @@ public final class BitVector implements Cloneable {
     /** Bit area. */
     private long[] bits;
 
+    private static final long serialVersionUID = 8240614506539880186L;
+
     /**
      * Constructor.
      */
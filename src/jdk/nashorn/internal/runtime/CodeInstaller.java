@@ -25,6 +25,8 @@
 
 package jdk.nashorn.internal.runtime;
 
+import java.util.Collection;
+import java.util.Map;
 import jdk.nashorn.internal.codegen.ClassEmitter;
 
 /**
@@ -54,6 +56,14 @@ public interface CodeInstaller<T> {
      */
     public Class<?> install(final String className, final byte[] bytecode);
 
+    /**
+     * Initialize already installed classes.
+     * @param classes the class to initialize
+     * @param source the source object for the classes
+     * @param constants the runtime constants for the classes
+     */
+    public void initialize(final Collection<Class<?>> classes, final Source source, final Object[] constants);
+
     /**
      * Verify generated bytecode before emission. This is called back from the
      * {@link ClassEmitter} or the {@link Compiler}. If the "--verify-code" parameter
@@ -74,4 +84,24 @@ public interface CodeInstaller<T> {
      * @return unique eval id
      */
     public long getUniqueEvalId();
+
+    /**
+     * Store a compiled script for later reuse. This is a nop if the installer doesn't
+     * use a persistent code cache.
+     *
+     * @param source the script source
+     * @param mainClassName the main class name
+     * @param classBytes map of class names to class bytes
+     * @param initializers function initializers
+     * @param constants constants array
+     */
+    public void storeScript(final Source source, final String mainClassName, final Map<String, byte[]> classBytes,
+            final Map<Integer, FunctionInitializer> initializers, final Object[] constants);
+
+    /**
+     * Returns a code installer that installs classes into a new class loader, so that they can be unloaded
+     * independently of the classes installed by this installer.
+     * @return a code installer with a new class loader
+     */
+    public CodeInstaller<T> withNewLoader();
 }
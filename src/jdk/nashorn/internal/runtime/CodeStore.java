@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.runtime;
+
+import static jdk.nashorn.internal.codegen.ObjectClassGenerator.OBJECT_FIELDS_ONLY;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedExceptionAction;
+import java.security.PrivilegedActionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import jdk.nashorn.internal.codegen.types.Type;
+import jdk.nashorn.internal.runtime.logging.DebugLogger;
+import jdk.nashorn.internal.runtime.logging.Loggable;
+import jdk.nashorn.internal.runtime.logging.Logger;
+
+/**
+ * A code cache for persistent caching of compiled scripts. Each compiled script is stored
+ * in its own file in the cache directory. The file name is derived from the digest of the
+ * script {@link Source} and from the runtime and compiler settings the script was compiled
+ * with, so a stored script is never installed into an incompatible runtime.
+ *
+ * The code store also keeps a type profile per source: the program point types that
+ * deoptimizing recompilations widened, so that functions can be compiled with them right away
+ * in later runs.
+ */
+@Logger(name="codestore")
+final class CodeStore implements Loggable {
+
+    /** Name of the system property used to set the code cache directory */
+    static final String CACHE_DIR_PROPERTY = "nashorn.persistent.code.cache";
+
+    /** Default code cache directory */
+    static final String DEFAULT_CACHE_DIR = "nashorn_code_cache";
+
+    private final File dir;
+    private final String runtimeKey;
+    private final DebugLogger log;
+
+    /** Type profiles by file name: function node id to program point to bytecode stack type */
+    private final Map<String, HashMap<Integer, HashMap<Integer, Character>>> typeProfiles = new HashMap<>();
+
+    /** Sources of the type profiles changed since they were last written, by file name */
+    private final Map<String, Source> changedTypeProfiles = new HashMap<>();
+
+    /** Serializes writes of type profiles, so a profile is never replaced by an older copy */
+    private final Object typeProfileWriteLock = new Object();
+
+    /**
+     * Constructor
+     *
+     * @param context the current context
+     * @param path directory to store code in
+     * @throws IOException if the directory can not be created or is not writable
+     */
+    CodeStore(final Context context, final String path) throws IOException {
+        this.dir        = checkDirectory(path);
+        this.runtimeKey = runtimeKey(context.getEnv());
+        this.log        = initLogger(context);
+    }
+
+    @Override
+    public DebugLogger getLogger() {
+        return log;
+    }
+
+    @Override
+    public DebugLogger initLogger(final Context context) {
+        return context.getLogger(getClass());
+    }
+
+    private static File checkDirectory(final String path) throws IOException {
+        try {
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<File>() {
+                @Override
+                public File run() throws IOException {
+                    final File dir = new File(path).getAbsoluteFile();
+                    if (!dir.exists() && !dir.mkdirs()) {
+                        throw new IOException("Could not create directory: " + dir);
+                    } else if (!dir.isDirectory()) {
+                        throw new IOException("Not a directory: " + dir);
+                    } else if (!dir.canRead() || !dir.canWrite()) {
+                        throw new IOException("Directory not readable or writable: " + dir);
+                    }
+                    return dir;
+                }
+            });
+        } catch (final PrivilegedActionException e) {
+            throw (IOException) e.getException();
+        }
+    }
+
+    /**
+     * Compute a key for the runtime and compiler settings that affect generated code. Code compiled
+     * with a different nashorn build or different settings is never shared.
+     */
+    private static String runtimeKey(final ScriptEnvironment env) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(Version.fullVersion()).
+            append(':').append(runtimeTimestamp()).
+            append(':').append(ScriptEnvironment.globalOptimistic()).
+            append(':').append(OBJECT_FIELDS_ONLY).
+            append(':').append(RecompilableScriptFunctionData.LAZY_COMPILATION).
+            append(':').append(env._callsite_flags).
+            append(':').append(env._debug_lines).
+            append(':').append(env._early_lvalue_error).
+            append(':').append(env._empty_statements).
+            append(':').append(env._function_statement).
+            append(':').append(env._no_syntax_extensions).
+            append(':').append(env._range_analysis).
+            append(':').append(env._scripting);
+        return Integer.toHexString(sb.toString().hashCode());
+    }
+
+    private static long runtimeTimestamp() {
+        return AccessController.doPrivileged(new PrivilegedAction<Long>() {
+            @Override
+            public Long run() {
+                final URL url = CodeStore.class.getResource("CodeStore.class");
+                try {
+                    return url == null ? 0L : url.openConnection().getLastModified();
+                } catch (final IOException e) {
+                    return 0L;
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the cache key for a script.
+     *
+     * @param source the script source
+     * @param strict is this a strict mode compilation?
+     * @return the cache key
+     */
+    String getCacheKey(final Source source, final boolean strict) {
+        return source.getDigest() + '-' + runtimeKey + (strict ? "-strict" : "");
+    }
+
+    /**
+     * Return a compiled script from the cache, or null if it isn't found.
+     *
+     * @param source the source
+     * @param key the cache key
+     * @return the compiled script or null
+     */
+    StoredScript loadScript(final Source source, final String key) {
+        final File file = new File(dir, key);
+
+        return AccessController.doPrivileged(new PrivilegedAction<StoredScript>() {
+            @Override
+            public StoredScript run() {
+                if (!file.exists()) {
+                    return null;
+                }
+                try (final ObjectInputStream in = new CodeInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                    final StoredScript storedScript = (StoredScript)in.readObject();
+                    log.info("loaded ", source, " from ", file);
+                    return storedScript;
+                } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+                    log.warning("failed to load ", source, " from ", file, ": ", e);
+                    return null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Store a compiled script in the cache. Failure to store the script, e.g. because one of its
+     * constants is not serializable, is logged and otherwise ignored.
+     *
+     * @param key the cache key
+     * @param source the source
+     * @param mainClassName the main class name
+     * @param classBytes a map of class bytes
+     * @param initializers the function initializers
+     * @param constants the constants array
+     */
+    void storeScript(final String key, final Source source, final String mainClassName, final Map<String, byte[]> classBytes,
+            final Map<Integer, FunctionInitializer> initializers, final Object[] constants) {
+        store(key, source, new StoredScript(mainClassName, classBytes, initializers, constants));
+    }
+
+    private void store(final String key, final Source source, final Object obj) {
+        final File file = new File(dir, key);
+
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            @Override
+            public Void run() {
+                File tmp = null;
+                try {
+                    // write to a temporary file and move it in place so concurrent readers never see partial files
+                    tmp = File.createTempFile(key, ".tmp", dir);
+                    try (final ObjectOutputStream out = new CodeOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                        out.writeObject(obj);
+                    }
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    log.info("stored ", source, " to ", file);
+                } catch (final IOException e) {
+                    log.warning("failed to store ", source, " to ", file, ": ", e);
+                    if (tmp != null) {
+                        tmp.delete();
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private String getTypeProfileKey(final Source source) {
+        return source.getDigest() + '-' + runtimeKey + "-types";
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashMap<Integer, HashMap<Integer, Character>> getTypeProfile(final Source source) {
+        final String key = getTypeProfileKey(source);
+        HashMap<Integer, HashMap<Integer, Character>> profile = typeProfiles.get(key);
+        if (profile == null) {
+            final File file = new File(dir, key);
+            profile = AccessController.doPrivileged(new PrivilegedAction<HashMap<Integer, HashMap<Integer, Character>>>() {
+                @Override
+                public HashMap<Integer, HashMap<Integer, Character>> run() {
+                    if (file.exists()) {
+                        try (final ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                            final HashMap<Integer, HashMap<Integer, Character>> stored = (HashMap<Integer, HashMap<Integer, Character>>)in.readObject();
+                            log.info("loaded type profile of ", source, " from ", file);
+                            return stored;
+                        } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+                            log.warning("failed to load type profile of ", source, " from ", file, ": ", e);
+                        }
+                    }
+                    return new HashMap<>();
+                }
+            });
+            typeProfiles.put(key, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Get the program point types of a function that deoptimizing recompilations widened in
+     * this or earlier runs.
+     *
+     * @param source the source of the function
+     * @param functionNodeId the id of the function node
+     * @return map from program point to type, empty if nothing was recorded
+     */
+    synchronized Map<Integer, Type> getTypeProfile(final Source source, final int functionNodeId) {
+        final Map<Integer, Character> types = getTypeProfile(source).get(functionNodeId);
+        if (types == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<Integer, Type> profile = new TreeMap<>();
+        for (final Map.Entry<Integer, Character> entry : types.entrySet()) {
+            profile.put(entry.getKey(), typeFor(entry.getValue()));
+        }
+        return profile;
+    }
+
+    /**
+     * Record the program point types of a function widened by a deoptimizing recompilation. This
+     * only updates the type profile of its source in memory, see {@link #storeTypeProfiles()}.
+     *
+     * @param source the source of the function
+     * @param functionNodeId the id of the function node
+     * @param invalidatedProgramPoints map from program point to widened type
+     */
+    synchronized void recordTypeProfile(final Source source, final int functionNodeId, final Map<Integer, Type> invalidatedProgramPoints) {
+        final HashMap<Integer, HashMap<Integer, Character>> profile = getTypeProfile(source);
+        HashMap<Integer, Character> types = profile.get(functionNodeId);
+        if (types == null) {
+            types = new HashMap<>();
+            profile.put(functionNodeId, types);
+        }
+
+        boolean changed = false;
+        for (final Map.Entry<Integer, Type> entry : invalidatedProgramPoints.entrySet()) {
+            final char bct = entry.getValue().getBytecodeStackType();
+            if (typeFor(bct) != null) {
+                final Character previous = types.put(entry.getKey(), bct);
+                changed |= previous == null || previous != bct;
+            }
+        }
+
+        if (changed) {
+            if (changedTypeProfiles.isEmpty()) {
+                TypeProfileWriter.register(this);
+            }
+            changedTypeProfiles.put(getTypeProfileKey(source), source);
+        }
+    }
+
+    /**
+     * Write the type profiles that changed since they were last written. This is done when the
+     * context compiles a script and at shutdown, rather than on every deoptimization.
+     */
+    void storeTypeProfiles() {
+        synchronized (typeProfileWriteLock) {
+            final Map<String, Source> changed;
+            final Map<String, HashMap<Integer, HashMap<Integer, Character>>> copies = new HashMap<>();
+            synchronized (this) {
+                if (changedTypeProfiles.isEmpty()) {
+                    return;
+                }
+                changed = new HashMap<>(changedTypeProfiles);
+                changedTypeProfiles.clear();
+                for (final String key : changed.keySet()) {
+                    final HashMap<Integer, HashMap<Integer, Character>> copy = new HashMap<>();
+                    for (final Map.Entry<Integer, HashMap<Integer, Character>> entry : typeProfiles.get(key).entrySet()) {
+                        copy.put(entry.getKey(), new HashMap<>(entry.getValue()));
+                    }
+                    copies.put(key, copy);
+                }
+            }
+
+            for (final Map.Entry<String, Source> entry : changed.entrySet()) {
+                store(entry.getKey(), entry.getValue(), copies.get(entry.getKey()));
+            }
+        }
+    }
+
+    /**
+     * Writes the changed type profiles of all code stores at shutdown. Code stores are only weakly
+     * referenced, so the profiles of a store that is collected first are lost unless its context
+     * compiled another script in the meantime.
+     */
+    private static final class TypeProfileWriter {
+        private static final Set<CodeStore> STORES = Collections.newSetFromMap(new WeakHashMap<CodeStore, Boolean>());
+
+        static {
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    Runtime.getRuntime().addShutdownHook(new Thread("nashorn-type-profile-writer") {
+                        @Override
+                        public void run() {
+                            final List<CodeStore> stores;
+                            synchronized (STORES) {
+                                stores = new ArrayList<>(STORES);
+                            }
+                            for (final CodeStore store : stores) {
+                                store.storeTypeProfiles();
+                            }
+                        }
+                    });
+                    return null;
+                }
+            });
+        }
+
+        static void register(final CodeStore store) {
+            synchronized (STORES) {
+                STORES.add(store);
+            }
+        }
+    }
+
+    private static Type typeFor(final char bytecodeStackType) {
+        switch (bytecodeStackType) {
+        case 'I':
+            return Type.INT;
+        case 'J':
+            return Type.LONG;
+        case 'D':
+            return Type.NUMBER;
+        case 'A':
+            return Type.OBJECT;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Serialized stand-in for the {@link Undefined} singletons.
+     */
+    private enum UndefinedValue {
+        UNDEFINED,
+        EMPTY
+    }
+
+    private static class CodeOutputStream extends ObjectOutputStream {
+        CodeOutputStream(final OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) throws IOException {
+            if (obj == Undefined.getUndefined()) {
+                return UndefinedValue.UNDEFINED;
+            } else if (obj == Undefined.getEmpty()) {
+                return UndefinedValue.EMPTY;
+            }
+            return obj;
+        }
+    }
+
+    private static class CodeInputStream extends ObjectInputStream {
+        CodeInputStream(final InputStream in) throws IOException {
+            super(in);
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object obj) throws IOException {
+            if (obj == UndefinedValue.UNDEFINED) {
+                return Undefined.getUndefined();
+            } else if (obj == UndefinedValue.EMPTY) {
+                return Undefined.getEmpty();
+            }
+            return obj;
+        }
+    }
+}
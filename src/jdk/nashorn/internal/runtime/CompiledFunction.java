@@ -34,9 +34,19 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.invoke.MutableCallSite;
 import java.lang.invoke.SwitchPoint;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import jdk.nashorn.internal.codegen.Compiler;
@@ -44,9 +54,11 @@ import jdk.nashorn.internal.codegen.Compiler.CompilationPhases;
 import jdk.nashorn.internal.codegen.types.ArrayType;
 import jdk.nashorn.internal.codegen.types.Type;
 import jdk.nashorn.internal.ir.FunctionNode;
+import jdk.nashorn.internal.objects.Global;
 import jdk.nashorn.internal.runtime.events.RecompilationEvent;
 import jdk.nashorn.internal.runtime.linker.Bootstrap;
 import jdk.nashorn.internal.runtime.logging.DebugLogger;
+import jdk.nashorn.internal.runtime.options.Options;
 
 /**
  * An version of a JavaScript function, native or JavaScript.
@@ -59,6 +71,15 @@ final class CompiledFunction {
     private static final MethodHandle HANDLE_REWRITE_EXCEPTION = findOwnMH("handleRewriteException", MethodHandle.class, CompiledFunction.class, OptimismInfo.class, RewriteException.class);
     private static final MethodHandle RESTOF_INVOKER = MethodHandles.exactInvoker(MethodType.methodType(Object.class, RewriteException.class));
 
+    /**
+     * Number of background threads for deoptimizing recompilations. With the default of 0, a function is recompiled
+     * on the thread that hit the failed optimistic assumption.
+     */
+    private static final int RECOMPILE_THREADS = Options.getIntProperty("nashorn.recompile.async.threads", 0);
+
+    /** Maximum number of deoptimizing recompilations waiting for a background thread before recompiling synchronously. */
+    private static final int RECOMPILE_QUEUE_SIZE = Options.getIntProperty("nashorn.recompile.async.queue", 64);
+
     private final DebugLogger log;
 
     /**
@@ -547,7 +568,11 @@ final class CompiledFunction {
     }
 
     private MethodHandle createRewriteExceptionHandler() {
-        return MH.foldArguments(RESTOF_INVOKER, MH.insertArguments(HANDLE_REWRITE_EXCEPTION, 0, this, optimismInfo));
+        return createRewriteExceptionHandler(optimismInfo);
+    }
+
+    private MethodHandle createRewriteExceptionHandler(final OptimismInfo info) {
+        return MH.foldArguments(RESTOF_INVOKER, MH.insertArguments(HANDLE_REWRITE_EXCEPTION, 0, this, info));
     }
 
     private static MethodHandle changeReturnType(final MethodHandle mh, final Class<?> newReturnType) {
@@ -621,6 +646,13 @@ final class CompiledFunction {
         final boolean shouldRecompile = oldOptimismInfo.requestRecompile(re);
         final boolean  canBeDeoptimized;
 
+        if (!shouldRecompile) {
+            final MethodHandle pendingRestOf = oldOptimismInfo.getPendingRestOf(re);
+            if (pendingRestOf != null) {
+                return pendingRestOf;
+            }
+        }
+
         FunctionNode fn = oldOptimismInfo.reparse();
         final Compiler compiler = oldOptimismInfo.getCompiler(fn, callSiteType, re); //set to non rest-of
 
@@ -631,7 +663,35 @@ final class CompiledFunction {
             canBeDeoptimized = canBeDeoptimized();
             assert !canBeDeoptimized || optimismInfo == oldOptimismInfo;
             logRecompile("Rest-of compilation [STANDALONE] ", fn, callSiteType, oldOptimismInfo.invalidatedProgramPoints);
-            return restOfHandle(oldOptimismInfo, compiler.compile(fn, CompilationPhases.COMPILE_ALL_RESTOF), canBeDeoptimized);
+            // rest-of methods of a pinned function are still optimistic, even if the function itself no longer is
+            final MethodHandle restOf = restOfHandle(oldOptimismInfo, compiler.compile(fn, CompilationPhases.COMPILE_ALL_RESTOF), canBeDeoptimized || oldOptimismInfo.data.isPinned());
+            oldOptimismInfo.putPendingRestOf(re, restOf);
+            return restOf;
+        }
+
+        if (recompileInBackground(oldOptimismInfo, callSiteType, re)) {
+            // Only the rest of this invocation is compiled here; the deoptimized function is installed when ready.
+            logRecompile("Rest-of compilation [BACKGROUND RECOMPILATION PENDING] ", fn, callSiteType, oldOptimismInfo.invalidatedProgramPoints);
+            final MethodHandle restOf = restOfHandle(oldOptimismInfo, compiler.compile(fn, CompilationPhases.COMPILE_ALL_RESTOF), true);
+            oldOptimismInfo.putPendingRestOf(re, restOf);
+            return restOf;
+        }
+
+        // once the function is over its budget, this and all further compilations of it are pessimistic
+        oldOptimismInfo.data.spendRecompilation();
+
+        if (oldOptimismInfo.data.isPinned()) {
+            // The rest of this invocation continues with the types of the version that failed, so it is compiled on
+            // its own, and the function is replaced with a pessimistic version compiled separately. A version evicted
+            // by pinning uses the pinned version instead, for callers that still hold on to it.
+            logRecompile("Rest-of compilation [PINNED] ", fn, callSiteType, oldOptimismInfo.invalidatedProgramPoints);
+            final MethodHandle restOf = restOfHandle(oldOptimismInfo, compiler.compile(fn, CompilationPhases.COMPILE_ALL_RESTOF), true);
+            if (optimismInfo == oldOptimismInfo) {
+                if (oldOptimismInfo.data.isInstalled(this) || !adoptPinned(oldOptimismInfo, callSiteType, re.getRuntimeScope())) {
+                    installPessimistic(oldOptimismInfo, callSiteType, re.getRuntimeScope());
+                }
+            }
+            return restOf;
         }
 
         logRecompile("Deoptimizing recompilation (up to bytecode) ", fn, callSiteType, oldOptimismInfo.invalidatedProgramPoints);
@@ -674,6 +734,192 @@ final class CompiledFunction {
         return restOf;
     }
 
+    /**
+     * Schedules the deoptimizing recompilation of this function on a background thread. Until the recompiled version
+     * is installed, call sites stay linked to the current invoker under a new switch point, and the rest-of methods
+     * for program points it keeps failing at are reused instead of being compiled again.
+     * @param info the optimism info of this function
+     * @param callSiteType the call site type to compile for
+     * @param re the rewrite exception that was raised
+     * @return true if a background recompilation is pending, false if the function has to be recompiled synchronously
+     */
+    private boolean recompileInBackground(final OptimismInfo info, final MethodType callSiteType, final RewriteException re) {
+        if (RECOMPILE_THREADS <= 0) {
+            return false;
+        }
+
+        final boolean scheduled;
+        synchronized (info) {
+            scheduled = !info.recompilePending;
+            if (scheduled) {
+                final Global global = Context.getGlobal();
+                try {
+                    BackgroundRecompiler.EXECUTOR.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            installRecompiled(info, callSiteType, global);
+                        }
+                    });
+                } catch (final RejectedExecutionException e) {
+                    log.info("Background recompilation queue full, recompiling ", DebugLogger.quote(info.data.getName()), " synchronously");
+                    return false;
+                }
+                info.recompilePending = true;
+                info.pendingRestOf = new HashMap<>();
+            }
+            info.newOptimisticAssumptions();
+        }
+
+        // only a new recompilation counts against the budget, not deoptimizations deferred to a pending one
+        if (scheduled) {
+            info.data.spendRecompilation();
+        }
+
+        return true;
+    }
+
+    /**
+     * Recompiles this function with all program points invalidated so far and installs it as the new invoker,
+     * relinking the call sites guarded by the interim switch point. Runs on a background recompiler thread. The
+     * runtime scope of the script is not used for type evaluation, as it must not be accessed from this thread.
+     * If the compilation fails, the function stays on its old invoker.
+     */
+    private void installRecompiled(final OptimismInfo info, final MethodType callSiteType, final Global global) {
+        final Global oldGlobal = Context.getGlobal();
+        final boolean globalChanged = oldGlobal != global;
+        try {
+            if (globalChanged) {
+                Context.setGlobal(global);
+            }
+
+            Map<Integer, Type> invalidatedProgramPoints;
+            synchronized (info) {
+                invalidatedProgramPoints = new TreeMap<>(info.invalidatedProgramPoints);
+            }
+
+            // program points can keep failing in the old invoker while we compile, so compile again until
+            // a version with all invalidations so far is ready
+            while (true) {
+                if (!info.data.isInstalled(this)) {
+                    // evicted by pinning, call sites relink to the pinned version instead
+                    synchronized (info) {
+                        SwitchPoint.invalidateAll(new SwitchPoint[] { info.optimisticAssumptions });
+                    }
+                    break;
+                }
+
+                FunctionNode fn = info.reparse();
+                logRecompile("Deoptimizing recompilation [BACKGROUND] ", fn, callSiteType, invalidatedProgramPoints);
+                fn = info.data.getCompiler(fn, callSiteType, null, invalidatedProgramPoints, null).compile(fn, CompilationPhases.COMPILE_ALL);
+                final MethodHandle newInvoker = info.data.lookup(fn);
+
+                synchronized (info) {
+                    if (!invalidatedProgramPoints.equals(info.invalidatedProgramPoints)) {
+                        invalidatedProgramPoints = new TreeMap<>(info.invalidatedProgramPoints);
+                        continue;
+                    }
+
+                    invoker     = newInvoker.asType(type().changeReturnType(newInvoker.type().returnType()));
+                    constructor = null; // Will be regenerated when needed
+
+                    final SwitchPoint interim = info.optimisticAssumptions;
+                    if (fn.canBeDeoptimized()) {
+                        info.newOptimisticAssumptions();
+                    } else {
+                        optimismInfo = null;
+                    }
+                    // Relink only after the new invoker and switch point are in place.
+                    SwitchPoint.invalidateAll(new SwitchPoint[] { interim });
+                }
+
+                if (log.isEnabled()) {
+                    log.info("Installed background recompilation of '", fn.getName(), "' (", Debug.id(this), ") ", fn.canBeDeoptimized() ? " can still be deoptimized." : " is completely deoptimized.");
+                }
+                break;
+            }
+        } catch (final RuntimeException e) {
+            log.warning("Background recompilation of ", DebugLogger.quote(info.data.getName()), " failed, keeping the current version: ", e);
+        } finally {
+            synchronized (info) {
+                info.recompilePending = false;
+                info.pendingRestOf = null;
+            }
+            if (globalChanged) {
+                Context.setGlobal(oldGlobal);
+            }
+        }
+    }
+
+    /**
+     * Recompiles a function pinned after exceeding its recompilation budget without optimistic types, and installs it
+     * as the new invoker.
+     */
+    private void installPessimistic(final OptimismInfo info, final MethodType callSiteType, final ScriptObject runtimeScope) {
+        FunctionNode fn = info.reparse();
+        logRecompile("Pessimistic recompilation [PINNED] ", fn, callSiteType, info.invalidatedProgramPoints);
+        fn = info.data.getCompiler(fn, callSiteType, runtimeScope, null, null).compile(fn, CompilationPhases.COMPILE_ALL);
+
+        final MethodHandle newInvoker = info.data.lookup(fn);
+        invoker     = newInvoker.asType(type().changeReturnType(newInvoker.type().returnType()));
+        constructor = null; // Will be regenerated when needed
+
+        if (fn.canBeDeoptimized()) {
+            info.newOptimisticAssumptions();
+        } else {
+            optimismInfo = null;
+        }
+    }
+
+    /**
+     * Makes a version evicted by pinning its function delegate to the pinned version, instead of compiling a
+     * pessimistic version of its own.
+     * @return true if the pinned version could be used, false if it has a different shape
+     */
+    private boolean adoptPinned(final OptimismInfo info, final MethodType callSiteType, final ScriptObject runtimeScope) {
+        final CompiledFunction pinnedVersion = info.data.getBest(callSiteType, runtimeScope);
+        if (pinnedVersion == this || pinnedVersion.canBeDeoptimized() || pinnedVersion.isVarArg() != isVarArg() ||
+                pinnedVersion.isApplyToCall() || pinnedVersion.type().parameterCount() != type().parameterCount()) {
+            return false;
+        }
+
+        log.info("Evicted version of ", DebugLogger.quote(info.data.getName()), " uses pinned version ", pinnedVersion.type());
+        final MethodHandle newInvoker = pinnedVersion.invoker;
+        invoker     = newInvoker.asType(type().changeReturnType(newInvoker.type().returnType()));
+        constructor = null; // Will be regenerated when needed
+        optimismInfo = null;
+        return true;
+    }
+
+    /**
+     * Bounded pool of daemon threads running deoptimizing recompilations, created on first use.
+     */
+    private static final class BackgroundRecompiler {
+        private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+                RECOMPILE_THREADS, RECOMPILE_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, RECOMPILE_QUEUE_SIZE)),
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        // created with privileges so that the thread does not inherit the context of the script that
+                        // triggered the recompilation
+                        return AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+                            @Override
+                            public Thread run() {
+                                final Thread thread = new Thread(r, "nashorn-recompiler-" + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                        });
+                    }
+                });
+
+        static {
+            EXECUTOR.allowCoreThreadTimeOut(true);
+        }
+    }
+
     private MethodHandle restOfHandle(final OptimismInfo info, final FunctionNode restOfFunction, final boolean canBeDeoptimized) {
         assert info != null;
         assert restOfFunction.getCompileUnit().getUnitClassName().indexOf("restOf") != -1;
@@ -690,7 +936,7 @@ final class CompiledFunction {
         }
 
         // If rest-of is itself optimistic, we must make sure that we can repeat a deoptimization if it, too hits an exception.
-        return MH.catchException(restOf, RewriteException.class, createRewriteExceptionHandler());
+        return MH.catchException(restOf, RewriteException.class, createRewriteExceptionHandler(info));
 
     }
 
@@ -700,10 +946,14 @@ final class CompiledFunction {
         private final Map<Integer, Type> invalidatedProgramPoints = new TreeMap<>();
         private SwitchPoint optimisticAssumptions;
         private final DebugLogger log;
+        // set while a background recompilation is pending, see recompileInBackground
+        private boolean recompilePending;
+        private Map<String, MethodHandle> pendingRestOf;
 
         OptimismInfo(final RecompilableScriptFunctionData data) {
             this.data = data;
             this.log  = data.getLogger();
+            invalidatedProgramPoints.putAll(data.getTypeProfile());
             newOptimisticAssumptions();
         }
 
@@ -711,7 +961,7 @@ final class CompiledFunction {
             optimisticAssumptions = new SwitchPoint();
         }
 
-        boolean requestRecompile(final RewriteException e) {
+        synchronized boolean requestRecompile(final RewriteException e) {
             final Type retType            = e.getReturnType();
             final Type previousFailedType = invalidatedProgramPoints.put(e.getProgramPoint(), retType);
 
@@ -727,6 +977,7 @@ final class CompiledFunction {
             }
 
             SwitchPoint.invalidateAll(new SwitchPoint[] { optimisticAssumptions });
+            data.recordTypeProfile(invalidatedProgramPoints);
 
             return true;
         }
@@ -752,6 +1003,24 @@ final class CompiledFunction {
         FunctionNode reparse() {
             return data.reparse();
         }
+
+        /**
+         * Rest-of methods are shared while a background recompilation is pending, as the same program points keep
+         * failing in the old invoker. They depend on the continuation entry points and the invalidations so far.
+         */
+        private String restOfKey(final RewriteException e) {
+            return Arrays.toString(getEntryPoints(e)) + invalidatedProgramPoints;
+        }
+
+        synchronized MethodHandle getPendingRestOf(final RewriteException e) {
+            return pendingRestOf == null ? null : pendingRestOf.get(restOfKey(e));
+        }
+
+        synchronized void putPendingRestOf(final RewriteException e, final MethodHandle restOf) {
+            if (pendingRestOf != null) {
+                pendingRestOf.put(restOfKey(e), restOf);
+            }
+        }
     }
 
     @SuppressWarnings("unused")
@@ -50,6 +50,14 @@ final class CompiledFunctions {
         functions.addAll(fs.functions);
     }
 
+    void clear() {
+        functions.clear();
+    }
+
+    boolean contains(final CompiledFunction f) {
+        return functions.contains(f);
+    }
+
     boolean isEmpty() {
         return functions.isEmpty();
     }
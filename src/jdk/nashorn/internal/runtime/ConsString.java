@@ -25,20 +25,46 @@
 
 package jdk.nashorn.internal.runtime;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 
 /**
  * This class represents a string composed of two parts which may themselves be
  * instances of <tt>ConsString</tt> or {@link String}. Copying of characters to
  * a proper string is delayed until it becomes necessary.
+ *
+ * <p>Character access, substrings and searches work on the tree of parts directly
+ * so that they don't require flattening the whole string. Ropes that become too deep
+ * are rebalanced on access so that these operations stay logarithmic in the number of
+ * parts.</p>
  */
 public final class ConsString implements CharSequence {
 
     private CharSequence left, right;
     final private int length;
+    private int depth;
     private boolean flat = false;
 
+    /** Ropes deeper than this are rebalanced before walking them. */
+    private static final int MAX_DEPTH = 64;
+
+    /** Fibonacci numbers used to decide whether a rope is balanced, FIB[n] > Integer.MAX_VALUE for the last one. */
+    private static final long[] FIB;
+
+    static {
+        final long[] fib = new long[MAX_DEPTH];
+        fib[0] = 1;
+        fib[1] = 2;
+        int n = 2;
+        while (fib[n - 1] <= Integer.MAX_VALUE) {
+            fib[n] = fib[n - 1] + fib[n - 2];
+            n++;
+        }
+        FIB = Arrays.copyOf(fib, n);
+    }
+
     /**
      * Constructor
      *
@@ -53,6 +79,7 @@ public final class ConsString implements CharSequence {
         this.left = left;
         this.right = right;
         length = left.length() + right.length();
+        depth = Math.max(depth(left), depth(right)) + 1;
     }
 
     @Override
@@ -67,12 +94,135 @@ public final class ConsString implements CharSequence {
 
     @Override
     public char charAt(final int index) {
-        return flattened().charAt(index);
+        if (flat) {
+            return left.charAt(index);
+        }
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        balance();
+        CharSequence cs = this;
+        int pos = index;
+        while (cs instanceof ConsString) {
+            final ConsString cons = (ConsString) cs;
+            if (cons.flat) {
+                cs = cons.left;
+                break;
+            }
+            final int leftLength = cons.left.length();
+            if (pos < leftLength) {
+                cs = cons.left;
+            } else {
+                pos -= leftLength;
+                cs = cons.right;
+            }
+        }
+        return cs.charAt(pos);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only the characters in the requested range are copied, the result is always a {@link String}.</p>
+     */
     @Override
     public CharSequence subSequence(final int start, final int end) {
-        return flattened().subSequence(start, end);
+        if (flat) {
+            return left.subSequence(start, end);
+        }
+        if (start < 0 || end > length || start > end) {
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+        }
+        if (start == 0 && end == length) {
+            return toString();
+        }
+        balance();
+        // descend to the smallest subtree containing the whole range
+        CharSequence cs = this;
+        int from = start, to = end;
+        while (cs instanceof ConsString && !((ConsString) cs).flat) {
+            final ConsString cons = (ConsString) cs;
+            final int leftLength = cons.left.length();
+            if (to <= leftLength) {
+                cs = cons.left;
+            } else if (from >= leftLength) {
+                from -= leftLength;
+                to -= leftLength;
+                cs = cons.right;
+            } else {
+                final char[] chars = new char[to - from];
+                getChars(cons, from, to, chars, 0);
+                return new String(chars);
+            }
+        }
+        return (cs instanceof ConsString ? ((ConsString) cs).left : cs).subSequence(from, to).toString();
+    }
+
+    /**
+     * Returns the index of the first occurrence of a string in this string at or after a position,
+     * with the same semantics as {@link String#indexOf(String, int)}. Only the parts of the rope
+     * at or after the start position are visited.
+     *
+     * @param str       the string to search for
+     * @param fromIndex the index to start the search from
+     * @return the index of the first occurrence, or -1 if there is none
+     */
+    public int indexOf(final String str, final int fromIndex) {
+        if (flat) {
+            return ((String) left).indexOf(str, fromIndex);
+        }
+        final int from = Math.max(fromIndex, 0);
+        final int strLength = str.length();
+        if (from >= length) {
+            return strLength == 0 ? length : -1;
+        } else if (strLength == 0) {
+            return from;
+        }
+
+        balance();
+        final Deque<CharSequence> stack = new ArrayDeque<>();
+        int pos = descend(this, from, stack);
+        final char first = str.charAt(0);
+        while (!stack.isEmpty()) {
+            final String part = nextPart(stack);
+            final int partLength = part.length();
+            final int partEnd = pos + partLength;
+            if (partEnd > from) {
+                final int localFrom = Math.max(from - pos, 0);
+                // matches that are completely inside this part
+                final int found = part.indexOf(str, localFrom);
+                if (found != -1) {
+                    return pos + found;
+                }
+                // matches that start in this part and continue in the following ones
+                for (int i = Math.max(partLength - strLength + 1, localFrom); i < partLength; i++) {
+                    if (part.charAt(i) == first && pos + i + strLength <= length && regionMatches(pos + i, str)) {
+                        return pos + i;
+                    }
+                }
+            }
+            pos = partEnd;
+        }
+        return -1;
+    }
+
+    /**
+     * Write the characters of this string to an {@link Appendable} part by part,
+     * without creating a flat copy of the string.
+     *
+     * @param out the appendable to write to
+     * @throws IOException if the appendable throws it
+     */
+    public void writeTo(final Appendable out) throws IOException {
+        if (flat) {
+            out.append(left);
+            return;
+        }
+        final Deque<CharSequence> stack = new ArrayDeque<>();
+        stack.addFirst(this);
+        while (!stack.isEmpty()) {
+            out.append(nextPart(stack));
+        }
     }
 
     private CharSequence flattened() {
@@ -97,8 +247,12 @@ public final class ConsString implements CharSequence {
         do {
             if (cs instanceof ConsString) {
                 final ConsString cons = (ConsString) cs;
-                stack.addFirst(cons.left);
-                cs = cons.right;
+                if (cons.flat) {
+                    cs = cons.left;
+                } else {
+                    stack.addFirst(cons.left);
+                    cs = cons.right;
+                }
             } else {
                 final String str = (String) cs;
                 pos -= str.length();
@@ -109,7 +263,162 @@ public final class ConsString implements CharSequence {
 
         left = new String(chars);
         right = "";
+        depth = 0;
         flat = true;
     }
 
+    private static int depth(final CharSequence cs) {
+        return cs instanceof ConsString ? ((ConsString) cs).depth : 0;
+    }
+
+    // a rope is balanced if it is at least as long as the Fibonacci number of its depth
+    private static boolean isBalanced(final CharSequence cs) {
+        if (!(cs instanceof ConsString)) {
+            return true;
+        }
+        final ConsString cons = (ConsString) cs;
+        return cons.flat || (cons.depth < FIB.length - 2 && cons.length >= FIB[cons.depth + 2]);
+    }
+
+    private void balance() {
+        if (depth > MAX_DEPTH) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Rebalance this rope with the algorithm from Boehm, Atkinson and Plass, "Ropes: an Alternative
+     * to Strings". Subtrees that are balanced already are reused as they are, so rebalancing a rope
+     * that was built by appending to a balanced rope only visits the recently appended parts.
+     * The characters of the string are not copied.
+     */
+    private void rebalance() {
+        final CharSequence[] forest = new CharSequence[FIB.length];
+        // left to right traversal that stops at balanced subtrees
+        final Deque<CharSequence> stack = new ArrayDeque<>();
+        stack.addFirst(right);
+        CharSequence cs = left;
+        do {
+            if (isBalanced(cs)) {
+                if (cs.length() > 0) {
+                    addToForest(forest, cs instanceof ConsString && ((ConsString) cs).flat ? ((ConsString) cs).left : cs);
+                }
+                cs = stack.pollFirst();
+            } else {
+                final ConsString cons = (ConsString) cs;
+                stack.addFirst(cons.right);
+                cs = cons.left;
+            }
+        } while (cs != null);
+
+        CharSequence result = null;
+        for (final CharSequence part : forest) {
+            if (part != null) {
+                result = result == null ? part : new ConsString(part, result);
+            }
+        }
+
+        if (result instanceof ConsString) {
+            final ConsString cons = (ConsString) result;
+            left = cons.left;
+            right = cons.right;
+            depth = cons.depth;
+        } else {
+            left = result == null ? "" : result;
+            right = "";
+            depth = 1;
+        }
+    }
+
+    private static void addToForest(final CharSequence[] forest, final CharSequence part) {
+        // slot i holds a rope of length in [FIB[i], FIB[i + 1]), higher slots hold earlier parts
+        CharSequence cs = part;
+        int i = 0;
+        CharSequence prefix = null;
+        while (cs.length() >= FIB[i + 1]) {
+            if (forest[i] != null) {
+                prefix = prefix == null ? forest[i] : new ConsString(forest[i], prefix);
+                forest[i] = null;
+            }
+            i++;
+        }
+        if (prefix != null) {
+            cs = new ConsString(prefix, cs);
+        }
+        while (true) {
+            if (forest[i] != null) {
+                cs = new ConsString(forest[i], cs);
+                forest[i] = null;
+            }
+            if (cs.length() < FIB[i + 1]) {
+                break;
+            }
+            i++;
+        }
+        forest[i] = cs;
+    }
+
+    // copy chars in [start, end) of a balanced rope, recursion depth is bounded by the rope depth
+    private static void getChars(final CharSequence cs, final int start, final int end, final char[] dst, final int dstBegin) {
+        if (cs instanceof ConsString) {
+            final ConsString cons = (ConsString) cs;
+            if (cons.flat) {
+                ((String) cons.left).getChars(start, end, dst, dstBegin);
+                return;
+            }
+            final int leftLength = cons.left.length();
+            if (start < leftLength) {
+                getChars(cons.left, start, Math.min(end, leftLength), dst, dstBegin);
+            }
+            if (end > leftLength) {
+                final int from = Math.max(start, leftLength);
+                getChars(cons.right, from - leftLength, end - leftLength, dst, dstBegin + from - start);
+            }
+        } else {
+            ((String) cs).getChars(start, end, dst, dstBegin);
+        }
+    }
+
+    // push the parts that make up the string from the part containing index on to the stack,
+    // returns the start position of that part
+    private static int descend(final CharSequence root, final int index, final Deque<CharSequence> stack) {
+        CharSequence cs = root;
+        int pos = 0;
+        while (cs instanceof ConsString && !((ConsString) cs).flat) {
+            final ConsString cons = (ConsString) cs;
+            final int leftLength = cons.left.length();
+            if (index - pos < leftLength) {
+                stack.addFirst(cons.right);
+                cs = cons.left;
+            } else {
+                pos += leftLength;
+                cs = cons.right;
+            }
+        }
+        stack.addFirst(cs);
+        return pos;
+    }
+
+    // pop parts from the stack until the next string part is found
+    private static String nextPart(final Deque<CharSequence> stack) {
+        CharSequence cs = stack.pollFirst();
+        while (cs instanceof ConsString) {
+            final ConsString cons = (ConsString) cs;
+            if (cons.flat) {
+                return (String) cons.left;
+            }
+            stack.addFirst(cons.right);
+            cs = cons.left;
+        }
+        return (String) cs;
+    }
+
+    private boolean regionMatches(final int start, final String str) {
+        for (int i = 1; i < str.length(); i++) {
+            if (charAt(start + i) != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
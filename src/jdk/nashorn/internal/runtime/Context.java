@@ -25,7 +25,9 @@
 
 package jdk.nashorn.internal.runtime;
 
+import static jdk.nashorn.internal.codegen.CompilerConstants.CONSTANTS;
 import static jdk.nashorn.internal.codegen.CompilerConstants.CREATE_PROGRAM_FUNCTION;
+import static jdk.nashorn.internal.codegen.CompilerConstants.SOURCE;
 import static jdk.nashorn.internal.codegen.CompilerConstants.STRICT_MODE;
 import static jdk.nashorn.internal.runtime.ECMAErrors.typeError;
 import static jdk.nashorn.internal.runtime.ScriptRuntime.UNDEFINED;
@@ -36,6 +38,7 @@ import java.io.PrintWriter;
 import java.lang.invoke.MethodHandle;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.net.MalformedURLException;
@@ -46,11 +49,22 @@ import java.security.CodeSigner;
 import java.security.CodeSource;
 import java.security.Permissions;
 import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
 import java.security.ProtectionDomain;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 
@@ -60,6 +74,7 @@ import jdk.nashorn.api.scripting.ScriptObjectMirror;
 import jdk.nashorn.internal.codegen.Compiler;
 import jdk.nashorn.internal.codegen.Compiler.CompilationPhases;
 import jdk.nashorn.internal.codegen.ObjectClassGenerator;
+import jdk.nashorn.internal.codegen.types.Type;
 import jdk.nashorn.internal.ir.FunctionNode;
 import jdk.nashorn.internal.ir.debug.ASTWriter;
 import jdk.nashorn.internal.ir.debug.PrintVisitor;
@@ -126,11 +141,13 @@ public final class Context {
         private final Context      context;
         private final ScriptLoader loader;
         private final CodeSource   codeSource;
+        private final String       cacheKey;
 
-        private ContextCodeInstaller(final Context context, final ScriptLoader loader, final CodeSource codeSource) {
+        private ContextCodeInstaller(final Context context, final ScriptLoader loader, final CodeSource codeSource, final String cacheKey) {
             this.context    = context;
             this.loader     = loader;
             this.codeSource = codeSource;
+            this.cacheKey   = cacheKey;
         }
 
         /**
@@ -147,6 +164,44 @@ public final class Context {
             return loader.installClass(className, bytecode, codeSource);
         }
 
+        @Override
+        public void initialize(final Collection<Class<?>> classes, final Source source, final Object[] constants) {
+            final DebugLogger log = context.getLogger(Compiler.class);
+            // do these in parallel, this significantly reduces class installation overhead
+            // however - it still means that every thread needs a separate doPrivileged
+            classes.parallelStream().forEach(
+                new Consumer<Class<?>>() {
+                    @Override
+                    public void accept(final Class<?> clazz) {
+                        try {
+                            AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
+                                @Override
+                                public Void run() {
+                                    try {
+                                        log.fine("Initializing source for ", clazz);
+                                        //use reflection to write source and constants table to installed classes
+                                        final Field sourceField = clazz.getDeclaredField(SOURCE.symbolName());
+                                        sourceField.setAccessible(true);
+                                        sourceField.set(null, source);
+
+                                        log.fine("Initializing constants for ", clazz);
+                                        final Field constantsField = clazz.getDeclaredField(CONSTANTS.symbolName());
+                                        constantsField.setAccessible(true);
+                                        constantsField.set(null, constants);
+                                    } catch (final IllegalAccessException | NoSuchFieldException e) {
+                                        throw new RuntimeException(e);
+                                    }
+                                    return null;
+                                }
+                            });
+                        } catch (final PrivilegedActionException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            log.fine("Done");
+        }
+
         @Override
         public void verify(final byte[] code) {
             context.verify(code);
@@ -161,6 +216,19 @@ public final class Context {
         public long getUniqueEvalId() {
             return context.getUniqueEvalId();
         }
+
+        @Override
+        public void storeScript(final Source source, final String mainClassName, final Map<String, byte[]> classBytes,
+                final Map<Integer, FunctionInitializer> initializers, final Object[] constants) {
+            if (cacheKey != null && context.codeStore != null) {
+                context.codeStore.storeScript(cacheKey, source, mainClassName, classBytes, initializers, constants);
+            }
+        }
+
+        @Override
+        public CodeInstaller<ScriptEnvironment> withNewLoader() {
+            return new ContextCodeInstaller(context, context.createNewLoader(), codeSource, null);
+        }
     }
 
     /** Is Context global debug mode enabled ? */
@@ -171,6 +239,12 @@ public final class Context {
     // class cache
     private ClassCache classCache;
 
+    // compilations in progress, by source
+    private final ConcurrentMap<Source, PendingCompilation> pendingCompilations = new ConcurrentHashMap<>();
+
+    // persistent code store
+    private CodeStore codeStore;
+
     /**
      * Get the current global scope
      * @return the current global scope
@@ -200,9 +274,9 @@ public final class Context {
         // This class in a package.access protected package.
         // Trusted code only can call this method.
         assert getGlobal() != global;
-        //same code can be cached between globals, then we need to invalidate method handle constants
+        //same code can be cached between globals, so method handle constants must not leak from one global to another
         if (global != null) {
-            Global.getConstants().invalidateAll();
+            Global.getConstants().setCurrentGlobal(global);
         }
         currentGlobal.set(global);
     }
@@ -279,6 +353,21 @@ public final class Context {
     /** Unique id for 'eval' */
     private final AtomicLong uniqueEvalId;
 
+    /**
+     * Deoptimizing recompilations allowed for all functions of a context within one budget window before they are
+     * compiled pessimistically
+     */
+    private static final int RECOMPILE_BUDGET = Options.getIntProperty("nashorn.recompile.context.budget", 10000);
+
+    /** Length of the window in which the context's recompilation budget is spent, in milliseconds */
+    private static final long RECOMPILE_WINDOW = TimeUnit.MILLISECONDS.toNanos(Options.getIntProperty("nashorn.recompile.context.window", 60000));
+
+    /** Number of deoptimizing recompilations in this context in the current budget window, never above the budget */
+    private final AtomicInteger recompilations = new AtomicInteger();
+
+    /** Start of the current budget window, in {@link System#nanoTime()} units */
+    private final AtomicLong recompileWindowStart = new AtomicLong(System.nanoTime());
+
     private static final ClassLoader myLoader = Context.class.getClassLoader();
     private static final StructureLoader sharedLoader;
 
@@ -382,6 +471,15 @@ public final class Context {
             classCache = new ClassCache(cacheSize);
         }
 
+        if (env._persistent_cache && !env._compile_only) {
+            try {
+                final String cacheDir = Options.getStringProperty(CodeStore.CACHE_DIR_PROPERTY, CodeStore.DEFAULT_CACHE_DIR);
+                codeStore = new CodeStore(this, cacheDir);
+            } catch (final IOException e) {
+                throw new RuntimeException("Error initializing code cache", e);
+            }
+        }
+
         // print version info if asked.
         if (env._version) {
             getErr().println("nashorn " + Version.version());
@@ -410,6 +508,14 @@ public final class Context {
         return env;
     }
 
+    /**
+     * Get the persistent code store of this context
+     * @return the code store, or null if persistent caching is disabled
+     */
+    CodeStore getCodeStore() {
+        return codeStore;
+    }
+
     /**
      * Get the output stream for this context
      * @return output print writer
@@ -471,7 +577,7 @@ public final class Context {
 
         Class<?> clazz = null;
         try {
-            clazz = compile(source, new ThrowErrorManager(), strictFlag);
+            clazz = compile(source, new ThrowErrorManager(), strictFlag, true);
         } catch (final ParserException e) {
             e.throwAsEcmaException(global);
             return null;
@@ -853,6 +959,29 @@ public final class Context {
         return global;
     }
 
+    /**
+     * Create a new global scope object as a copy of an initialized global of this context,
+     * including all the objects and properties scripts have added to it. This is much
+     * cheaper than creating and initializing a new global and evaluating the same scripts
+     * in it again. Copies share no script objects with the template or each other.
+     *
+     * @param template the global to copy
+     * @return the copy of the global
+     * @throws UnsupportedOperationException if the template global has typed arrays reachable from it
+     */
+    public Global copyGlobal(final Global template) {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new RuntimePermission(NASHORN_CREATE_GLOBAL));
+        }
+
+        if (((ScriptObject)template).getContext() != this) {
+            throw new IllegalArgumentException("global of another context");
+        }
+
+        return ScriptObjectCopier.copy(template);
+    }
+
     /**
      * Return the current global's context
      * @return current global's context
@@ -916,20 +1045,72 @@ public final class Context {
     }
 
     private ScriptFunction compileScript(final Source source, final ScriptObject scope, final ErrorManager errMan) {
-        return getProgramFunction(compile(source, errMan, this._strict), scope);
+        return getProgramFunction(compile(source, errMan, this._strict, false), scope);
     }
 
-    private synchronized Class<?> compile(final Source source, final ErrorManager errMan, final boolean strict) {
+    private Class<?> compile(final Source source, final ErrorManager errMan, final boolean strict, final boolean isEval) {
         // start with no errors, no warnings.
         errMan.reset();
 
-        Class<?> script = findCachedClass(source);
-        if (script != null) {
+        final Class<?> cached = findCachedClass(source);
+        if (cached != null) {
             final DebugLogger log = getLogger(Compiler.class);
             if (log.isEnabled()) {
                 log.fine(new RuntimeEvent<>(Level.INFO, source), "Code cache hit for ", source, " avoiding recompile.");
             }
-            return script;
+            return cached;
+        }
+
+        // Independent sources compile concurrently. A thread asking for a source that is already being
+        // compiled waits for that compilation instead of repeating it.
+        final PendingCompilation pending = new PendingCompilation(new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() {
+                return compileSource(source, errMan, strict, isEval);
+            }
+        }, strict);
+
+        final PendingCompilation inFlight = pendingCompilations.putIfAbsent(source, pending);
+        if (inFlight == null) {
+            try {
+                return pending.compile();
+            } finally {
+                pendingCompilations.remove(source, pending);
+            }
+        }
+
+        if (inFlight.strict == strict) {
+            final Class<?> script = inFlight.await();
+            if (script != null) {
+                return script;
+            }
+        }
+
+        // the other compilation failed or used different settings: compile here so that
+        // errors are reported to our own error manager
+        return compileSource(source, errMan, strict, isEval);
+    }
+
+    private Class<?> compileSource(final Source source, final ErrorManager errMan, final boolean strict, final boolean isEval) {
+        Class<?> script;
+
+        // eval code is not cached, nor is anything that needs the AST
+        final boolean useCodeStore = codeStore != null && !isEval && !env._parse_only && !env._print_ast && !env._print_parse &&
+                !env._print_lower_ast && !env._print_lower_parse && !env._print_symbols && !env._print_code;
+        final String cacheKey = useCodeStore ? codeStore.getCacheKey(source, strict) : null;
+
+        if (useCodeStore) {
+            // type profiles widened by deoptimizations since the last script are written once here
+            codeStore.storeTypeProfiles();
+
+            final StoredScript storedScript = codeStore.loadScript(source, cacheKey);
+            if (storedScript != null) {
+                // stored class names may clash with ones compiled in this process, so always use a new loader
+                final CodeSource cs = new CodeSource(source.getURL(), (CodeSigner[])null);
+                script = install(storedScript, source, new ContextCodeInstaller(this, createNewLoader(), cs, null));
+                cacheClass(source, script);
+                return script;
+            }
         }
 
         final FunctionNode functionNode = new Parser(env, source, errMan, strict, getLogger(Parser.class)).parse();
@@ -952,17 +1133,27 @@ public final class Context {
         final URL          url    = source.getURL();
         final ScriptLoader loader = env._loader_per_compile ? createNewLoader() : scriptLoader;
         final CodeSource   cs     = new CodeSource(url, (CodeSigner[])null);
-        final CodeInstaller<ScriptEnvironment> installer = new ContextCodeInstaller(this, loader, cs);
+        final CodeInstaller<ScriptEnvironment> installer = new ContextCodeInstaller(this, loader, cs, cacheKey);
 
         final CompilationPhases phases = Compiler.CompilationPhases.COMPILE_ALL;
 
+        // With lazy compilation only the program itself is compiled here, so its recorded types can be used.
+        final Map<Integer, Type> typeProfile = codeStore != null && RecompilableScriptFunctionData.LAZY_COMPILATION ?
+                new HashMap<>(codeStore.getTypeProfile(source, FunctionNode.FIRST_FUNCTION_ID)) : null;
+
         final Compiler compiler = new Compiler(
                 this,
                 env,
                 installer,
                 source,
                 functionNode.getSourceURL(),
-                strict | functionNode.isStrict());
+                strict | functionNode.isStrict(),
+                false,
+                null,
+                null,
+                typeProfile,
+                null,
+                null);
 
         script = compiler.compile(functionNode, phases).getRootClass();
         cacheClass(source, script);
@@ -970,6 +1161,36 @@ public final class Context {
         return script;
     }
 
+    /**
+     * Install a previously stored script, initializing its classes and the function data
+     * in its constants.
+     */
+    private Class<?> install(final StoredScript storedScript, final Source source, final CodeInstaller<ScriptEnvironment> installer) {
+        final Map<String, Class<?>> installedClasses = new LinkedHashMap<>();
+        for (final Map.Entry<String, byte[]> entry : storedScript.getClassBytes().entrySet()) {
+            final String className = entry.getKey();
+            installedClasses.put(className, installer.install(Compiler.binaryName(className), entry.getValue()));
+        }
+
+        final Object[] constants = storedScript.getConstants();
+        installer.initialize(installedClasses.values(), source, constants);
+
+        final Map<Integer, FunctionInitializer> initializers = storedScript.getInitializers();
+        for (final Object constant : constants) {
+            if (constant instanceof RecompilableScriptFunctionData) {
+                final RecompilableScriptFunctionData data = (RecompilableScriptFunctionData)constant;
+                data.initTransients(this, source, installer);
+                final FunctionInitializer initializer = initializers.get(data.getFunctionNodeId());
+                if (initializer != null) {
+                    initializer.setCode(installedClasses.get(initializer.getClassName()));
+                    data.initializeCode(initializer);
+                }
+            }
+        }
+
+        return installedClasses.get(storedScript.getMainClassName());
+    }
+
     private ScriptLoader createNewLoader() {
         return AccessController.doPrivileged(
              new PrivilegedAction<ScriptLoader>() {
@@ -980,6 +1201,31 @@ public final class Context {
              }, CREATE_LOADER_ACC_CTXT);
     }
 
+    /**
+     * Count a deoptimizing recompilation of a function in this context against the context's budget. The budget
+     * limits the rate of recompilations: it is refilled when a budget window has passed, so only recompilation
+     * storms pin functions, not the recompilations accumulated over the lifetime of a long running context.
+     * @return true if the recompilation is within the budget, false if functions should be compiled pessimistically
+     */
+    boolean spendRecompilation() {
+        final long now   = System.nanoTime();
+        final long start = recompileWindowStart.get();
+        if (now - start >= RECOMPILE_WINDOW && recompileWindowStart.compareAndSet(start, now)) {
+            recompilations.set(0);
+        }
+
+        // the count stops at the budget, so it can't wrap around
+        int count;
+        do {
+            count = recompilations.get();
+            if (count >= RECOMPILE_BUDGET) {
+                return false;
+            }
+        } while (!recompilations.compareAndSet(count, count + 1));
+
+        return true;
+    }
+
     private long getUniqueEvalId() {
         return uniqueEvalId.getAndIncrement();
     }
@@ -1030,20 +1276,77 @@ public final class Context {
         }
     }
 
-    // Class cache management
+    /**
+     * A compilation of a source in progress. Other threads compiling the same source wait for its result.
+     */
+    private static final class PendingCompilation extends FutureTask<Class<?>> {
+        private final boolean strict;
+
+        PendingCompilation(final Callable<Class<?>> compilation, final boolean strict) {
+            super(compilation);
+            this.strict = strict;
+        }
+
+        /**
+         * Run the compilation in the current thread.
+         * @return the compiled class, or null if there were errors
+         */
+        Class<?> compile() {
+            run();
+            try {
+                return get();
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw new RuntimeException(cause);
+            } catch (final InterruptedException e) {
+                // cannot happen, the task is done
+                throw new AssertionError(e);
+            }
+        }
+
+        /**
+         * Wait for a compilation running in another thread.
+         * @return the compiled class, or null if the compilation failed or the wait was interrupted
+         */
+        Class<?> await() {
+            try {
+                return get();
+            } catch (final ExecutionException e) {
+                return null;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    // Class cache management. The cache is in access order, so lookups mutate it too
     private Class<?> findCachedClass(final Source source) {
-        final ClassReference ref = classCache == null ? null : classCache.get(source);
+        if (classCache == null) {
+            return null;
+        }
+        final ClassReference ref;
+        synchronized (classCache) {
+            ref = classCache.get(source);
+        }
         return ref != null ? ref.get() : null;
     }
 
     private void cacheClass(final Source source, final Class<?> clazz) {
         if (classCache != null) {
-            classCache.cache(source, clazz);
+            synchronized (classCache) {
+                classCache.cache(source, clazz);
+            }
         }
     }
 
     // logging
-    private final Map<String, DebugLogger> loggers = new HashMap<>();
+    private final ConcurrentMap<String, DebugLogger> loggers = new ConcurrentHashMap<>();
 
     private void initLoggers() {
         ((Loggable)MethodHandleFactory.getFunctionality()).initLogger(this);
@@ -1062,8 +1365,11 @@ public final class Context {
                 return DebugLogger.DISABLED_LOGGER;
             }
             final LoggerInfo info = env._loggers.get(name);
-            logger = new DebugLogger(name, info.getLevel(), info.isQuiet());
-            loggers.put(name, logger);
+            final DebugLogger newLogger = new DebugLogger(name, info.getLevel(), info.isQuiet());
+            logger = loggers.putIfAbsent(name, newLogger);
+            if (logger == null) {
+                logger = newLogger;
+            }
         }
         return logger;
     }
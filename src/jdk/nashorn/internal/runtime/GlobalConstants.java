@@ -33,9 +33,13 @@ import static jdk.nashorn.internal.lookup.Lookup.MH;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.SwitchPoint;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import jdk.internal.dynalink.CallSiteDescriptor;
@@ -73,6 +77,14 @@ import jdk.nashorn.internal.runtime.logging.Logger;
  *
  * As long as all Globals share the same constant instance, we need synchronization
  * whenever we access the instance.
+ *
+ * Compiled classes are shared between the globals of a context, so the same callsite
+ * can be linked from several globals. As long as only one global has been used, constant
+ * getters are linked without a guard. Once a second global is made current, all constant
+ * getters are invalidated one time, and from then on a constant getter is only linked
+ * when the receiver is the global owning the property, guarded by the identity of that
+ * global. Switching between globals then no longer requires any relinking of callsites
+ * that have already been linked for each global.
  */
 @Logger(name="const")
 public final class GlobalConstants implements Loggable {
@@ -88,6 +100,7 @@ public final class GlobalConstants implements Loggable {
 
     private static final MethodHandle INVALIDATE_SP  = virtualCall(LOOKUP, GlobalConstants.class, "invalidateSwitchPoint", Object.class, Object.class, Access.class).methodHandle();
     private static final MethodHandle RECEIVER_GUARD = staticCall(LOOKUP, GlobalConstants.class, "receiverGuard", boolean.class, Access.class, Object.class, Object.class).methodHandle();
+    private static final MethodHandle GLOBAL_GUARD   = staticCall(LOOKUP, GlobalConstants.class, "globalGuard", boolean.class, Object.class, Object.class).methodHandle();
 
     /** Logger for constant getters */
     private final DebugLogger log;
@@ -98,6 +111,18 @@ public final class GlobalConstants implements Loggable {
      */
     private final Map<String, Access> map = new HashMap<>();
 
+    /**
+     * Names of the properties for which constant getters may currently be linked. Writes to other
+     * global properties can skip the invalidation, and don't need to take the lock.
+     */
+    private final Set<String> linkedGetters = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /** The only global that has been made current so far, if constants are not yet shared between globals */
+    private WeakReference<ScriptObject> singleGlobal;
+
+    /** Has more than one global been made current, requiring constant getters to be guarded by their global? */
+    private volatile boolean multipleGlobals;
+
     /**
      * Constructor - used only by global
      * @param log logger, or null if none
@@ -210,14 +235,40 @@ public final class GlobalConstants implements Loggable {
     }
 
     /**
-     * To avoid an expensive global guard "is this the same global", similar to the
-     * receiver guard on the ScriptObject level, we invalidate all getters once
-     * when we switch globals. This is used from the class cache. We _can_ reuse
-     * the same class for a new global, but the builtins and global scoped variables
-     * will have changed.
+     * Called whenever a global is made current. The first time a global other than the
+     * only one used so far becomes current, the constant getters linked without a guard
+     * are invalidated, as the class cache can reuse the same class for a new global, but
+     * the builtins and global scoped variables will have changed. From then on constant
+     * getters are guarded by their global instead, so switching globals is free.
+     *
+     * @param global the new current global
+     */
+    public void setCurrentGlobal(final ScriptObject global) {
+        if (multipleGlobals) {
+            return;
+        }
+
+        synchronized (this) {
+            if (singleGlobal == null) {
+                singleGlobal = new WeakReference<>(global);
+            } else if (singleGlobal.get() != global) {
+                log.info("Second global made current - constant getters are guarded by their global from now on.");
+                singleGlobal    = null;
+                multipleGlobals = true;
+                invalidateAll();
+            }
+        }
+    }
+
+    private boolean isSingleGlobal(final ScriptObject global) {
+        return !multipleGlobals && singleGlobal != null && singleGlobal.get() == global;
+    }
+
+    /**
+     * Invalidate all constant getters without increasing their invalidation count.
      */
     public synchronized void invalidateAll() {
-        log.info("New global created - invalidating all constant callsites without increasing invocation count.");
+        log.info("Invalidating all constant callsites without increasing invocation count.");
         for (final Access acc : map.values()) {
             acc.invalidateUncounted();
         }
@@ -261,6 +312,26 @@ public final class GlobalConstants implements Loggable {
         return acc;
     }
 
+    /**
+     * Called from script object when a property of a global is written outside of a linked
+     * setter, e.g. from Java through a mirror or the engine bindings. Getters linked as
+     * MethodHandle.constant for the property are invalidated, so they see the new value.
+     * @param name name of property
+     */
+    void invalidate(final String name) {
+        // a getter linked after this check reads the value after it has been written
+        if (!linkedGetters.contains(name)) {
+            return;
+        }
+        synchronized (this) {
+            final Access acc = map.get(name);
+            if (acc != null) {
+                invalidateSwitchPoint(null, acc);
+            }
+            linkedGetters.remove(name);
+        }
+    }
+
     /**
      * Called from script object on property deletion to erase a property
      * that might be linked as MethodHandle.constant and force relink
@@ -296,6 +367,21 @@ public final class GlobalConstants implements Loggable {
         return id;
     }
 
+    /**
+     * Global guard, used for constant getters once several globals share the same code.
+     * Unlike the receiver guard, a failure is expected here and does not count as an
+     * invalidation: the callsite is simply linked again for the other global.
+     *
+     * @param boundGlobal the global bound to the callsite
+     * @param receiver    the receiver to check against
+     *
+     * @return true if the receiver is the global bound to the callsite
+     */
+    @SuppressWarnings("unused")
+    private static boolean globalGuard(final Object boundGlobal, final Object receiver) {
+        return receiver == boundGlobal;
+    }
+
     private static boolean isGlobalSetter(final ScriptObject receiver, final FindProperty find) {
         if (find == null) {
             return receiver.isScope();
@@ -381,6 +467,12 @@ public final class GlobalConstants implements Loggable {
             return null;
         }
 
+        // with several globals, only the global itself can be told apart from the others cheaply
+        final boolean guardGlobal = find.getOwner().isGlobal() && !isSingleGlobal(find.getOwner());
+        if (guardGlobal && receiver != find.getOwner()) {
+            return null;
+        }
+
         final int programPoint         = NashornCallSiteDescriptor.isOptimistic(desc) ?
             NashornCallSiteDescriptor.getProgramPoint(desc) :
             UnwarrantedOptimismException.INVALID_PROGRAM_POINT;
@@ -389,6 +481,8 @@ public final class GlobalConstants implements Loggable {
         final String      name         = desc.getNameToken(CallSiteDescriptor.NAME_OPERAND);
 
         final Access acc = getOrCreateSwitchPoint(name);
+        // register before reading the value, so a concurrent write either sees the name or is seen by the read
+        linkedGetters.add(name);
 
         log.fine("Starting to look up object value " + name);
         final Object c = find.getObjectValue();
@@ -421,7 +515,7 @@ public final class GlobalConstants implements Loggable {
         }
 
         if (find.getOwner().isGlobal()) {
-            guard = null;
+            guard = guardGlobal ? MH.insertArguments(GLOBAL_GUARD, 0, receiver) : null;
         } else {
             guard = MH.insertArguments(RECEIVER_GUARD, 0, acc, receiver);
         }
@@ -25,6 +25,9 @@
 
 package jdk.nashorn.internal.runtime;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.util.Iterator;
 import java.util.concurrent.Callable;
@@ -68,6 +71,17 @@ public final class JSONFunctions {
         return JSONParser.quote(str);
     }
 
+    /**
+     * Appends JSON-compatible quoted version of the given string to a builder.
+     *
+     * @param str String to be quoted
+     * @param sb builder to append the quoted string to
+     * @return the builder
+     */
+    public static StringBuilder quote(final String str, final StringBuilder sb) {
+        return JSONParser.quote(str, sb);
+    }
+
     /**
      * Parses the given JSON text string and returns object representation.
      *
@@ -76,21 +90,42 @@ public final class JSONFunctions {
      * @return Object representation of JSON text given
      */
     public static Object parse(final Object text, final Object reviver) {
-        final String     str     = JSType.toString(text);
-        final JSONParser parser  = new JSONParser(
-                new Source("<json>", str),
-                new Context.ThrowErrorManager());
+        final String str    = JSType.toString(text);
+        final Global global = Context.getGlobal();
 
-        Node node;
+        Object unfiltered;
+        try {
+            unfiltered = JSONObjectParser.parse(global, str);
+        } catch (final ParserException e) {
+            // not strictly JSON, let the IR based parser report or accept it
+            unfiltered = parseToNode(global, str);
+        }
+
+        return applyReviver(global, unfiltered, reviver);
+    }
 
+    /**
+     * Parses JSON text read from the given reader and returns object representation.
+     * The text is parsed as it is read, it is never held in memory as a whole. The
+     * reader is not closed. This is not reachable from JSON.parse, which always converts
+     * its text argument to string; see {@code ScriptUtils.parseJSON}.
+     *
+     * @param reader reader of the JSON text to be parsed
+     * @param reviver  optional value: function that takes two parameters (key, value)
+     * @return Object representation of JSON text read
+     */
+    public static Object parse(final Reader reader, final Object reviver) {
+        final Global global = Context.getGlobal();
+
+        Object unfiltered;
         try {
-            node = parser.parse();
+            unfiltered = JSONObjectParser.parse(global, reader);
         } catch (final ParserException e) {
             throw ECMAErrors.syntaxError(e, "invalid.json", e.getMessage());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
         }
 
-        final Global global = Context.getGlobal();
-        final Object unfiltered = convertNode(global, node);
         return applyReviver(global, unfiltered, reviver);
     }
 
@@ -98,6 +133,24 @@ public final class JSONFunctions {
 
     // parse helpers
 
+    // parse through the IR, for text rejected by the direct parser. This reports errors with the
+    // offending source line, and keeps accepting the few inputs this parser has always tolerated
+    private static Object parseToNode(final Global global, final String str) {
+        final JSONParser parser  = new JSONParser(
+                new Source("<json>", str),
+                new Context.ThrowErrorManager());
+
+        Node node;
+
+        try {
+            node = parser.parse();
+        } catch (final ParserException e) {
+            throw ECMAErrors.syntaxError(e, "invalid.json", e.getMessage());
+        }
+
+        return convertNode(global, node);
+    }
+
     // apply 'reviver' function if available
     private static Object applyReviver(final Global global, final Object unfiltered, final Object reviver) {
         if (reviver instanceof ScriptFunction) {
@@ -193,7 +246,7 @@ public final class JSONFunctions {
     }
 
     // add a new property if does not exist already, or else set old property
-    private static void setPropertyValue(final ScriptObject sobj, final String name, final Object value, final boolean strict) {
+    static void setPropertyValue(final ScriptObject sobj, final String name, final Object value, final boolean strict) {
         final int index = ArrayIndex.getArrayIndex(name);
         if (ArrayIndex.isValidArrayIndex(index)) {
             // array index key
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.runtime;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import jdk.nashorn.internal.objects.Global;
+
+/**
+ * Parses JSON text directly into script objects and arrays, without building an
+ * IR tree first. The text is consumed in chunks, either from a String or from a
+ * Reader, so a large document is neither held twice in memory nor required to
+ * exist as a String at all.
+ *
+ * Arrays of int values are created with int array data, arrays of other numbers
+ * with double array data. Objects get their properties added in document order,
+ * so objects with the same sequence of keys end up sharing one property map
+ * through the property map transitions.
+ *
+ * Only the JSON grammar of ECMA 15.12.1 is accepted. Errors are reported as
+ * {@link ParserException}s with the line and column of the error.
+ */
+final class JSONObjectParser {
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int EOF = -1;
+
+    private final Global global;
+
+    /** Reader to parse, or null if parsing a string */
+    private final Reader reader;
+
+    /** String to parse, or null if parsing from a reader */
+    private final String text;
+
+    /** Offset in {@link #text} of the next chunk */
+    private int textOffset;
+
+    private final char[] buffer;
+
+    /** Position of the next char in the buffer */
+    private int position;
+
+    /** Number of chars in the buffer */
+    private int limit;
+
+    /** Offset in the input of the first char in the buffer */
+    private long bufferOffset;
+
+    /** Current line, and offset in the input where it starts */
+    private int  line = 1;
+    private long lineOffset;
+
+    /** Collects strings that span chunks or contain escapes, and numbers */
+    private final StringBuilder scratch = new StringBuilder();
+
+    private JSONObjectParser(final Global global, final Reader reader, final String text) {
+        this.global = global;
+        this.reader = reader;
+        this.text   = text;
+        this.buffer = new char[text != null ? Math.min(BUFFER_SIZE, Math.max(text.length(), 1)) : BUFFER_SIZE];
+    }
+
+    /**
+     * Parse JSON text.
+     *
+     * @param global global used to create objects and arrays
+     * @param text   JSON text
+     * @return the value of the JSON text
+     * @throws ParserException if the text is not valid JSON
+     */
+    static Object parse(final Global global, final String text) {
+        try {
+            return new JSONObjectParser(global, null, text).parse();
+        } catch (final IOException e) {
+            throw new AssertionError(e); // cannot happen, nothing is read
+        }
+    }
+
+    /**
+     * Parse JSON text, reading it incrementally from a reader. The reader is not closed.
+     *
+     * @param global global used to create objects and arrays
+     * @param reader reader of the JSON text
+     * @return the value of the JSON text
+     * @throws IOException if reading fails
+     * @throws ParserException if the text is not valid JSON
+     */
+    static Object parse(final Global global, final Reader reader) throws IOException {
+        return new JSONObjectParser(global, reader, null).parse();
+    }
+
+    private Object parse() throws IOException {
+        skipWhitespace();
+        final Object value = parseValue();
+        skipWhitespace();
+        if (peek() != EOF) {
+            throw expected("eof");
+        }
+        return value;
+    }
+
+    private Object parseValue() throws IOException {
+        switch (peek()) {
+        case '{':
+            return parseObject();
+        case '[':
+            return parseArray();
+        case '"':
+            position++;
+            return parseString();
+        case 't':
+            parseWord("true");
+            return Boolean.TRUE;
+        case 'f':
+            parseWord("false");
+            return Boolean.FALSE;
+        case 'n':
+            parseWord("null");
+            return null;
+        case '-':
+        case '0': case '1': case '2': case '3': case '4':
+        case '5': case '6': case '7': case '8': case '9':
+            return parseNumber();
+        default:
+            throw expected("json literal");
+        }
+    }
+
+    private ScriptObject parseObject() throws IOException {
+        position++; // '{'
+        final ScriptObject object = global.newObject();
+
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+
+        while (true) {
+            if (peek() != '"') {
+                throw expected("string");
+            }
+            position++;
+            final String key = parseString();
+
+            skipWhitespace();
+            if (peek() != ':') {
+                throw expected(":");
+            }
+            position++;
+            skipWhitespace();
+
+            JSONFunctions.setPropertyValue(object, key, parseValue(), false);
+
+            skipWhitespace();
+            switch (peek()) {
+            case '}':
+                position++;
+                return object;
+            case ',':
+                position++;
+                skipWhitespace();
+                if (peek() == '}') {
+                    throw error(ECMAErrors.getMessage("parser.error.trailing.comma.in.json"));
+                }
+                break;
+            default:
+                throw expected(", or }");
+            }
+        }
+    }
+
+    private Object parseArray() throws IOException {
+        position++; // '['
+
+        // elements are collected as ints as long as possible, then as doubles, then as objects
+        int[]    ints    = new int[8];
+        double[] doubles = null;
+        Object[] objects = null;
+        int      length  = 0;
+
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return global.wrapAsObject(new int[0]);
+        }
+
+        while (true) {
+            final Object value = parseValue();
+
+            if (ints != null) {
+                if (value instanceof Integer) {
+                    if (length == ints.length) {
+                        ints = Arrays.copyOf(ints, length * 2);
+                    }
+                    ints[length++] = (Integer)value;
+                } else if (value instanceof Double) {
+                    doubles = new double[ints.length];
+                    for (int i = 0; i < length; i++) {
+                        doubles[i] = ints[i];
+                    }
+                    ints = null;
+                } else {
+                    objects = new Object[ints.length];
+                    for (int i = 0; i < length; i++) {
+                        objects[i] = ints[i];
+                    }
+                    ints = null;
+                }
+            }
+
+            if (doubles != null) {
+                if (value instanceof Integer || value instanceof Double) {
+                    if (length == doubles.length) {
+                        doubles = Arrays.copyOf(doubles, length * 2);
+                    }
+                    doubles[length++] = ((Number)value).doubleValue();
+                } else {
+                    objects = new Object[doubles.length];
+                    for (int i = 0; i < length; i++) {
+                        objects[i] = doubles[i];
+                    }
+                    doubles = null;
+                }
+            }
+
+            if (objects != null) {
+                if (length == objects.length) {
+                    objects = Arrays.copyOf(objects, length * 2);
+                }
+                objects[length++] = value;
+            }
+
+            skipWhitespace();
+            switch (peek()) {
+            case ']':
+                position++;
+                if (ints != null) {
+                    return global.wrapAsObject(Arrays.copyOf(ints, length));
+                } else if (doubles != null) {
+                    return global.wrapAsObject(Arrays.copyOf(doubles, length));
+                }
+                return global.wrapAsObject(Arrays.copyOf(objects, length));
+            case ',':
+                position++;
+                skipWhitespace();
+                if (peek() == ']') {
+                    throw error(ECMAErrors.getMessage("parser.error.trailing.comma.in.json"));
+                }
+                break;
+            default:
+                throw expected(", or ]");
+            }
+        }
+    }
+
+    // called after the opening quote
+    private String parseString() throws IOException {
+        // common case: no escapes, and the whole string is in the buffer
+        final int start = position;
+        for (int i = start; i < limit; i++) {
+            final char ch = buffer[i];
+            if (ch == '"') {
+                position = i + 1;
+                return new String(buffer, start, i - start);
+            } else if (ch == '\\' || ch < ' ') {
+                break;
+            }
+        }
+
+        scratch.setLength(0);
+        while (true) {
+            final int ch = peek();
+            if (ch == EOF) {
+                throw error(ECMAErrors.getMessage("lexer.error.missing.close.quote"));
+            } else if (ch < ' ') {
+                throw error(ECMAErrors.getMessage("parser.error.unexpected.token", scratch.toString()));
+            }
+            position++;
+
+            if (ch == '"') {
+                return scratch.toString();
+            } else if (ch == '\\') {
+                scratch.append(parseEscape());
+            } else {
+                scratch.append((char)ch);
+            }
+        }
+    }
+
+    // ECMA 15.12.1.1 The JSON Lexical Grammar - JSONEscapeCharacter
+    private char parseEscape() throws IOException {
+        final int ch = peek();
+        position++;
+        switch (ch) {
+        case '"':
+        case '/':
+        case '\\':
+            return (char)ch;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                final int digit = Character.digit(peek(), 16);
+                if (digit == -1) {
+                    throw error(ECMAErrors.getMessage("lexer.error.invalid.hex"));
+                }
+                position++;
+                value = value << 4 | digit;
+            }
+            return (char)value;
+        default:
+            position--;
+            throw error(ECMAErrors.getMessage("lexer.error.invalid.escape.char"));
+        }
+    }
+
+    // ECMA 15.12.1.1 The JSON Lexical Grammar - JSONNumber
+    private Object parseNumber() throws IOException {
+        scratch.setLength(0);
+
+        final boolean negative = peek() == '-';
+        if (negative) {
+            scratch.append('-');
+            position++;
+            if (!isDigit(peek())) {
+                throw expected("number");
+            }
+        }
+
+        // integer part, no leading zeros
+        long value  = 0;
+        int  digits = 0;
+        if (peek() == '0') {
+            scratch.append('0');
+            position++;
+            digits = 1;
+        } else {
+            for (int ch; isDigit(ch = peek()); position++) {
+                scratch.append((char)ch);
+                value = value * 10 + (ch - '0');
+                digits++;
+            }
+        }
+
+        boolean isInteger = true;
+        if (peek() == '.') {
+            isInteger = false;
+            scratch.append('.');
+            position++;
+            parseDigits();
+        }
+
+        final int e = peek();
+        if (e == 'e' || e == 'E') {
+            isInteger = false;
+            scratch.append('e');
+            position++;
+            final int sign = peek();
+            if (sign == '+' || sign == '-') {
+                scratch.append((char)sign);
+                position++;
+            }
+            parseDigits();
+        }
+
+        if (isInteger && digits <= 10) {
+            final long signed = negative ? -value : value;
+            // -0 is not an int
+            if (signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE && !(negative && value == 0)) {
+                return (int)signed;
+            }
+        }
+
+        return Double.valueOf(scratch.toString());
+    }
+
+    private void parseDigits() throws IOException {
+        if (!isDigit(peek())) {
+            throw error(ECMAErrors.getMessage("lexer.error.json.invalid.number"));
+        }
+        for (int ch; isDigit(ch = peek()); position++) {
+            scratch.append((char)ch);
+        }
+    }
+
+    private static boolean isDigit(final int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private void parseWord(final String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (peek() != word.charAt(i)) {
+                throw expected("json literal");
+            }
+            position++;
+        }
+    }
+
+    // ECMA 15.12.1.1 The JSON Lexical Grammar - JSONWhiteSpace
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return;
+            }
+            final char ch = buffer[position];
+            if (ch == '\n') {
+                line++;
+                lineOffset = bufferOffset + position + 1;
+            } else if (ch != ' ' && ch != '\t' && ch != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    // read the next chunk of input into the buffer, returns false at the end of input
+    private boolean fill() throws IOException {
+        bufferOffset += limit;
+        position = 0;
+        limit    = 0;
+
+        if (reader != null) {
+            int read;
+            do {
+                read = reader.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            if (read > 0) {
+                limit = read;
+            }
+        } else {
+            final int length = Math.min(buffer.length, text.length() - textOffset);
+            text.getChars(textOffset, textOffset + length, buffer, 0);
+            textOffset += length;
+            limit = length;
+        }
+
+        return limit > 0;
+    }
+
+    private ParserException expected(final String expected) throws IOException {
+        final int ch = peek();
+        return error(ECMAErrors.getMessage("parser.error.expected", expected, ch == EOF ? "eof" : String.valueOf((char)ch)));
+    }
+
+    private ParserException error(final String message) {
+        final int column = (int)(bufferOffset + position - lineOffset);
+        return new ParserException(JSErrorType.SYNTAX_ERROR, "<json>:" + line + ":" + column + " " + message, null, line, column, -1);
+    }
+}
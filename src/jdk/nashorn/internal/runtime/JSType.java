@@ -1199,7 +1199,7 @@ public enum JSType {
     /**
      * Java array to java array conversion - but using type conversions implemented by linker.
      *
-     * @param src source array
+     * @param src source array, may be modified and returned as result if {@code componentType} is {@code Object}
      * @param componentType component type of the destination array required
      * @return converted Java array
      */
@@ -1211,6 +1211,10 @@ public enum JSType {
                     src[i] = e.toString();
                 }
             }
+            // the linker's conversion to Object is the identity, no need to copy the elements again
+            if (src.getClass() == Object[].class) {
+                return src;
+            }
         }
 
         final int l = src.length;
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.runtime;
+
+import java.lang.ref.WeakReference;
+import jdk.nashorn.internal.runtime.options.Options;
+
+/**
+ * Cache for property lookups at megamorphic call sites. Call sites that see too many
+ * different object shapes are linked to a generic lookup instead of a chain of guarded
+ * accessors, see {@link ScriptObject#findGetMethod}. This table remembers where a property
+ * was found for a (class, property map, key) combination so that the generic lookup does not
+ * have to search the property maps of the object and its prototypes again.
+ *
+ * <p>The table is direct mapped and shared by all call sites. Entries are immutable, so races
+ * between threads can only cause cache misses. As the table is shared by all contexts, entries
+ * only hold weak references to classes, maps and properties, which may reference globals through
+ * bound functions or accessors: a cached lookup must not keep a discarded global or context alive.
+ * An entry whose referents have been collected simply misses.</p>
+ */
+final class MegamorphicCache {
+    private static final int SIZE = sizeFor(Options.getIntProperty("nashorn.megamorphic.cache.size", 1024));
+
+    /** Entries are only created for properties found at most this many prototypes away. */
+    private static final int MAX_DEPTH = 8;
+
+    private static final Entry[] entries = new Entry[SIZE];
+
+    private MegamorphicCache() {
+    }
+
+    /**
+     * Cached result of a property lookup.
+     */
+    static final class Entry {
+        private final WeakReference<Class<?>>      clazz;
+        private final WeakReference<PropertyMap>   map;
+        private final String                       key;
+        private final WeakReference<Property>      property;
+        /** maps of the prototypes up to and including the owner of the property */
+        private final WeakReference<PropertyMap>[] protoMaps;
+
+        Entry(final Class<?> clazz, final PropertyMap map, final String key, final Property property, final WeakReference<PropertyMap>[] protoMaps) {
+            this.clazz     = new WeakReference<Class<?>>(clazz);
+            this.map       = new WeakReference<>(map);
+            this.key       = key;
+            this.property  = new WeakReference<>(property);
+            this.protoMaps = protoMaps;
+        }
+
+        /**
+         * Get the cached property. The property is in the map of its owner, so it is
+         * still there for an own property, or once {@link #getOwner} found the owner.
+         * @return property
+         */
+        Property getProperty() {
+            return property.get();
+        }
+
+        /**
+         * Is the property an own property of the receiver?
+         * @return true if the property is not inherited
+         */
+        boolean isOwn() {
+            return protoMaps.length == 0;
+        }
+
+        /**
+         * Get the object that owns the property if the prototype chain of the receiver
+         * still looks like when this entry was created.
+         *
+         * @param self receiver, must have the map and class of the entry
+         * @return owner of the property, or null if the entry does not apply
+         */
+        ScriptObject getOwner(final ScriptObject self) {
+            ScriptObject owner = self;
+            for (final WeakReference<PropertyMap> protoMap : protoMaps) {
+                owner = owner.getProto();
+                if (owner == null || owner.getMap() != protoMap.get()) {
+                    return null;
+                }
+            }
+            return owner;
+        }
+    }
+
+    /**
+     * Look up the cache entry for a property of an object.
+     *
+     * @param self the object
+     * @param key  property key
+     * @return the cache entry, or null
+     */
+    static Entry get(final ScriptObject self, final String key) {
+        final PropertyMap map = self.getMap();
+        final Entry entry = entries[index(map, key)];
+        if (entry != null && entry.map.get() == map && entry.clazz.get() == self.getClass() && entry.key.equals(key)) {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Remember where a lookup of a property found it.
+     *
+     * @param self the object on which the lookup was started
+     * @param key  property key
+     * @param find the result of the lookup
+     */
+    static void put(final ScriptObject self, final String key, final FindProperty find) {
+        // with scopes find properties outside of the prototype chain
+        final ScriptObject owner = find.getOwner();
+        int depth = 0;
+        for (ScriptObject obj = self; obj != owner; obj = obj.getProto()) {
+            if (obj == null || obj instanceof WithObject || ++depth > MAX_DEPTH) {
+                return;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        final WeakReference<PropertyMap>[] protoMaps = new WeakReference[depth];
+        ScriptObject obj = self;
+        for (int i = 0; i < depth; i++) {
+            obj = obj.getProto();
+            protoMaps[i] = new WeakReference<>(obj.getMap());
+        }
+
+        final PropertyMap map = self.getMap();
+        entries[index(map, key)] = new Entry(self.getClass(), map, key, find.getProperty(), protoMaps);
+    }
+
+    private static int index(final PropertyMap map, final String key) {
+        final int h = System.identityHashCode(map) * 31 + key.hashCode();
+        return (h ^ (h >>> 16)) & (SIZE - 1);
+    }
+
+    private static int sizeFor(final int size) {
+        return Integer.highestOneBit(Math.max(size, 16) - 1) << 1;
+    }
+}
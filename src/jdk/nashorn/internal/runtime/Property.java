@@ -29,6 +29,7 @@ import static jdk.nashorn.internal.runtime.PropertyDescriptor.CONFIGURABLE;
 import static jdk.nashorn.internal.runtime.PropertyDescriptor.ENUMERABLE;
 import static jdk.nashorn.internal.runtime.PropertyDescriptor.WRITABLE;
 
+import java.io.Serializable;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.SwitchPoint;
 import java.util.Objects;
@@ -44,7 +45,7 @@ import jdk.nashorn.internal.codegen.ObjectClassGenerator;
  * @see AccessorProperty
  * @see UserAccessorProperty
  */
-public abstract class Property {
+public abstract class Property implements Serializable {
     /*
      * ECMA 8.6.1 Property Attributes
      *
@@ -98,7 +99,9 @@ public abstract class Property {
     private final int slot;
 
     /** SwitchPoint that is invalidated when property is changed, optional */
-    protected SwitchPoint changeCallback;
+    protected transient SwitchPoint changeCallback;
+
+    private static final long serialVersionUID = 2099814273074501176L;
 
     /**
      * Constructor
@@ -126,6 +129,13 @@ public abstract class Property {
         this.flags          = flags;
     }
 
+    /**
+     * Initialize the method handles of a deserialized property.
+     *
+     * @param structure the structure class of the owning map, or null if the map has no fields
+     */
+    abstract void initMethodHandles(final Class<?> structure);
+
     /**
      * Copy function
      *
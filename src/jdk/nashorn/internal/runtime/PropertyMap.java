@@ -29,14 +29,28 @@ import static jdk.nashorn.internal.runtime.PropertyHashMap.EMPTY_HASHMAP;
 import static jdk.nashorn.internal.runtime.arrays.ArrayIndex.getArrayIndex;
 import static jdk.nashorn.internal.runtime.arrays.ArrayIndex.isValidArrayIndex;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.lang.invoke.SwitchPoint;
-import java.lang.ref.SoftReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.WeakHashMap;
+import jdk.nashorn.internal.runtime.options.Options;
 
 /**
  * Map of object properties. The PropertyMap is the "template" for JavaScript object
@@ -47,7 +61,7 @@ import java.util.WeakHashMap;
  * All property maps are immutable. If a property is added, modified or removed, the mutator
  * will return a new map.
  */
-public final class PropertyMap implements Iterable<Object> {
+public final class PropertyMap implements Iterable<Object>, Serializable {
     /** Used for non extensible PropertyMaps, negative logic as the normal case is extensible. See {@link ScriptObject#preventExtensions()} */
     public static final int NOT_EXTENSIBLE        = 0b0000_0001;
     /** Does this map contain valid array keys? */
@@ -57,7 +71,7 @@ public final class PropertyMap implements Iterable<Object> {
     private int flags;
 
     /** Map of properties. */
-    private final PropertyHashMap properties;
+    private transient PropertyHashMap properties;
 
     /** Number of fields in use. */
     private int fieldCount;
@@ -68,29 +82,48 @@ public final class PropertyMap implements Iterable<Object> {
     /** Length of spill in use. */
     private int spillLength;
 
+    /** Structure class name, or null if the map does not describe fields of a known structure class */
+    private final String className;
+
     /** {@link SwitchPoint}s for gets on inherited properties. */
-    private HashMap<String, SwitchPoint> protoGetSwitches;
+    private transient HashMap<String, SwitchPoint> protoGetSwitches;
+
+    /**
+     * Transitions to maps with a property added or removed, used to limit map duplication.
+     * Values are the maps themselves, so that objects built the same way share their maps
+     * for as long as this map is alive. Once a map has more than {@link #MAX_STRONG_TRANSITIONS}
+     * transitions it is probably used as a dictionary, and further transitions are only
+     * weakly referenced. Entries of collected maps are purged through {@link #historyQueue}.
+     */
+    private transient HashMap<TransitionKey, Object> history;
+
+    /** Queue of weak transitions whose maps have been collected, created with the first one. */
+    private transient ReferenceQueue<PropertyMap> historyQueue;
 
-    /** History of maps, used to limit map duplication. */
-    private WeakHashMap<Property, SoftReference<PropertyMap>> history;
+    /** History of prototypes, used to limit map duplication. Keys are the maps of the prototypes. */
+    private transient WeakHashMap<PropertyMap, PropertyMap> protoHistory;
 
-    /** History of prototypes, used to limit map duplication. */
-    private WeakHashMap<PropertyMap, SoftReference<PropertyMap>> protoHistory;
+    /** Number of transitions from one map that are strongly referenced. */
+    private static final int MAX_STRONG_TRANSITIONS = Options.getIntProperty("nashorn.propertymap.transitions", 64);
 
     /** property listeners */
-    private PropertyListeners listeners;
+    private transient PropertyListeners listeners;
+
+    private static final long serialVersionUID = -7041836752008732533L;
 
     /**
      * Constructor.
      *
      * @param properties   A {@link PropertyHashMap} with initial contents.
+     * @param className    Structure class name, or null.
      * @param fieldCount   Number of fields in use.
      * @param fieldMaximum Number of fields available.
      * @param spillLength  Number of spill slots used.
      * @param containsArrayKeys True if properties contain numeric keys
      */
-    private PropertyMap(final PropertyHashMap properties, final int fieldCount, final int fieldMaximum, final int spillLength, final boolean containsArrayKeys) {
+    private PropertyMap(final PropertyHashMap properties, final String className, final int fieldCount, final int fieldMaximum, final int spillLength, final boolean containsArrayKeys) {
         this.properties   = properties;
+        this.className    = className;
         this.fieldCount   = fieldCount;
         this.fieldMaximum = fieldMaximum;
         this.spillLength  = spillLength;
@@ -111,6 +144,7 @@ public final class PropertyMap implements Iterable<Object> {
      */
     private PropertyMap(final PropertyMap propertyMap, final PropertyHashMap properties) {
         this.properties   = properties;
+        this.className    = propertyMap.className;
         this.flags        = propertyMap.flags;
         this.spillLength  = propertyMap.spillLength;
         this.fieldCount   = propertyMap.fieldCount;
@@ -145,7 +179,7 @@ public final class PropertyMap implements Iterable<Object> {
         if (Context.DEBUG) {
             duplicatedCount++;
         }
-        return new PropertyMap(this.properties, 0, 0, 0, containsArrayKeys());
+        return new PropertyMap(this.properties, this.className, 0, 0, 0, containsArrayKeys());
     }
 
     /**
@@ -161,8 +195,25 @@ public final class PropertyMap implements Iterable<Object> {
      * @return New {@link PropertyMap}.
      */
     public static PropertyMap newMap(final Collection<Property> properties, final int fieldCount, final int fieldMaximum,  final int spillLength) {
+        return newMap(properties, null, fieldCount, fieldMaximum, spillLength);
+    }
+
+    /**
+     * Public property map allocator for maps describing the fields of a structure class.
+     *
+     * <p>It is the caller's responsibility to make sure that {@code properties} does not contain
+     * properties with keys that are valid array indices.</p>
+     *
+     * @param properties   Collection of initial properties.
+     * @param className    Class name of the structure the properties are fields of.
+     * @param fieldCount   Number of fields in use.
+     * @param fieldMaximum Number of fields available.
+     * @param spillLength  Number of used spill slots.
+     * @return New {@link PropertyMap}.
+     */
+    public static PropertyMap newMap(final Collection<Property> properties, final String className, final int fieldCount, final int fieldMaximum,  final int spillLength) {
         final PropertyHashMap newProperties = EMPTY_HASHMAP.immutableAdd(properties);
-        return new PropertyMap(newProperties, fieldCount, fieldMaximum, spillLength, false);
+        return new PropertyMap(newProperties, className, fieldCount, fieldMaximum, spillLength, false);
     }
 
     /**
@@ -184,7 +235,24 @@ public final class PropertyMap implements Iterable<Object> {
      * @return New empty {@link PropertyMap}.
      */
     public static PropertyMap newMap() {
-        return new PropertyMap(EMPTY_HASHMAP, 0, 0, 0, false);
+        return new PropertyMap(EMPTY_HASHMAP, null, 0, 0, 0, false);
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(properties.getProperties());
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        final Property[] props = (Property[]) in.readObject();
+        this.properties = EMPTY_HASHMAP.immutableAdd(props);
+
+        final Class<?> structure = className == null ? null : Context.forStructureClass(className);
+        for (final Property prop : props) {
+            prop.initMethodHandles(structure);
+        }
     }
 
     /**
@@ -459,6 +527,20 @@ public final class PropertyMap implements Iterable<Object> {
         return newMap;
     }
 
+    /**
+     * Replace all properties of the map at once, keeping their order. Used to re-bind the
+     * bound properties of copied objects, see {@link ScriptObjectCopier}.
+     *
+     * @param newProperties the properties of this map, with some of them replaced by
+     *        properties of the same key, type and slot
+     *
+     * @return New {@link PropertyMap} with the given properties.
+     */
+    PropertyMap replaceProperties(final Property[] newProperties) {
+        assert newProperties.length == size();
+        return new PropertyMap(this, PropertyHashMap.EMPTY_HASHMAP.immutableAdd(newProperties));
+    }
+
     /**
      * Make a new UserAccessorProperty property. getter and setter functions are stored in
      * this ScriptObject and slot values are used in property object. Note that slots
@@ -614,14 +696,8 @@ public final class PropertyMap implements Iterable<Object> {
      *
      * @return Existing {@link PropertyMap} or {@code null} if not found.
      */
-    private PropertyMap checkProtoHistory(final PropertyMap parentMap) {
-        final PropertyMap cachedMap;
-        if (protoHistory != null) {
-            final SoftReference<PropertyMap> weakMap = protoHistory.get(parentMap);
-            cachedMap = (weakMap != null ? weakMap.get() : null);
-        } else {
-            cachedMap = null;
-        }
+    private synchronized PropertyMap checkProtoHistory(final PropertyMap parentMap) {
+        final PropertyMap cachedMap = protoHistory != null ? protoHistory.get(parentMap) : null;
 
         if (Context.DEBUG && cachedMap != null) {
             protoHistoryHit++;
@@ -636,12 +712,12 @@ public final class PropertyMap implements Iterable<Object> {
      * @param parentMap Prototype to add (key.)
      * @param newMap   {@link PropertyMap} associated with prototype.
      */
-    private void addToProtoHistory(final PropertyMap parentMap, final PropertyMap newMap) {
+    private synchronized void addToProtoHistory(final PropertyMap parentMap, final PropertyMap newMap) {
         if (protoHistory == null) {
             protoHistory = new WeakHashMap<>();
         }
 
-        protoHistory.put(parentMap, new SoftReference<>(newMap));
+        protoHistory.put(parentMap, newMap);
     }
 
     /**
@@ -650,12 +726,33 @@ public final class PropertyMap implements Iterable<Object> {
      * @param property Mapping property.
      * @param newMap   Modified {@link PropertyMap}.
      */
-    private void addToHistory(final Property property, final PropertyMap newMap) {
+    private synchronized void addToHistory(final Property property, final PropertyMap newMap) {
         if (history == null) {
-            history = new WeakHashMap<>();
+            history = new HashMap<>();
+        }
+
+        final TransitionKey key = new TransitionKey(property);
+        if (history.size() < MAX_STRONG_TRANSITIONS) {
+            history.put(key, newMap);
+        } else {
+            if (Context.DEBUG) {
+                weakTransitions++;
+            }
+            if (historyQueue == null) {
+                historyQueue = new ReferenceQueue<>();
+            } else {
+                purgeHistory();
+            }
+            history.put(key, new WeakTransition(key, newMap, historyQueue));
         }
+    }
 
-        history.put(property, new SoftReference<>(newMap));
+    // remove the entries of weak transitions whose maps have been collected
+    private void purgeHistory() {
+        Reference<? extends PropertyMap> ref;
+        while ((ref = historyQueue.poll()) != null) {
+            history.remove(((WeakTransition)ref).key, ref);
+        }
     }
 
     /**
@@ -665,11 +762,20 @@ public final class PropertyMap implements Iterable<Object> {
      *
      * @return Existing map or {@code null} if not found.
      */
-    private PropertyMap checkHistory(final Property property) {
+    private synchronized PropertyMap checkHistory(final Property property) {
 
         if (history != null) {
-            final SoftReference<PropertyMap> ref = history.get(property);
-            final PropertyMap historicMap = ref == null ? null : ref.get();
+            final TransitionKey key = new TransitionKey(property);
+            final Object value = history.get(key);
+            final PropertyMap historicMap;
+            if (value instanceof WeakTransition) {
+                historicMap = ((WeakTransition)value).get();
+                if (historicMap == null) {
+                    history.remove(key);
+                }
+            } else {
+                historicMap = (PropertyMap)value;
+            }
 
             if (historicMap != null) {
                 if (Context.DEBUG) {
@@ -683,6 +789,89 @@ public final class PropertyMap implements Iterable<Object> {
         return null;
     }
 
+    /**
+     * Key of a transition in the history. Properties can change their type after they have been
+     * added to a map, so the fields that identify the property are copied when the key is created.
+     */
+    private static final class TransitionKey {
+        private final Class<?> propertyClass;
+        private final String   key;
+        private final int      flags;
+        private final int      slot;
+        private final Class<?> type;
+
+        TransitionKey(final Property property) {
+            this.propertyClass = property.getClass();
+            this.key           = property.getKey();
+            this.flags         = property.getFlags();
+            this.slot          = property.getSlot();
+            this.type          = property.getCurrentType();
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ flags ^ slot ^ (type == null ? 0 : type.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof TransitionKey)) {
+                return false;
+            }
+            final TransitionKey otherKey = (TransitionKey)other;
+            return propertyClass == otherKey.propertyClass && flags == otherKey.flags && slot == otherKey.slot &&
+                   type == otherKey.type && key.equals(otherKey.key);
+        }
+    }
+
+    /** A weakly referenced transition, which remembers its key for removal from the history. */
+    private static final class WeakTransition extends WeakReference<PropertyMap> {
+        final TransitionKey key;
+
+        WeakTransition(final TransitionKey key, final PropertyMap map, final ReferenceQueue<PropertyMap> queue) {
+            super(map, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Get the number of maps that can be reached from this map by adding or removing properties
+     * or by changing the prototype, including this map. For the allocator map of a constructor this
+     * is the number of distinct maps that its instances have used and that are still alive.
+     *
+     * @return number of maps in the transition tree of this map
+     */
+    public int getReachableMapCount() {
+        final Deque<PropertyMap> stack = new ArrayDeque<>();
+        final Set<PropertyMap> seen = Collections.newSetFromMap(new IdentityHashMap<PropertyMap, Boolean>());
+        stack.push(this);
+        seen.add(this);
+        while (!stack.isEmpty()) {
+            for (final PropertyMap next : stack.pop().getTransitions()) {
+                if (seen.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return seen.size();
+    }
+
+    private synchronized List<PropertyMap> getTransitions() {
+        final List<PropertyMap> transitions = new ArrayList<>();
+        if (history != null) {
+            for (final Object value : history.values()) {
+                final Object next = value instanceof WeakTransition ? ((WeakTransition)value).get() : value;
+                if (next != null) {
+                    transitions.add((PropertyMap)next);
+                }
+            }
+        }
+        if (protoHistory != null) {
+            transitions.addAll(protoHistory.values());
+        }
+        return transitions;
+    }
+
     /**
      * Returns true if the two maps have identical properties in the same order, but allows the properties to differ in
      * their types. This method is mostly useful for tests.
@@ -942,6 +1131,7 @@ public final class PropertyMap implements Iterable<Object> {
     private static int protoInvalidations;
     private static int protoHistoryHit;
     private static int setProtoNewMapCount;
+    private static int weakTransitions;
 
     /**
      * @return Total number of maps.
@@ -991,4 +1181,11 @@ public final class PropertyMap implements Iterable<Object> {
     public static int getSetProtoNewMapCount() {
         return setProtoNewMapCount;
     }
+
+    /**
+     * @return The number of transitions that were only weakly referenced because their map had too many.
+     */
+    public static int getWeakTransitions() {
+        return weakTransitions;
+    }
 }
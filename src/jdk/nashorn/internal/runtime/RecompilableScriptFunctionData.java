@@ -31,6 +31,7 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -63,12 +64,21 @@ import jdk.nashorn.internal.runtime.options.Options;
  */
 @Logger(name="recompile")
 public final class RecompilableScriptFunctionData extends ScriptFunctionData implements Loggable {
-    /** Is lazy compilation enabled? TODO: this should be the default */
-    public static final boolean LAZY_COMPILATION = Options.getBooleanProperty("nashorn.lazy");
+    /**
+     * Is lazy compilation enabled? Nested functions are then only compiled when first invoked. This defers code
+     * generation only, the initial parse of a script still parses every function.
+     */
+    public static final boolean LAZY_COMPILATION = Options.getBooleanProperty("nashorn.lazy", true);
 
     /** Prefix used for all recompiled script classes */
     public static final String RECOMPILATION_PREFIX = "Recompilation$";
 
+    /** Deoptimizing recompilations allowed for a function before it is pinned to a single pessimistic version */
+    private static final int RECOMPILE_BUDGET = Options.getIntProperty("nashorn.recompile.budget", 32);
+
+    /** Type specializations kept for a function before it is pinned to a single pessimistic version */
+    private static final int MAX_SPECIALIZATIONS = Options.getIntProperty("nashorn.recompile.specializations", 16);
+
     /** Unique function node id for this function node */
     private final int functionNodeId;
 
@@ -82,22 +92,28 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
     private final int lineNumber;
 
     /** Source from which FunctionNode was parsed. */
-    private final Source source;
+    private transient Source source;
 
     /** Token of this function within the source. */
     private final long token;
 
+    /** Flags of the function node, used to restore them when the function's body is skipped in a reparse */
+    private final int functionFlags;
+
+    /** Number of functions nested in this function's source, see {@link FunctionNode#getNestedFunctionCount()} */
+    private final int nestedFunctionCount;
+
     /** Allocator map from makeMap() */
     private final PropertyMap allocatorMap;
 
     /** Code installer used for all further recompilation/specialization of this ScriptFunction */
-    private final CodeInstaller<ScriptEnvironment> installer;
+    private transient CodeInstaller<ScriptEnvironment> installer;
 
     /** Name of class where allocator function resides */
     private final String allocatorClassName;
 
     /** lazily generated allocator */
-    private MethodHandle allocator;
+    private transient MethodHandle allocator;
 
     private final Map<Integer, RecompilableScriptFunctionData> nestedFunctions;
 
@@ -110,16 +126,24 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
 
     private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
-    private final DebugLogger log;
+    private transient DebugLogger log;
 
     private final Map<String, Integer> externalScopeDepths;
 
     private final Set<String> internalSymbols;
 
-    private final Context context;
+    private transient Context context;
+
+    /** Number of deoptimizing recompilations of this function */
+    private transient int recompilations;
+
+    /** Set when this function exceeded its budget, see {@link #isPinned()} */
+    private transient volatile boolean pinned;
 
     private static final int GET_SET_PREFIX_LENGTH = "*et ".length();
 
+    private static final long serialVersionUID = 4914839316174633726L;
+
     /**
      * Constructor - public as scripts use it
      *
@@ -157,6 +181,8 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         this.functionNodeId      = functionNode.getId();
         this.source              = functionNode.getSource();
         this.token               = tokenFor(functionNode);
+        this.functionFlags       = functionNode.getFlags();
+        this.nestedFunctionCount = functionNode.getNestedFunctionCount();
         this.installer           = installer;
         this.sourceURL           = sourceURL;
         this.allocatorClassName  = allocatorClassName;
@@ -173,6 +199,25 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         this.log = initLogger(context);
     }
 
+    /**
+     * Initialize transient fields on deserialized instances, including those of nested functions
+     *
+     * @param ctxt context
+     * @param src source
+     * @param inst code installer
+     */
+    void initTransients(final Context ctxt, final Source src, final CodeInstaller<ScriptEnvironment> inst) {
+        if (this.source == null && this.installer == null) {
+            this.context   = ctxt;
+            this.source    = src;
+            this.installer = inst;
+            this.log       = initLogger(ctxt);
+            for (final RecompilableScriptFunctionData nested : nestedFunctions.values()) {
+                nested.initTransients(ctxt, src, inst);
+            }
+        }
+    }
+
     @Override
     public DebugLogger getLogger() {
         return log;
@@ -213,6 +258,14 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         return depth;
     }
 
+    /**
+     * Get the names of the symbols that this function and its nested functions use from enclosing scopes
+     * @return external symbol names
+     */
+    public Set<String> getExternalSymbolNames() {
+        return externalScopeDepths == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(externalScopeDepths.keySet());
+    }
+
     /**
      * Get the parent of this RecompilableScriptFunctionData. If we are
      * a nested function, we have a parent. Note that "null" return value
@@ -263,6 +316,38 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         return functionName;
     }
 
+    /**
+     * Get the id of the function node this data was created from
+     * @return function node id
+     */
+    public int getFunctionNodeId() {
+        return functionNodeId;
+    }
+
+    /**
+     * Get the token of this function within its source, spanning from its first to its last token
+     * @return function token
+     */
+    public long getToken() {
+        return token;
+    }
+
+    /**
+     * Get the flags of the function node this data was created from
+     * @return function node flags
+     */
+    public int getFunctionFlags() {
+        return functionFlags;
+    }
+
+    /**
+     * Get the number of functions nested in this function's source, including ones that were eliminated as dead code
+     * @return nested function count
+     */
+    public int getNestedFunctionCount() {
+        return nestedFunctionCount;
+    }
+
     @Override
     public boolean inDynamicContext() {
         return (flags & IN_DYNAMIC_CONTEXT) != 0;
@@ -348,6 +433,7 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         if (isAnonymous) {
             parser.setFunctionName(functionName);
         }
+        parser.setReparsedFunction(this);
 
         final FunctionNode program = parser.parse(CompilerConstants.PROGRAM.symbolName(), descPosition, Token.descLength(token), true);
         // Parser generates a program AST even if we're recompiling a single function, so when we are only recompiling a
@@ -374,14 +460,113 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
     }
 
     private Compiler getCompiler(final FunctionNode fn, final MethodType actualCallSiteType, final ScriptObject runtimeScope) {
-        return getCompiler(fn, actualCallSiteType, newLocals(runtimeScope), null, null);
+        return getCompiler(fn, actualCallSiteType, newLocals(runtimeScope), new HashMap<>(getTypeProfile()), null);
+    }
+
+    /**
+     * Get the program point types of this function widened by deoptimizing recompilations in this or
+     * earlier runs, as recorded in the persistent code store.
+     * @return map from program point to type, empty if none were recorded or there is no code store
+     */
+    Map<Integer, Type> getTypeProfile() {
+        final CodeStore codeStore = context.getCodeStore();
+        if (codeStore == null || source == null) {
+            return Collections.emptyMap();
+        }
+        return codeStore.getTypeProfile(source, functionNodeId);
+    }
+
+    /**
+     * Record the program point types of this function widened by a deoptimizing recompilation in the
+     * persistent code store, so later runs can compile it with them right away.
+     * @param invalidatedProgramPoints map from program point to widened type
+     */
+    void recordTypeProfile(final Map<Integer, Type> invalidatedProgramPoints) {
+        final CodeStore codeStore = context.getCodeStore();
+        if (codeStore != null && source != null) {
+            codeStore.recordTypeProfile(source, functionNodeId, invalidatedProgramPoints);
+        }
+    }
+
+    /**
+     * Get the number of deoptimizing recompilations of this function so far.
+     * @return number of deoptimizing recompilations
+     */
+    synchronized int getRecompilations() {
+        return recompilations;
+    }
+
+    /**
+     * Is this function pinned? A function whose deoptimizing recompilations or type specializations exceeded their
+     * budget is compiled without optimistic types and for generic parameter types only, so it has a single version
+     * that is never recompiled again.
+     * @return true if this function is pinned to a single pessimistic version
+     */
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    /**
+     * Count a deoptimizing recompilation of this function against its own budget and the budget of its context, and
+     * pin the function if either is exceeded.
+     */
+    void spendRecompilation() {
+        if (Context.DEBUG) {
+            recompileCount++;
+        }
+        final boolean withinBudget;
+        synchronized (this) {
+            withinBudget = ++recompilations <= RECOMPILE_BUDGET;
+        }
+        if (!withinBudget) {
+            pin("recompilation budget exceeded");
+        } else if (!context.spendRecompilation()) {
+            pin("context recompilation budget exceeded");
+        }
+    }
+
+    /**
+     * Is the given version of this function still installed? Pinning evicts all versions compiled before.
+     * @param function a compiled version of this function
+     * @return true if call sites can still be linked to the version
+     */
+    boolean isInstalled(final CompiledFunction function) {
+        synchronized (code) {
+            return code.contains(function);
+        }
+    }
+
+    private void pin(final String reason) {
+        final int evicted;
+        synchronized (code) {
+            if (pinned) {
+                return;
+            }
+            pinned  = true;
+            evicted = code.size();
+            // drop the optimistic versions so their classes can be unloaded once no call site is linked to them
+            code.clear();
+        }
+        if (Context.DEBUG) {
+            pinnedCount++;
+            evictedCount += evicted;
+        }
+        log.info("Pinned '", functionName, "' to a pessimistic version: ", reason, ", evicted ", evicted, " versions");
+    }
+
+    /**
+     * Code of recompilations and specializations is installed with a new class loader, unless the context shares
+     * one class loader between compilations, so that it can be unloaded once it is no longer reachable.
+     */
+    private CodeInstaller<ScriptEnvironment> getInstallerForNewCode() {
+        return context.getEnv()._loader_per_compile && !code.isEmpty() ? installer.withNewLoader() : installer;
     }
 
     Compiler getCompiler(final FunctionNode functionNode, final MethodType actualCallSiteType, final ScriptObject runtimeScope, final Map<Integer, Type> ipp, final int[] cep) {
         return new Compiler(
                 context,
                 context.getEnv(),
-                installer,
+                getInstallerForNewCode(),
                 functionNode.getSource(),  // source
                 functionNode.getSourceURL(),
                 isStrict() | functionNode.isStrict(), // is strict
@@ -401,6 +586,9 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         if (log.isEnabled()) {
             log.info("Type specialization of '", functionName, "' signature: ", actualCallSiteType);
         }
+        if (Context.DEBUG) {
+            specializationCount++;
+        }
 
         final FunctionNode fn = reparse();
         return getCompiler(fn, actualCallSiteType, runtimeScope).compile(fn, CompilationPhases.COMPILE_ALL);
@@ -483,6 +671,17 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         addCode(functionNode);
     }
 
+    /**
+     * Initializes this function data with the code of a previously stored script.
+     * @param initializer function initializer with the class containing the function code
+     */
+    void initializeCode(final FunctionInitializer initializer) {
+        if (!code.isEmpty()) {
+            throw new IllegalStateException(functionName + " id=" + functionNodeId);
+        }
+        addCode(MH.findStatic(LOOKUP, initializer.getCode(), functionName, initializer.getMethodType()), initializer.getFlags());
+    }
+
     private CompiledFunction addCode(final MethodHandle target, final int fnFlags) {
         final CompiledFunction cfn = new CompiledFunction(target, this, fnFlags);
         code.add(cfn);
@@ -538,11 +737,19 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
 
 
     @Override
-    CompiledFunction getBest(final MethodType callSiteType, final ScriptObject runtimeScope) {
+    CompiledFunction getBest(final MethodType actualCallSiteType, final ScriptObject runtimeScope) {
         synchronized (code) {
+            MethodType callSiteType = pinned ? pinnedType(actualCallSiteType) : actualCallSiteType;
             CompiledFunction existingBest = super.getBest(callSiteType, runtimeScope);
             if (existingBest == null) {
-                existingBest = addCode(compileTypeSpecialization(callSiteType, runtimeScope), callSiteType);
+                if (code.size() >= MAX_SPECIALIZATIONS) {
+                    pin("too many type specializations");
+                    callSiteType = pinnedType(callSiteType);
+                    existingBest = super.getBest(callSiteType, runtimeScope);
+                }
+                if (existingBest == null) {
+                    existingBest = addCode(compileTypeSpecialization(callSiteType, runtimeScope), callSiteType);
+                }
             }
 
             assert existingBest != null;
@@ -570,6 +777,17 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
         }
     }
 
+    /**
+     * Generic version of a call site type that all call sites of a pinned function share, so it only has one version.
+     * Vararg call site types are kept, as they need a vararg version anyway.
+     */
+    private static MethodType pinnedType(final MethodType callSiteType) {
+        if (CompiledFunction.isVarArgsType(callSiteType)) {
+            return callSiteType;
+        }
+        return callSiteType.generic().changeParameterType(0, callSiteType.parameterType(0)).changeReturnType(callSiteType.returnType());
+    }
+
     @Override
     boolean isRecompilable() {
         return true;
@@ -653,4 +871,38 @@ public final class RecompilableScriptFunctionData extends ScriptFunctionData imp
 
         return true;
     }
+
+    // counters updated only in debug mode
+    private static int recompileCount;
+    private static int specializationCount;
+    private static int pinnedCount;
+    private static int evictedCount;
+
+    /**
+     * @return The number of deoptimizing recompilations of functions.
+     */
+    public static int getRecompileCount() {
+        return recompileCount;
+    }
+
+    /**
+     * @return The number of type specializations compiled for functions.
+     */
+    public static int getSpecializationCount() {
+        return specializationCount;
+    }
+
+    /**
+     * @return The number of functions pinned to a pessimistic version after exceeding their budget.
+     */
+    public static int getPinnedCount() {
+        return pinnedCount;
+    }
+
+    /**
+     * @return The number of function versions evicted when their functions were pinned.
+     */
+    public static int getEvictedCount() {
+        return evictedCount;
+    }
 }
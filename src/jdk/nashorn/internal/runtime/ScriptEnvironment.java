@@ -147,6 +147,9 @@ public final class ScriptEnvironment {
     /** Only parse the source code, do not compile */
     public final boolean _parse_only;
 
+    /** Enable disk cache for compiled scripts */
+    public final boolean _persistent_cache;
+
     /** Print the AST before lowering */
     public final boolean _print_ast;
 
@@ -239,6 +242,7 @@ public final class ScriptEnvironment {
         _no_syntax_extensions = options.getBoolean("no.syntax.extensions");
         _no_typed_arrays      = options.getBoolean("no.typed.arrays");
         _parse_only           = options.getBoolean("parse.only");
+        _persistent_cache     = options.getBoolean("persistent.code.cache");
         _print_ast            = options.getBoolean("print.ast");
         _print_lower_ast      = options.getBoolean("print.lower.ast");
         _print_code           = options.getString("print.code") != null;
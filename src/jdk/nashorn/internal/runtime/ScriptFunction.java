@@ -89,7 +89,8 @@ public abstract class ScriptFunction extends ScriptObject {
     /** The parent scope. */
     private final ScriptObject scope;
 
-    private final ScriptFunctionData data;
+    /** The function data, only ever replaced for copies of bound functions, see {@link #rebind}. */
+    private ScriptFunctionData data;
 
     /** The property map used for newly allocated object when function is used as constructor. */
     protected PropertyMap allocatorMap;
@@ -278,6 +279,20 @@ public abstract class ScriptFunction extends ScriptObject {
         return makeBoundFunction(data.makeBoundFunctionData(this, self, args));
     }
 
+    /**
+     * Re-create the data of a copy of a bound function (see {@link ScriptObjectCopier}) from the
+     * copies of the function, this and arguments it was bound to, as the data of the original
+     * bound function has those baked into its method handles.
+     *
+     * @param fn the function this function was made from by {@link #makeBoundFunction(Object, Object[])}
+     * @param self the bound this
+     * @param args the bound arguments
+     */
+    protected final void rebind(final ScriptFunction fn, final Object self, final Object[] args) {
+        assert isBoundFunction();
+        this.data = fn.data.makeBoundFunctionData(fn, self, args);
+    }
+
     /**
      * Create a version of this function as in {@link ScriptFunction#makeBoundFunction(Object, Object[])},
      * but using a {@link ScriptFunctionData} for the bound data.
@@ -433,6 +448,25 @@ public abstract class ScriptFunction extends ScriptObject {
         return null;
     }
 
+    /**
+     * Get the number of deoptimizing recompilations of this function's code so far. The count is
+     * shared by all instances created from the same function declaration.
+     *
+     * @return number of deoptimizing recompilations, 0 for functions that are never recompiled
+     */
+    public int getRecompilations() {
+        return data instanceof RecompilableScriptFunctionData ? ((RecompilableScriptFunctionData)data).getRecompilations() : 0;
+    }
+
+    /**
+     * Get the property map used for objects allocated by this function when it is used as a constructor.
+     *
+     * @return the allocator map, or null if this function is not a constructor
+     */
+    public PropertyMap getAllocatorMap() {
+        return allocatorMap;
+    }
+
     // These counters are updated only in debug mode.
     private static int constructorCount;
     private static int invokes;
@@ -29,6 +29,9 @@ import static jdk.nashorn.internal.lookup.Lookup.MH;
 import static jdk.nashorn.internal.runtime.ECMAErrors.typeError;
 import static jdk.nashorn.internal.runtime.ScriptRuntime.UNDEFINED;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
@@ -39,7 +42,7 @@ import jdk.nashorn.internal.runtime.linker.LinkerCallSite;
  * Instances of this class are created during codegen and stored in script classes'
  * constants array to reduce function instantiation overhead during runtime.
  */
-public abstract class ScriptFunctionData {
+public abstract class ScriptFunctionData implements Serializable {
     static final int MAX_ARITY = LinkerCallSite.ARGLIMIT;
     static {
         // Assert it fits in a byte, as that's what we store it in. It's just a size optimization though, so if needed
@@ -52,7 +55,9 @@ public abstract class ScriptFunctionData {
 
     /** All versions of this function that have been generated to code */
     // TODO: integrate it into ScriptFunctionData; there's not much reason for this to be in its own class.
-    protected final CompiledFunctions code;
+    protected transient CompiledFunctions code;
+
+    private static final long serialVersionUID = 4252901245508769114L;
 
     /** Function flags */
     protected int flags;
@@ -67,7 +72,7 @@ public abstract class ScriptFunctionData {
      * multiple threads concurrently, but we still tolerate a race condition in it as all values stored into it are
      * idempotent.
      */
-    private volatile GenericInvokers genericInvokers;
+    private transient volatile GenericInvokers genericInvokers;
 
     private static final MethodHandle BIND_VAR_ARGS = findOwnMH("bindVarArgs", Object[].class, Object[].class, Object[].class);
 
@@ -780,6 +785,11 @@ public abstract class ScriptFunctionData {
         return concat;
     }
 
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        code = new CompiledFunctions(name);
+    }
+
     private static MethodHandle findOwnMH(final String name, final Class<?> rtype, final Class<?>... types) {
         return MH.findStatic(MethodHandles.lookup(), ScriptFunctionData.class, name, MH.type(rtype, types));
     }
@@ -98,7 +98,7 @@ import jdk.nashorn.internal.runtime.linker.NashornGuards;
  * </ul>
  */
 
-public abstract class ScriptObject implements PropertyAccess {
+public abstract class ScriptObject implements PropertyAccess, Cloneable {
     /** __proto__ special property name */
     public static final String PROTO_PROPERTY_NAME   = "__proto__";
 
@@ -123,6 +123,9 @@ public abstract class ScriptObject implements PropertyAccess {
     /** Is this a builtin object? */
     public static final int IS_BUILTIN = 1 << 4;
 
+    /** Is this object shared between threads? See {@link #share()}. */
+    public static final int IS_SHARED = 1 << 5;
+
     /**
      * Spill growth rate - by how many elements does {@link ScriptObject#primitiveSpill} and
      * {@link ScriptObject#objectSpill} when full
@@ -266,6 +269,28 @@ public abstract class ScriptObject implements PropertyAccess {
         return false;
     }
 
+    /**
+     * Shallow copy of this object, used by {@link ScriptObjectCopier}. The copy shares
+     * the map, spill arrays and array data of this object until the copier replaces them.
+     */
+    @Override
+    protected Object clone() {
+        try {
+            return super.clone();
+        } catch (final CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Called on a copy made by {@link ScriptObjectCopier} once the whole object graph has
+     * been copied. Objects holding state that can not be copied field by field, such as
+     * method handles bound to themselves, re-create it here.
+     */
+    protected void postCopy() {
+        // nothing to re-create by default
+    }
+
     private static int alignUp(final int size, final int alignment) {
         return size + alignment - 1 & ~(alignment - 1);
     }
@@ -1200,6 +1225,9 @@ public abstract class ScriptObject implements PropertyAccess {
      * @return true if the operation succeeded.
      */
     protected final boolean compareAndSetMap(final PropertyMap oldMap, final PropertyMap newMap) {
+        if (isShared()) {
+            throw typeError("cant.change.shared", ScriptRuntime.safeToString(this));
+        }
         if (oldMap == this.map) {
             this.map = newMap;
             return true;
@@ -1237,6 +1265,9 @@ public abstract class ScriptObject implements PropertyAccess {
         final ScriptObject oldProto = proto;
 
         if (oldProto != newProto) {
+            if (isShared()) {
+                throw typeError("cant.change.shared", ScriptRuntime.safeToString(this));
+            }
             proto = newProto;
 
             // Let current listeners know that the protototype has changed and set our map
@@ -1404,6 +1435,9 @@ public abstract class ScriptObject implements PropertyAccess {
      * @return the object after being made non extensible
      */
     public ScriptObject preventExtensions() {
+        if (isShared()) {
+            return this; // shared objects are sealed already
+        }
         PropertyMap oldMap = getMap();
         while (!compareAndSetMap(oldMap,  getMap().preventExtensions())) {
             oldMap = getMap();
@@ -1503,6 +1537,9 @@ public abstract class ScriptObject implements PropertyAccess {
      * @return the sealed ScriptObject
      */
     public ScriptObject seal() {
+        if (isShared()) {
+            return this; // shared objects are sealed already
+        }
         PropertyMap oldMap = getMap();
 
         while (true) {
@@ -1530,6 +1567,9 @@ public abstract class ScriptObject implements PropertyAccess {
      * @return the frozen ScriptObject
      */
     public ScriptObject freeze() {
+        if (isShared() && isFrozen()) {
+            return this;
+        }
         PropertyMap oldMap = getMap();
 
         while (true) {
@@ -1553,6 +1593,57 @@ public abstract class ScriptObject implements PropertyAccess {
     }
 
 
+    /**
+     * Make this object safe to share between threads. Only sealed objects can be shared: their
+     * properties can no longer be added, deleted or redefined, so the property map and spill of a
+     * shared object never change again and can be read without locking. To keep it that way, all
+     * properties are widened to {@code Object} so that storing a value of another type does not
+     * require a new map, and the array data is wrapped so that writes are serialized and replace
+     * the elements as a whole. Writes to properties are plain stores: values written by one thread
+     * should be primitives, strings or other shared objects.
+     * <p>
+     * The object should be shared before it is made available to other threads.
+     *
+     * @return the shared ScriptObject
+     */
+    public synchronized ScriptObject share() {
+        if (isShared()) {
+            return this;
+        }
+        if (!isSealed()) {
+            throw typeError("cant.share.non.sealed", ScriptRuntime.safeToString(this));
+        }
+
+        final PropertyMap oldMap = getMap();
+        PropertyMap newMap = oldMap;
+        final List<Property> widened = new ArrayList<>();
+        final List<Object>   values  = new ArrayList<>();
+        for (final Property property : oldMap.getProperties()) {
+            if (!(property instanceof UserAccessorProperty) && property.getCurrentType() != Object.class) {
+                final Property objectProperty = property.copy(Object.class);
+                values.add(property.getObjectValue(this, this));
+                widened.add(objectProperty);
+                newMap = newMap.replaceProperty(property, objectProperty);
+            }
+        }
+        setMap(newMap);
+        for (int i = 0; i < widened.size(); i++) {
+            widened.get(i).setValue(this, this, values.get(i), false);
+        }
+
+        setArray(ArrayData.share(getArray()));
+        flags |= IS_SHARED;
+        return this;
+    }
+
+    /**
+     * Check whether this ScriptObject is shared between threads
+     * @return true if shared
+     */
+    public final boolean isShared() {
+        return (flags & IS_SHARED) != 0;
+    }
+
     /**
      * Flag this ScriptObject as scope
      */
@@ -1987,8 +2078,18 @@ public abstract class ScriptObject implements PropertyAccess {
 
     @SuppressWarnings("unused")
     private Object megamorphicGet(final String key, final boolean isMethod, final boolean isScope) {
+        final MegamorphicCache.Entry entry = MegamorphicCache.get(this, key);
+        if (entry != null) {
+            final ScriptObject owner = entry.getOwner(this);
+            if (owner != null) {
+                final Property property = entry.getProperty();
+                return property.getObjectValue(property.hasGetterFunction(owner) ? this : owner, owner);
+            }
+        }
+
         final FindProperty find = findProperty(key, true);
         if (find != null) {
+            MegamorphicCache.put(this, key, find);
             return find.getObjectValue();
         }
         if (isScope) {
@@ -2164,12 +2265,98 @@ public abstract class ScriptObject implements PropertyAccess {
     }
 
     private GuardedInvocation findMegaMorphicSetMethod(final CallSiteDescriptor desc, final String name) {
-        final MethodType        type = desc.getMethodType().insertParameterTypes(1, Object.class);
+        final MethodType   type       = desc.getMethodType();
+        final Class<?>     valueClass = type.parameterType(1);
+        // primitive values are passed on unboxed so that they can be stored without widening the property
+        final Class<?>     setType    = valueClass == int.class || valueClass == long.class || valueClass == double.class ? valueClass : Object.class;
         //never bother with ClassCastExceptionGuard for megamorphic callsites
-        final GuardedInvocation inv = findSetIndexMethod(getClass(), false, type, NashornCallSiteDescriptor.isStrict(desc));
-        return inv.replaceMethods(MH.insertArguments(inv.getInvocation(), 1, name), inv.getGuard());
+        final MethodHandle invoker    = MH.insertArguments(findOwnMH_V("megamorphicSet", void.class, String.class, setType, boolean.class), 1, name);
+        final MethodHandle setter     = MH.insertArguments(invoker, 2, NashornCallSiteDescriptor.isStrict(desc));
+        return new GuardedInvocation(MH.asType(setter, setter.type().changeParameterType(1, valueClass)), getScriptObjectGuard(type, true));
+    }
+
+    private Property findMegamorphicSetProperty(final String key) {
+        final MegamorphicCache.Entry entry = MegamorphicCache.get(this, key);
+        return entry != null && entry.isOwn() && entry.getProperty().isWritable() ? entry.getProperty() : null;
     }
 
+    /**
+     * Invalidate getters of a property of this global that may be linked as constants, after the property
+     * has been written outside of a linked setter. Does nothing if this is not a global.
+     * @param key property key
+     */
+    private void invalidateGlobalConstant(final String key) {
+        if (isGlobal()) {
+            Global.getConstants().invalidate(key);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private void megamorphicSet(final String key, final int value, final boolean strict) {
+        final Property property = findMegamorphicSetProperty(key);
+        if (property != null) {
+            property.setValue(this, this, value, strict);
+            invalidateGlobalConstant(key);
+        } else {
+            megamorphicSet(key, (Object)value, strict);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private void megamorphicSet(final String key, final long value, final boolean strict) {
+        final Property property = findMegamorphicSetProperty(key);
+        if (property != null) {
+            property.setValue(this, this, value, strict);
+            invalidateGlobalConstant(key);
+        } else {
+            megamorphicSet(key, (Object)value, strict);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private void megamorphicSet(final String key, final double value, final boolean strict) {
+        final Property property = findMegamorphicSetProperty(key);
+        if (property != null) {
+            property.setValue(this, this, value, strict);
+            invalidateGlobalConstant(key);
+        } else {
+            megamorphicSet(key, (Object)value, strict);
+        }
+    }
+
+    private void megamorphicSet(final String key, final Object value, final boolean strict) {
+        final Property property = findMegamorphicSetProperty(key);
+        if (property != null) {
+            property.setValue(this, this, value, strict);
+            invalidateGlobalConstant(key);
+            return;
+        }
+
+        // classes overriding the generic setter or array index keys take the long way
+        if (!USES_DEFAULT_SET.get(getClass()) || isValidArrayIndex(getArrayIndex(key))) {
+            set((Object)key, value, strict);
+            return;
+        }
+
+        final FindProperty find = findProperty(key, true);
+        if (find != null && find.isSelf() && find.getProperty().isWritable()) {
+            MegamorphicCache.put(this, key, find);
+        }
+        setObject(find, strict, key, value);
+    }
+
+    // whether set(Object, Object, boolean) is not overridden, so megamorphic sets can use cached properties
+    private static final ClassValue<Boolean> USES_DEFAULT_SET = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("set", Object.class, Object.class, boolean.class).getDeclaringClass() == ScriptObject.class;
+            } catch (final NoSuchMethodException e) {
+                throw new AssertionError(e);
+            }
+        }
+    };
+
     @SuppressWarnings("unused")
     private static Object globalFilter(final Object object) {
         ScriptObject sobj = (ScriptObject) object;
@@ -3078,7 +3265,7 @@ public abstract class ScriptObject implements PropertyAccess {
             }
 
             f.setValue(value, strict);
-
+            f.getOwner().invalidateGlobalConstant(key);
         } else if (!isExtensible()) {
             if (strict) {
                 throw typeError("object.non.extensible", key, ScriptRuntime.safeToString(this));
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.runtime;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ReflectPermission;
+import java.nio.Buffer;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.Permissions;
+import java.security.PrivilegedAction;
+import java.security.ProtectionDomain;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.nashorn.internal.runtime.arrays.ArrayData;
+import jdk.nashorn.internal.runtime.regexp.RegExp;
+
+/**
+ * Copies the graph of script objects reachable from a root object, typically a fully
+ * initialized {@code Global}, so that the copy shares no mutable state with the original.
+ * <p>
+ * Script objects are cloned field by field and every reference to a copied object is
+ * redirected to its copy. Property maps, function data, compiled code and Java objects
+ * are immutable or shared per {@link Context} anyway and are therefore shared with the
+ * original. Bound properties (as created by {@link ScriptObject#addBoundProperties(ScriptObject)}
+ * or for program scope variables) are re-bound to the copies of their receivers, and
+ * objects with further receiver specific state re-create it in {@link ScriptObject#postCopy()}.
+ * <p>
+ * Typed arrays are not supported as views share their buffer in ways that can not be
+ * copied field by field.
+ */
+final class ScriptObjectCopier {
+    /** Permissions needed to discover and access the fields of copied classes. */
+    private static final AccessControlContext REFLECTION_ACC_CTXT = createReflectionAccCtxt();
+
+    private static AccessControlContext createReflectionAccCtxt() {
+        final Permissions perms = new Permissions();
+        perms.add(new RuntimePermission("accessDeclaredMembers"));
+        perms.add(new ReflectPermission("suppressAccessChecks"));
+        return new AccessControlContext(new ProtectionDomain[] { new ProtectionDomain(null, perms) });
+    }
+
+    /** Non-static reference fields of a class and its super classes. */
+    private static final ClassValue<Field[]> REFERENCE_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(final Class<?> type) {
+            // computed on demand while copying, i.e. with the permissions of whoever took the snapshot
+            return AccessController.doPrivileged(new PrivilegedAction<Field[]>() {
+                @Override
+                public Field[] run() {
+                    final List<Field> fields = new ArrayList<>();
+                    for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+                        for (final Field field : clazz.getDeclaredFields()) {
+                            if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                                field.setAccessible(true);
+                                fields.add(field);
+                            }
+                        }
+                    }
+                    return fields.toArray(new Field[fields.size()]);
+                }
+            }, REFLECTION_ACC_CTXT);
+        }
+    };
+
+    /** Copies made so far, by original. */
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    /** Copies whose references to originals still have to be redirected. */
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+    /** Copied script objects, in order of copying. */
+    private final List<ScriptObject> objects = new ArrayList<>();
+
+    private ScriptObjectCopier() {
+    }
+
+    /**
+     * Copy a script object and all script objects reachable from it.
+     *
+     * @param <T>  type of the root object
+     * @param root the object to copy
+     * @return the copy of {@code root}
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends ScriptObject> T copy(final T root) {
+        final ScriptObjectCopier copier = new ScriptObjectCopier();
+        final T copy = (T)copier.copyValue(root);
+        copier.drain();
+
+        for (final ScriptObject obj : copier.objects) {
+            obj.postCopy();
+        }
+
+        return copy;
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            final Object copy = pending.poll();
+            if (copy instanceof Object[]) {
+                copyElements((Object[])copy);
+            } else if (copy instanceof ArrayData) {
+                copyArrayData(copy);
+            } else {
+                copyFields(copy);
+                if (copy instanceof ScriptObject) {
+                    rebindProperties((ScriptObject)copy);
+                }
+            }
+        }
+    }
+
+    private Object copyValue(final Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+
+        final Object existing = copies.get(value);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Object copy;
+        if (value instanceof ScriptObject) {
+            copy = ((ScriptObject)value).clone();
+            objects.add((ScriptObject)copy);
+            pending.add(copy);
+        } else if (value instanceof ArrayData) {
+            copy = ((ArrayData)value).copy();
+            pending.add(copy);
+        } else if (value instanceof Object[]) {
+            copy = ((Object[])value).clone();
+            pending.add(copy);
+        } else if (value instanceof UserAccessorProperty.Accessors) {
+            final UserAccessorProperty.Accessors accessors = (UserAccessorProperty.Accessors)value;
+            copy = new UserAccessorProperty.Accessors(accessors.getter, accessors.setter);
+            pending.add(copy);
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            copy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+        } else if (value instanceof RegExp) {
+            copy = ((RegExp)value).copy();
+        } else if (value instanceof BitSet) {
+            copy = ((BitSet)value).clone();
+        } else if (value instanceof ConsString) {
+            // flattening mutates cons strings, don't share them
+            copy = value.toString();
+        } else if (value instanceof Buffer) {
+            throw new UnsupportedOperationException("cannot copy typed arrays");
+        } else {
+            return value;
+        }
+
+        copies.put(value, copy);
+        return copy;
+    }
+
+    private void copyElements(final Object[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = copyValue(array[i]);
+        }
+    }
+
+    private void copyFields(final Object copy) {
+        try {
+            for (final Field field : REFERENCE_FIELDS.get(copy.getClass())) {
+                final Object value = field.get(copy);
+                final Object newValue = copyValue(value);
+                if (newValue != value) {
+                    field.set(copy, newValue);
+                }
+            }
+        } catch (final IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Array data is deep copied by {@link ArrayData#copy()} already, so only the elements of
+     * its (already copied) object arrays have to be redirected to copies.
+     */
+    private void copyArrayData(final Object data) {
+        try {
+            for (final Field field : REFERENCE_FIELDS.get(data.getClass())) {
+                final Object value = field.get(data);
+                if (value instanceof Object[]) {
+                    copyElements((Object[])value);
+                } else if (value != null && value.getClass().getPackage() == ArrayData.class.getPackage()) {
+                    copyArrayData(value);
+                }
+            }
+        } catch (final IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void rebindProperties(final ScriptObject copy) {
+        final PropertyMap map = copy.getMap();
+        Property[] properties = null;
+
+        final Property[] original = map.getProperties();
+        for (int i = 0; i < original.length; i++) {
+            final Property property = original[i];
+            if (property.isBound() && property instanceof AccessorProperty) {
+                final AccessorProperty bound = (AccessorProperty)property;
+                final Object receiver = bound.getBoundObject();
+                final Object newReceiver = copyValue(receiver);
+                if (newReceiver != receiver) {
+                    if (properties == null) {
+                        // the properties array is shared by the map, don't modify it
+                        properties = original.clone();
+                    }
+                    properties[i] = bound.rebind(newReceiver);
+                }
+            }
+        }
+
+        if (properties != null) {
+            copy.setMap(map.replaceProperties(properties));
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.io.IOError;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -39,7 +40,10 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Objects;
 import jdk.nashorn.internal.parser.Token;
 
@@ -62,11 +66,8 @@ public final class Source {
      */
     private final String base;
 
-    /** Cached source content. */
-    private final char[] content;
-
-    /** Length of source content. */
-    private final int length;
+    /** Source content, possibly loaded lazily. */
+    private final Data data;
 
     /** Cached hash code */
     private int hash;
@@ -74,17 +75,144 @@ public final class Source {
     /** Source URL if available */
     private final URL url;
 
+    /** Cached digest of source name, url and content */
+    private volatile String digest;
+
     private static final int BUFSIZE = 8 * 1024;
 
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
     // Do *not* make this public ever! Trusts the URL and content. So has to be called
     // from other public constructors. Note that this can not be some init method as
     // we initialize final fields from here.
-    private Source(final String name, final String base, final char[] content, final URL url) {
-        this.name    = name;
-        this.base    = base;
-        this.content = content;
-        this.length  = content.length;
-        this.url     = url;
+    private Source(final String name, final String base, final Data data, final URL url) {
+        this.name = name;
+        this.base = base;
+        this.data = data;
+        this.url  = url;
+    }
+
+    /**
+     * Backing store of the source content. Equality of sources is decided by a digest of the
+     * content, so that sources can be looked up in caches without comparing their content.
+     */
+    private static abstract class Data {
+        /** Cached digest of the content */
+        private volatile byte[] contentDigest;
+
+        /**
+         * Get the content, loading it if necessary.
+         * @return content array, must not be modified
+         */
+        abstract char[] array();
+
+        /**
+         * Compute a digest of the content.
+         * @param md message digest to update
+         */
+        abstract void digest(MessageDigest md);
+
+        int length() {
+            return array().length;
+        }
+
+        byte[] contentDigest() {
+            byte[] d = contentDigest;
+            if (d == null) {
+                final MessageDigest md = newDigest();
+                digest(md);
+                contentDigest = d = md.digest();
+            }
+            return d;
+        }
+    }
+
+    /** Content supplied as chars, always kept in memory. */
+    private static final class RawData extends Data {
+        private final char[] array;
+
+        RawData(final char[] array) {
+            this.array = array;
+        }
+
+        @Override
+        char[] array() {
+            return array;
+        }
+
+        @Override
+        int length() {
+            return array.length;
+        }
+
+        @Override
+        void digest(final MessageDigest md) {
+            digestChars(md, array);
+        }
+    }
+
+    /**
+     * Content of a file. The file is read only when the content is first needed, and that content
+     * is kept from then on: code compiled from the source refers to positions in it, so later changes
+     * to the file must not be seen by this source.
+     */
+    private static final class FileData extends Data {
+        private final File file;
+        private final Charset cs;
+        private volatile char[] array;
+
+        FileData(final File file, final Charset cs) throws IOException {
+            if (!file.isFile()) {
+                throw new IOException(file + " is not a file"); //TODO localize?
+            }
+            this.file = file;
+            this.cs   = cs;
+        }
+
+        @Override
+        char[] array() {
+            char[] a = array;
+            if (a == null) {
+                synchronized (this) {
+                    a = array;
+                    if (a == null) {
+                        try {
+                            array = a = readFully(file, cs);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }
+            }
+            return a;
+        }
+
+        @Override
+        void digest(final MessageDigest md) {
+            digestChars(md, array());
+        }
+    }
+
+    // digest chars as UTF-16 in chunks instead of converting the whole content at once
+    private static void digestChars(final MessageDigest md, final char[] array) {
+        final byte[] bytes = new byte[BUFSIZE * 2];
+        for (int start = 0; start < array.length; start += BUFSIZE) {
+            final int end = Math.min(start + BUFSIZE, array.length);
+            int j = 0;
+            for (int i = start; i < end; i++) {
+                bytes[j++] = (byte) (array[i] & 0xff);
+                bytes[j++] = (byte) (array[i] >>> 8);
+            }
+            md.update(bytes, 0, j);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -94,7 +222,7 @@ public final class Source {
      * @param content contents as char array
      */
     public Source(final String name, final char[] content) {
-        this(name, baseName(name, null), content, null);
+        this(name, baseName(name, null), new RawData(content), null);
     }
 
     /**
@@ -116,7 +244,7 @@ public final class Source {
      * @throws IOException if source cannot be loaded
      */
     public Source(final String name, final URL url) throws IOException {
-        this(name, baseURL(url, null), readFully(url), url);
+        this(name, url, null);
     }
 
     /**
@@ -129,7 +257,7 @@ public final class Source {
      * @throws IOException if source cannot be loaded
      */
     public Source(final String name, final URL url, final Charset cs) throws IOException {
-        this(name, baseURL(url, null), readFully(url, cs), url);
+        this(name, baseURL(url, null), urlData(url, cs), url);
     }
 
     /**
@@ -141,7 +269,7 @@ public final class Source {
      * @throws IOException if source cannot be loaded
      */
     public Source(final String name, final File file) throws IOException {
-        this(name, dirName(file, null), readFully(file), getURLFromFile(file));
+        this(name, file, null);
     }
 
     /**
@@ -154,7 +282,7 @@ public final class Source {
      * @throws IOException if source cannot be loaded
      */
     public Source(final String name, final File file, final Charset cs) throws IOException {
-        this(name, dirName(file, null), readFully(file, cs), getURLFromFile(file));
+        this(name, dirName(file, null), new FileData(file, cs), getURLFromFile(file));
     }
 
     @Override
@@ -168,25 +296,47 @@ public final class Source {
         }
 
         final Source src = (Source)obj;
-        // Only compare content as a last resort measure
-        return length == src.length && Objects.equals(url, src.url) && Objects.equals(name, src.name) && Arrays.equals(content, src.content);
+        // Only compare content digests as a last resort measure
+        return Objects.equals(url, src.url) && Objects.equals(name, src.name) &&
+               Arrays.equals(data.contentDigest(), src.data.contentDigest());
     }
 
     @Override
     public int hashCode() {
         int h = hash;
         if (h == 0) {
-            h = hash = Arrays.hashCode(content) ^ Objects.hashCode(name);
+            h = hash = Arrays.hashCode(data.contentDigest()) ^ Objects.hashCode(name);
         }
         return h;
     }
 
+    /**
+     * Get a digest of this source's name, URL and content. The digest is a file name safe string
+     * that is the same for all sources that are {@link #equals(Object) equal} to this one.
+     *
+     * @return source digest
+     */
+    public String getDigest() {
+        String d = digest;
+        if (d == null) {
+            final MessageDigest md = newDigest();
+            if (name != null) {
+                md.update(name.getBytes(StandardCharsets.UTF_8));
+            }
+            if (url != null) {
+                md.update(url.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest = d = BASE64.encodeToString(md.digest(data.contentDigest()));
+        }
+        return d;
+    }
+
     /**
      * Fetch source content.
      * @return Source content.
      */
     public String getString() {
-        return new String(content, 0, length);
+        return new String(data.array());
     }
 
     /**
@@ -212,7 +362,7 @@ public final class Source {
      * @return Source content portion.
      */
     public String getString(final int start, final int len) {
-        return new String(content, start, len);
+        return new String(data.array(), start, len);
     }
 
     /**
@@ -223,7 +373,7 @@ public final class Source {
     public String getString(final long token) {
         final int start = Token.descPosition(token);
         final int len = Token.descLength(token);
-        return new String(content, start, len);
+        return new String(data.array(), start, len);
     }
 
     /**
@@ -242,6 +392,7 @@ public final class Source {
      * @return Index of first character of line.
      */
     private int findBOLN(final int position) {
+        final char[] content = data.array();
         for (int i = position - 1; i > 0; i--) {
             final char ch = content[i];
 
@@ -259,7 +410,9 @@ public final class Source {
      * @return Index of last character of line.
      */
     private int findEOLN(final int position) {
-         for (int i = position; i < length; i++) {
+        final char[] content = data.array();
+        final int length = content.length;
+        for (int i = position; i < length; i++) {
             final char ch = content[i];
 
             if (ch == '\n' || ch == '\r') {
@@ -280,6 +433,7 @@ public final class Source {
      * @return Line number.
      */
     public int getLine(final int position) {
+        final char[] content = data.array();
         // Line count starts at 1.
         int line = 1;
 
@@ -315,7 +469,7 @@ public final class Source {
         // Find end of this line.
         final int last = findEOLN(position);
 
-        return new String(content, first, last - first + 1);
+        return new String(data.array(), first, last - first + 1);
     }
 
     /**
@@ -323,7 +477,7 @@ public final class Source {
      * @return content
      */
     public char[] getContent() {
-        return content.clone();
+        return data.array().clone();
     }
 
     /**
@@ -331,7 +485,7 @@ public final class Source {
      * @return length
      */
     public int getLength() {
-        return length;
+        return data.length();
     }
 
     /**
@@ -516,6 +670,18 @@ public final class Source {
         return getName();
     }
 
+    // file URLs are loaded lazily, others are read right away
+    private static Data urlData(final URL url, final Charset cs) throws IOException {
+        if (url.getProtocol().equals("file")) {
+            try {
+                return new FileData(Paths.get(url.toURI()).toFile(), cs);
+            } catch (final SecurityException | URISyntaxException | IllegalArgumentException ignored) {
+                // fall through and read it as any other URL
+            }
+        }
+        return new RawData(readFully(url, cs));
+    }
+
     private static URL getURLFromFile(final File file) {
         try {
             return file.toURI().toURL();
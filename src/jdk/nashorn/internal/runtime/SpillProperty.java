@@ -35,6 +35,8 @@ import static jdk.nashorn.internal.lookup.Lookup.MH;
  * Spill property
  */
 public class SpillProperty extends AccessorProperty {
+    private static final long serialVersionUID = 3028496245198669460L;
+
     private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
     private static final MethodHandle PARRAY_GETTER = MH.asType(MH.getter(LOOKUP, ScriptObject.class, "primitiveSpill",  long[].class), MH.type(long[].class, Object.class));
@@ -78,11 +80,16 @@ public class SpillProperty extends AccessorProperty {
 
         static MethodHandle getCached(final int slot, final boolean isPrimitive, final boolean isGetter) {
             //Reference<Accessors> ref = ACCESSOR_CACHE.get(slot);
-            ensure(slot);
-            Accessors acc = ACCESSOR_CACHE[slot];
-            if (acc == null) {
-                acc = new Accessors(slot);
-                ACCESSOR_CACHE[slot] = acc;
+            final Accessors acc;
+            // compilers may run concurrently, guard the growth of the cache
+            synchronized (Accessors.class) {
+                ensure(slot);
+                Accessors cached = ACCESSOR_CACHE[slot];
+                if (cached == null) {
+                    cached = new Accessors(slot);
+                    ACCESSOR_CACHE[slot] = cached;
+                }
+                acc = cached;
             }
 
             return acc.getOrCreate(isPrimitive, isGetter);
@@ -189,6 +196,15 @@ public class SpillProperty extends AccessorProperty {
         super(property, newType);
     }
 
+    @Override
+    void initMethodHandles(final Class<?> structure) {
+        final int slot  = getSlot();
+        primitiveGetter = primitiveGetter(slot);
+        primitiveSetter = primitiveSetter(slot);
+        objectGetter    = objectGetter(slot);
+        objectSetter    = objectSetter(slot);
+    }
+
     @Override
     public Property copy() {
         return new SpillProperty(this);
@@ -204,17 +204,17 @@ public final class UserAccessorProperty extends SpillProperty {
 
     @Override
     public void setValue(ScriptObject self, ScriptObject owner, int value, boolean strict) {
-        setValue(self, owner, value, strict);
+        setValue(self, owner, (Object)value, strict);
     }
 
     @Override
     public void setValue(ScriptObject self, ScriptObject owner, long value, boolean strict) {
-        setValue(self, owner, value, strict);
+        setValue(self, owner, (Object)value, strict);
     }
 
     @Override
     public void setValue(ScriptObject self, ScriptObject owner, double value, boolean strict) {
-        setValue(self, owner, value, strict);
+        setValue(self, owner, (Object)value, strict);
     }
 
     @Override
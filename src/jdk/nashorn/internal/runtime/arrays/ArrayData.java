@@ -27,6 +27,7 @@ package jdk.nashorn.internal.runtime.arrays;
 
 import static jdk.nashorn.internal.codegen.CompilerConstants.staticCall;
 
+import java.io.Serializable;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.nio.ByteBuffer;
@@ -43,7 +44,7 @@ import jdk.nashorn.internal.runtime.UnwarrantedOptimismException;
 /**
  * ArrayData - abstraction for wrapping array elements
  */
-public abstract class ArrayData {
+public abstract class ArrayData implements Serializable {
     /** Minimum chunk size for underlying arrays */
     protected static final int CHUNK_SIZE = 32;
 
@@ -60,6 +61,8 @@ public abstract class ArrayData {
      */
     private long length;
 
+    private static final long serialVersionUID = -3296541716640457826L;
+
     /**
      * Method handle to throw an {@link UnwarrantedOptimismException} when getting an element
      * of the wrong type
@@ -219,6 +222,16 @@ public abstract class ArrayData {
         return new SealedArrayFilter(underlying);
     }
 
+    /**
+     * Apply a share filter to an ArrayData, making it safe to use from several threads.
+     *
+     * @param underlying  the underlying ArrayData to wrap in the share filter
+     * @return the shared ArrayData
+     */
+    public static ArrayData share(final ArrayData underlying) {
+        return underlying instanceof SharedArrayFilter ? underlying : new SharedArrayFilter(underlying);
+    }
+
     /**
      * Return the length of the array data. This may differ from the actual
      * length of the array this wraps as length may be set or gotten as any
@@ -51,7 +51,7 @@ import jdk.nashorn.internal.runtime.logging.Logger;
 @Logger(name="arrays")
 public abstract class ContinuousArrayData extends ArrayData {
 
-    private SwitchPoint sp;
+    private transient SwitchPoint sp;
 
     /**
      * Constructor
@@ -85,6 +85,16 @@ public abstract class ContinuousArrayData extends ArrayData {
         return has(index) || (index == length() && ensure(index) == this);
     }
 
+    /**
+     * Returns the type of the elements as they are stored: {@code int.class}, {@code long.class}
+     * or {@code double.class} for arrays backed by a primitive array, {@code Object.class} otherwise.
+     *
+     * @return element storage type
+     */
+    public Class<?> getElementType() {
+        return Object.class;
+    }
+
     /**
      * Return element getter for a certain type at a certain program point
      * @param returnType   return type
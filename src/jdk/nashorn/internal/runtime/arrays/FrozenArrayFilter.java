@@ -40,7 +40,7 @@ final class FrozenArrayFilter extends SealedArrayFilter {
 
     @Override
     public ArrayData copy() {
-        return this;
+        return new FrozenArrayFilter(underlying.copy());
     }
 
     @Override
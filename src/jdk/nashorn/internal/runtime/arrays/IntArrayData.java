@@ -95,6 +95,11 @@ final class IntArrayData extends ContinuousArrayData {
         return elementType == int.class ? getContinuousElementSetter(SET_ELEM, elementType) : null;
     }
 
+    @Override
+    public Class<?> getElementType() {
+        return int.class;
+    }
+
     @Override
     public ArrayData copy() {
         return new IntArrayData(array.clone(), (int) length());
@@ -102,20 +107,24 @@ final class IntArrayData extends ContinuousArrayData {
 
     @Override
     public Object[] asObjectArray() {
-        return toObjectArray(array, (int) length());
+        return toObjectArray(array, (int) length(), true);
     }
 
     @Override
     public Object asArrayOfType(final Class<?> componentType) {
         if (componentType == int.class) {
             return array.length == length() ? array.clone() : Arrays.copyOf(array, (int) length());
+        } else if (componentType == double.class) {
+            return toDoubleArray(array, (int) length(), true);
+        } else if (componentType == long.class) {
+            return toLongArray(array, (int) length(), true);
         }
         return super.asArrayOfType(componentType);
     }
 
-    private static Object[] toObjectArray(final int[] array, final int length) {
+    private static Object[] toObjectArray(final int[] array, final int length, final boolean trim) {
         assert length <= array.length : "length exceeds internal array size";
-        final Object[] oarray = new Object[array.length];
+        final Object[] oarray = new Object[trim ? length : array.length];
 
         for (int index = 0; index < length; index++) {
             oarray[index] = Integer.valueOf(array[index]);
@@ -124,9 +133,9 @@ final class IntArrayData extends ContinuousArrayData {
         return oarray;
     }
 
-    private static double[] toDoubleArray(final int[] array, final int length) {
+    private static double[] toDoubleArray(final int[] array, final int length, final boolean trim) {
         assert length <= array.length : "length exceeds internal array size";
-        final double[] darray = new double[array.length];
+        final double[] darray = new double[trim ? length : array.length];
 
         for (int index = 0; index < length; index++) {
             darray[index] = array[index];
@@ -135,9 +144,9 @@ final class IntArrayData extends ContinuousArrayData {
         return darray;
     }
 
-    private static long[] toLongArray(final int[] array, final int length) {
+    private static long[] toLongArray(final int[] array, final int length, final boolean trim) {
         assert length <= array.length : "length exceeds internal array size";
-        final long[] larray = new long[array.length];
+        final long[] larray = new long[trim ? length : array.length];
 
         for (int index = 0; index < length; index++) {
             larray[index] = array[index];
@@ -153,11 +162,11 @@ final class IntArrayData extends ContinuousArrayData {
         }
         final int length = (int) length();
         if (type == Long.class) {
-            return new LongArrayData(IntArrayData.toLongArray(array, length), length);
+            return new LongArrayData(IntArrayData.toLongArray(array, length, false), length);
         } else if (type == Double.class) {
-            return new NumberArrayData(IntArrayData.toDoubleArray(array, length), length);
+            return new NumberArrayData(IntArrayData.toDoubleArray(array, length, false), length);
         } else {
-            return new ObjectArrayData(IntArrayData.toObjectArray(array, length), length);
+            return new ObjectArrayData(IntArrayData.toObjectArray(array, length, false), length);
         }
     }
 
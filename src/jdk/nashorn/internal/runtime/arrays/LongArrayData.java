@@ -57,6 +57,11 @@ final class LongArrayData extends ContinuousArrayData {
         this.array  = array;
     }
 
+    @Override
+    public Class<?> getElementType() {
+        return long.class;
+    }
+
     @Override
     public ArrayData copy() {
         return new LongArrayData(array.clone(), (int)length());
@@ -64,12 +69,12 @@ final class LongArrayData extends ContinuousArrayData {
 
     @Override
     public Object[] asObjectArray() {
-        return toObjectArray(array, (int)length());
+        return toObjectArray(array, (int)length(), true);
     }
 
-    private static Object[] toObjectArray(final long[] array, final int length) {
+    private static Object[] toObjectArray(final long[] array, final int length, final boolean trim) {
         assert length <= array.length : "length exceeds internal array size";
-        final Object[] oarray = new Object[array.length];
+        final Object[] oarray = new Object[trim ? length : array.length];
 
         for (int index = 0; index < length; index++) {
             oarray[index] = Long.valueOf(array[index]);
@@ -82,13 +87,15 @@ final class LongArrayData extends ContinuousArrayData {
     public Object asArrayOfType(final Class<?> componentType) {
         if (componentType == long.class) {
             return array.length == length() ? array.clone() : Arrays.copyOf(array, (int)length());
+        } else if (componentType == double.class) {
+            return toDoubleArray(array, (int)length(), true);
         }
         return super.asArrayOfType(componentType);
     }
 
-    private static double[] toDoubleArray(final long[] array, final int length) {
+    private static double[] toDoubleArray(final long[] array, final int length, final boolean trim) {
         assert length <= array.length : "length exceeds internal array size";
-        final double[] darray = new double[array.length];
+        final double[] darray = new double[trim ? length : array.length];
 
         for (int index = 0; index < length; index++) {
             darray[index] = array[index];
@@ -104,9 +111,9 @@ final class LongArrayData extends ContinuousArrayData {
         }
         final int length = (int) length();
         if (type == Double.class) {
-            return new NumberArrayData(LongArrayData.toDoubleArray(array, length), length);
+            return new NumberArrayData(LongArrayData.toDoubleArray(array, length, false), length);
         }
-        return new ObjectArrayData(LongArrayData.toObjectArray(array, length), length);
+        return new ObjectArrayData(LongArrayData.toObjectArray(array, length, false), length);
     }
 
     @Override
@@ -56,6 +56,11 @@ final class NumberArrayData extends ContinuousArrayData {
         this.array  = array;
     }
 
+    @Override
+    public Class<?> getElementType() {
+        return double.class;
+    }
+
     @Override
     public ArrayData copy() {
         return new NumberArrayData(array.clone(), (int) length());
@@ -63,12 +68,12 @@ final class NumberArrayData extends ContinuousArrayData {
 
     @Override
     public Object[] asObjectArray() {
-        return toObjectArray(array, (int) length());
+        return toObjectArray(array, (int) length(), true);
     }
 
-    private static Object[] toObjectArray(final double[] array, final int length) {
+    private static Object[] toObjectArray(final double[] array, final int length, final boolean trim) {
         assert length <= array.length : "length exceeds internal array size";
-        final Object[] oarray = new Object[array.length];
+        final Object[] oarray = new Object[trim ? length : array.length];
 
         for (int index = 0; index < length; index++) {
             oarray[index] = Double.valueOf(array[index]);
@@ -88,7 +93,7 @@ final class NumberArrayData extends ContinuousArrayData {
     public ArrayData convert(final Class<?> type) {
         if (type != Double.class && type != Integer.class && type != Long.class) {
             final int length = (int) length();
-            return new ObjectArrayData(NumberArrayData.toObjectArray(array, length), length);
+            return new ObjectArrayData(NumberArrayData.toObjectArray(array, length, false), length);
         }
         return this;
     }
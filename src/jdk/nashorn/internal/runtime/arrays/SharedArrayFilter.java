@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2010, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.runtime.arrays;
+
+import jdk.nashorn.internal.codegen.types.Type;
+import jdk.nashorn.internal.objects.Global;
+import jdk.nashorn.internal.runtime.PropertyDescriptor;
+
+/**
+ * ArrayData of an object that is shared between threads, see {@link jdk.nashorn.internal.runtime.ScriptObject#share()}.
+ * Writers are serialized on the filter and never modify the array data that readers may be looking at; instead
+ * they modify a copy and publish it through a volatile field, so reads need no locking. This makes every write
+ * copy the array, which is fine for the read-mostly objects that are meant to be shared.
+ */
+final class SharedArrayFilter extends ArrayData {
+    /** Current contents, only ever replaced, never modified. */
+    private volatile ArrayData underlying;
+
+    SharedArrayFilter(final ArrayData underlying) {
+        super(underlying.length());
+        this.underlying = underlying;
+    }
+
+    private ArrayData publish(final ArrayData newUnderlying) {
+        super.setLength(newUnderlying.length());
+        underlying = newUnderlying;
+        return this;
+    }
+
+    @Override
+    public ArrayData copy() {
+        return new SharedArrayFilter(underlying.copy());
+    }
+
+    @Override
+    public Object[] asObjectArray() {
+        return underlying.asObjectArray();
+    }
+
+    @Override
+    public Object asArrayOfType(final Class<?> componentType) {
+        return underlying.asArrayOfType(componentType);
+    }
+
+    @Override
+    public synchronized void setLength(final long length) {
+        final ArrayData newUnderlying = underlying.copy();
+        newUnderlying.setLength(length);
+        publish(newUnderlying);
+    }
+
+    @Override
+    public synchronized void shiftLeft(final int by) {
+        final ArrayData newUnderlying = underlying.copy();
+        newUnderlying.shiftLeft(by);
+        publish(newUnderlying);
+    }
+
+    @Override
+    public synchronized ArrayData shiftRight(final int by) {
+        return publish(underlying.copy().shiftRight(by));
+    }
+
+    @Override
+    public synchronized ArrayData ensure(final long safeIndex) {
+        if (safeIndex < length()) {
+            return this;
+        }
+        return publish(underlying.copy().ensure(safeIndex));
+    }
+
+    @Override
+    public synchronized ArrayData shrink(final long newLength) {
+        return publish(underlying.copy().shrink(newLength));
+    }
+
+    @Override
+    public synchronized ArrayData set(final int index, final Object value, final boolean strict) {
+        return publish(underlying.copy().set(index, value, strict));
+    }
+
+    @Override
+    public synchronized ArrayData set(final int index, final int value, final boolean strict) {
+        return publish(underlying.copy().set(index, value, strict));
+    }
+
+    @Override
+    public synchronized ArrayData set(final int index, final long value, final boolean strict) {
+        return publish(underlying.copy().set(index, value, strict));
+    }
+
+    @Override
+    public synchronized ArrayData set(final int index, final double value, final boolean strict) {
+        return publish(underlying.copy().set(index, value, strict));
+    }
+
+    @Override
+    public synchronized ArrayData setEmpty(final int index) {
+        return publish(underlying.copy().setEmpty(index));
+    }
+
+    @Override
+    public synchronized ArrayData setEmpty(final long lo, final long hi) {
+        return publish(underlying.copy().setEmpty(lo, hi));
+    }
+
+    @Override
+    public Type getOptimisticType() {
+        return underlying.getOptimisticType();
+    }
+
+    @Override
+    public int getInt(final int index) {
+        return underlying.getInt(index);
+    }
+
+    @Override
+    public int getIntOptimistic(final int index, final int programPoint) {
+        return underlying.getIntOptimistic(index, programPoint);
+    }
+
+    @Override
+    public long getLong(final int index) {
+        return underlying.getLong(index);
+    }
+
+    @Override
+    public long getLongOptimistic(final int index, final int programPoint) {
+        return underlying.getLongOptimistic(index, programPoint);
+    }
+
+    @Override
+    public double getDouble(final int index) {
+        return underlying.getDouble(index);
+    }
+
+    @Override
+    public double getDoubleOptimistic(final int index, final int programPoint) {
+        return underlying.getDoubleOptimistic(index, programPoint);
+    }
+
+    @Override
+    public Object getObject(final int index) {
+        return underlying.getObject(index);
+    }
+
+    @Override
+    public boolean has(final int index) {
+        return underlying.has(index);
+    }
+
+    @Override
+    public boolean canDelete(final int index, final boolean strict) {
+        return underlying.canDelete(index, strict);
+    }
+
+    @Override
+    public boolean canDelete(final long fromIndex, final long toIndex, final boolean strict) {
+        return underlying.canDelete(fromIndex, toIndex, strict);
+    }
+
+    @Override
+    public PropertyDescriptor getDescriptor(final Global global, final int index) {
+        return underlying.getDescriptor(global, index);
+    }
+
+    @Override
+    public synchronized ArrayData delete(final int index) {
+        return publish(underlying.copy().delete(index));
+    }
+
+    @Override
+    public synchronized ArrayData delete(final long fromIndex, final long toIndex) {
+        return publish(underlying.copy().delete(fromIndex, toIndex));
+    }
+
+    @Override
+    protected synchronized ArrayData convert(final Class<?> type) {
+        return publish(underlying.copy().convert(type));
+    }
+
+    @Override
+    public synchronized Object pop() {
+        final ArrayData newUnderlying = underlying.copy();
+        final Object value = newUnderlying.pop();
+        publish(newUnderlying);
+        return value;
+    }
+
+    @Override
+    public ArrayData slice(final long from, final long to) {
+        return underlying.slice(from, to);
+    }
+
+    @Override
+    public long nextIndex(final long index) {
+        return underlying.nextIndex(index);
+    }
+}
@@ -26,8 +26,6 @@
 package jdk.nashorn.internal.runtime.arrays;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.TreeMap;
 import jdk.nashorn.internal.codegen.types.Type;
 import jdk.nashorn.internal.runtime.JSType;
 import jdk.nashorn.internal.runtime.ScriptRuntime;
@@ -45,13 +43,13 @@ class SparseArrayData extends ArrayData {
     private final long maxDenseLength;
 
     /** Sparse elements. */
-    private TreeMap<Long, Object> sparseMap;
+    private SparseArrayMap sparseMap;
 
     SparseArrayData(final ArrayData underlying, final long length) {
-        this(underlying, length, new TreeMap<Long, Object>());
+        this(underlying, length, new SparseArrayMap());
     }
 
-    SparseArrayData(final ArrayData underlying, final long length, final TreeMap<Long, Object> sparseMap) {
+    SparseArrayData(final ArrayData underlying, final long length, final SparseArrayMap sparseMap) {
         super(length);
         assert underlying.length() <= length;
         this.underlying = underlying;
@@ -61,7 +59,7 @@ class SparseArrayData extends ArrayData {
 
     @Override
     public ArrayData copy() {
-        return new SparseArrayData(underlying.copy(), length(), new TreeMap<>(sparseMap));
+        return new SparseArrayData(underlying.copy(), length(), sparseMap.copy());
     }
 
     @Override
@@ -76,10 +74,9 @@ class SparseArrayData extends ArrayData {
 
         Arrays.fill(objArray, underlyingLength, length, ScriptRuntime.UNDEFINED);
 
-        for (final Map.Entry<Long, Object> entry : sparseMap.entrySet()) {
-            final long key = entry.getKey();
+        for (final long key : sparseMap.sortedKeys()) {
             if (key <= Integer.MAX_VALUE) {
-                objArray[(int)key] = entry.getValue();
+                objArray[(int)key] = sparseMap.get(key);
             } else {
                 break; // ascending key order
             }
@@ -92,14 +89,14 @@ class SparseArrayData extends ArrayData {
     public void shiftLeft(final int by) {
         underlying.shiftLeft(by);
 
-        final TreeMap<Long, Object> newSparseMap = new TreeMap<>();
+        final SparseArrayMap newSparseMap = new SparseArrayMap();
 
-        for (final Map.Entry<Long, Object> entry : sparseMap.entrySet()) {
-            final long newIndex = entry.getKey().longValue() - by;
+        for (final long key : sparseMap.sortedKeys()) {
+            final long newIndex = key - by;
             if (newIndex < maxDenseLength) {
-                underlying = underlying.set((int) newIndex, entry.getValue(), false);
+                underlying = underlying.set((int) newIndex, sparseMap.get(key), false);
             } else if (newIndex >= 0) {
-                newSparseMap.put(Long.valueOf(newIndex), entry.getValue());
+                newSparseMap.put(newIndex, sparseMap.get(key));
             }
         }
 
@@ -109,11 +106,11 @@ class SparseArrayData extends ArrayData {
 
     @Override
     public ArrayData shiftRight(final int by) {
-        final TreeMap<Long, Object> newSparseMap = new TreeMap<>();
+        final SparseArrayMap newSparseMap = new SparseArrayMap();
         if (underlying.length() + by > maxDenseLength) {
             for (long i = maxDenseLength - by; i < underlying.length(); i++) {
                 if (underlying.has((int) i)) {
-                    newSparseMap.put(Long.valueOf(i + by), underlying.getObject((int) i));
+                    newSparseMap.put(i + by, underlying.getObject((int) i));
                 }
             }
             underlying = underlying.shrink((int) (maxDenseLength - by));
@@ -121,9 +118,8 @@ class SparseArrayData extends ArrayData {
 
         underlying.shiftRight(by);
 
-        for (final Map.Entry<Long, Object> entry : sparseMap.entrySet()) {
-            final long newIndex = entry.getKey().longValue() + by;
-            newSparseMap.put(Long.valueOf(newIndex), entry.getValue());
+        for (final long key : sparseMap.sortedKeys()) {
+            newSparseMap.put(key + by, sparseMap.get(key));
         }
 
         sparseMap = newSparseMap;
@@ -150,7 +146,7 @@ class SparseArrayData extends ArrayData {
             setLength(newLength);
         }
 
-        sparseMap.subMap(Long.valueOf(newLength), Long.MAX_VALUE).clear();
+        sparseMap.removeRange(newLength, Long.MAX_VALUE);
         setLength(newLength);
         return this;
     }
@@ -230,7 +226,7 @@ class SparseArrayData extends ArrayData {
         if (index >= 0 && index < maxDenseLength) {
             return underlying.getInt(index);
         }
-        return JSType.toInt32(sparseMap.get(indexToKey(index)));
+        return sparseMap.getInt(indexToKey(index));
     }
 
     @Override
@@ -238,7 +234,7 @@ class SparseArrayData extends ArrayData {
         if (index >= 0 && index < maxDenseLength) {
             return underlying.getIntOptimistic(index, programPoint);
         }
-        return JSType.toInt32Optimistic(sparseMap.get(indexToKey(index)), programPoint);
+        return sparseMap.getIntOptimistic(indexToKey(index), programPoint);
     }
 
     @Override
@@ -246,7 +242,7 @@ class SparseArrayData extends ArrayData {
         if (index >= 0 && index < maxDenseLength) {
             return underlying.getLong(index);
         }
-        return JSType.toLong(sparseMap.get(indexToKey(index)));
+        return sparseMap.getLong(indexToKey(index));
     }
 
     @Override
@@ -254,7 +250,7 @@ class SparseArrayData extends ArrayData {
         if (index >= 0 && index < maxDenseLength) {
             return underlying.getLongOptimistic(index, programPoint);
         }
-        return JSType.toLongOptimistic(sparseMap.get(indexToKey(index)), programPoint);
+        return sparseMap.getLongOptimistic(indexToKey(index), programPoint);
     }
 
     @Override
@@ -262,7 +258,7 @@ class SparseArrayData extends ArrayData {
         if (index >= 0 && index < maxDenseLength) {
             return underlying.getDouble(index);
         }
-        return JSType.toNumber(sparseMap.get(indexToKey(index)));
+        return sparseMap.getDouble(indexToKey(index));
     }
 
     @Override
@@ -270,7 +266,7 @@ class SparseArrayData extends ArrayData {
         if (index >= 0 && index < maxDenseLength) {
             return underlying.getDouble(index);
         }
-        return JSType.toNumberOptimistic(sparseMap.get(indexToKey(index)), programPoint);
+        return sparseMap.getDoubleOptimistic(indexToKey(index), programPoint);
     }
 
     @Override
@@ -279,7 +275,7 @@ class SparseArrayData extends ArrayData {
             return underlying.getObject(index);
         }
 
-        final Long key = indexToKey(index);
+        final long key = indexToKey(index);
         if (sparseMap.containsKey(key)) {
             return sparseMap.get(key);
         }
@@ -315,13 +311,13 @@ class SparseArrayData extends ArrayData {
             underlying = underlying.delete(fromIndex, Math.min(toIndex, underlying.length() - 1));
         }
         if (toIndex >= maxDenseLength) {
-            sparseMap.subMap(fromIndex, true, toIndex, true).clear();
+            sparseMap.removeRange(fromIndex, toIndex);
         }
         return this;
     }
 
-    private static Long indexToKey(final int index) {
-        return Long.valueOf(index & JSType.MAX_UINT);
+    private static long indexToKey(final int index) {
+        return index & JSType.MAX_UINT;
     }
 
     @Override
@@ -341,7 +337,7 @@ class SparseArrayData extends ArrayData {
             return result;
         }
         setLength(length() - 1);
-        final Long key = Long.valueOf(length());
+        final long key = length();
         return sparseMap.containsKey(key) ? sparseMap.remove(key) : ScriptRuntime.UNDEFINED;
     }
 
@@ -375,8 +371,8 @@ class SparseArrayData extends ArrayData {
             return underlying.nextIndex(index);
         }
 
-        final Long nextKey = sparseMap.higherKey(index);
-        if (nextKey != null) {
+        final long nextKey = sparseMap.higherKey(index);
+        if (nextKey >= 0) {
             return nextKey;
         }
         return length();
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package jdk.nashorn.internal.runtime.arrays;
+
+import java.util.Arrays;
+import jdk.nashorn.internal.runtime.JSType;
+
+/**
+ * Open addressing hash map from array index to element used by {@link SparseArrayData}.
+ * Keys are kept as primitive longs. As long as all elements are ints, longs or doubles
+ * they are stored unboxed in a long array, widening int to long to double the same way
+ * the dense array data classes do; the first non-number element converts the map to an
+ * object array. A sorted array of the keys is only built when the elements are needed
+ * in index order, and is discarded when keys are added or removed.
+ */
+final class SparseArrayMap {
+    /** Marks a free slot, keys are uint32 array indices so -1 never occurs as key. */
+    private static final long FREE = -1L;
+
+    /** Initial capacity, must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Element types, in widening order. */
+    private static final int INT    = 0;
+    private static final int LONG   = 1;
+    private static final int DOUBLE = 2;
+    private static final int OBJECT = 3;
+
+    /** Hash table of keys, FREE for empty slots. */
+    private long[] keys;
+
+    /** Int and long values, or raw bits of double values, if type is not OBJECT. */
+    private long[] primitiveValues;
+
+    /** Values if type is OBJECT. */
+    private Object[] objectValues;
+
+    /** Element type of all values in this map. */
+    private int type;
+
+    /** Number of entries. */
+    private int size;
+
+    /** Keys in ascending order, or null if it needs to be rebuilt. */
+    private long[] sortedKeys;
+
+    /** Upper bound of all keys, -1 if the map has been empty since it was last cleared. */
+    private long maxKey = -1;
+
+    SparseArrayMap() {
+        this.keys = newKeys(INITIAL_CAPACITY);
+        this.primitiveValues = new long[INITIAL_CAPACITY];
+        this.type = INT;
+    }
+
+    private SparseArrayMap(final SparseArrayMap map) {
+        this.keys = map.keys.clone();
+        this.primitiveValues = map.primitiveValues == null ? null : map.primitiveValues.clone();
+        this.objectValues = map.objectValues == null ? null : map.objectValues.clone();
+        this.type = map.type;
+        this.size = map.size;
+        this.sortedKeys = map.sortedKeys;
+        this.maxKey = map.maxKey;
+    }
+
+    SparseArrayMap copy() {
+        return new SparseArrayMap(this);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(final long key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Get the element at {@code key}, boxed if stored as primitive.
+     *
+     * @param key array index
+     * @return the element, or null if there is none
+     */
+    Object get(final long key) {
+        final int slot = findSlot(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    int getInt(final long key) {
+        final int slot = findSlot(key);
+        if (slot >= 0 && type == INT) {
+            return (int)primitiveValues[slot];
+        }
+        return JSType.toInt32(slot < 0 ? null : valueAt(slot));
+    }
+
+    int getIntOptimistic(final long key, final int programPoint) {
+        final int slot = findSlot(key);
+        if (slot >= 0 && type == INT) {
+            return (int)primitiveValues[slot];
+        }
+        return JSType.toInt32Optimistic(slot < 0 ? null : valueAt(slot), programPoint);
+    }
+
+    long getLong(final long key) {
+        final int slot = findSlot(key);
+        if (slot >= 0 && type <= LONG) {
+            return primitiveValues[slot];
+        }
+        return JSType.toLong(slot < 0 ? null : valueAt(slot));
+    }
+
+    long getLongOptimistic(final long key, final int programPoint) {
+        final int slot = findSlot(key);
+        if (slot >= 0 && type <= LONG) {
+            return primitiveValues[slot];
+        }
+        return JSType.toLongOptimistic(slot < 0 ? null : valueAt(slot), programPoint);
+    }
+
+    double getDouble(final long key) {
+        final int slot = findSlot(key);
+        if (slot >= 0 && type <= DOUBLE) {
+            return doubleAt(slot);
+        }
+        return JSType.toNumber(slot < 0 ? null : valueAt(slot));
+    }
+
+    double getDoubleOptimistic(final long key, final int programPoint) {
+        final int slot = findSlot(key);
+        if (slot >= 0 && type <= DOUBLE) {
+            return doubleAt(slot);
+        }
+        return JSType.toNumberOptimistic(slot < 0 ? null : valueAt(slot), programPoint);
+    }
+
+    void put(final long key, final int value) {
+        final int slot = insertSlot(key);
+        switch (type) {
+        case INT:
+        case LONG:
+            primitiveValues[slot] = value;
+            break;
+        case DOUBLE:
+            primitiveValues[slot] = Double.doubleToRawLongBits(value);
+            break;
+        default:
+            objectValues[slot] = value;
+            break;
+        }
+    }
+
+    void put(final long key, final long value) {
+        if (type == INT) {
+            type = LONG; // int values are stored sign extended, nothing to convert
+        }
+        final int slot = insertSlot(key);
+        switch (type) {
+        case LONG:
+            primitiveValues[slot] = value;
+            break;
+        case DOUBLE:
+            primitiveValues[slot] = Double.doubleToRawLongBits(value);
+            break;
+        default:
+            objectValues[slot] = value;
+            break;
+        }
+    }
+
+    void put(final long key, final double value) {
+        if (type < DOUBLE) {
+            widenToDouble();
+        }
+        final int slot = insertSlot(key);
+        if (type == DOUBLE) {
+            primitiveValues[slot] = Double.doubleToRawLongBits(value);
+        } else {
+            objectValues[slot] = value;
+        }
+    }
+
+    void put(final long key, final Object value) {
+        if (value instanceof Integer) {
+            put(key, ((Integer)value).intValue());
+        } else if (value instanceof Long) {
+            put(key, ((Long)value).longValue());
+        } else if (value instanceof Double) {
+            put(key, ((Double)value).doubleValue());
+        } else {
+            if (type != OBJECT) {
+                widenToObject();
+            }
+            final int slot = insertSlot(key); // may rehash, so look up objectValues afterwards
+            objectValues[slot] = value;
+        }
+    }
+
+    /**
+     * Remove the element at {@code key}.
+     *
+     * @param key array index
+     * @return the removed element, or null if there was none
+     */
+    Object remove(final long key) {
+        final int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        final Object value = valueAt(slot);
+        removeSlot(slot);
+        return value;
+    }
+
+    /**
+     * Remove all elements with keys in the inclusive range {@code from} to {@code to}.
+     *
+     * @param from lowest key to remove
+     * @param to   highest key to remove
+     */
+    void removeRange(final long from, final long to) {
+        // arrays grow by setting elements past their length, which deletes the
+        // range between the old length and the new element; that range is empty
+        if (size == 0 || from > maxKey) {
+            return;
+        }
+
+        final long last = Math.min(to, maxKey);
+        if (last - from < size) {
+            for (long key = from; key <= last; key++) {
+                final int slot = findSlot(key);
+                if (slot >= 0) {
+                    removeSlot(slot);
+                }
+            }
+            return;
+        }
+
+        final long[] sorted = sortedKeys();
+        int i = Arrays.binarySearch(sorted, from);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        for (; i < sorted.length && sorted[i] <= to; i++) {
+            removeSlot(findSlot(sorted[i]));
+        }
+    }
+
+    void clear() {
+        keys = newKeys(INITIAL_CAPACITY);
+        primitiveValues = new long[INITIAL_CAPACITY];
+        objectValues = null;
+        type = INT;
+        size = 0;
+        sortedKeys = null;
+        maxKey = -1;
+    }
+
+    /**
+     * Get the smallest key greater than {@code key}.
+     *
+     * @param key array index
+     * @return the next key, or -1 if there is none
+     */
+    long higherKey(final long key) {
+        final long[] sorted = sortedKeys();
+        int i = Arrays.binarySearch(sorted, key);
+        i = i < 0 ? -i - 1 : i + 1;
+        return i < sorted.length ? sorted[i] : -1;
+    }
+
+    /**
+     * Get all keys in ascending order. The returned array must not be modified.
+     *
+     * @return sorted keys
+     */
+    long[] sortedKeys() {
+        long[] sorted = sortedKeys;
+        if (sorted == null) {
+            sorted = new long[size];
+            int n = 0;
+            for (final long key : keys) {
+                if (key != FREE) {
+                    sorted[n++] = key;
+                }
+            }
+            assert n == size;
+            Arrays.sort(sorted);
+            sortedKeys = sorted;
+        }
+        return sorted;
+    }
+
+    private static long[] newKeys(final int capacity) {
+        final long[] newKeys = new long[capacity];
+        Arrays.fill(newKeys, FREE);
+        return newKeys;
+    }
+
+    private static int hash(final long key, final int mask) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+
+    // Returns the slot of key, or -1 if it is not in the map.
+    private int findSlot(final long key) {
+        final int mask = keys.length - 1;
+        for (int slot = hash(key, mask); ; slot = (slot + 1) & mask) {
+            final long k = keys[slot];
+            if (k == key) {
+                return slot;
+            } else if (k == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    // Returns the slot for key, adding key to the map if it is not there.
+    private int insertSlot(final long key) {
+        assert key >= 0;
+        int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        for (long k; (k = keys[slot]) != FREE; slot = (slot + 1) & mask) {
+            if (k == key) {
+                return slot;
+            }
+        }
+
+        // keep the load factor at or below one half
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+            mask = keys.length - 1;
+            for (slot = hash(key, mask); keys[slot] != FREE; slot = (slot + 1) & mask) {
+                // find free slot
+            }
+        }
+
+        keys[slot] = key;
+        size++;
+        sortedKeys = null;
+        maxKey = Math.max(maxKey, key);
+        return slot;
+    }
+
+    private void removeSlot(final int slot) {
+        final int mask = keys.length - 1;
+        int hole = slot;
+        // shift back following entries of the same probe sequence so that lookups need no tombstones
+        for (int i = (slot + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+            final int home = hash(keys[i], mask);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                if (type == OBJECT) {
+                    objectValues[hole] = objectValues[i];
+                } else {
+                    primitiveValues[hole] = primitiveValues[i];
+                }
+                hole = i;
+            }
+        }
+        keys[hole] = FREE;
+        if (type == OBJECT) {
+            objectValues[hole] = null;
+        }
+        size--;
+        sortedKeys = null;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldPrimitiveValues = primitiveValues;
+        final Object[] oldObjectValues = objectValues;
+        final int mask = capacity - 1;
+
+        keys = newKeys(capacity);
+        if (type == OBJECT) {
+            objectValues = new Object[capacity];
+        } else {
+            primitiveValues = new long[capacity];
+        }
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            final long key = oldKeys[i];
+            if (key != FREE) {
+                int slot = hash(key, mask);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                if (type == OBJECT) {
+                    objectValues[slot] = oldObjectValues[i];
+                } else {
+                    primitiveValues[slot] = oldPrimitiveValues[i];
+                }
+            }
+        }
+    }
+
+    private void widenToDouble() {
+        assert type < DOUBLE;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                primitiveValues[i] = Double.doubleToRawLongBits(primitiveValues[i]);
+            }
+        }
+        type = DOUBLE;
+    }
+
+    private void widenToObject() {
+        assert type != OBJECT;
+        final Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                values[i] = valueAt(i);
+            }
+        }
+        objectValues = values;
+        primitiveValues = null;
+        type = OBJECT;
+    }
+
+    private double doubleAt(final int slot) {
+        final long bits = primitiveValues[slot];
+        return type == DOUBLE ? Double.longBitsToDouble(bits) : (double)bits;
+    }
+
+    private Object valueAt(final int slot) {
+        switch (type) {
+        case INT:
+            return (int)primitiveValues[slot];
+        case LONG:
+            return primitiveValues[slot];
+        case DOUBLE:
+            return Double.longBitsToDouble(primitiveValues[slot]);
+        default:
+            return objectValues[slot];
+        }
+    }
+}
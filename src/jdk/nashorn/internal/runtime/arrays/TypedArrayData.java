@@ -29,6 +29,11 @@ import static jdk.nashorn.internal.lookup.Lookup.MH;
 
 import java.lang.invoke.MethodHandle;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
 import jdk.internal.dynalink.CallSiteDescriptor;
 import jdk.internal.dynalink.linker.GuardedInvocation;
@@ -96,7 +101,45 @@ public abstract class TypedArrayData<T extends Buffer> extends ContinuousArrayDa
 
     @Override
     public Object[] asObjectArray() {
-        throw new UnsupportedOperationException();
+        final int length = getElementLength();
+        final Object[] array = new Object[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = getObject(i);
+        }
+        return array;
+    }
+
+    @Override
+    public Object asArrayOfType(final Class<?> componentType) {
+        // Signed elements converted to an array of the buffer's element type keep their bits,
+        // so they can be copied in bulk. Unsigned and clamped values need converting.
+        // Buffers are only accessed with absolute indices, but duplicate them anyway as bulk
+        // gets are relative to the buffer's position.
+        if (!isUnsigned() && !isClamped()) {
+            final int length = getElementLength();
+            if (componentType == int.class && nb instanceof IntBuffer) {
+                final int[] array = new int[length];
+                ((IntBuffer)((IntBuffer)nb).duplicate().rewind()).get(array);
+                return array;
+            } else if (componentType == double.class && nb instanceof DoubleBuffer) {
+                final double[] array = new double[length];
+                ((DoubleBuffer)((DoubleBuffer)nb).duplicate().rewind()).get(array);
+                return array;
+            } else if (componentType == float.class && nb instanceof FloatBuffer) {
+                final float[] array = new float[length];
+                ((FloatBuffer)((FloatBuffer)nb).duplicate().rewind()).get(array);
+                return array;
+            } else if (componentType == short.class && nb instanceof ShortBuffer) {
+                final short[] array = new short[length];
+                ((ShortBuffer)((ShortBuffer)nb).duplicate().rewind()).get(array);
+                return array;
+            } else if (componentType == byte.class && nb instanceof ByteBuffer) {
+                final byte[] array = new byte[length];
+                ((ByteBuffer)((ByteBuffer)nb).duplicate().rewind()).get(array);
+                return array;
+            }
+        }
+        return super.asArrayOfType(componentType);
     }
 
     @Override
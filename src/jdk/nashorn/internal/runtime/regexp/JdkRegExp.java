@@ -89,6 +89,16 @@ public class JdkRegExp extends RegExp {
         }
     }
 
+    private JdkRegExp(final JdkRegExp regexp) {
+        super(regexp);
+        this.pattern = regexp.pattern;
+    }
+
+    @Override
+    public RegExp copy() {
+        return new JdkRegExp(this);
+    }
+
     @Override
     public RegExpMatcher match(final String str) {
         if (pattern == null) {
@@ -26,6 +26,7 @@
 package jdk.nashorn.internal.runtime.regexp;
 
 import jdk.nashorn.internal.runtime.ParserException;
+import jdk.nashorn.internal.runtime.options.Options;
 import jdk.nashorn.internal.runtime.regexp.joni.Matcher;
 import jdk.nashorn.internal.runtime.regexp.joni.Option;
 import jdk.nashorn.internal.runtime.regexp.joni.Regex;
@@ -41,6 +42,12 @@ import java.util.regex.PatternSyntaxException;
  */
 public class JoniRegExp extends RegExp {
 
+    /**
+     * Number of searches with a regexp after which its byte code is translated into a JVM class,
+     * or 0 to always interpret it.
+     */
+    private static final int COMPILE_THRESHOLD = Options.getIntProperty("nashorn.regexp.compile.threshold", 1000);
+
     /** Compiled Joni Regex */
     private Regex regex;
 
@@ -82,6 +89,8 @@ public class JoniRegExp extends RegExp {
             if (parsed != null) {
                 char[] javaPattern = parsed.getJavaPattern().toCharArray();
                 this.regex = new Regex(javaPattern, 0, javaPattern.length, option, Syntax.JAVASCRIPT);
+                // compile eagerly, the regex is shared by all copies made from the factory cache
+                this.regex.compile();
                 this.groupsInNegativeLookahead = parsed.getGroupsInNegativeLookahead();
             }
         } catch (final PatternSyntaxException | JOniException e2) {
@@ -89,6 +98,16 @@ public class JoniRegExp extends RegExp {
         }
     }
 
+    private JoniRegExp(final JoniRegExp regexp) {
+        super(regexp);
+        this.regex = regexp.regex;
+    }
+
+    @Override
+    public RegExp copy() {
+        return new JoniRegExp(this);
+    }
+
     @Override
     public RegExpMatcher match(final String input) {
         if (regex == null) {
@@ -119,15 +138,18 @@ public class JoniRegExp extends RegExp {
 
     class JoniMatcher implements RegExpMatcher {
         final String input;
-        final Matcher joniMatcher;
+        Matcher joniMatcher;
 
         JoniMatcher(final String input) {
             this.input = input;
-            this.joniMatcher = regex.matcher(input.toCharArray());
+            this.joniMatcher = regex.matcher(input);
         }
 
         @Override
         public boolean search(final int start) {
+            if (COMPILE_THRESHOLD > 0 && regex.countSearch(COMPILE_THRESHOLD)) {
+                joniMatcher = regex.matcher(input);
+            }
             return joniMatcher.search(start, input.length(), Option.NONE) > -1;
         }
 
@@ -88,6 +88,20 @@ public abstract class RegExp {
         }
     }
 
+    /**
+     * Copy constructor. The new regexp shares the source, flags and compiled
+     * pattern information of {@code regexp}.
+     *
+     * @param regexp the regexp to copy
+     */
+    protected RegExp(final RegExp regexp) {
+        this.source     = regexp.source;
+        this.global     = regexp.global;
+        this.ignoreCase = regexp.ignoreCase;
+        this.multiline  = regexp.multiline;
+        this.groupsInNegativeLookahead = regexp.groupsInNegativeLookahead;
+    }
+
     /**
      * Get the source pattern of this regular expression.
      *
@@ -151,6 +165,14 @@ public abstract class RegExp {
      */
     public abstract RegExpMatcher match(String str);
 
+    /**
+     * Create a copy of this regular expression that shares its compiled pattern,
+     * but has its own flags and matcher state.
+     *
+     * @return a new regexp
+     */
+    public abstract RegExp copy();
+
     /**
      * Throw a regexp parser exception.
      *
@@ -25,6 +25,8 @@
 
 package jdk.nashorn.internal.runtime.regexp;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import jdk.nashorn.internal.runtime.ParserException;
 import jdk.nashorn.internal.runtime.options.Options;
 
@@ -39,6 +41,22 @@ public class RegExpFactory {
     private final static String JDK  = "jdk";
     private final static String JONI = "joni";
 
+    /** Maximum number of compiled regexps kept in the cache, 0 disables caching */
+    private final static int CACHE_SIZE = Options.getIntProperty("nashorn.regexp.cache.size", 128);
+
+    /**
+     * Process wide cache of compiled regexps, keyed by pattern and flags. The cached
+     * instances are never handed out, {@link #create} returns copies of them sharing
+     * the compiled pattern.
+     */
+    @SuppressWarnings("serial")
+    private final static Map<Key, RegExp> cache = new LinkedHashMap<Key, RegExp>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, RegExp> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     static {
         final String impl = Options.getStringProperty("nashorn.regexp.impl", JONI);
         switch (impl) {
@@ -75,7 +93,7 @@ public class RegExpFactory {
      * @throws ParserException if invalid source or flags
      */
     public static RegExp create(final String pattern, final String flags) {
-        return instance.compile(pattern,  flags);
+        return getCompiled(pattern, flags).copy();
     }
 
     /**
@@ -88,7 +106,54 @@ public class RegExpFactory {
      */
     // @SuppressWarnings({"unused"})
     public static void validate(final String pattern, final String flags) throws ParserException {
-        instance.compile(pattern, flags);
+        getCompiled(pattern, flags);
+    }
+
+    private static RegExp getCompiled(final String pattern, final String flags) {
+        if (CACHE_SIZE <= 0) {
+            return instance.compile(pattern, flags);
+        }
+
+        final Key key = new Key(pattern, flags);
+        RegExp regexp;
+        synchronized (cache) {
+            regexp = cache.get(key);
+        }
+
+        if (regexp == null) {
+            // compile outside the lock, a racing thread may compile the same pattern
+            regexp = instance.compile(pattern, flags);
+            synchronized (cache) {
+                cache.put(key, regexp);
+            }
+        }
+
+        return regexp;
+    }
+
+    /** Cache key, the pattern and flags of a regexp */
+    private static final class Key {
+        private final String pattern;
+        private final String flags;
+
+        Key(final String pattern, final String flags) {
+            this.pattern = pattern;
+            this.flags   = flags;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key)other;
+            return pattern.equals(key.pattern) && flags.equals(key.flags);
+        }
+
+        @Override
+        public int hashCode() {
+            return pattern.hashCode() * 31 + flags.hashCode();
+        }
     }
 
     /**
@@ -35,19 +35,19 @@ import jdk.nashorn.internal.runtime.regexp.joni.encoding.IntHolder;
 import jdk.nashorn.internal.runtime.regexp.joni.exception.ErrorMessages;
 import jdk.nashorn.internal.runtime.regexp.joni.exception.InternalException;
 
-class ByteCodeMachine extends StackMachine {
-    private int bestLen;          // return value
-    private int s = 0;            // current char
+public class ByteCodeMachine extends StackMachine {
+    private int bestLen;            // return value
+    protected int s = 0;            // current char
 
-    private int range;            // right range
-    private int sprev;
+    protected int range;            // right range
+    protected int sprev;
     private int sstart;
-    private int sbegin;
+    protected int sbegin;
 
     private final int[] code;       // byte code
-    private int ip;                 // instruction pointer
+    protected int ip;               // instruction pointer
 
-    ByteCodeMachine(Regex regex, char[] chars, int p, int end) {
+    protected ByteCodeMachine(Regex regex, String chars, int p, int end) {
         super(regex, chars, p, end);
         this.code = regex.code;
     }
@@ -58,8 +58,8 @@ class ByteCodeMachine extends StackMachine {
         int end1 = s1 + mbLen;
 
         while (s1 < end1) {
-            char c1 = Character.toLowerCase(chars[s1++]);
-            char c2 = Character.toLowerCase(chars[s2++]);
+            char c1 = Character.toLowerCase(chars.charAt(s1++));
+            char c2 = Character.toLowerCase(chars.charAt(s2++));
 
             if (c1 != c2) {
                 return false;
@@ -83,7 +83,7 @@ class ByteCodeMachine extends StackMachine {
             Config.log.printf("%4d", (s - str)).print("> \"");
             int q, i;
             for (i=0, q=s; i<7 && q<end && s>=0; i++) {
-                if (q < end) Config.log.print(new String(new char[]{chars[q++]}));
+                if (q < end) Config.log.print(chars.charAt(q++));
             }
             String str = q < end ? "...\"" : "\"";
             q += str.length();
@@ -95,8 +95,8 @@ class ByteCodeMachine extends StackMachine {
         }
     }
 
-    @Override
-    protected final int matchAt(int range, int sstart, int sprev) {
+    /* shared by the interpreter loop below and by generated subclasses (see MachineGenerator) */
+    protected final void startMatch(int range, int sstart, int sprev) {
         this.range = range;
         this.sstart = sstart;
         this.sprev = sprev;
@@ -110,6 +110,11 @@ class ByteCodeMachine extends StackMachine {
 
         bestLen = -1;
         s = sstart;
+    }
+
+    @Override
+    protected int matchAt(int range, int sstart, int sprev) {
+        startMatch(range, sstart, sprev);
 
         final int[]code = this.code;
         while (true) {
@@ -214,7 +219,7 @@ class ByteCodeMachine extends StackMachine {
         } // main while
     }
 
-    private boolean opEnd() {
+    protected final boolean opEnd() {
         int n = s - sstart;
 
         if (n > bestLen) {
@@ -295,62 +300,62 @@ class ByteCodeMachine extends StackMachine {
         return true;
     }
 
-    private void opExact1() {
-        if (s >= range || code[ip] != chars[s++]) {opFail(); return;}
+    protected final void opExact1() {
+        if (s >= range || code[ip] != chars.charAt(s++)) {opFail(); return;}
         //if (s > range) {opFail(); return;}
         ip++;
         sprev = sbegin; // break;
     }
 
-    private void opExact2() {
+    protected final void opExact2() {
         if (s + 2 > range) {opFail(); return;}
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         sprev = s;
         ip++; s++;
     }
 
-    private void opExact3() {
+    protected final void opExact3() {
         if (s + 3 > range) {opFail(); return;}
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         sprev = s;
         ip++; s++;
     }
 
-    private void opExact4() {
+    protected final void opExact4() {
         if (s + 4 > range) {opFail(); return;}
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         sprev = s;
         ip++; s++;
     }
 
-    private void opExact5() {
+    protected final void opExact5() {
         if (s + 5 > range) {opFail(); return;}
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         ip++; s++;
-        if (code[ip] != chars[s]) {opFail(); return;}
+        if (code[ip] != chars.charAt(s)) {opFail(); return;}
         sprev = s;
         ip++; s++;
     }
 
-    private void opExactN() {
+    protected final void opExactN() {
         int tlen = code[ip++];
         if (s + tlen > range) {opFail(); return;}
 
@@ -358,21 +363,21 @@ class ByteCodeMachine extends StackMachine {
             char[] bs = regex.templates[code[ip++]];
             int ps = code[ip++];
 
-            while (tlen-- > 0) if (bs[ps++] != chars[s++]) {opFail(); return;}
+            while (tlen-- > 0) if (bs[ps++] != chars.charAt(s++)) {opFail(); return;}
 
         } else {
-            while (tlen-- > 0) if (code[ip++] != chars[s++]) {opFail(); return;}
+            while (tlen-- > 0) if (code[ip++] != chars.charAt(s++)) {opFail(); return;}
         }
         sprev = s - 1;
     }
 
-    private void opExact1IC() {
-        if (s >= range || code[ip] != Character.toLowerCase(chars[s++])) {opFail(); return;}
+    protected final void opExact1IC() {
+        if (s >= range || code[ip] != Character.toLowerCase(chars.charAt(s++))) {opFail(); return;}
         ip++;
         sprev = sbegin; // break;
     }
 
-    private void opExactNIC() {
+    protected final void opExactNIC() {
         int tlen = code[ip++];
         if (s + tlen > range) {opFail(); return;}
 
@@ -380,20 +385,20 @@ class ByteCodeMachine extends StackMachine {
             char[] bs = regex.templates[code[ip++]];
             int ps = code[ip++];
 
-            while (tlen-- > 0) if (bs[ps++] != Character.toLowerCase(chars[s++])) {opFail(); return;}
+            while (tlen-- > 0) if (bs[ps++] != Character.toLowerCase(chars.charAt(s++))) {opFail(); return;}
         } else {
 
-            while (tlen-- > 0) if (code[ip++] != Character.toLowerCase(chars[s++])) {opFail(); return;}
+            while (tlen-- > 0) if (code[ip++] != Character.toLowerCase(chars.charAt(s++))) {opFail(); return;}
         }
         sprev = s - 1;
     }
 
     private boolean isInBitSet() {
-        int c = chars[s];
+        int c = chars.charAt(s);
         return (c <= 0xff && (code[ip + (c >>> BitSet.ROOM_SHIFT)] & (1 << c)) != 0);
     }
 
-    private void opCClass() {
+    protected final void opCClass() {
         if (s >= range || !isInBitSet()) {opFail(); return;}
         ip += BitSet.BITSET_SIZE;
         s++;
@@ -405,22 +410,22 @@ class ByteCodeMachine extends StackMachine {
         if (s >= range) return false;
         int ss = s;
         s++;
-        int c = chars[ss];
+        int c = chars.charAt(ss);
         if (!EncodingHelper.isInCodeRange(code, ip, c)) return false;
         ip += tlen;
         return true;
     }
 
-    private void opCClassMB() {
+    protected final void opCClassMB() {
         // beyond string check
-        if (s >= range || chars[s] <= 0xff) {opFail(); return;}
+        if (s >= range || chars.charAt(s) <= 0xff) {opFail(); return;}
         if (!isInClassMB()) {opFail(); return;} // not!!!
         sprev = sbegin; // break;
     }
 
-    private void opCClassMIX() {
+    protected final void opCClassMIX() {
         if (s >= range) {opFail(); return;}
-        if (chars[s] > 0xff) {
+        if (chars.charAt(s) > 0xff) {
             ip += BitSet.BITSET_SIZE;
             if (!isInClassMB()) {opFail(); return;}
         } else {
@@ -433,7 +438,7 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opCClassNot() {
+    protected final void opCClassNot() {
         if (s >= range || isInBitSet()) {opFail(); return;}
         ip += BitSet.BITSET_SIZE;
         s++;
@@ -452,16 +457,16 @@ class ByteCodeMachine extends StackMachine {
 
         int ss = s;
         s++;
-        int c = chars[ss];
+        int c = chars.charAt(ss);
 
         if (EncodingHelper.isInCodeRange(code, ip, c)) return false;
         ip += tlen;
         return true;
     }
 
-    private void opCClassMBNot() {
+    protected final void opCClassMBNot() {
         if (s >= range) {opFail(); return;}
-        if (chars[s] <= 0xff) {
+        if (chars.charAt(s) <= 0xff) {
             s++;
             int tlen = code[ip++];
             ip += tlen;
@@ -472,9 +477,9 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opCClassMIXNot() {
+    protected final void opCClassMIXNot() {
         if (s >= range) {opFail(); return;}
-        if (chars[s] > 0xff) {
+        if (chars.charAt(s) > 0xff) {
             ip += BitSet.BITSET_SIZE;
             if (!isNotInClassMB()) {opFail(); return;}
         } else {
@@ -487,31 +492,31 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opCClassNode() {
+    protected final void opCClassNode() {
         if (s >= range) {opFail(); return;}
         CClassNode cc = (CClassNode)regex.operands[code[ip++]];
         int ss = s;
         s++;
-        int c = chars[ss];
+        int c = chars.charAt(ss);
         if (!cc.isCodeInCCLength(c)) {opFail(); return;}
         sprev = sbegin; // break;
     }
 
-    private void opAnyChar() {
+    protected final void opAnyChar() {
         if (s >= range) {opFail(); return;}
-        if (isNewLine(chars[s])) {opFail(); return;}
+        if (isNewLine(chars.charAt(s))) {opFail(); return;}
         s++;
         sprev = sbegin; // break;
     }
 
-    private void opAnyCharML() {
+    protected final void opAnyCharML() {
         if (s >= range) {opFail(); return;}
         s++;
         sprev = sbegin; // break;
     }
 
-    private void opAnyCharStar() {
-        final char[] chars = this.chars;
+    protected final void opAnyCharStar() {
+        final String chars = this.chars;
         while (s < range) {
             pushAlt(ip, s, sprev);
             if (isNewLine(chars, s, end)) {opFail(); return;}
@@ -521,7 +526,7 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opAnyCharMLStar() {
+    protected final void opAnyCharMLStar() {
         while (s < range) {
             pushAlt(ip, s, sprev);
             sprev = s;
@@ -530,12 +535,12 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opAnyCharStarPeekNext() {
+    protected final void opAnyCharStarPeekNext() {
         final char c = (char)code[ip];
-        final char[] chars = this.chars;
+        final String chars = this.chars;
 
         while (s < range) {
-            char b = chars[s];
+            char b = chars.charAt(s);
             if (c == b) pushAlt(ip + 1, s, sprev);
             if (isNewLine(b)) {opFail(); return;}
             sprev = s;
@@ -545,12 +550,12 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opAnyCharMLStarPeekNext() {
+    protected final void opAnyCharMLStarPeekNext() {
         final char c = (char)code[ip];
-        final char[] chars = this.chars;
+        final String chars = this.chars;
 
         while (s < range) {
-            if (c == chars[s]) pushAlt(ip + 1, s, sprev);
+            if (c == chars.charAt(s)) pushAlt(ip + 1, s, sprev);
             sprev = s;
             s++;
         }
@@ -558,61 +563,61 @@ class ByteCodeMachine extends StackMachine {
         sprev = sbegin; // break;
     }
 
-    private void opWord() {
-        if (s >= range || !EncodingHelper.isWord(chars[s])) {opFail(); return;}
+    protected final void opWord() {
+        if (s >= range || !EncodingHelper.isWord(chars.charAt(s))) {opFail(); return;}
         s++;
         sprev = sbegin; // break;
     }
 
-    private void opNotWord() {
-        if (s >= range || EncodingHelper.isWord(chars[s])) {opFail(); return;}
+    protected final void opNotWord() {
+        if (s >= range || EncodingHelper.isWord(chars.charAt(s))) {opFail(); return;}
         s++;
         sprev = sbegin; // break;
     }
 
-    private void opWordBound() {
+    protected final void opWordBound() {
         if (s == str) {
-            if (s >= range || !EncodingHelper.isWord(chars[s])) {opFail(); return;}
+            if (s >= range || !EncodingHelper.isWord(chars.charAt(s))) {opFail(); return;}
         } else if (s == end) {
-            if (sprev >= end || !EncodingHelper.isWord(chars[sprev])) {opFail(); return;}
+            if (sprev >= end || !EncodingHelper.isWord(chars.charAt(sprev))) {opFail(); return;}
         } else {
-            if (EncodingHelper.isWord(chars[s]) == EncodingHelper.isWord(chars[sprev])) {opFail(); return;}
+            if (EncodingHelper.isWord(chars.charAt(s)) == EncodingHelper.isWord(chars.charAt(sprev))) {opFail(); return;}
         }
     }
 
-    private void opNotWordBound() {
+    protected final void opNotWordBound() {
         if (s == str) {
-            if (s < range && EncodingHelper.isWord(chars[s])) {opFail(); return;}
+            if (s < range && EncodingHelper.isWord(chars.charAt(s))) {opFail(); return;}
         } else if (s == end) {
-            if (sprev < end && EncodingHelper.isWord(chars[sprev])) {opFail(); return;}
+            if (sprev < end && EncodingHelper.isWord(chars.charAt(sprev))) {opFail(); return;}
         } else {
-            if (EncodingHelper.isWord(chars[s]) != EncodingHelper.isWord(chars[sprev])) {opFail(); return;}
+            if (EncodingHelper.isWord(chars.charAt(s)) != EncodingHelper.isWord(chars.charAt(sprev))) {opFail(); return;}
         }
     }
 
-    private void opWordBegin() {
-        if (s < range && EncodingHelper.isWord(chars[s])) {
-            if (s == str || !EncodingHelper.isWord(chars[sprev])) return;
+    protected final void opWordBegin() {
+        if (s < range && EncodingHelper.isWord(chars.charAt(s))) {
+            if (s == str || !EncodingHelper.isWord(chars.charAt(sprev))) return;
         }
         opFail();
     }
 
-    private void opWordEnd() {
-        if (s != str && EncodingHelper.isWord(chars[sprev])) {
-            if (s == end || !EncodingHelper.isWord(chars[s])) return;
+    protected final void opWordEnd() {
+        if (s != str && EncodingHelper.isWord(chars.charAt(sprev))) {
+            if (s == end || !EncodingHelper.isWord(chars.charAt(s))) return;
         }
         opFail();
     }
 
-    private void opBeginBuf() {
+    protected final void opBeginBuf() {
         if (s != str) opFail();
     }
 
-    private void opEndBuf() {
+    protected final void opEndBuf() {
         if (s != end) opFail();
     }
 
-    private void opBeginLine() {
+    protected final void opBeginLine() {
         if (s == str) {
             if (isNotBol(msaOptions)) opFail();
             return;
@@ -622,7 +627,7 @@ class ByteCodeMachine extends StackMachine {
         opFail();
     }
 
-    private void opEndLine()  {
+    protected final void opEndLine()  {
         if (s == end) {
             if (Config.USE_NEWLINE_AT_END_OF_STRING_HAS_EMPTY_LINE) {
                 if (str == end || !isNewLine(chars, sprev, end)) {
@@ -639,7 +644,7 @@ class ByteCodeMachine extends StackMachine {
         opFail();
     }
 
-    private void opSemiEndBuf() {
+    protected final void opSemiEndBuf() {
         if (s == end) {
             if (Config.USE_NEWLINE_AT_END_OF_STRING_HAS_EMPTY_LINE) {
                 if (str == end || !isNewLine(chars, sprev, end)) {
@@ -656,38 +661,38 @@ class ByteCodeMachine extends StackMachine {
         opFail();
     }
 
-    private void opBeginPosition() {
+    protected final void opBeginPosition() {
         if (s != msaStart) opFail();
     }
 
-    private void opMemoryStartPush() {
+    protected final void opMemoryStartPush() {
         int mem = code[ip++];
         pushMemStart(mem, s);
     }
 
-    private void opMemoryStart() {
+    protected final void opMemoryStart() {
         int mem = code[ip++];
         repeatStk[memStartStk + mem] = s;
     }
 
-    private void opMemoryEndPush() {
+    protected final void opMemoryEndPush() {
         int mem = code[ip++];
         pushMemEnd(mem, s);
     }
 
-    private void opMemoryEnd() {
+    protected final void opMemoryEnd() {
         int mem = code[ip++];
         repeatStk[memEndStk + mem] = s;
     }
 
-    private void opMemoryEndPushRec() {
+    protected final void opMemoryEndPushRec() {
         int mem = code[ip++];
         int stkp = getMemStart(mem); /* should be before push mem-end. */
         pushMemEnd(mem, s);
         repeatStk[memStartStk + mem] = stkp;
     }
 
-    private void opMemoryEndRec() {
+    protected final void opMemoryEndRec() {
         int mem = code[ip++];
         repeatStk[memEndStk + mem] = s;
         int stkp = getMemStart(mem);
@@ -726,7 +731,7 @@ class ByteCodeMachine extends StackMachine {
         sprev = s;
 
         // STRING_CMP
-        while(n-- > 0) if (chars[pstart++] != chars[s++]) {opFail(); return;}
+        while(n-- > 0) if (chars.charAt(pstart++) != chars.charAt(s++)) {opFail(); return;}
 
         // beyond string check
         if (sprev < range) {
@@ -734,19 +739,19 @@ class ByteCodeMachine extends StackMachine {
         }
     }
 
-    private void opBackRef1() {
+    protected final void opBackRef1() {
         backref(1);
     }
 
-    private void opBackRef2() {
+    protected final void opBackRef2() {
         backref(2);
     }
 
-    private void opBackRefN() {
+    protected final void opBackRefN() {
         backref(code[ip++]);
     }
 
-    private void opBackRefNIC() {
+    protected final void opBackRefNIC() {
         int mem = code[ip++];
         /* if you want to remove following line,
         you should check in parse and compile time. (numMem) */
@@ -767,7 +772,7 @@ class ByteCodeMachine extends StackMachine {
         while (sprev + 1 < s) sprev++;
     }
 
-    private void opBackRefMulti() {
+    protected final void opBackRefMulti() {
         int tlen = code[ip++];
 
         int i;
@@ -785,7 +790,7 @@ class ByteCodeMachine extends StackMachine {
             int swork = s;
 
             while (n-- > 0) {
-                if (chars[pstart++] != chars[swork++]) continue loop;
+                if (chars.charAt(pstart++) != chars.charAt(swork++)) continue loop;
             }
 
             s = swork;
@@ -801,7 +806,7 @@ class ByteCodeMachine extends StackMachine {
         if (i == tlen) {opFail(); return;}
     }
 
-    private void opBackRefMultiIC() {
+    protected final void opBackRefMultiIC() {
         int tlen = code[ip++];
 
         int i;
@@ -867,7 +872,7 @@ class ByteCodeMachine extends StackMachine {
                                 }
                             } else {
                                 while (p < pend) {
-                                    if (chars[p++] != chars[value++]) return false; /* or goto next_mem; */
+                                    if (chars.charAt(p++) != chars.charAt(value++)) return false; /* or goto next_mem; */
                                 }
                             }
                             s = value;
@@ -886,7 +891,7 @@ class ByteCodeMachine extends StackMachine {
         return false;
     }
 
-    private void opBackRefAtLevel() {
+    protected final void opBackRefAtLevel() {
         int ic      = code[ip++];
         int level   = code[ip++];
         int tlen    = code[ip++];
@@ -901,17 +906,17 @@ class ByteCodeMachine extends StackMachine {
     }
 
     /* no need: IS_DYNAMIC_OPTION() == 0 */
-    private void opSetOptionPush() {
+    protected final void opSetOptionPush() {
         // option = code[ip++]; // final for now
         pushAlt(ip, s, sprev);
         ip += OPSize.SET_OPTION + OPSize.FAIL;
     }
 
-    private void opSetOption() {
+    protected final void opSetOption() {
         // option = code[ip++]; // final for now
     }
 
-    private void opNullCheckStart() {
+    protected final void opNullCheckStart() {
         int mem = code[ip++];
         pushNullCheckStart(mem, s);
     }
@@ -935,7 +940,7 @@ class ByteCodeMachine extends StackMachine {
         } // switch
     }
 
-    private void opNullCheckEnd() {
+    protected final void opNullCheckEnd() {
         int mem = code[ip++];
         int isNull = nullCheck(mem, s); /* mem: null check id */
 
@@ -949,7 +954,7 @@ class ByteCodeMachine extends StackMachine {
     }
 
     // USE_INFINITE_REPEAT_MONOMANIAC_MEM_STATUS_CHECK
-    private void opNullCheckEndMemST() {
+    protected final void opNullCheckEndMemST() {
         int mem = code[ip++];   /* mem: null check id */
         int isNull = nullCheckMemSt(mem, s);
 
@@ -964,7 +969,7 @@ class ByteCodeMachine extends StackMachine {
     }
 
     // USE_SUBEXP_CALL
-    private void opNullCheckEndMemSTPush() {
+    protected final void opNullCheckEndMemSTPush() {
         int mem = code[ip++];   /* mem: null check id */
 
         int isNull;
@@ -986,23 +991,23 @@ class ByteCodeMachine extends StackMachine {
         }
     }
 
-    private void opJump() {
+    protected final void opJump() {
         ip += code[ip] + 1;
     }
 
-    private void opPush() {
+    protected final void opPush() {
         int addr = code[ip++];
         pushAlt(ip + addr, s, sprev);
     }
 
-    private void opPop() {
+    protected final void opPop() {
         popOne();
     }
 
-    private void opPushOrJumpExact1() {
+    protected final void opPushOrJumpExact1() {
         int addr = code[ip++];
         // beyond string check
-        if (s < range && code[ip] == chars[s]) {
+        if (s < range && code[ip] == chars.charAt(s)) {
             ip++;
             pushAlt(ip + addr, s, sprev);
             return;
@@ -1010,10 +1015,10 @@ class ByteCodeMachine extends StackMachine {
         ip += addr + 1;
     }
 
-    private void opPushIfPeekNext() {
+    protected final void opPushIfPeekNext() {
         int addr = code[ip++];
         // beyond string check
-        if (s < range && code[ip] == chars[s]) {
+        if (s < range && code[ip] == chars.charAt(s)) {
             ip++;
             pushAlt(ip + addr, s, sprev);
             return;
@@ -1021,7 +1026,7 @@ class ByteCodeMachine extends StackMachine {
         ip++;
     }
 
-    private void opRepeat() {
+    protected final void opRepeat() {
         int mem = code[ip++];   /* mem: OP_REPEAT ID */
         int addr= code[ip++];
 
@@ -1034,7 +1039,7 @@ class ByteCodeMachine extends StackMachine {
         }
     }
 
-    private void opRepeatNG() {
+    protected final void opRepeatNG() {
         int mem = code[ip++];   /* mem: OP_REPEAT ID */
         int addr= code[ip++];
 
@@ -1064,13 +1069,13 @@ class ByteCodeMachine extends StackMachine {
         pushRepeatInc(si);
     }
 
-    private void opRepeatInc() {
+    protected final void opRepeatInc() {
         int mem = code[ip++];   /* mem: OP_REPEAT ID */
         int si = repeatStk[mem];
         repeatInc(mem, si);
     }
 
-    private void opRepeatIncSG() {
+    protected final void opRepeatIncSG() {
         int mem = code[ip++];   /* mem: OP_REPEAT ID */
         int si = getRepeat(mem);
         repeatInc(mem, si);
@@ -1095,61 +1100,61 @@ class ByteCodeMachine extends StackMachine {
         }
     }
 
-    private void opRepeatIncNG() {
+    protected final void opRepeatIncNG() {
         int mem = code[ip++];
         int si = repeatStk[mem];
         repeatIncNG(mem, si);
     }
 
-    private void opRepeatIncNGSG() {
+    protected final void opRepeatIncNGSG() {
         int mem = code[ip++];
         int si = getRepeat(mem);
         repeatIncNG(mem, si);
     }
 
-    private void opPushPos() {
+    protected final void opPushPos() {
         pushPos(s, sprev);
     }
 
-    private void opPopPos() {
+    protected final void opPopPos() {
         StackEntry e = stack[posEnd()];
         s    = e.getStatePStr();
         sprev= e.getStatePStrPrev();
     }
 
-    private void opPushPosNot() {
+    protected final void opPushPosNot() {
         int addr = code[ip++];
         pushPosNot(ip + addr, s, sprev);
     }
 
-    private void opFailPos() {
+    protected final void opFailPos() {
         popTilPosNot();
         opFail();
     }
 
-    private void opPushStopBT() {
+    protected final void opPushStopBT() {
         pushStopBT();
     }
 
-    private void opPopStopBT() {
+    protected final void opPopStopBT() {
         stopBtEnd();
     }
 
-    private void opLookBehind() {
+    protected final void opLookBehind() {
         int tlen = code[ip++];
         s = EncodingHelper.stepBack(str, s, tlen);
         if (s == -1) {opFail(); return;}
         sprev = EncodingHelper.prevCharHead(str, s);
     }
 
-    private void opLookBehindSb() {
+    protected final void opLookBehindSb() {
         int tlen = code[ip++];
         s -= tlen;
         if (s < str) {opFail(); return;}
         sprev = s == str ? -1 : s - 1;
     }
 
-    private void opPushLookBehindNot() {
+    protected final void opPushLookBehindNot() {
         int addr = code[ip++];
         int tlen = code[ip++];
         int q = EncodingHelper.stepBack(str, s, tlen);
@@ -1165,12 +1170,12 @@ class ByteCodeMachine extends StackMachine {
         }
     }
 
-    private void opFailLookBehindNot() {
+    protected final void opFailLookBehindNot() {
         popTilLookBehindNot();
         opFail();
     }
 
-    private void opFail() {
+    protected final void opFail() {
         if (stack == null) {
             ip = regex.codeLength - 1;
             return;
@@ -1183,7 +1188,7 @@ class ByteCodeMachine extends StackMachine {
         sprev = e.getStatePStrPrev();
     }
 
-    private int finish() {
+    protected final int finish() {
         return bestLen;
     }
 }
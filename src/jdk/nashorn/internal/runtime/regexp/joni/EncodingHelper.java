@@ -69,8 +69,8 @@ public final class EncodingHelper {
         return code == NEW_LINE || code == RETURN || code == LINE_SEPARATOR || code == PARAGRAPH_SEPARATOR;
     }
 
-    public static boolean isNewLine(char[] chars, int p, int end) {
-        return p < end && isNewLine(chars[p]);
+    public static boolean isNewLine(String chars, int p, int end) {
+        return p < end && isNewLine(chars.charAt(p));
     }
 
     // Encoding.prevCharHead
@@ -0,0 +1,468 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package jdk.nashorn.internal.runtime.regexp.joni;
+
+import static jdk.internal.org.objectweb.asm.Opcodes.ACC_FINAL;
+import static jdk.internal.org.objectweb.asm.Opcodes.ACC_PROTECTED;
+import static jdk.internal.org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static jdk.internal.org.objectweb.asm.Opcodes.ACC_SUPER;
+
+import java.lang.reflect.Constructor;
+import java.security.AccessController;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.Permissions;
+import java.security.PrivilegedAction;
+import java.security.ProtectionDomain;
+import java.security.SecureClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.Label;
+import jdk.internal.org.objectweb.asm.Opcodes;
+import jdk.internal.org.objectweb.asm.Type;
+import jdk.internal.org.objectweb.asm.commons.InstructionAdapter;
+import jdk.nashorn.internal.runtime.regexp.joni.constants.OPCode;
+import jdk.nashorn.internal.runtime.regexp.joni.exception.ErrorMessages;
+import jdk.nashorn.internal.runtime.regexp.joni.exception.InternalException;
+
+/**
+ * Translates the byte code of a {@link Regex} into a JVM class extending {@link ByteCodeMachine}.
+ *
+ * The generated {@code matchAt} lays the instructions out as straight line code: jumps become
+ * branches, pushes and exact matches are inlined with their operands as constants, and every
+ * other instruction calls the corresponding {@code ByteCodeMachine} operation. Backtracking to
+ * an address popped from the stack goes through a single switch on the instruction pointer.
+ * Regexes using an instruction the interpreter does not support are not compiled.
+ */
+final class MachineGenerator {
+    private static final String MACHINE     = Type.getInternalName(ByteCodeMachine.class);
+    private static final String CLASS_NAME  = "jdk/nashorn/internal/runtime/regexp/joni/CompiledMachine$";
+    private static final String STRING      = Type.getInternalName(String.class);
+    private static final Type   OBJECT      = Type.getType(Object.class);
+    private static final String INTERNAL_EXCEPTION = Type.getInternalName(InternalException.class);
+
+    private static final String INIT_DESC   = "(L" + Type.getInternalName(Regex.class) + ";L" + STRING + ";II)V";
+
+    // generated methods larger than this are never JIT compiled by HotSpot
+    private static final int MAX_METHOD_SIZE = 8000;
+
+    // locals of the generated matchAt
+    private static final int THIS  = 0;
+    private static final int POS   = 4;
+    private static final int CHARS = 5;
+
+    private static final String[] OP_METHODS = new String[OPCode.SET_OPTION + 1];
+
+    static {
+        op(OPCode.CCLASS,                     "opCClass");
+        op(OPCode.CCLASS_MB,                  "opCClassMB");
+        op(OPCode.CCLASS_MIX,                 "opCClassMIX");
+        op(OPCode.CCLASS_NOT,                 "opCClassNot");
+        op(OPCode.CCLASS_MB_NOT,              "opCClassMBNot");
+        op(OPCode.CCLASS_MIX_NOT,             "opCClassMIXNot");
+        op(OPCode.CCLASS_NODE,                "opCClassNode");
+
+        op(OPCode.ANYCHAR,                    "opAnyChar");
+        op(OPCode.ANYCHAR_ML,                 "opAnyCharML");
+        op(OPCode.ANYCHAR_STAR,               "opAnyCharStar");
+        op(OPCode.ANYCHAR_ML_STAR,            "opAnyCharMLStar");
+        op(OPCode.ANYCHAR_STAR_PEEK_NEXT,     "opAnyCharStarPeekNext");
+        op(OPCode.ANYCHAR_ML_STAR_PEEK_NEXT,  "opAnyCharMLStarPeekNext");
+
+        op(OPCode.WORD,                       "opWord");
+        op(OPCode.NOT_WORD,                   "opNotWord");
+        op(OPCode.WORD_BOUND,                 "opWordBound");
+        op(OPCode.NOT_WORD_BOUND,             "opNotWordBound");
+        op(OPCode.WORD_BEGIN,                 "opWordBegin");
+        op(OPCode.WORD_END,                   "opWordEnd");
+
+        op(OPCode.BEGIN_BUF,                  "opBeginBuf");
+        op(OPCode.END_BUF,                    "opEndBuf");
+        op(OPCode.BEGIN_LINE,                 "opBeginLine");
+        op(OPCode.END_LINE,                   "opEndLine");
+        op(OPCode.SEMI_END_BUF,               "opSemiEndBuf");
+        op(OPCode.BEGIN_POSITION,             "opBeginPosition");
+
+        op(OPCode.MEMORY_START_PUSH,          "opMemoryStartPush");
+        op(OPCode.MEMORY_START,               "opMemoryStart");
+        op(OPCode.MEMORY_END_PUSH,            "opMemoryEndPush");
+        op(OPCode.MEMORY_END,                 "opMemoryEnd");
+        op(OPCode.MEMORY_END_PUSH_REC,        "opMemoryEndPushRec");
+        op(OPCode.MEMORY_END_REC,             "opMemoryEndRec");
+
+        op(OPCode.BACKREF1,                   "opBackRef1");
+        op(OPCode.BACKREF2,                   "opBackRef2");
+        op(OPCode.BACKREFN,                   "opBackRefN");
+        op(OPCode.BACKREFN_IC,                "opBackRefNIC");
+        op(OPCode.BACKREF_MULTI,              "opBackRefMulti");
+        op(OPCode.BACKREF_MULTI_IC,           "opBackRefMultiIC");
+        op(OPCode.BACKREF_WITH_LEVEL,         "opBackRefAtLevel");
+
+        op(OPCode.NULL_CHECK_START,           "opNullCheckStart");
+        op(OPCode.NULL_CHECK_END,             "opNullCheckEnd");
+        op(OPCode.NULL_CHECK_END_MEMST,       "opNullCheckEndMemST");
+        op(OPCode.NULL_CHECK_END_MEMST_PUSH,  "opNullCheckEndMemSTPush");
+
+        op(OPCode.POP,                        "opPop");
+        op(OPCode.PUSH_OR_JUMP_EXACT1,        "opPushOrJumpExact1");
+        op(OPCode.PUSH_IF_PEEK_NEXT,          "opPushIfPeekNext");
+
+        op(OPCode.REPEAT,                     "opRepeat");
+        op(OPCode.REPEAT_NG,                  "opRepeatNG");
+        op(OPCode.REPEAT_INC,                 "opRepeatInc");
+        op(OPCode.REPEAT_INC_SG,              "opRepeatIncSG");
+        op(OPCode.REPEAT_INC_NG,              "opRepeatIncNG");
+        op(OPCode.REPEAT_INC_NG_SG,           "opRepeatIncNGSG");
+
+        op(OPCode.PUSH_POS,                   "opPushPos");
+        op(OPCode.POP_POS,                    "opPopPos");
+        op(OPCode.PUSH_POS_NOT,               "opPushPosNot");
+        op(OPCode.FAIL_POS,                   "opFailPos");
+        op(OPCode.PUSH_STOP_BT,               "opPushStopBT");
+        op(OPCode.POP_STOP_BT,                "opPopStopBT");
+
+        op(OPCode.LOOK_BEHIND,                "opLookBehind");
+        op(OPCode.PUSH_LOOK_BEHIND_NOT,       "opPushLookBehindNot");
+        op(OPCode.FAIL_LOOK_BEHIND_NOT,       "opFailLookBehindNot");
+    }
+
+    private static void op(final int opcode, final String method) {
+        OP_METHODS[opcode] = method;
+    }
+
+    private static final AtomicInteger classCount = new AtomicInteger();
+
+    private final Regex regex;
+    private final int[] code;
+
+    private InstructionAdapter mv;
+    private Label[] labels;
+    private Label fail;
+    private Label dispatch;
+
+    private MachineGenerator(final Regex regex) {
+        this.regex = regex;
+        this.code = regex.code;
+    }
+
+    /**
+     * Generate and load a matcher class for the given regex.
+     *
+     * @param regex the regex, already compiled to byte code
+     * @return a factory for the generated matcher, or null if the byte code can not be compiled
+     */
+    static MatcherFactory generate(final Regex regex) {
+        if (Config.DEBUG_MATCH || regex.code == null) {
+            return null;
+        }
+
+        final String className = CLASS_NAME + classCount.incrementAndGet();
+        final byte[] bytes;
+        try {
+            bytes = new MachineGenerator(regex).generateClass(className);
+        } catch (final InternalException e) {
+            // byte code the printer does not know how to decode
+            return null;
+        }
+        if (bytes == null) {
+            return null;
+        }
+
+        final Class<?> clazz = AccessController.doPrivileged(new PrivilegedAction<Class<?>>() {
+            @Override
+            public Class<?> run() {
+                return new MachineLoader(ByteCodeMachine.class.getClassLoader()).load(className.replace('/', '.'), bytes);
+            }
+        });
+
+        try {
+            final Constructor<?> constructor = clazz.getConstructor(Regex.class, String.class, int.class, int.class);
+            return new MatcherFactory() {
+                @Override
+                public Matcher create(final Regex r, final String chars, final int p, final int end) {
+                    try {
+                        return (Matcher)constructor.newInstance(r, chars, p, end);
+                    } catch (final ReflectiveOperationException e) {
+                        throw new InternalException(e.toString());
+                    }
+                }
+            };
+        } catch (final NoSuchMethodException e) {
+            throw new InternalException(e.toString());
+        }
+    }
+
+    private byte[] generateClass(final String className) {
+        final int codeLength = regex.codeLength;
+        final boolean[] starts = new boolean[codeLength];
+        final ByteCodePrinter printer = new ByteCodePrinter(regex);
+
+        for (int ip = 0; ip < codeLength; ) {
+            if (!isSupported(code[ip])) {
+                return null;
+            }
+            starts[ip] = true;
+            ip = printer.compiledByteCodeToString(new StringBuilder(), ip);
+        }
+        // a failure with an empty stack resumes at the final FINISH
+        if (!starts[codeLength - 1] || code[codeLength - 1] != OPCode.FINISH) {
+            return null;
+        }
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_7, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, className, null, MACHINE, null);
+
+        mv = new InstructionAdapter(cw.visitMethod(ACC_PUBLIC, "<init>", INIT_DESC, null, null));
+        mv.visitCode();
+        mv.load(THIS, OBJECT);
+        mv.load(1, OBJECT);
+        mv.load(2, OBJECT);
+        mv.load(3, Type.INT_TYPE);
+        mv.load(4, Type.INT_TYPE);
+        mv.invokespecial(MACHINE, "<init>", INIT_DESC, false);
+        mv.areturn(Type.VOID_TYPE);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = new InstructionAdapter(cw.visitMethod(ACC_PROTECTED, "matchAt", "(III)I", null, null));
+        mv.visitCode();
+        mv.load(THIS, OBJECT);
+        mv.load(1, Type.INT_TYPE);
+        mv.load(2, Type.INT_TYPE);
+        mv.load(3, Type.INT_TYPE);
+        mv.invokevirtual(MACHINE, "startMatch", "(III)V", false);
+        mv.load(THIS, OBJECT);
+        mv.getfield(MACHINE, "chars", "L" + STRING + ";");
+        mv.store(CHARS, OBJECT);
+
+        labels = new Label[codeLength];
+        for (int ip = 0; ip < codeLength; ip++) {
+            if (starts[ip]) {
+                labels[ip] = new Label();
+            }
+        }
+        fail = new Label();
+        dispatch = new Label();
+
+        for (int ip = 0; ip < codeLength; ) {
+            final int next = printer.compiledByteCodeToString(new StringBuilder(), ip);
+            mv.mark(labels[ip]);
+            instruction(ip, next);
+            ip = next;
+        }
+
+        mv.mark(fail);
+        invoke("opFail", "()V");
+        mv.goTo(dispatch);
+
+        final Label undefined = new Label();
+        mv.mark(dispatch);
+        getfield("ip");
+        final Label[] targets = new Label[codeLength];
+        for (int ip = 0; ip < codeLength; ip++) {
+            targets[ip] = starts[ip] ? labels[ip] : undefined;
+        }
+        mv.tableswitch(0, codeLength - 1, undefined, targets);
+
+        mv.mark(undefined);
+        mv.anew(Type.getObjectType(INTERNAL_EXCEPTION));
+        mv.dup();
+        mv.aconst(ErrorMessages.ERR_UNDEFINED_BYTECODE);
+        mv.invokespecial(INTERNAL_EXCEPTION, "<init>", "(L" + STRING + ";)V", false);
+        mv.athrow();
+
+        final Label end = new Label();
+        mv.mark(end);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        if (end.getOffset() > MAX_METHOD_SIZE) {
+            return null;
+        }
+        return cw.toByteArray();
+    }
+
+    private static boolean isSupported(final int opcode) {
+        switch (opcode) {
+        case OPCode.END:
+        case OPCode.FINISH:
+        case OPCode.FAIL:
+        case OPCode.JUMP:
+        case OPCode.PUSH:
+        case OPCode.EXACT1:
+        case OPCode.EXACT2:
+        case OPCode.EXACT3:
+        case OPCode.EXACT4:
+        case OPCode.EXACT5:
+        case OPCode.EXACTN:
+        case OPCode.EXACT1_IC:
+        case OPCode.EXACTN_IC:
+            return true;
+        default:
+            return opcode >= 0 && opcode < OP_METHODS.length && OP_METHODS[opcode] != null;
+        }
+    }
+
+    private void instruction(final int ip, final int next) {
+        switch (code[ip]) {
+        case OPCode.END:
+            invoke("opEnd", "()Z");
+            mv.ifeq(dispatch);
+            invoke("finish", "()I");
+            mv.areturn(Type.INT_TYPE);
+            break;
+
+        case OPCode.FINISH:
+            invoke("finish", "()I");
+            mv.areturn(Type.INT_TYPE);
+            break;
+
+        case OPCode.FAIL:
+            mv.goTo(fail);
+            break;
+
+        case OPCode.JUMP:
+            mv.goTo(labels[ip + 2 + code[ip + 1]]);
+            break;
+
+        case OPCode.PUSH:
+            mv.load(THIS, OBJECT);
+            mv.iconst(ip + 2 + code[ip + 1]);
+            getfield("s");
+            getfield("sprev");
+            mv.invokevirtual(MACHINE, "pushAlt", "(III)V", false);
+            break;
+
+        case OPCode.EXACT1:
+        case OPCode.EXACT2:
+        case OPCode.EXACT3:
+        case OPCode.EXACT4:
+        case OPCode.EXACT5:
+            exact(code, ip + 1, next - ip - 1, false);
+            break;
+
+        case OPCode.EXACTN:
+        case OPCode.EXACTN_IC:
+            if (Config.USE_STRING_TEMPLATES) {
+                final char[] template = regex.templates[code[ip + 2]];
+                final int[] chars = new int[code[ip + 1]];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = template[code[ip + 3] + i];
+                }
+                exact(chars, 0, chars.length, code[ip] == OPCode.EXACTN_IC);
+            } else {
+                exact(code, ip + 2, code[ip + 1], code[ip] == OPCode.EXACTN_IC);
+            }
+            break;
+
+        case OPCode.EXACT1_IC:
+            exact(code, ip + 1, 1, true);
+            break;
+
+        default:
+            // sbegin = s; ip = <operands>; op(); if (ip != next) dispatch
+            mv.load(THIS, OBJECT);
+            getfield("s");
+            mv.putfield(MACHINE, "sbegin", "I");
+            mv.load(THIS, OBJECT);
+            mv.iconst(ip + 1);
+            mv.putfield(MACHINE, "ip", "I");
+            invoke(OP_METHODS[code[ip]], "()V");
+            getfield("ip");
+            mv.iconst(next);
+            mv.ificmpne(dispatch);
+            break;
+        }
+    }
+
+    /**
+     * Inline match of {@code length} chars at the current position: fails unless all of them match,
+     * otherwise advances {@code s} past them and leaves {@code sprev} at the last one.
+     */
+    private void exact(final int[] chars, final int offset, final int length, final boolean ignoreCase) {
+        getfield("s");
+        mv.store(POS, Type.INT_TYPE);
+
+        mv.load(POS, Type.INT_TYPE);
+        mv.iconst(length);
+        mv.add(Type.INT_TYPE);
+        getfield("range");
+        mv.ificmpgt(fail);
+
+        for (int i = 0; i < length; i++) {
+            mv.load(CHARS, OBJECT);
+            mv.load(POS, Type.INT_TYPE);
+            if (i > 0) {
+                mv.iconst(i);
+                mv.add(Type.INT_TYPE);
+            }
+            mv.invokevirtual(STRING, "charAt", "(I)C", false);
+            if (ignoreCase) {
+                mv.invokestatic(Type.getInternalName(Character.class), "toLowerCase", "(C)C", false);
+            }
+            mv.iconst(chars[offset + i]);
+            mv.ificmpne(fail);
+        }
+
+        mv.load(THIS, OBJECT);
+        mv.load(POS, Type.INT_TYPE);
+        if (length > 1) {
+            mv.iconst(length - 1);
+            mv.add(Type.INT_TYPE);
+        }
+        mv.putfield(MACHINE, "sprev", "I");
+
+        mv.load(THIS, OBJECT);
+        mv.load(POS, Type.INT_TYPE);
+        mv.iconst(length);
+        mv.add(Type.INT_TYPE);
+        mv.putfield(MACHINE, "s", "I");
+    }
+
+    private void getfield(final String name) {
+        mv.load(THIS, OBJECT);
+        mv.getfield(MACHINE, name, "I");
+    }
+
+    private void invoke(final String name, final String desc) {
+        mv.load(THIS, OBJECT);
+        mv.invokevirtual(MACHINE, name, desc, false);
+    }
+
+    /**
+     * Loader for generated matcher classes, one per class so that a class can be unloaded with its regex.
+     */
+    private static final class MachineLoader extends SecureClassLoader {
+        private static final String JONI_PKG = "jdk.nashorn.internal.runtime.regexp.joni";
+
+        MachineLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> load(final String name, final byte[] bytes) {
+            final Permissions permissions = new Permissions();
+            permissions.add(new RuntimePermission("accessClassInPackage." + JONI_PKG));
+            permissions.add(new RuntimePermission("accessClassInPackage." + JONI_PKG + ".exception"));
+            return defineClass(name, bytes, 0, bytes.length,
+                    new ProtectionDomain(new CodeSource(null, (CodeSigner[])null), permissions));
+        }
+    }
+}
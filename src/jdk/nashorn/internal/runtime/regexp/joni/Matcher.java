@@ -28,7 +28,7 @@ import jdk.nashorn.internal.runtime.regexp.joni.encoding.IntHolder;
 public abstract class Matcher extends IntHolder {
     protected final Regex regex;
 
-    protected final char[] chars;
+    protected final String chars;
     protected final int str;
     protected final int end;
 
@@ -41,11 +41,11 @@ public abstract class Matcher extends IntHolder {
     protected int msaBegin;
     protected int msaEnd;
 
-    public Matcher(Regex regex, char[] chars) {
-        this(regex, chars, 0, chars.length);
+    public Matcher(Regex regex, String chars) {
+        this(regex, chars, 0, chars.length());
     }
 
-    public Matcher(Regex regex, char[] chars, int p, int end) {
+    public Matcher(Regex regex, String chars, int p, int end) {
         this.regex = regex;
 
         this.chars = chars;
@@ -89,7 +89,7 @@ public abstract class Matcher extends IntHolder {
     }
 
     int low, high; // these are the return values
-    private boolean forwardSearchRange(char[] chars, int str, int end, int s, int range, IntHolder lowPrev) {
+    private boolean forwardSearchRange(String chars, int str, int end, int s, int range, IntHolder lowPrev) {
         int pprev = -1;
         int p = s;
 
@@ -196,7 +196,7 @@ public abstract class Matcher extends IntHolder {
     }
 
     // low, high
-    private boolean backwardSearchRange(char[] chars, int str, int end, int s, int range, int adjrange) {
+    private boolean backwardSearchRange(String chars, int str, int end, int s, int range, int adjrange) {
         range += regex.dMin;
         int p = s;
 
@@ -19,6 +19,7 @@
  */
 package jdk.nashorn.internal.runtime.regexp.joni;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import jdk.nashorn.internal.runtime.regexp.joni.constants.AnchorType;
 import jdk.nashorn.internal.runtime.regexp.joni.constants.RegexState;
 import jdk.nashorn.internal.runtime.regexp.joni.exception.ErrorMessages;
@@ -45,8 +46,9 @@ public final class Regex implements RegexState {
     int[] repeatRangeHi;
 
     WarnCallback warnings;
-    MatcherFactory factory;
+    volatile MatcherFactory factory;    /* volatile, a compiled Regex is shared across threads */
     protected Analyser analyser;
+    final AtomicInteger searchCount = new AtomicInteger(); /* searches counted towards generating a matcher class */
 
     int options;
     final int caseFoldFlag;
@@ -132,22 +134,48 @@ public final class Regex implements RegexState {
     }
 
     public void compile() {
-        if (factory == null && analyser != null) {
-            Compiler compiler = new ArrayCompiler(analyser);
-            analyser = null; // only do this once
-            compiler.compile();
+        if (factory == null) {
+            synchronized (this) {
+                if (factory == null && analyser != null) {
+                    Compiler compiler = new ArrayCompiler(analyser);
+                    analyser = null; // only do this once
+                    compiler.compile();
+                }
+            }
         }
     }
 
-    public Matcher matcher(char[] chars) {
-        return matcher(chars, 0, chars.length);
+    public Matcher matcher(String chars) {
+        return matcher(chars, 0, chars.length());
     }
 
-    public Matcher matcher(char[] chars, int p, int end) {
+    public Matcher matcher(String chars, int p, int end) {
         compile();
         return factory.create(this, chars, p, end);
     }
 
+    /**
+     * Count a search with this regex. When the count reaches {@code threshold} the byte code is
+     * translated into a JVM class (see {@link MachineGenerator}) and matchers created from then on
+     * use it instead of the byte code interpreter.
+     *
+     * @param threshold number of searches before generating the class
+     * @return true if this call installed a generated matcher
+     */
+    public boolean countSearch(int threshold) {
+        // only the thread that takes the count to the threshold generates the class
+        if (searchCount.get() >= threshold || searchCount.incrementAndGet() != threshold) {
+            return false;
+        }
+        compile();
+        MatcherFactory generated = MachineGenerator.generate(this);
+        if (generated == null) {
+            return false;
+        }
+        factory = generated;
+        return true;
+    }
+
     public WarnCallback getWarnings() {
         return warnings;
     }
@@ -22,8 +22,8 @@ package jdk.nashorn.internal.runtime.regexp.joni;
 public abstract class SearchAlgorithm {
 
     public abstract String getName();
-    public abstract int search(Regex regex, char[] text, int textP, int textEnd, int textRange);
-    public abstract int searchBackward(Regex regex, char[] text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_);
+    public abstract int search(Regex regex, String text, int textP, int textEnd, int textRange);
+    public abstract int searchBackward(Regex regex, String text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_);
 
 
     public static final SearchAlgorithm NONE = new SearchAlgorithm() {
@@ -34,12 +34,12 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int search(Regex regex, char[] text, int textP, int textEnd, int textRange) {
+        public final int search(Regex regex, String text, int textP, int textEnd, int textRange) {
             return textP;
         }
 
         @Override
-        public final int searchBackward(Regex regex, char[] text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
+        public final int searchBackward(Regex regex, String text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
             return textP;
         }
 
@@ -53,7 +53,7 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int search(Regex regex, char[] text, int textP, int textEnd, int textRange) {
+        public final int search(Regex regex, String text, int textP, int textEnd, int textRange) {
             char[] target = regex.exact;
             int targetP = regex.exactP;
             int targetEnd = regex.exactEnd;
@@ -67,11 +67,11 @@ public abstract class SearchAlgorithm {
             int s = textP;
 
             while (s < end) {
-                if (text[s] == target[targetP]) {
+                if (text.charAt(s) == target[targetP]) {
                     int p = s + 1;
                     int t = targetP + 1;
                     while (t < targetEnd) {
-                        if (target[t] != text[p++]) break;
+                        if (target[t] != text.charAt(p++)) break;
                         t++;
                     }
 
@@ -84,7 +84,7 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int searchBackward(Regex regex, char[] text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
+        public final int searchBackward(Regex regex, String text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
             char[] target = regex.exact;
             int targetP = regex.exactP;
             int targetEnd = regex.exactEnd;
@@ -97,11 +97,11 @@ public abstract class SearchAlgorithm {
             }
 
             while (s >= textP) {
-                if (text[s] == target[targetP]) {
+                if (text.charAt(s) == target[targetP]) {
                     int p = s + 1;
                     int t = targetP + 1;
                     while (t < targetEnd) {
-                        if (target[t] != text[p++]) break;
+                        if (target[t] != text.charAt(p++)) break;
                         t++;
                     }
                     if (t == targetEnd) return s;
@@ -126,7 +126,7 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int search(Regex regex, char[] text, int textP, int textEnd, int textRange) {
+        public final int search(Regex regex, String text, int textP, int textEnd, int textRange) {
             char[] target = regex.exact;
             int targetP = regex.exactP;
             int targetEnd = regex.exactEnd;
@@ -145,7 +145,7 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int searchBackward(Regex regex, char[] text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
+        public final int searchBackward(Regex regex, String text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
             char[] target = regex.exact;
             int targetP = regex.exactP;
             int targetEnd = regex.exactEnd;
@@ -165,10 +165,10 @@ public abstract class SearchAlgorithm {
         }
 
         private boolean lowerCaseMatch(char[] t, int tP, int tEnd,
-                                       char[] chars, int p, int end) {
+                                       String chars, int p, int end) {
 
             while (tP < tEnd) {
-                if (t[tP++] != Character.toLowerCase(chars[p++])) return false;
+                if (t[tP++] != Character.toLowerCase(chars.charAt(p++))) return false;
             }
             return true;
         }
@@ -182,7 +182,7 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int search(Regex regex, char[] text, int textP, int textEnd, int textRange) {
+        public final int search(Regex regex, String text, int textP, int textEnd, int textRange) {
             char[] target = regex.exact;
             int targetP = regex.exactP;
             int targetEnd = regex.exactEnd;
@@ -198,24 +198,24 @@ public abstract class SearchAlgorithm {
                     int p = s;
                     int t = tail;
 
-                    while (text[p] == target[t]) {
+                    while (text.charAt(p) == target[t]) {
                         if (t == targetP) return p;
                         p--; t--;
                     }
 
-                    s += regex.map[text[s] & 0xff];
+                    s += regex.map[text.charAt(s) & 0xff];
                 }
             } else { /* see int_map[] */
                 while (s < end) {
                     int p = s;
                     int t = tail;
 
-                    while (text[p] == target[t]) {
+                    while (text.charAt(p) == target[t]) {
                         if (t == targetP) return p;
                         p--; t--;
                     }
 
-                    s += regex.intMap[text[s] & 0xff];
+                    s += regex.intMap[text.charAt(s) & 0xff];
                 }
             }
             return -1;
@@ -224,7 +224,7 @@ public abstract class SearchAlgorithm {
         private static final int BM_BACKWARD_SEARCH_LENGTH_THRESHOLD = 100;
 
         @Override
-        public final int searchBackward(Regex regex, char[] text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
+        public final int searchBackward(Regex regex, String text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
             char[] target = regex.exact;
             int targetP = regex.exactP;
             int targetEnd = regex.exactEnd;
@@ -246,12 +246,12 @@ public abstract class SearchAlgorithm {
             while (s >= textP) {
                 int p = s;
                 int t = targetP;
-                while (t < targetEnd && text[p] == target[t]) {
+                while (t < targetEnd && text.charAt(p) == target[t]) {
                     p++; t++;
                 }
                 if (t == targetEnd) return s;
 
-                s -= regex.intMapBackward[text[s] & 0xff];
+                s -= regex.intMapBackward[text.charAt(s) & 0xff];
             }
             return -1;
         }
@@ -281,25 +281,25 @@ public abstract class SearchAlgorithm {
         }
 
         @Override
-        public final int search(Regex regex, char[] text, int textP, int textEnd, int textRange) {
+        public final int search(Regex regex, String text, int textP, int textEnd, int textRange) {
             byte[] map = regex.map;
             int s = textP;
 
             while (s < textRange) {
-                if (text[s] > 0xff || map[text[s]] != 0) return s;
+                if (text.charAt(s) > 0xff || map[text.charAt(s)] != 0) return s;
                 s++;
             }
             return -1;
         }
 
         @Override
-        public final int searchBackward(Regex regex, char[] text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
+        public final int searchBackward(Regex regex, String text, int textP, int adjustText, int textEnd, int textStart, int s_, int range_) {
             byte[] map = regex.map;
             int s = textStart;
 
             if (s >= textEnd) s = textEnd - 1;
             while (s >= textP) {
-                if (text[s] > 0xff || map[text[s]] != 0) return s;
+                if (text.charAt(s) > 0xff || map[text.charAt(s)] != 0) return s;
                 s--;
             }
             return -1;
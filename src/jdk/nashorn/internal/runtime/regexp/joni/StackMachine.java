@@ -35,7 +35,7 @@ abstract class StackMachine extends Matcher implements StackType {
     protected final int[]repeatStk;
     protected final int memStartStk, memEndStk;
 
-    protected StackMachine(Regex regex, char[] chars, int p , int end) {
+    protected StackMachine(Regex regex, String chars, int p , int end) {
         super(regex, chars, p, end);
 
         this.stack = regex.stackNeeded ? fetchStack() : null;
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code ArrayData} push and indexed access for arrays of int, double and
+ * object elements.
+ */
+public class ArrayDataBenchmark extends ScriptBenchmark {
+    /** Element kind of the arrays. */
+    @Param({"int", "double", "object"})
+    public String kind;
+
+    private ScriptFunction push;
+    private ScriptFunction read;
+    private ScriptFunction write;
+    private Object array;
+
+    /**
+     * Compile the benchmark functions and fill the array that is read and written.
+     */
+    @Override
+    protected void setUp() {
+        final String element;
+        switch (kind) {
+        case "int":
+            element = "i";
+            break;
+        case "double":
+            element = "i + 0.5";
+            break;
+        default:
+            element = "'' + i";
+            break;
+        }
+        final String loop = "for (var i = 0; i < " + OPS + "; i++) ";
+        push  = function("function() { var a = []; " + loop + "{ a.push(" + element + "); } return a; }");
+        read  = function("function(a) { var s; " + loop + "{ s = a[i]; } return s; }");
+        write = function("function(a) { " + loop + "{ a[i] = " + element + "; } return a; }");
+        array = call(push);
+    }
+
+    /**
+     * Push elements onto a new array.
+     * @return the array
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object push() {
+        return call(push);
+    }
+
+    /**
+     * Read every element.
+     * @return last element
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object indexGet() {
+        return call(read, array);
+    }
+
+    /**
+     * Write every element with a value of the same kind.
+     * @return the array
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object indexSet() {
+        return call(write, array);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.codegen.Compiler;
+import jdk.nashorn.internal.codegen.Compiler.CompilationPhases;
+import jdk.nashorn.internal.ir.FunctionNode;
+import jdk.nashorn.internal.parser.Parser;
+import jdk.nashorn.internal.runtime.ErrorManager;
+import jdk.nashorn.internal.runtime.ScriptEnvironment;
+import jdk.nashorn.internal.runtime.Source;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Compile time of a script, up to and including each stage of the compilation
+ * pipeline. The difference between two stages is the cost of the compilation
+ * phases between them:
+ * <ul>
+ * <li>parse - parsing only</li>
+ * <li>upto-bytecode - the phases before code generation, from constant folding to local variable type calculation</li>
+ * <li>bytecode - the phases above and bytecode generation</li>
+ * <li>install - a full compilation, including class installation</li>
+ * </ul>
+ * Nested functions are compiled lazily by default, run with {@code -Dnashorn.lazy=false}
+ * in the JVM arguments to include them.
+ */
+public class CompileBenchmark extends ScriptBenchmark {
+    /** Last compilation stage to run. */
+    @Param({"parse", "upto-bytecode", "bytecode", "install"})
+    public String stage;
+
+    /** Number of functions in the compiled script. */
+    @Param({"50"})
+    public int functions;
+
+    private String code;
+    private int count;
+
+    @Override
+    protected String[] getOptions() {
+        // every compilation must really compile
+        return new String[] { "--class-cache-size=0" };
+    }
+
+    /**
+     * Create the script to compile.
+     */
+    @Override
+    protected void setUp() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < functions; i++) {
+            sb.append("function f").append(i).append("(a, b) {\n").
+               append("    var o = { x: a, y: b, s: 'f").append(i).append("' };\n").
+               append("    var r = [];\n").
+               append("    for (var i = 0; i < a; i++) {\n").
+               append("        r.push(o.x * i + (o.y | 0));\n").
+               append("        if (i % 3 === 0) { r[i] = o.s + i; } else if (i > 100) { break; }\n").
+               append("    }\n").
+               append("    return function() { return r.length + o.x; };\n").
+               append("}\n");
+        }
+        sb.append("f0(3, 4)();\n");
+        code = sb.toString();
+    }
+
+    /**
+     * Compile the script up to the configured stage. Every compilation uses
+     * a new source, so nothing is cached between compilations.
+     * @return compiled function node or function
+     */
+    @Benchmark
+    public Object compile() {
+        final Source source = new Source("compile" + (count++) + ".js", code);
+        if ("install".equals(stage)) {
+            return context.compileScript(source, global);
+        }
+
+        final ScriptEnvironment env  = context.getEnv();
+        final FunctionNode      node = new Parser(env, source, new ErrorManager()).parse();
+        switch (stage) {
+        case "parse":
+            return node;
+        case "upto-bytecode":
+            return compiler(env, source).compile(node, CompilationPhases.COMPILE_UPTO_BYTECODE);
+        case "bytecode":
+            return compiler(env, source).compile(node, CompilationPhases.COMPILE_ALL_NO_INSTALL);
+        default:
+            throw new IllegalArgumentException(stage);
+        }
+    }
+
+    private Compiler compiler(final ScriptEnvironment env, final Source source) {
+        return new Compiler(context, env, null, source, null, env._strict);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.runtime.ConsString;
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code ConsString} concatenation and flattening, for strings built by
+ * appending to the right, as in a loop, and by prepending to the left.
+ */
+public class ConsStringBenchmark extends ScriptBenchmark {
+    /** Number of concatenated parts. */
+    @Param({"16", "1024"})
+    public int parts;
+
+    private ScriptFunction concat;
+
+    /**
+     * Compile the script concatenation function.
+     */
+    @Override
+    protected void setUp() {
+        concat = function("function(n) { var s = ''; for (var i = 0; i < n; i++) { s += 'x' + i; } return s.length; }");
+    }
+
+    /**
+     * Build a string by appending, then flatten it.
+     * @return flat string
+     */
+    @Benchmark
+    public String appendAndFlatten() {
+        CharSequence cs = "";
+        for (int i = 0; i < parts; i++) {
+            cs = new ConsString(cs, "part");
+        }
+        return cs.toString();
+    }
+
+    /**
+     * Build a string by prepending, then flatten it.
+     * @return flat string
+     */
+    @Benchmark
+    public String prependAndFlatten() {
+        CharSequence cs = "";
+        for (int i = 0; i < parts; i++) {
+            cs = new ConsString("part", cs);
+        }
+        return cs.toString();
+    }
+
+    /**
+     * Build a string by appending, then read characters from it.
+     * @return a character of the string
+     */
+    @Benchmark
+    public char appendAndCharAt() {
+        CharSequence cs = "";
+        for (int i = 0; i < parts; i++) {
+            cs = new ConsString(cs, "part");
+        }
+        char c = 0;
+        for (int i = 0; i < cs.length(); i += 4) {
+            c ^= cs.charAt(i);
+        }
+        return c;
+    }
+
+    /**
+     * Concatenate in a script loop, taking the length of the result.
+     * @return length of the string
+     */
+    @Benchmark
+    public Object scriptConcat() {
+        return call(concat, parts);
+    }
+}
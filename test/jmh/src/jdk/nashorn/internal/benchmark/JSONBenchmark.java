@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.objects.NativeJSON;
+import jdk.nashorn.internal.runtime.ScriptRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code NativeJSON} parse and stringify of a document of objects, arrays,
+ * numbers and strings.
+ */
+public class JSONBenchmark extends ScriptBenchmark {
+    /** Number of records in the document. */
+    @Param({"10", "1000"})
+    public int records;
+
+    private String text;
+    private Object value;
+
+    /**
+     * Create the document as text and as parsed value.
+     */
+    @Override
+    protected void setUp() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < records; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i).
+               append(",\"name\":\"record ").append(i).append("\\n\"").
+               append(",\"score\":").append(i * 0.25).
+               append(",\"active\":").append(i % 2 == 0).
+               append(",\"tags\":[\"a\",\"b\",null]}");
+        }
+        text  = sb.append(']').toString();
+        value = parse();
+    }
+
+    /**
+     * JSON.parse
+     * @return parsed value
+     */
+    @Benchmark
+    public Object parse() {
+        return NativeJSON.parse(global, text, ScriptRuntime.UNDEFINED);
+    }
+
+    /**
+     * JSON.stringify
+     * @return JSON text
+     */
+    @Benchmark
+    public Object stringify() {
+        return NativeJSON.stringify(global, value, ScriptRuntime.UNDEFINED, ScriptRuntime.UNDEFINED);
+    }
+
+    /**
+     * JSON.stringify with indentation.
+     * @return JSON text
+     */
+    @Benchmark
+    public Object stringifyIndented() {
+        return NativeJSON.stringify(global, value, ScriptRuntime.UNDEFINED, 2);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.runtime.JSType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@code JSType} conversions between numbers, strings, booleans and objects.
+ * These need no global, so this benchmark is not a {@link ScriptBenchmark}.
+ */
+@State(Scope.Thread)
+public class JSTypeBenchmark {
+    /** Integral number as a string. */
+    public String intString = "123456";
+
+    /** Fractional number as a string. */
+    public String doubleString = "-1234.5678e-3";
+
+    /** Hexadecimal number as a string. */
+    public String hexString = "0x7fffabcd";
+
+    /** Integral double. */
+    public double intDouble = 123456;
+
+    /** Fractional double. */
+    public double fraction = 0.1 + 0.2;
+
+    /** Double outside of the int range. */
+    public double large = 1e12 + 0.5;
+
+    /** Boxed integer. */
+    public Object boxedInt = Integer.valueOf(42);
+
+    /** Boxed double. */
+    public Object boxedDouble = Double.valueOf(4.2);
+
+    /**
+     * ToNumber of an integral string.
+     * @return number
+     */
+    @Benchmark
+    public double toNumberFromIntString() {
+        return JSType.toNumber(intString);
+    }
+
+    /**
+     * ToNumber of a fractional string with exponent.
+     * @return number
+     */
+    @Benchmark
+    public double toNumberFromDoubleString() {
+        return JSType.toNumber(doubleString);
+    }
+
+    /**
+     * ToNumber of a hexadecimal string.
+     * @return number
+     */
+    @Benchmark
+    public double toNumberFromHexString() {
+        return JSType.toNumber(hexString);
+    }
+
+    /**
+     * ToString of an integral double.
+     * @return string
+     */
+    @Benchmark
+    public String toStringFromIntDouble() {
+        return JSType.toString(intDouble);
+    }
+
+    /**
+     * ToString of a fractional double, which needs the shortest representation.
+     * @return string
+     */
+    @Benchmark
+    public String toStringFromFraction() {
+        return JSType.toString(fraction);
+    }
+
+    /**
+     * ToInt32 of a double outside of the int range.
+     * @return int
+     */
+    @Benchmark
+    public int toInt32FromLarge() {
+        return JSType.toInt32(large);
+    }
+
+    /**
+     * ToInt32 of a boxed integer.
+     * @return int
+     */
+    @Benchmark
+    public int toInt32FromBoxed() {
+        return JSType.toInt32(boxedInt);
+    }
+
+    /**
+     * ToUint32 of a boxed double.
+     * @return long
+     */
+    @Benchmark
+    public long toUint32FromBoxed() {
+        return JSType.toUint32(boxedDouble);
+    }
+
+    /**
+     * ToBoolean of a boxed double.
+     * @return boolean
+     */
+    @Benchmark
+    public boolean toBooleanFromBoxed() {
+        return JSType.toBoolean(boxedDouble);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+/**
+ * Property get and set on script objects, linked through {@code LinkerCallSite}s.
+ * The polymorphic variants see four object shapes at the same callsite.
+ */
+public class PropertyAccessBenchmark extends ScriptBenchmark {
+    private ScriptFunction getMono;
+    private ScriptFunction setMono;
+    private ScriptFunction getPoly;
+    private ScriptFunction setPoly;
+    private ScriptFunction getProto;
+    private Object mono;
+    private Object poly;
+    private Object derived;
+
+    /**
+     * Compile the benchmark functions and create the objects they access.
+     */
+    @Override
+    protected void setUp() {
+        final String loop = "for (var i = 0; i < " + OPS + "; i++) ";
+        getMono  = function("function(o) { var s = 0; " + loop + "{ s += o.x; } return s; }");
+        setMono  = function("function(o) { " + loop + "{ o.x = i; } return o; }");
+        getPoly  = function("function(a) { var s = 0; " + loop + "{ s += a[i & 3].x; } return s; }");
+        setPoly  = function("function(a) { " + loop + "{ a[i & 3].x = i; } return a; }");
+        getProto = function("function(o) { var s = 0; " + loop + "{ s += o.y; } return s; }");
+        mono     = eval("({ x: 1 })");
+        poly     = eval("[{ x: 1 }, { a: 1, x: 2 }, { b: 1, c: 2, x: 3 }, { d: 1, e: 2, f: 3, x: 4 }]");
+        derived  = eval("Object.create({ y: 1 })");
+    }
+
+    /**
+     * Monomorphic property get.
+     * @return accumulated value
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object getMonomorphic() {
+        return call(getMono, mono);
+    }
+
+    /**
+     * Monomorphic property set.
+     * @return the object
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object setMonomorphic() {
+        return call(setMono, mono);
+    }
+
+    /**
+     * Property get on four object shapes.
+     * @return accumulated value
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object getPolymorphic() {
+        return call(getPoly, poly);
+    }
+
+    /**
+     * Property set on four object shapes.
+     * @return the objects
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object setPolymorphic() {
+        return call(setPoly, poly);
+    }
+
+    /**
+     * Property get of a property found on the prototype.
+     * @return accumulated value
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object getFromPrototype() {
+        return call(getProto, derived);
+    }
+}
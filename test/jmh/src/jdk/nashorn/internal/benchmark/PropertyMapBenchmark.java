@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code PropertyMap} transitions: adding properties to fresh objects, which
+ * follows cached transitions once they exist, and deleting properties, which
+ * creates new maps.
+ */
+public class PropertyMapBenchmark extends ScriptBenchmark {
+    /** Number of properties added to each object. */
+    @Param({"4", "16"})
+    public int properties;
+
+    private ScriptFunction add;
+    private ScriptFunction addAndDelete;
+    private ScriptFunction addComputed;
+
+    /**
+     * Compile the benchmark functions.
+     */
+    @Override
+    protected void setUp() {
+        final StringBuilder adds = new StringBuilder();
+        for (int i = 0; i < properties; i++) {
+            adds.append("o.p").append(i).append(" = ").append(i).append("; ");
+        }
+        final String loop = "for (var i = 0; i < " + OPS + "; i++) ";
+        add          = function("function() { var o; " + loop + "{ o = {}; " + adds + "} return o; }");
+        addAndDelete = function("function() { var o; " + loop + "{ o = {}; " + adds + "delete o.p0; } return o; }");
+        addComputed  = function("function(n) { var o; " + loop + "{ o = {}; for (var j = 0; j < n; j++) { o['q' + j] = j; } } return o; }");
+    }
+
+    /**
+     * Add properties along cached transitions.
+     * @return last object
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object addProperties() {
+        return call(add);
+    }
+
+    /**
+     * Add properties, then delete the first one.
+     * @return last object
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object addAndDeleteProperties() {
+        return call(addAndDelete);
+    }
+
+    /**
+     * Add properties with computed names through element access.
+     * @return last object
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object addComputedProperties() {
+        return call(addComputed, properties);
+    }
+}
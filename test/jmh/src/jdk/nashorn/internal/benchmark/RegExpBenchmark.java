@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+/**
+ * {@code RegExp.prototype.exec} and the string methods built on it, with
+ * the default regexp implementation or the one chosen by
+ * {@code -Dnashorn.regexp.impl}.
+ */
+public class RegExpBenchmark extends ScriptBenchmark {
+    private ScriptFunction exec;
+    private ScriptFunction execGlobal;
+    private ScriptFunction test;
+    private ScriptFunction replace;
+    private ScriptFunction literal;
+    private String input;
+
+    /**
+     * Compile the benchmark functions.
+     */
+    @Override
+    protected void setUp() {
+        final String loop = "for (var i = 0; i < " + OPS + "; i++) ";
+        exec       = function("function(s) { var re = /(\\w+)@(\\w+)\\.com/; var m; " + loop + "{ m = re.exec(s); } return m; }");
+        execGlobal = function("function(s) { var re = /\\d+/g; var n = 0; while (re.exec(s) !== null) { n++; } return n; }");
+        test       = function("function(s) { var re = /^[a-z ]+\\d/i; var b; " + loop + "{ b = re.test(s); } return b; }");
+        replace    = function("function(s) { var r; " + loop + "{ r = s.replace(/o/g, '0'); } return r; }");
+        literal    = function("function(s) { var m; " + loop + "{ m = /(\\w+)@/.exec(s); } return m; }");
+
+        final StringBuilder sb = new StringBuilder("contact user");
+        for (int i = 0; i < 100; i++) {
+            sb.append(' ').append(i).append(" word");
+        }
+        input = sb.append(" someone@example.com").toString();
+    }
+
+    /**
+     * exec of a regexp with groups that matches near the end of the input.
+     * @return match
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object exec() {
+        return call(exec, input);
+    }
+
+    /**
+     * exec of a global regexp over all matches in the input.
+     * @return number of matches
+     */
+    @Benchmark
+    public Object execGlobal() {
+        return call(execGlobal, input);
+    }
+
+    /**
+     * test of an anchored regexp.
+     * @return result
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object test() {
+        return call(test, input);
+    }
+
+    /**
+     * String.prototype.replace with a global regexp.
+     * @return replaced string
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object replace() {
+        return call(replace, input);
+    }
+
+    /**
+     * exec of a regexp literal evaluated in the loop, creating a new RegExp every time.
+     * @return match
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object execLiteral() {
+        return call(literal, input);
+    }
+}
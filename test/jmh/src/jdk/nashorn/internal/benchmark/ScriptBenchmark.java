@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import jdk.nashorn.internal.objects.Global;
+import jdk.nashorn.internal.runtime.Context;
+import jdk.nashorn.internal.runtime.ErrorManager;
+import jdk.nashorn.internal.runtime.ScriptFunction;
+import jdk.nashorn.internal.runtime.ScriptRuntime;
+import jdk.nashorn.internal.runtime.Source;
+import jdk.nashorn.internal.runtime.options.Options;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base class for benchmarks that need a context and a global. The global is
+ * made current for the benchmark thread, so benchmarks can call into the
+ * runtime directly as well as run script functions.
+ *
+ * Script benchmarks loop {@link #OPS} times inside the script function, so
+ * that the cost of calling the function from Java does not dominate; such
+ * benchmark methods are annotated with {@code @OperationsPerInvocation(OPS)}.
+ */
+@State(Scope.Thread)
+public abstract class ScriptBenchmark {
+    /** Number of operations performed by one call of a looping script function. */
+    public static final int OPS = 1000;
+
+    /** Context of the benchmark. */
+    protected Context context;
+
+    /** Global of the benchmark, current for the benchmark thread. */
+    protected Global global;
+
+    /**
+     * Create the context and the global, make the global current, and then
+     * set up the benchmark itself.
+     */
+    @Setup(Level.Trial)
+    public final void setUpContext() {
+        final Options options = new Options("nashorn");
+        options.process(getOptions());
+        context = new Context(options, new ErrorManager(), Thread.currentThread().getContextClassLoader());
+        global  = context.createGlobal();
+        Context.setGlobal(global);
+        setUp();
+    }
+
+    /**
+     * Set up the benchmark, once the global is current. JMH does not order
+     * the setup methods of a class and its superclass, so subclasses override
+     * this rather than declaring their own setup method.
+     */
+    protected void setUp() {
+        // nothing to set up by default
+    }
+
+    /**
+     * Clear the current global.
+     */
+    @TearDown(Level.Trial)
+    public void tearDownContext() {
+        if (Context.getGlobal() != null) {
+            Context.setGlobal(null);
+        }
+    }
+
+    /**
+     * Command line options for the context of this benchmark.
+     * @return options, none by default
+     */
+    protected String[] getOptions() {
+        return new String[0];
+    }
+
+    /**
+     * Evaluate script code in the global of this benchmark.
+     *
+     * @param code script code
+     * @return the completion value of the script
+     */
+    protected Object eval(final String code) {
+        final ScriptFunction func = context.compileScript(new Source("<benchmark>", code), global);
+        if (func == null) {
+            throw new IllegalArgumentException("cannot compile " + code);
+        }
+        return ScriptRuntime.apply(func, global);
+    }
+
+    /**
+     * Evaluate a function expression in the global of this benchmark.
+     *
+     * @param code function expression
+     * @return the function
+     */
+    protected ScriptFunction function(final String code) {
+        return (ScriptFunction)eval("(" + code + ")");
+    }
+
+    /**
+     * Call a script function with an undefined this.
+     *
+     * @param func function to call
+     * @param args arguments
+     * @return return value of the function
+     */
+    protected static Object call(final ScriptFunction func, final Object... args) {
+        return ScriptRuntime.apply(func, ScriptRuntime.UNDEFINED, args);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.benchmark;
+
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Calls from Java into script through the public API: {@code ScriptObjectMirror}
+ * member access and calls, and {@code Invocable}.
+ */
+@State(Scope.Thread)
+public class ScriptObjectMirrorBenchmark {
+    private ScriptEngine engine;
+    private ScriptObjectMirror obj;
+    private ScriptObjectMirror func;
+
+    /**
+     * Create the engine and the script objects called from Java.
+     * @throws ScriptException if the setup script fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws ScriptException {
+        engine = new NashornScriptEngineFactory().getScriptEngine();
+        engine.eval("var obj = { x: 1, add: function(a, b) { return a + b; } }; function add(a, b) { return a + b; }");
+        obj  = (ScriptObjectMirror)engine.get("obj");
+        func = (ScriptObjectMirror)engine.get("add");
+    }
+
+    /**
+     * ScriptObjectMirror.getMember
+     * @return member value
+     */
+    @Benchmark
+    public Object getMember() {
+        return obj.getMember("x");
+    }
+
+    /**
+     * ScriptObjectMirror.setMember
+     * @return the mirror
+     */
+    @Benchmark
+    public Object setMember() {
+        obj.setMember("x", 2);
+        return obj;
+    }
+
+    /**
+     * ScriptObjectMirror.callMember
+     * @return return value
+     */
+    @Benchmark
+    public Object callMember() {
+        return obj.callMember("add", 1, 2);
+    }
+
+    /**
+     * ScriptObjectMirror.call of a function
+     * @return return value
+     */
+    @Benchmark
+    public Object call() {
+        return func.call(null, 1, 2);
+    }
+
+    /**
+     * Invocable.invokeFunction
+     * @return return value
+     * @throws Exception if the call fails
+     */
+    @Benchmark
+    public Object invokeFunction() throws Exception {
+        return ((Invocable)engine).invokeFunction("add", 1, 2);
+    }
+
+    /**
+     * Invocable.invokeMethod
+     * @return return value
+     * @throws Exception if the call fails
+     */
+    @Benchmark
+    public Object invokeMethod() throws Exception {
+        return ((Invocable)engine).invokeMethod(obj, "add", 1, 2);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Deoptimizing recompilations on a background thread must give the same results as synchronous ones, also
+ * for invocations that deoptimize again while the recompiled version is pending.
+ *
+ * @test
+ * @fork
+ * @option -Dnashorn.recompile.async.threads=1
+ * @run
+ */
+
+function sum(a) { var s = 0; for (var i = 0; i < a.length; i++) { s += a[i]; } return s; }
+function mul(x, y) { var r = x * y; return r + 1; }
+function fact(n) { return n <= 1 ? 1 : n * fact(n - 1); }
+function pick(o) { var v = o.v; return v + v; }
+
+var ints = [1, 2, 3], doubles = [1.5, 2.5], strs = ["a", "b"];
+for (var k = 0; k < 2000; k++) {
+    var r = [sum(ints), mul(k, 3), fact(5), pick({v: 2})];
+    if (k > 200) {
+        r.push(sum(doubles), mul(k * 100000, 100000), fact(25), pick({v: 0.5}));
+    }
+    if (k > 600) {
+        r.push(sum(strs), mul("x", 2), pick({v: "s"}));
+    }
+    if (k % 400 == 0 || k == 1999) {
+        print(k + ": " + r.join(","));
+    }
+}
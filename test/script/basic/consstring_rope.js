@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * String operations on long ConsStrings work on the rope without flattening it.
+ *
+ * @test
+ * @run
+ */
+
+var seed = 42;
+function rnd(n) { seed = (seed * 1103515245 + 12345) & 0x7fffffff; return seed % n; }
+
+var parts = ["<", "div", ">", "a", "bc", "</div>", "", "xyz", "\n", "<p>"];
+var errors = 0;
+
+function check(actual, expected, what) {
+    if (actual !== expected) {
+        errors++;
+        print(what + ": " + actual + " !== " + expected);
+    }
+}
+
+for (var round = 0; round < 100; round++) {
+    var s = "";
+    var n = rnd(300);
+    for (var i = 0; i < n; i++) {
+        var p = parts[rnd(parts.length)];
+        s = rnd(5) == 0 ? p + s : s + p;
+        if (rnd(7) == 0 && s.length < 2000) {
+            s = s + s;
+        }
+    }
+    var flat = s.split("").join("");
+    var len = flat.length;
+    for (var k = 0; k < 20; k++) {
+        var a = rnd(len + 3) - 1, b = rnd(len + 3) - 1;
+        var pat = parts[rnd(parts.length)] + (rnd(2) ? parts[rnd(parts.length)] : "");
+        check(s.charAt(a), flat.charAt(a), "charAt");
+        check(String(s.charCodeAt(a)), String(flat.charCodeAt(a)), "charCodeAt");
+        check(s[a], flat[a], "index");
+        check(s.indexOf(pat, a), flat.indexOf(pat, a), "indexOf");
+        check(s.indexOf(pat), flat.indexOf(pat), "indexOf");
+        check(s.slice(a, b), flat.slice(a, b), "slice");
+        check(s.slice(-a), flat.slice(-a), "slice");
+        check(s.substring(a, b), flat.substring(a, b), "substring");
+        check(s.substring(a), flat.substring(a), "substring");
+        check(s.substr(a, b), flat.substr(a, b), "substr");
+    }
+}
+
+// query the rope while it is being built
+var html = "", pieces = [];
+for (var i = 0; i < 3000; i++) {
+    var p = "<td>" + i + "</td>";
+    html += p;
+    pieces.push(p);
+    if (i % 50 == 0) {
+        var f = pieces.join("");
+        check(html.indexOf("<td>", html.length - 20), f.indexOf("<td>", f.length - 20), "indexOf");
+        check(html.slice(-10), f.slice(-10), "slice");
+        check(html.charCodeAt(i), f.charCodeAt(i), "charCodeAt");
+    }
+}
+check(html, pieces.join(""), "content");
+
+print("errors: " + errors);
+print(html.slice(0, 20) + "..." + html.slice(-20));
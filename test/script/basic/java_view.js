@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Java.view shares Java arrays and byte buffers with scripts, Java.to copies
+ * numeric and typed arrays in bulk.
+ *
+ * @test
+ * @run
+ */
+
+var Arrays = java.util.Arrays;
+
+// Java.to only converts the elements up to the length of the array
+var a = [1, 2, 3];
+a.push(4);
+print(Java.to(a).length, Arrays.toString(Java.to(a, "double[]")), Arrays.toString(Java.to(a, "long[]")));
+var d = [1.5, 2, 3];
+d.push(4.5);
+print(Java.to(d).length, Arrays.toString(Java.to(d, "double[]")));
+
+// typed arrays
+var i32 = new Int32Array([1, -2, 3]);
+print(Arrays.toString(Java.to(i32, "int[]")), Arrays.toString(Java.to(i32, "double[]")), Java.to(i32).length);
+var u8 = new Uint8Array([200, 1]);
+print(Arrays.toString(Java.to(u8, "byte[]")), Arrays.toString(Java.to(u8, "int[]")));
+print(Arrays.toString(Java.to(new Float32Array([1.5, 2]), "float[]")), Arrays.toString(Java.to(new Int16Array([-7]), "short[]")));
+print(Arrays.toString(Java.to(new Float64Array([0.25]), "double[]")), Arrays.toString(Java.to(new Int8Array([-1]), "byte[]")));
+print(Arrays.toString(Java.to(new Int32Array(new ArrayBuffer(16), 4, 2), "int[]")));
+
+// arrays share their storage
+var ints = Java.to([1, 2, 3], "int[]");
+var v = Java.view(ints);
+v[0] = 10;
+ints[1] = 20;
+print(Array.isArray(v), v.length, v[1], ints[0]);
+v[2] = 0.5;
+print(v[2], ints[2]);
+
+var doubles = Java.to([1.5, 2.5], "double[]");
+var dv = Java.view(doubles);
+dv[0] = 3.5;
+print(doubles[0], dv.join());
+
+// byte buffers are shared with array buffers
+var bb = java.nio.ByteBuffer.allocate(16);
+bb.position(4);
+var ab = Java.view(bb);
+print(ab.byteLength);
+var bytes = new Uint8Array(ab);
+bytes[0] = 42;
+print(bb.get(4), bb.position());
+bb.put(5, 7);
+print(bytes[1]);
+
+print(Java.view(null));
+try {
+    Java.view("string");
+} catch (e) {
+    print(e);
+}
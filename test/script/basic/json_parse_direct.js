@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * JSON.parse builds objects and arrays directly. ScriptUtils.parseJSON
+ * reads the text from a java.io.Reader as it parses it.
+ *
+ * @test
+ * @run
+ */
+
+function check(text) {
+    var value = JSON.parse(text);
+    print(JSON.stringify(value), Array.isArray(value) ? "array" : typeof value);
+}
+
+check('[1, 2, 3]');
+check('[1, 2.5, -3]');
+check('[1, "two", null, true, {"three": [3]}]');
+check('[]');
+check('{"a": 1, "b": {"c": [1e2, -0.5]}, "0": "zero", "a": 2}');
+check(' "\\u0041\\t\\"b\\"" ');
+print(1 / JSON.parse('-0'), 1 / JSON.parse('[-0]')[0]);
+
+// objects with the same keys
+var records = JSON.parse('[{"x": 1, "y": "a"}, {"x": 2, "y": "b"}, {"x": 3, "y": "c"}]');
+print(records.map(function(r) { return r.x + r.y; }).join());
+
+// reviver
+print(JSON.stringify(JSON.parse('{"a": [1, 2], "b": 3}', function(k, v) {
+    return typeof v === 'number' ? v + 1 : v;
+})));
+
+// incremental input, larger than one chunk
+var ScriptUtils = Java.type("jdk.nashorn.api.scripting.ScriptUtils");
+var list = [];
+for (var i = 0; i < 5000; i++) {
+    list.push({ id: i, name: "item " + i, values: [i, i / 2] });
+}
+var text = JSON.stringify(list);
+var parsed = ScriptUtils.parseJSON(new java.io.StringReader(text), undefined);
+print(parsed.length, parsed[4999].name, parsed[4999].values[1], JSON.stringify(parsed) === text);
+
+print(JSON.stringify(ScriptUtils.parseJSON(new java.io.StringReader('{"a": [1, 2]}'), function(k, v) {
+    return typeof v === 'number' ? v * 2 : v;
+})));
+
+// JSON.parse converts a reader to string like any other value
+var NamedReader = Java.extend(java.io.StringReader, {
+    toString: function() { return '"toString"'; }
+});
+print(JSON.parse(new NamedReader('"content"')));
+
+try {
+    ScriptUtils.parseJSON(new java.io.StringReader('{\n  "a": [1, 2,]\n}'), undefined);
+} catch (e) {
+    print(e);
+}
+
+try {
+    ScriptUtils.parseJSON(new java.io.StringReader('{"a": tru}'), undefined);
+} catch (e) {
+    print(e);
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * JSON.stringify output of the single buffer serializer and its fast paths
+ * for primitive arrays and plain objects.
+ *
+ * @test
+ * @run
+ */
+
+function test(value, replacer, space) {
+    print(JSON.stringify(value, replacer, space));
+}
+
+var ints = [1, 2, -3, 2147483647];
+var doubles = [1.5, -0, NaN, Infinity, 1e21, 0.1];
+var longs = [1, 4294967296, -9007199254740992];
+var mixed = [1, "two", null, undefined, function() {}, true, { a: [] }, [[]]];
+var plain = { a: 1, b: "x\n\"y\"", c: undefined, d: function() {}, e: [1, 2], f: { g: null } };
+
+test(ints);
+test(doubles);
+test(longs);
+test(mixed);
+test(plain);
+test([]);
+test({});
+test([ints, doubles, plain], null, 2);
+test(plain, null, "--");
+test(plain, ["e", "a", "z"]);
+test(plain, function(k, v) { return typeof v === "number" ? v * 10 : v; });
+test(ints, function(k, v) { return typeof v === "number" ? v + 1 : v; }, 1);
+test({ toJSON: function() { return [1, 2]; } });
+test({ x: { toJSON: function(k) { return "key:" + k; } } });
+test({ get p() { return 42; }, q: Object.defineProperty({}, "r", { value: 1 }) });
+test([new Number(3), new String("s"), new Boolean(false)]);
+test(function() {});
+test(undefined);
+test("str");
+test(1.5);
+
+// toJSON that changes the shape of its holder
+var holder = { a: { toJSON: function() { delete holder.b; holder.c = 3; return "A"; } }, b: 2 };
+test(holder);
+
+var sparse = [1, , 3];
+test(sparse);
+var proto = Object.create({ inherited: 1 });
+proto.own = 2;
+test(proto);
+
+var cyclic = { a: 1 };
+cyclic.self = cyclic;
+try {
+    JSON.stringify(cyclic);
+} catch (e) {
+    print(e.name);
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Builtins that are created on first access must behave like the eagerly
+ * created ones, including redefinition and deletion.
+ *
+ * @test
+ * @run
+ */
+
+print(typeof Date, new Date(0).getTime(), /a+/.exec("caab"), RegExp.prototype.source, JSON.stringify({a:[1]}));
+print(new Int8Array(3).length, ArrayBuffer.prototype.constructor === ArrayBuffer, Object.getOwnPropertyNames(this).indexOf("Float64Array") >= 0);
+try { decodeURI("%") } catch (e) { print(e instanceof URIError, e.name) }
+print(new RangeError("x") instanceof Error, EvalError.prototype.name, ReferenceError.name);
+Date = 3; print(Date); delete RegExp; print(typeof RegExp);
+print(typeof Java.type, typeof JavaImporter, typeof JSAdapter);
+var d = Object.getOwnPropertyDescriptor(this, "JSON"); print(d.writable, d.enumerable, d.configurable, typeof d.value);
+for (var k in this) if (k == "Int32Array") print("enumerable!");
+print(Object.prototype.toString.call(new Float32Array(1)));
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Reparsing a function for lazy compilation skips the bodies of its nested
+ * functions. Make sure closures, eval, line numbers and apply specialization
+ * still behave as if the nested bodies had been parsed.
+ *
+ * @test
+ * @run
+ */
+
+var x = 10;
+function outer(a, b) {
+    var captured = a + 1;
+    var unused = 3;
+    function inner1(c) {
+        // comment with a line
+        return captured + c + x;
+    }
+    var inner2 = function(d) {
+        function deeper(e) { return e * captured; }
+        return deeper(d) + b;
+    };
+    var withEval = function(s) { return eval(s); };
+    var g = function named() { return typeof named; };
+    print(inner1(1), inner2(2), withEval("captured * 2"), g());
+    try { throw new Error("line check"); } catch (e) { print(e.lineNumber); }
+    return captured;
+}
+print(outer(1, 2));
+
+function applier() { return Math.max.apply(null, arguments); }
+print(applier(1, 5, 3));
+
+function applier2(a) { var f = function() { return a; }; return Math.max.apply(null, arguments) + f(); }
+print(applier2(1, 5, 3));
+
+var o = { get p() { var self = this; return function() { return self.q; }; }, q: 7 };
+print(o.p());
+
+(function() { "use strict"; var s = function() { return this; }; print(s()); })();
+
+function ctor() { this.a = 1; this.b = 2; var h = function() { return 1; }; }
+print(new ctor().b);
+
+print(new Error().lineNumber);
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Property access at megamorphic call sites sees shape, prototype and attribute changes.
+ *
+ * @test
+ * @run
+ */
+
+// 50 different shapes make the accessing call sites megamorphic
+var objs = [];
+for (var i = 0; i < 50; i++) {
+    var o = {};
+    o["k" + i] = i;
+    o.x = i;
+    objs.push(o);
+}
+
+function getX(o) { return o.x; }
+function setX(o, v) { o.x = v; }
+function setXd(o, v) { o.x = v + 0.5; }
+function setXs(o, v) { o.x = "s" + v; }
+
+function sumX() {
+    var s = 0;
+    for (var i = 0; i < objs.length; i++) {
+        s += getX(objs[i]);
+    }
+    return s;
+}
+
+for (var n = 0; n < 3; n++) {
+    print(sumX());
+}
+
+// int, double and object stores through the same sites
+objs.forEach(function(o, i) { setX(o, i * 2); });
+print(sumX());
+objs.forEach(function(o, i) { setXd(o, i); });
+print(sumX());
+objs.forEach(function(o, i) { setXs(o, i); });
+print(getX(objs[3]), getX(objs[49]));
+objs.forEach(function(o, i) { setX(o, i); });
+print(sumX());
+
+// inherited properties and prototype changes
+function P() {}
+P.prototype.x = 1000;
+var p = new P();
+print(getX(p), getX(p));
+P.prototype.x = 2000;
+print(getX(p));
+var mid = Object.create(P.prototype);
+var q = Object.create(mid);
+print(getX(q), getX(q));
+mid.x = 3;
+print(getX(q));
+Object.setPrototypeOf(q, { x: 4 });
+print(getX(q));
+
+// storing to an inherited property creates an own property
+setX(p, 5);
+print(getX(p), P.prototype.x);
+
+// accessors
+var acc = { get x() { return this.y * 2; }, set x(v) { this.y = v; }, y: 1 };
+print(getX(acc));
+setX(acc, 21);
+print(getX(acc), acc.y);
+setXd(acc, 1);
+print(acc.y);
+
+// read-only and frozen objects
+var ro = {};
+Object.defineProperty(ro, "x", { value: 7, writable: false });
+setX(ro, 8);
+print(getX(ro));
+var frozen = { x: 9 };
+setX(frozen, 1);
+Object.freeze(frozen);
+setX(frozen, 10);
+print(getX(frozen));
+
+// deleting and re-adding a property
+var d = { x: 1, z: 2 };
+print(getX(d));
+delete d.x;
+print(getX(d));
+d.x = 3;
+print(getX(d));
+
+// objects with their own put hook
+var adapter = new JSAdapter({ __put__: function(name, value) { print("put " + name + " " + value); },
+                              __get__: function(name) { return name; } });
+setX(adapter, 42);
+
+// a global written through a megamorphic site, its getter may be linked as a constant
+function setG(o, v) { o.x = v; }
+objs.forEach(function(o, i) { setG(o, "v" + i); });
+var x = "g";
+setG(this, "g0");
+function globalX() { return x; }
+print(globalX(), globalX());
+setG(this, "g1");
+print(globalX());
+setG(this, "g2");
+print(globalX());
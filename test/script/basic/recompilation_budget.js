@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Functions exceeding their recompilation or specialization budget are pinned to a single pessimistic version,
+ * which must give the same results as the optimistic versions, also for invocations that were deoptimizing
+ * when the function got pinned.
+ *
+ * @test
+ * @fork
+ * @option -Dnashorn.recompile.budget=1
+ * @option -Dnashorn.recompile.specializations=2
+ * @run
+ */
+
+function mul(x, y) { var r = x * y; return r + x; }
+function pick(o) { var v = o.v; return v + v; }
+function sum(a) { var s = 0; for (var i = 0; i < a.length; i++) { s += a[i].v * i; } return s; }
+function fact(n) { return n <= 1 ? 1 : n * fact(n - 1); }
+function literal(o) { return { a: o.v, b: -o.v, c: o.v * 2 }; }
+
+print(mul(1, 2), mul(1.5, 2), mul(2, 2.5), mul("3", 2), mul(true, 1), mul(0x7fffffff, 0x7fffffff));
+print(pick({v: 1}), pick({v: 1.5}), pick({v: "s"}), pick({v: 0x7fffffff}), pick({v: 2}));
+print(sum([{v: 1}, {v: 2}]), sum([{v: 1}, {v: 1e30}]), sum([{v: "1"}, {v: {}}]), sum([{v: 3}]));
+print(fact(5), fact(25), fact(5));
+
+var objs = [{v: 1}, {v: 0x7fffffff}, {v: 1.5}, {v: "s"}];
+for (var i = 0; i < objs.length; i++) {
+    var l = literal(objs[i]);
+    print(l.a, l.b, l.c);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Code shared between globals must see the builtins and global variables of
+ * the global it runs in, also when switching back and forth between globals.
+ *
+ * @test
+ * @run
+ */
+
+var script = {
+    name: "shared_global_constants_lib.js",
+    script: "var tenant = arguments[0];\n" +
+            "Math.tenant = tenant;\n" +
+            "function get() { return tenant + ':' + Math.tenant + ':' + (typeof undefined); }\n" +
+            "get"
+};
+
+var getters = [];
+for (var i = 0; i < 4; i++) {
+    getters.push(loadWithNewGlobal(script, "t" + i));
+}
+
+var results = [];
+for (var round = 0; round < 3; round++) {
+    for (var i = 0; i < getters.length; i++) {
+        for (var j = 0; j < 10; j++) {
+            var r = getters[i]();
+            if (r !== "t" + i + ":t" + i + ":undefined") {
+                throw new Error("global " + i + " saw " + r);
+            }
+        }
+        results.push(getters[i]());
+    }
+}
+
+print(results.join(" "));
+print(typeof Math.tenant);
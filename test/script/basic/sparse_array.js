@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Elements of sparse arrays beyond the dense storage limit: values of
+ * different types, deletion, truncation, iteration order and unshift.
+ *
+ * @test
+ * @run
+ */
+
+var base = 10000000;
+var a = [];
+var expected = {};
+var seed = 42;
+function next(n) {
+    seed = (seed * 1103515245 + 12345) % 2147483648;
+    return seed % n;
+}
+
+for (var i = 0; i < 20000; i++) {
+    var key = base + next(5000);
+    switch (next(6)) {
+    case 0:
+        a[key] = i; expected[key] = i; break;
+    case 1:
+        a[key] = i + 0.5; expected[key] = i + 0.5; break;
+    case 2:
+        a[key] = "s" + i; expected[key] = "s" + i; break;
+    case 3:
+        delete a[key]; delete expected[key]; break;
+    default:
+        if (a[key] !== expected[key] || (key in a) !== (key in expected)) {
+            print("mismatch at " + key);
+        }
+    }
+}
+
+var count = 0, last = -1, ordered = true;
+for (var k in a) {
+    if (+k < last) ordered = false;
+    last = +k;
+    if (a[k] !== expected[k]) print("mismatch at " + k);
+    count++;
+}
+print(count === Object.keys(expected).length, ordered);
+
+a.length = base + 2500;
+print(Object.keys(a).every(function(k) { return +k < base + 2500; }));
+
+var b = [];
+b[20000000] = 3;
+b[20000001] = 4;
+b.unshift(9);
+print(b[0], b[20000001], b[20000002], b.length);
+print(Object.keys(b).join());
+
+var l = [];
+l[30000000] = 5;
+l[30000001] = 2147483648 * 4;
+l[30000002] = 0.5;
+l[4294967294] = null;
+print(l[30000000], l[30000001], l[30000002], l[4294967294], l.length);
+print(l.pop(), l.length, l.pop(), l.length);
+
+var c = [];
+c[40000000] = 1;
+c[40000005] = 2;
+c[40000009] = 3;
+c.length = 40000006;
+print(Object.keys(c).join(), c.length);
+var d = c.slice(40000000, 40000006);
+print(d.length, d[0], d[5]);
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014 Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ * 
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/**
+ * Maps are shared between objects built the same way even when no object
+ * using the map is alive in between, and the number of live maps of a
+ * constructor can be queried.
+ *
+ * @test
+ * @option -Dnashorn.debug=true
+ * @fork
+ */
+
+load(__DIR__ + "maputil.js");
+
+function Node() {}
+
+function build(v) {
+    var n = new Node();
+    n.value = v;
+    n.next = null;
+    return n;
+}
+
+function mapId(obj) {
+    // property maps use identity hash codes
+    return Debug.map(obj).hashCode();
+}
+
+var id = mapId(build(1));
+// allocate enough to put the heap under some pressure
+for (var i = 0; i < 100000; i++) {
+    new Array(16);
+}
+if (mapId(build(2)) !== id) {
+    fail("Node map was not shared after its objects died");
+}
+
+assertSameMap(build(1), build(3));
+
+// root, {value}, {value, next}
+Assert.assertEquals(Debug.getLiveMapCount(Node), 3);
+
+var other = new Node();
+other.next = null;
+Assert.assertEquals(Debug.getLiveMapCount(Node), 4);
+Assert.assertEquals(Debug.getLiveMapCount(other), 1);
+
+// objects used as dictionaries still share maps for their common keys
+function Dict() {}
+for (var i = 0; i < 200; i++) {
+    var d = new Dict();
+    d["key" + i] = i;
+}
+var d1 = new Dict();
+var d2 = new Dict();
+d1.key0 = 1;
+d2.key0 = 2;
+assertSameMap(d1, d2);
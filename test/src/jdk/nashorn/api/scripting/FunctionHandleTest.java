@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.api.scripting;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for function handles resolved by nashorn's script engine.
+ */
+public class FunctionHandleTest {
+
+    private static NashornScriptEngine newEngine() {
+        return (NashornScriptEngine)new ScriptEngineManager().getEngineByName("nashorn");
+    }
+
+    @Test
+    public void genericInvokeTest() throws Exception {
+        final NashornScriptEngine e = newEngine();
+        e.eval("function add(a, b) { return a + b; }");
+
+        final FunctionHandle add = e.getFunctionHandle("add", MethodType.genericMethodType(2));
+        assertEquals(add.type(), MethodType.genericMethodType(2));
+        assertEquals(add.invoke("a", "b"), "ab");
+        assertEquals(((Number)add.invoke(1, 2)).intValue(), 3);
+        assertEquals(((Number)add.invoke(1.5, 2)).doubleValue(), 3.5);
+    }
+
+    @Test
+    public void typedMethodHandleTest() throws Throwable {
+        final NashornScriptEngine e = newEngine();
+        e.eval("function mul(a, b) { return a * b; }; function half(x) { return x / 2; }");
+
+        final MethodHandle mul = e.getFunctionHandle("mul", MethodType.methodType(int.class, int.class, int.class)).getMethodHandle();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals((int)mul.invokeExact(i, 3), i * 3);
+        }
+
+        final MethodHandle half = e.getFunctionHandle("half", MethodType.methodType(double.class, int.class)).getMethodHandle();
+        assertEquals((double)half.invokeExact(3), 1.5);
+    }
+
+    @Test
+    public void voidAndStringTest() throws Throwable {
+        final NashornScriptEngine e = newEngine();
+        e.eval("var log = []; function record(s) { log.push(s); } function joined() { return log.join(); }");
+
+        final MethodHandle record = e.getFunctionHandle("record", MethodType.methodType(void.class, String.class)).getMethodHandle();
+        record.invokeExact("a");
+        record.invokeExact("b");
+        final MethodHandle joined = e.getFunctionHandle("joined", MethodType.methodType(String.class)).getMethodHandle();
+        assertEquals((String)joined.invokeExact(), "a,b");
+    }
+
+    @Test
+    public void methodTest() throws Exception {
+        final NashornScriptEngine e = newEngine();
+        e.eval("var counter = { count: 0, inc: function(by) { this.count += by; return this; } }");
+        final Object counter = e.get("counter");
+
+        final FunctionHandle inc = e.getFunctionHandle(counter, "inc", MethodType.genericMethodType(1));
+        final Object result = inc.invoke(2);
+        inc.invoke(3);
+
+        // script objects are returned as mirrors of the same object
+        assertTrue(result instanceof ScriptObjectMirror);
+        assertEquals(((Number)((ScriptObjectMirror)result).getMember("count")).intValue(), 5);
+        assertEquals(((Number)e.eval("counter.count")).intValue(), 5);
+    }
+
+    @Test
+    public void mirrorArgumentsTest() throws Exception {
+        final NashornScriptEngine e = newEngine();
+        e.eval("var obj = { x: 1 }; function same(o) { return o === obj; } function id(o) { return o; }");
+
+        final FunctionHandle same = e.getFunctionHandle("same", MethodType.genericMethodType(1));
+        assertEquals(same.invoke(e.get("obj")), true);
+
+        final FunctionHandle id = e.getFunctionHandle("id", MethodType.genericMethodType(1));
+        assertNull(id.invoke((Object)null));
+        assertNull(e.getFunctionHandle("id", MethodType.genericMethodType(0)).invoke());
+        assertTrue(id.invoke(e.get("obj")) instanceof Map);
+    }
+
+    @Test
+    public void globalTest() throws Exception {
+        final NashornScriptEngine e = newEngine();
+        final Bindings b = e.createBindings();
+        e.eval("var where = 'other'; function getWhere() { return where; }", b);
+        e.eval("var where = 'default'", e.getBindings(ScriptContext.ENGINE_SCOPE));
+
+        final FunctionHandle getWhere = e.getFunctionHandle(b, "getWhere", MethodType.methodType(Object.class));
+        assertEquals(getWhere.invoke(), "other");
+        // the function sees its own global no matter which one is current
+        assertEquals(e.eval("where"), "default");
+    }
+
+    @Test
+    public void errorTest() throws Throwable {
+        final NashornScriptEngine e = newEngine();
+        e.eval("function fail(msg) { throw new TypeError(msg); }");
+
+        final FunctionHandle fail = e.getFunctionHandle("fail", MethodType.genericMethodType(1));
+        try {
+            fail.invoke("bad");
+            fail("expected ScriptException");
+        } catch (final ScriptException se) {
+            assertTrue(se.getMessage().contains("bad"), se.getMessage());
+        }
+
+        try {
+            final Object unused = fail.getMethodHandle().invokeExact((Object)"worse");
+            fail("expected NashornException");
+        } catch (final NashornException ne) {
+            assertTrue(ne.getMessage().contains("worse"), ne.getMessage());
+        }
+
+        // the current global is restored after errors
+        assertEquals(e.eval("typeof fail"), "function");
+    }
+
+    @Test
+    public void noSuchFunctionTest() throws Exception {
+        final NashornScriptEngine e = newEngine();
+        e.eval("var notAFunction = 1");
+
+        try {
+            e.getFunctionHandle("notAFunction", MethodType.genericMethodType(0));
+            fail("expected NoSuchMethodException");
+        } catch (final NoSuchMethodException expected) {
+            // expected
+        }
+
+        try {
+            e.getFunctionHandle("missing", MethodType.genericMethodType(0));
+            fail("expected NoSuchMethodException");
+        } catch (final NoSuchMethodException expected) {
+            // expected
+        }
+
+        try {
+            e.getFunctionHandle("not a script object", "toString", MethodType.genericMethodType(0));
+            fail("expected IllegalArgumentException");
+        } catch (final IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
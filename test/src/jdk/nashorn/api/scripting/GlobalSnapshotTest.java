@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.api.scripting;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.fail;
+
+import javax.script.Bindings;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for snapshots of nashorn globals.
+ *
+ * @test
+ * @run testng jdk.nashorn.api.scripting.GlobalSnapshotTest
+ */
+public class GlobalSnapshotTest {
+
+    private static final String BOOTSTRAP =
+        "var counter = 0;\n" +
+        "var obj = { x: 1, nested: { y: 2 } };\n" +
+        "var arr = [1, 2, { z: 3 }];\n" +
+        "function inc() { return ++counter; }\n" +
+        "var makeAdder = function(n) { return function(x) { return x + n + counter; }; };\n" +
+        "var add10 = makeAdder(10);\n" +
+        "var holder = { v: 1 };\n" +
+        "var bound = function(a) { return this.v + a; }.bind(holder, 10);\n" +
+        "var boundTwice = bound.bind(null);\n" +
+        "var re = /a(b+)/g;\n" +
+        "function match(s) { re.lastIndex = 0; return re.exec(s)[1]; }\n" +
+        "var accessor = { _v: 5, get v() { return this._v; }, set v(x) { this._v = x; } };\n" +
+        "Object.defineProperty(this, 'prop', { get: function() { return obj.x; }, configurable: true });\n" +
+        "Array.prototype.sum = function() { return this.reduce(function(a, b) { return a + b; }, 0); };\n";
+
+    private static NashornScriptEngine newEngine() {
+        return (NashornScriptEngine)new ScriptEngineManager().getEngineByName("nashorn");
+    }
+
+    // numbers may come back as ints or doubles
+    private static int evalInt(final NashornScriptEngine e, final String script, final Bindings b) throws ScriptException {
+        return ((Number)e.eval(script, b)).intValue();
+    }
+
+    private static GlobalSnapshot bootstrap(final NashornScriptEngine e) throws ScriptException {
+        final Bindings b = e.createBindings();
+        e.eval(BOOTSTRAP, b);
+        return e.snapshot(b);
+    }
+
+    @Test
+    public void copyTest() throws ScriptException {
+        final NashornScriptEngine e = newEngine();
+        final Bindings b = e.createBindings();
+        e.eval(BOOTSTRAP, b);
+        final Bindings copy = e.snapshot(b).createBindings();
+
+        assertEquals(evalInt(e, "inc()", copy), 1);
+        assertEquals(evalInt(e, "add10(1)", copy), 12);
+        assertEquals(evalInt(e, "obj.nested.y + arr[2].z", copy), 5);
+        assertEquals(evalInt(e, "bound(1)", copy), 11);
+        assertEquals(evalInt(e, "boundTwice(2)", copy), 11);
+        assertEquals(e.eval("match('xabbb')", copy), "bbb");
+        assertEquals(evalInt(e, "accessor.v = 7; accessor.v", copy), 7);
+        assertEquals(evalInt(e, "prop", copy), 1);
+        assertEquals(evalInt(e, "[1, 2, 3].sum()", copy), 6);
+        assertEquals(e.eval("typeof engine", copy), "object");
+        assertEquals(e.eval("Object.getPrototypeOf(obj) === Object.prototype", copy), true);
+        assertEquals(e.eval("Object.getPrototypeOf(arr) === Array.prototype", copy), true);
+        assertEquals(e.eval("arr instanceof Array && inc instanceof Function", copy), true);
+    }
+
+    @Test
+    public void isolationTest() throws ScriptException {
+        final NashornScriptEngine e = newEngine();
+        final GlobalSnapshot snapshot = bootstrap(e);
+        final Bindings b1 = snapshot.createBindings();
+        final Bindings b2 = snapshot.createBindings();
+        assertNotSame(b1, b2);
+
+        e.eval("inc(); inc(); obj.x = 42; obj.nested.y = 43; arr[2].z = 44; arr.push(4);" +
+               "holder.v = 100; accessor.v = 45; Object.prototype.foo = 'foo'; Array.prototype.sum = null;" +
+               "var added = true; Math.PI2 = 6.28; re.lastIndex = 3", b1);
+
+        assertEquals(evalInt(e, "counter", b1), 2);
+        assertEquals(evalInt(e, "prop", b1), 42);
+        assertEquals(evalInt(e, "bound(1)", b1), 110);
+        assertEquals(evalInt(e, "boundTwice(2)", b1), 110);
+
+        assertEquals(evalInt(e, "counter", b2), 0);
+        assertEquals(evalInt(e, "obj.x + obj.nested.y + arr[2].z", b2), 6);
+        assertEquals(evalInt(e, "arr.length", b2), 3);
+        assertEquals(evalInt(e, "prop", b2), 1);
+        assertEquals(evalInt(e, "bound(1)", b2), 11);
+        assertEquals(evalInt(e, "boundTwice(2)", b2), 11);
+        assertEquals(evalInt(e, "accessor.v", b2), 5);
+        assertEquals(e.eval("typeof ({}).foo", b2), "undefined");
+        assertEquals(evalInt(e, "[1, 2].sum()", b2), 3);
+        assertEquals(e.eval("typeof added", b2), "undefined");
+        assertEquals(e.eval("typeof Math.PI2", b2), "undefined");
+        assertEquals(evalInt(e, "re.lastIndex", b2), 0);
+
+        // a fresh copy is not affected by either
+        assertEquals(evalInt(e, "inc()", snapshot.createBindings()), 1);
+    }
+
+    @Test
+    public void snapshotIsImmutableTest() throws ScriptException {
+        final NashornScriptEngine e = newEngine();
+        final Bindings b = e.createBindings();
+        e.eval(BOOTSTRAP, b);
+        final GlobalSnapshot snapshot = e.snapshot(b);
+
+        e.eval("inc(); obj.x = 2; var later = 1;", b);
+
+        final Bindings copy = snapshot.createBindings();
+        assertEquals(evalInt(e, "counter", copy), 0);
+        assertEquals(evalInt(e, "obj.x", copy), 1);
+        assertEquals(e.eval("typeof later", copy), "undefined");
+    }
+
+    @Test
+    public void bindingsAccessTest() throws ScriptException {
+        final NashornScriptEngine e = newEngine();
+        final GlobalSnapshot snapshot = bootstrap(e);
+        final Bindings b = snapshot.createBindings();
+
+        b.put("fromJava", "hello");
+        assertEquals(e.eval("fromJava + ' ' + match('abb')", b), "hello bb");
+        e.eval("var fromScript = inc() + 10", b);
+        assertEquals(((Number)b.get("fromScript")).intValue(), 11);
+        assertEquals(snapshot.getEngine(), e);
+    }
+
+    @Test
+    public void foreignBindingsTest() {
+        final NashornScriptEngine e = newEngine();
+        try {
+            e.snapshot(new SimpleBindings());
+            fail("expected IllegalArgumentException");
+        } catch (final IllegalArgumentException expected) {
+            // expected
+        }
+
+        try {
+            e.snapshot(newEngine().createBindings());
+            fail("expected IllegalArgumentException");
+        } catch (final IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -593,6 +593,25 @@ public class ScriptEngineTest {
         }
     }
 
+    @Test
+    public void putAfterEvalTest() throws ScriptException {
+        final ScriptEngineManager m = new ScriptEngineManager();
+        final ScriptEngine e = m.getEngineByName("nashorn");
+
+        // global getters linked by earlier evals must see values put from Java
+        for (int i = 0; i < 5; i++) {
+            e.put("x", i);
+            assertEquals(e.eval("x"), i);
+        }
+
+        e.eval("var y = 'script'; function getY() { return y; }");
+        assertEquals(e.eval("getY()"), "script");
+        e.put("y", "java");
+        assertEquals(e.eval("getY()"), "java");
+        e.getBindings(ScriptContext.ENGINE_SCOPE).remove("x");
+        assertEquals(e.eval("typeof x"), "undefined");
+    }
+
     private static void checkProperty(final ScriptEngine e, final String name)
         throws ScriptException {
         String value = System.getProperty(name);
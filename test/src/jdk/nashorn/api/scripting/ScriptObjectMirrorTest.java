@@ -25,7 +25,11 @@
 
 package jdk.nashorn.api.scripting;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -276,4 +280,189 @@ public class ScriptObjectMirrorTest {
             "({ toString: function() { return 'foo' } })");
         assertEquals("foo", obj.to(String.class));
     }
+
+    @Test
+    public void writeJSONTest() throws ScriptException, IOException {
+        final ScriptEngineManager m = new ScriptEngineManager();
+        final ScriptEngine e = m.getEngineByName("nashorn");
+        e.eval("var big = []; for (var i = 0; i < 5000; i++) big.push({ index: i, name: 'item' + i, values: [i, i / 2] })");
+        final ScriptObjectMirror big = (ScriptObjectMirror)e.get("big");
+
+        StringWriter writer = new StringWriter();
+        big.writeJSON(writer, null, 1);
+        assertEquals(writer.toString(), e.eval("JSON.stringify(big, null, 1)"));
+
+        writer = new StringWriter();
+        final Object replacer = e.eval("['b']");
+        ((ScriptObjectMirror)e.eval("({ a: 1, b: [true, 'x'] })")).writeJSON(writer, replacer, null);
+        assertEquals(writer.toString(), "{\"b\":[true,\"x\"]}");
+
+        writer = new StringWriter();
+        ((ScriptObjectMirror)e.eval("(function() {})")).writeJSON(writer, null, null);
+        assertEquals(writer.toString(), "");
+
+        final Writer failing = new Writer() {
+            @Override
+            public void write(final char[] cbuf, final int off, final int len) throws IOException {
+                throw new IOException("write failed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try {
+            big.writeJSON(failing, null, null);
+            fail("should have thrown IOException");
+        } catch (final IOException ioe) {
+            assertEquals(ioe.getMessage(), "write failed");
+        }
+    }
+
+    @Test
+    public void primitiveAccessorsTest() throws ScriptException {
+        final ScriptEngineManager m = new ScriptEngineManager();
+        final ScriptEngine e = m.getEngineByName("nashorn");
+
+        final ScriptObjectMirror obj = (ScriptObjectMirror)e.eval("({ i: 42, d: 3.5, s: '17', l: 4294967296, arr: [1, 2.5, 3] })");
+        assertEquals(obj.getInt("i"), 42);
+        assertEquals(obj.getDouble("d"), 3.5);
+        assertEquals(obj.getInt("d"), 3);
+        assertEquals(obj.getInt("s"), 17);
+        assertEquals(obj.getLong("l"), 4294967296L);
+        assertEquals(obj.getInt("l"), 0);
+        assertEquals(obj.getInt("missing"), 0);
+        assertTrue(Double.isNaN(obj.getDouble("missing")));
+
+        final ScriptObjectMirror arr = (ScriptObjectMirror)obj.getMember("arr");
+        assertEquals(arr.getIntSlot(0), 1);
+        assertEquals(arr.getDoubleSlot(1), 2.5);
+        assertEquals(arr.getLongSlot(2), 3L);
+        assertTrue(Double.isNaN(arr.getDoubleSlot(10)));
+
+        obj.setInt("x", 7);
+        obj.setLong("y", 1L << 40);
+        obj.setDouble("z", 0.25);
+        arr.setIntSlot(0, 10);
+        arr.setLongSlot(3, 11L);
+        arr.setDoubleSlot(4, 12.5);
+
+        e.put("obj", obj);
+        assertEquals(e.eval("obj.x + obj.z"), 7.25);
+        assertEquals(((Number)e.eval("obj.y / 1024")).longValue(), 1L << 30);
+        assertEquals(e.eval("obj.arr.join()"), "10,2.5,3,11,12.5");
+
+        assertTrue(Arrays.equals(obj.getInts("i", "x", "missing"), new int[] { 42, 7, 0 }));
+        assertTrue(Arrays.equals(obj.getLongs("i", "y"), new long[] { 42L, 1L << 40 }));
+        final double[] doubles = obj.getDoubles("d", "z", "missing");
+        assertEquals(doubles[0], 3.5);
+        assertEquals(doubles[1], 0.25);
+        assertTrue(Double.isNaN(doubles[2]));
+    }
+
+    @Test
+    public void primitiveAccessorsErrorTest() throws ScriptException {
+        final ScriptEngineManager m = new ScriptEngineManager();
+        final ScriptEngine e1 = m.getEngineByName("nashorn");
+        final ScriptEngine e2 = m.getEngineByName("nashorn");
+
+        final ScriptObjectMirror obj = (ScriptObjectMirror)e1.eval("({ get bad() { throw new TypeError('bad getter'); } })");
+        // call with the other engine's global current
+        e2.put("obj", obj);
+        try {
+            obj.getDouble("bad");
+            fail("should have thrown");
+        } catch (final NashornException ne) {
+            assertTrue(ne.getMessage().contains("bad getter"));
+        }
+    }
+
+    @Test
+    public void sharedObjectTest() throws Exception {
+        final ScriptEngineManager m = new ScriptEngineManager();
+        final ScriptEngine e = m.getEngineByName("nashorn");
+
+        final ScriptObjectMirror obj = (ScriptObjectMirror)e.eval("Object.seal({ count: 0, ratio: 1.5, name: 'config' })");
+        final ScriptObjectMirror items = (ScriptObjectMirror)e.eval("Object.seal([1, 2, 3])");
+        obj.share();
+        items.share();
+        assertTrue(obj.isShared());
+        assertEquals(obj.getInt("count"), 0);
+        assertEquals(obj.getDouble("ratio"), 1.5);
+        assertEquals(obj.getMember("name"), "config");
+
+        final Thread[] threads = new Thread[4];
+        final Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            final boolean writer = t == 0;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; i++) {
+                            if (writer) {
+                                obj.setInt("count", i);
+                                obj.setMember("ratio", i % 2 == 0 ? "even" : (Object)(i + 0.5));
+                                items.setSlot(i % 3, i);
+                            } else {
+                                assertTrue(obj.getInt("count") >= 0);
+                                final Object ratio = obj.getMember("ratio");
+                                assertTrue(ratio instanceof Number || "even".equals(ratio));
+                                assertEquals(obj.getMember("name"), "config");
+                                assertTrue(items.getSlot(i % 3) instanceof Number);
+                            }
+                        }
+                    } catch (final Throwable th) {
+                        failure[0] = th;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        if (failure[0] != null) {
+            throw new AssertionError(failure[0]);
+        }
+        assertEquals(obj.getInt("count"), 9999);
+        assertEquals(items.getSlot(0), 9999);
+    }
+
+    @Test
+    public void sharedObjectErrorTest() throws ScriptException {
+        final ScriptEngineManager m = new ScriptEngineManager();
+        final ScriptEngine e = m.getEngineByName("nashorn");
+
+        final ScriptObjectMirror extensible = (ScriptObjectMirror)e.eval("({ x: 1 })");
+        try {
+            extensible.share();
+            fail("should have thrown");
+        } catch (final NashornException ne) {
+            assertTrue(ne.getMessage().contains("not sealed"));
+        }
+        assertFalse(extensible.isShared());
+
+        final ScriptObjectMirror obj = (ScriptObjectMirror)e.eval("Object.seal({ x: 1 })");
+        obj.share();
+        e.put("obj", obj);
+        assertEquals(e.eval("Object.seal(obj) === obj && Object.isSealed(obj)"), Boolean.TRUE);
+        assertEquals(e.eval("obj.x = 'one'; obj.x"), "one");
+        try {
+            e.eval("Object.defineProperty(obj, 'x', { writable: false })");
+            fail("should have thrown");
+        } catch (final ScriptException se) {
+            assertTrue(se.getMessage().contains("shared"));
+        }
+
+        final ScriptObjectMirror frozen = (ScriptObjectMirror)e.eval("Object.freeze({ x: 1, y: 2.5 })");
+        frozen.share();
+        e.put("frozen", frozen);
+        assertEquals(e.eval("Object.freeze(frozen); frozen.x = 2; frozen.x + frozen.y"), 3.5);
+    }
 }
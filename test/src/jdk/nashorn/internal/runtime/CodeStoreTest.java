@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package jdk.nashorn.internal.runtime;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * @test
+ * @summary Test for persistent code cache
+ * @run testng/othervm jdk.nashorn.internal.runtime.CodeStoreTest
+ */
+public class CodeStoreTest {
+
+    private static final String CODE_CACHE_PROPERTY = "nashorn.persistent.code.cache";
+    private static final String[] ENGINE_OPTIONS = new String[]{"--persistent-code-cache"};
+
+    private static final String CODE =
+        "function add(a, b) { return a + b; }\n" +
+        "var obj = { x: 1, y: 'two', z: undefined, arr: [1, 2, , 4] };\n" +
+        "function Point(x, y) { this.x = x; this.y = y; }\n" +
+        "add(obj.x, new Point(20, 21).y) + obj.y + obj.arr.length + typeof obj.z;";
+
+    private static final String EXPECTED = "22two4undefined";
+
+    private Path codeCache;
+    private String oldCacheProperty;
+
+    @BeforeTest
+    public void setupTest() throws IOException {
+        codeCache = Files.createTempDirectory("nashorn_code_cache");
+        oldCacheProperty = System.setProperty(CODE_CACHE_PROPERTY, codeCache.toString());
+    }
+
+    @AfterTest
+    public void cleanupTest() {
+        if (oldCacheProperty == null) {
+            System.clearProperty(CODE_CACHE_PROPERTY);
+        } else {
+            System.setProperty(CODE_CACHE_PROPERTY, oldCacheProperty);
+        }
+        final File[] files = codeCache.toFile().listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        codeCache.toFile().delete();
+    }
+
+    private static int cachedFiles(final Path dir) {
+        return countFiles(dir, false);
+    }
+
+    private static int typeProfiles(final Path dir) {
+        return countFiles(dir, true);
+    }
+
+    private static int countFiles(final Path dir, final boolean typeProfiles) {
+        final File[] files = dir.toFile().listFiles();
+        int count = 0;
+        if (files != null) {
+            for (final File file : files) {
+                if (file.getName().endsWith("-types") == typeProfiles) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int recompilations(final ScriptEngine engine, final String name) {
+        return ((ScriptObjectMirror)engine.get(name)).to(ScriptFunction.class).getRecompilations();
+    }
+
+    @Test
+    public void storeAndLoadTest() throws ScriptException {
+        final NashornScriptEngineFactory fac = new NashornScriptEngineFactory();
+
+        final ScriptEngine e1 = fac.getScriptEngine(ENGINE_OPTIONS);
+        final int before = cachedFiles(codeCache);
+        assertEquals(e1.eval(CODE), EXPECTED);
+        assertEquals(cachedFiles(codeCache), before + 1);
+
+        // a new engine has a new context and can only get the script from the code cache
+        final ScriptEngine e2 = fac.getScriptEngine(ENGINE_OPTIONS);
+        assertEquals(e2.eval(CODE), EXPECTED);
+        assertEquals(cachedFiles(codeCache), before + 1);
+
+        // changed source gets a separate cache entry
+        assertEquals(e2.eval("// changed\n" + CODE), EXPECTED);
+        assertEquals(cachedFiles(codeCache), before + 2);
+    }
+
+    @Test(dependsOnMethods = "storeAndLoadTest")
+    public void evalNotStoredTest() throws ScriptException {
+        final NashornScriptEngineFactory fac = new NashornScriptEngineFactory();
+        final ScriptEngine e = fac.getScriptEngine(ENGINE_OPTIONS);
+        final int before = cachedFiles(codeCache);
+        e.eval("eval('var evaluated = 42'); evaluated;");
+        // only the outer script is stored, never the code passed to eval
+        assertEquals(cachedFiles(codeCache), before + 1);
+        assertTrue(e.get("evaluated") instanceof Number);
+    }
+
+    @Test(dependsOnMethods = "evalNotStoredTest")
+    public void typeProfileTest() throws ScriptException {
+        final String code =
+            "function sum(o) { return o.x + o.y; }\n" +
+            "sum({ x: 1, y: 2 }) + ':' + sum({ x: 1.5, y: 2 }) + ':' + sum({ x: 'a', y: 2 });";
+        final String expected = "3:3.5:a2";
+
+        final NashornScriptEngineFactory fac = new NashornScriptEngineFactory();
+        final ScriptEngine e1 = fac.getScriptEngine(ENGINE_OPTIONS);
+        final int before = typeProfiles(codeCache);
+        assertEquals(e1.eval(code), expected);
+        assertTrue(recompilations(e1, "sum") > 0);
+        // the types widened by the deoptimizations of sum are stored next to the script, but only
+        // when the engine compiles its next script
+        assertEquals(typeProfiles(codeCache), before);
+        e1.eval("sum");
+        assertEquals(typeProfiles(codeCache), before + 1);
+
+        // a new engine compiles sum with the stored types right away
+        final ScriptEngine e2 = fac.getScriptEngine(ENGINE_OPTIONS);
+        assertEquals(e2.eval(code), expected);
+        assertEquals(recompilations(e2, "sum"), 0);
+        assertEquals(typeProfiles(codeCache), before + 1);
+    }
+}
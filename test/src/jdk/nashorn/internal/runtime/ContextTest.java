@@ -28,7 +28,13 @@ package jdk.nashorn.internal.runtime;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import jdk.nashorn.internal.objects.Global;
 import jdk.nashorn.internal.runtime.options.Options;
 import org.testng.annotations.Test;
@@ -106,6 +112,45 @@ public class ContextTest {
         }
     }
 
+    // compile the same and different sources from several threads at once
+    @Test
+    public void concurrentCompileTest() throws Exception {
+        final Options options = new Options("");
+        final ErrorManager errors = new ErrorManager();
+        final Context cx = new Context(options, errors, Thread.currentThread().getContextClassLoader());
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            final List<Future<Object[]>> results = new ArrayList<>();
+            for (int i = 0; i < threads * 4; i++) {
+                final int n = i;
+                results.add(executor.submit(new Callable<Object[]>() {
+                    @Override
+                    public Object[] call() {
+                        final Global oldGlobal = Context.getGlobal();
+                        Context.setGlobal(cx.createGlobal());
+                        try {
+                            final Object shared = eval(cx, "<concurrentCompileTest>", "function f(x) { return x * 2 }; f(21)");
+                            final Object own = eval(cx, "<concurrentCompileTest" + n + ">", "var s = 0; for (var j = 0; j < " + n + "; j++) { s += j }; s");
+                            return new Object[] { shared, own };
+                        } finally {
+                            Context.setGlobal(oldGlobal);
+                        }
+                    }
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                final Object[] result = results.get(i).get();
+                assertEquals(((Number)result[0]).intValue(), 42);
+                assertEquals(((Number)result[1]).intValue(), i * (i - 1) / 2);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private Object eval(final Context cx, final String name, final String code) {
         final Source source = new Source(name, code);
         final ScriptObject global = Context.getGlobal();
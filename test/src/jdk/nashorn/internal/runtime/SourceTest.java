@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.nashorn.internal.runtime;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.testng.annotations.Test;
+
+/**
+ * @test
+ * @summary Test for Source identity and lazily loaded file sources
+ * @run testng jdk.nashorn.internal.runtime.SourceTest
+ */
+public class SourceTest {
+
+    private static final String CODE = "var x = 1;\nfunction f() { return x; }\nf();\n";
+
+    @Test
+    public void stringSourceTest() {
+        final Source s1 = new Source("test", CODE);
+        final Source s2 = new Source("test", CODE.toCharArray());
+        final Source s3 = new Source("test", CODE + " ");
+        final Source s4 = new Source("other", CODE);
+
+        assertEquals(s1, s2);
+        assertEquals(s1.hashCode(), s2.hashCode());
+        assertEquals(s1.getDigest(), s2.getDigest());
+        assertFalse(s1.equals(s3));
+        assertFalse(s1.getDigest().equals(s3.getDigest()));
+        assertFalse(s1.equals(s4));
+    }
+
+    @Test
+    public void fileSourceTest() throws IOException {
+        final File file = createFile(CODE);
+        try {
+            final Source s1 = new Source("test", file);
+            final Source s2 = new Source("test", file);
+            final Source s3 = new Source("test", file.toURI().toURL());
+
+            assertEquals(s1, s2);
+            assertEquals(s1, s3);
+            assertEquals(s1.hashCode(), s3.hashCode());
+            assertEquals(s1.getDigest(), s3.getDigest());
+
+            assertEquals(s1.getString(), CODE);
+            assertEquals(s1.getLength(), CODE.length());
+            assertEquals(s1.getLine(CODE.indexOf("f()")), 2);
+            assertEquals(s1.getSourceLine(CODE.indexOf("f();")), "f();");
+            assertEquals(s3.getString(0, 3), "var");
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void modifiedFileTest() throws IOException {
+        final File file = createFile(CODE);
+        try {
+            final Source source = new Source("test", file);
+            final String digest = source.getDigest();
+            Files.write(file.toPath(), (CODE + "f();\n").getBytes(StandardCharsets.UTF_8));
+
+            // content read at first load is kept, the file is not read again
+            assertEquals(source.getString(), CODE);
+            assertEquals(source.getLength(), CODE.length());
+            assertEquals(source.getDigest(), digest);
+
+            // a new source sees the modified file
+            assertEquals(new Source("test", file).getString(), CODE + "f();\n");
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void missingFileTest() throws IOException {
+        final File file = File.createTempFile("source", ".js");
+        file.delete();
+        try {
+            new Source("test", file);
+            fail("should have thrown");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("is not a file"));
+        }
+    }
+
+    private static File createFile(final String content) throws IOException {
+        final File file = File.createTempFile("source", ".js");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package jdk.nashorn.internal.runtime.regexp;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+import jdk.nashorn.internal.runtime.ParserException;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the compiled regexp cache in RegExpFactory.
+ *
+ * @test
+ * @run testng jdk.nashorn.internal.runtime.regexp.RegExpFactoryTest
+ */
+public class RegExpFactoryTest {
+
+    /**
+     * Regexps created from a cached pattern must not share flags or matcher state
+     */
+    @Test
+    public void testCachedRegExpState() {
+        final RegExp first = RegExpFactory.create("a(b)", "g");
+        final RegExp second = RegExpFactory.create("a(b)", "g");
+        assertNotSame(first, second);
+
+        first.setGlobal(false);
+        assertTrue(second.isGlobal());
+
+        final RegExpMatcher m1 = first.match("xab");
+        final RegExpMatcher m2 = second.match("abab");
+        assertNotSame(m1, m2);
+        assertTrue(m1.search(0));
+        assertTrue(m2.search(1));
+        assertEquals(m1.start(), 1);
+        assertEquals(m2.start(), 2);
+        assertEquals(m2.group(1), "b");
+    }
+
+    /**
+     * The same pattern with different flags must not be shared
+     */
+    @Test
+    public void testFlagsArePartOfKey() {
+        assertFalse(RegExpFactory.create("x", "").match("X").search(0));
+        assertTrue(RegExpFactory.create("x", "i").match("X").search(0));
+        assertFalse(RegExpFactory.create("x", "").isIgnoreCase());
+    }
+
+    /**
+     * A pattern containing '/' must not hide invalid flags of another pattern
+     */
+    @Test
+    public void testSlashInPattern() {
+        assertTrue(RegExpFactory.create("a/g", "").match("a/g").search(0));
+        try {
+            RegExpFactory.create("a", "g/");
+            throw new AssertionError("expected ParserException");
+        } catch (final ParserException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Invalid patterns must fail every time rather than being cached
+     */
+    @Test
+    public void testInvalidPattern() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                RegExpFactory.create("(", "");
+                throw new AssertionError("expected ParserException");
+            } catch (final ParserException e) {
+                // expected
+            }
+        }
+    }
+}
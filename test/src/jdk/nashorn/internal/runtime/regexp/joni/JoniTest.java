@@ -26,6 +26,7 @@
 package jdk.nashorn.internal.runtime.regexp.joni;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import org.testng.annotations.Test;
@@ -49,4 +50,72 @@ public class JoniTest {
         new Regex("(?:ZFVR.(\\d+\\.\\d+))|(?:(?:Sversbk|TenaCnenqvfb|Vprjrnfry).(\\d+\\.\\d+))|(?:Bcren.(\\d+\\.\\d+))|(?:NccyrJroXvg.(\\d+(?:\\.\\d+)?))").dumpTree();
         new Regex("(?:ZFVR.(\\d+\\.\\d+))|(?:(?:Sversbk|TenaCnenqvfb|Vprjrnfry).(\\d+\\.\\d+))|(?:Bcren.(\\d+\\.\\d+))|(?:NccyrJroXvg.(\\d+(?:\\.\\d+)?))").dumpByteCode();
     }
+
+    private static Regex regex(final String pattern, final int option) {
+        final char[] chars = pattern.toCharArray();
+        return new Regex(chars, 0, chars.length, option, Syntax.JAVASCRIPT);
+    }
+
+    @Test
+    public void testMatcher() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        final String text = sb.append("needle aAb Xy\n").toString();
+        final int needle = text.indexOf("needle");
+
+        Matcher matcher = regex("needle", Option.SINGLELINE).matcher(text);
+        assertEquals(matcher.search(0, text.length(), Option.NONE), needle);
+        assertEquals(matcher.getEnd(), needle + 6);
+
+        matcher = regex("NEEDLE", Option.SINGLELINE | Option.IGNORECASE).matcher(text);
+        assertEquals(matcher.search(0, text.length(), Option.NONE), needle);
+
+        matcher = regex("(a)\\1b", Option.SINGLELINE | Option.IGNORECASE).matcher(text);
+        assertEquals(matcher.search(0, text.length(), Option.NONE), needle + 7);
+        assertEquals(matcher.getRegion().beg[1], needle + 7);
+
+        matcher = regex("X\\w\\n", Option.SINGLELINE).matcher(text);
+        assertEquals(matcher.search(0, text.length(), Option.NONE), needle + 11);
+
+        matcher = regex("line 5$", Option.SINGLELINE).matcher(text);
+        assertEquals(matcher.search(0, text.length(), Option.NONE), -1);
+        assertTrue(matcher.search(100, text.length(), Option.NONE) == -1);
+    }
+
+    @Test
+    public void testGeneratedMatcher() {
+        final String[] patterns = {
+            "abc", "a(b+)c", "^\\s*(\\w+)\\s*=\\s*(.*)$", "(\\d{2,4})-(\\d\\d)", "(a|ab)(c|bcd)(d*)",
+            "[^a-z]+", "(?:foo|bar)+baz", "\\bword\\b", "(a)\\1", "(?=ab)a", "(?!ab)a.", ".*end", "(.)(.)(.)\\3\\2\\1"
+        };
+        final String[] inputs = {
+            "abc", "xabbbcy", "  key = value ", "2014-10", "abcd", "Hello WORLD 123", "foobarfoobaz", "a word here",
+            "aa", "abac", "the end", "abccba", ""
+        };
+
+        for (final String pattern : patterns) {
+            final Regex interpreted = regex(pattern, Option.SINGLELINE);
+            final Regex generated = regex(pattern, Option.SINGLELINE);
+            assertTrue(generated.countSearch(1), pattern);
+            assertFalse(generated.countSearch(1), pattern);
+
+            for (final String input : inputs) {
+                for (int start = 0; start <= input.length(); start++) {
+                    final Matcher expected = interpreted.matcher(input);
+                    final Matcher actual = generated.matcher(input);
+                    final String message = pattern + " on \"" + input + "\" from " + start;
+                    assertEquals(actual.search(start, input.length(), Option.NONE), expected.search(start, input.length(), Option.NONE), message);
+                    assertEquals(actual.getEnd(), expected.getEnd(), message);
+                    if (expected.getRegion() != null) {
+                        for (int i = 0; i < expected.getRegion().numRegs; i++) {
+                            assertEquals(actual.getRegion().beg[i], expected.getRegion().beg[i], message);
+                            assertEquals(actual.getRegion().end[i], expected.getRegion().end[i], message);
+                        }
+                    }
+                }
+            }
+        }
+    }
 }